@@ -19,6 +19,9 @@ import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
 import ai.djl.nn.Block;
+import ai.djl.nn.Parameter;
+import ai.djl.nn.ParameterInputStream;
+import ai.djl.nn.ParameterOutputStream;
 import ai.djl.nn.SymbolBlock;
 import ai.djl.training.ParameterStore;
 import ai.djl.training.Trainer;
@@ -33,15 +36,21 @@ import org.slf4j.LoggerFactory;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -49,12 +58,15 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 /** {@code BaseModel} is the basic implementation of {@link Model}. */
 public abstract class BaseModel implements Model {
 
     private static final Logger logger = LoggerFactory.getLogger(BaseModel.class);
-    private static final int MODEL_VERSION = 1;
+    private static final int MODEL_VERSION = 2;
+    private static final int STREAM_MODEL_VERSION = 1;
+    private static final int PAGE_SIZE = 4096;
 
     protected Path modelDir;
     protected Block block;
@@ -248,10 +260,19 @@ public abstract class BaseModel implements Model {
 
         String fileName = String.format(Locale.ROOT, "%s-%04d.params", newModelName, epoch);
         Path paramFile = modelPath.resolve(fileName);
-        try (DataOutputStream dos =
-                new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(paramFile)))) {
+        // older releases can only read the stream format, the mapped format is opt-in
+        boolean mapped = Boolean.parseBoolean(getProperty("MappedParameters"));
+        try (FileChannel channel =
+                FileChannel.open(
+                        paramFile,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream dos =
+                    new DataOutputStream(
+                            new BufferedOutputStream(Channels.newOutputStream(channel)));
             dos.writeBytes("DJL@");
-            dos.writeInt(MODEL_VERSION);
+            dos.writeInt(mapped ? MODEL_VERSION : STREAM_MODEL_VERSION);
             dos.writeUTF(newModelName);
             dos.writeUTF(dataType.name());
             inputData = block.describeInput();
@@ -272,7 +293,12 @@ public abstract class BaseModel implements Model {
                 dos.writeUTF(entry.getValue());
             }
 
-            block.saveParameters(dos);
+            if (mapped) {
+                writeMappedParameters(channel, dos);
+            } else {
+                block.saveParameters(dos);
+                dos.flush();
+            }
         }
         modelDir = modelPath.toAbsolutePath();
     }
@@ -328,6 +354,22 @@ public abstract class BaseModel implements Model {
         return modelDir.resolve(String.format(Locale.ROOT, "%s-%04d.params", prefix, epoch));
     }
 
+    /**
+     * Loads the parameters of the block from a parameter file saved by {@link #save(Path, String)}.
+     *
+     * <p>If the model was saved with the {@code MappedParameters} property set to {@code true}, the
+     * arrays of the parameters are memory mapped from the file. They are created when the file is
+     * loaded, or when they are first used if the {@code lazyLoad} option is {@code true}. With lazy
+     * loading, parameters of sub-blocks that are never used are never read. The {@code
+     * parallelLoad} option creates the arrays in parallel, for engines that can create arrays from
+     * multiple threads.
+     *
+     * @param paramFile the parameter file
+     * @param options the load options
+     * @return {@code false} if the file is not a DJL parameter file
+     * @throws IOException if the file cannot be read
+     * @throws MalformedModelException if the parameters do not match the block
+     */
     protected boolean readParameters(Path paramFile, Map<String, ?> options)
             throws IOException, MalformedModelException {
         logger.debug("Try to load model from {}", paramFile);
@@ -340,7 +382,7 @@ public abstract class BaseModel implements Model {
             }
 
             int version = dis.readInt();
-            if (version != MODEL_VERSION) {
+            if (version != MODEL_VERSION && version != STREAM_MODEL_VERSION) {
                 throw new IOException("Unsupported model version: " + version);
             }
 
@@ -364,9 +406,111 @@ public abstract class BaseModel implements Model {
                 properties.put(key, value);
             }
 
-            block.loadParameters(manager, dis);
+            if (version == STREAM_MODEL_VERSION) {
+                block.loadParameters(manager, dis);
+            } else {
+                block.loadParameters(manager, mapParameters(paramFile, dis));
+                if (!getBooleanOption(options, "lazyLoad")) {
+                    Stream<Parameter> parameters = block.getParameters().values().stream();
+                    if (getBooleanOption(options, "parallelLoad")) {
+                        parameters = parameters.parallel();
+                    }
+                    parameters.filter(Parameter::isInitialized).forEach(Parameter::getArray);
+                }
+            }
             logger.debug("DJL model loaded successfully");
         }
         return true;
     }
+
+    private void writeMappedParameters(FileChannel channel, DataOutputStream dos)
+            throws IOException {
+        // the block tree only holds references to the arrays, which are written after it
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ParameterOutputStream pos = new ParameterOutputStream(bos);
+        block.saveParameters(pos);
+        pos.flush();
+
+        // lengths come from the shapes, so each array is only copied to the heap when written
+        List<NDArray> arrays = pos.getArrays();
+        long[] offsets = new long[arrays.size()];
+        long[] lengths = new long[arrays.size()];
+        long offset = 0;
+        dos.writeByte(ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? 0 : 1);
+        dos.writeInt(arrays.size());
+        for (int i = 0; i < offsets.length; ++i) {
+            NDArray array = arrays.get(i);
+            DataType type = array.getDataType();
+            offsets[i] = offset;
+            lengths[i] = array.size() * type.getNumOfBytes();
+            dos.writeUTF(type.name());
+            dos.write(array.getShape().getEncoded());
+            dos.writeLong(offset);
+            dos.writeLong(lengths[i]);
+            offset = alignToPage(offset + lengths[i]);
+        }
+        long dataOffset = alignToPage(dos.size() + 8L + bos.size());
+        dos.writeLong(dataOffset);
+        bos.writeTo(dos);
+        dos.write(new byte[(int) (dataOffset - dos.size())]);
+        dos.flush();
+
+        // page aligned, so each array can be memory mapped on load
+        for (int i = 0; i < offsets.length; ++i) {
+            ByteBuffer buffer = arrays.get(i).toByteBuffer();
+            if (buffer.remaining() != lengths[i]) {
+                throw new IllegalStateException(
+                        "Unexpected parameter size: "
+                                + buffer.remaining()
+                                + ", expected: "
+                                + lengths[i]);
+            }
+            long position = dataOffset + offsets[i];
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        }
+    }
+
+    private ParameterInputStream mapParameters(Path paramFile, DataInputStream dis)
+            throws IOException {
+        ByteOrder byteOrder = dis.readByte() == 0 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+        int count = dis.readInt();
+        DataType[] dataTypes = new DataType[count];
+        Shape[] shapes = new Shape[count];
+        long[] offsets = new long[count];
+        long[] lengths = new long[count];
+        for (int i = 0; i < count; ++i) {
+            dataTypes[i] = DataType.valueOf(dis.readUTF());
+            shapes[i] = Shape.decode(dis);
+            offsets[i] = dis.readLong();
+            lengths[i] = dis.readLong();
+        }
+        long dataOffset = dis.readLong();
+
+        ParameterInputStream pis = new ParameterInputStream(dis, byteOrder);
+        // a private mapping lets engines use the data in place, even if they update it
+        boolean writable = Files.isWritable(paramFile);
+        FileChannel.MapMode mode =
+                writable ? FileChannel.MapMode.PRIVATE : FileChannel.MapMode.READ_ONLY;
+        try (FileChannel channel =
+                writable
+                        ? FileChannel.open(
+                                paramFile, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                        : FileChannel.open(paramFile, StandardOpenOption.READ)) {
+            for (int i = 0; i < count; ++i) {
+                ByteBuffer data = channel.map(mode, dataOffset + offsets[i], lengths[i]);
+                pis.addArray(data, shapes[i], dataTypes[i]);
+            }
+        }
+        return pis;
+    }
+
+    private static long alignToPage(long offset) {
+        return (offset + PAGE_SIZE - 1) / PAGE_SIZE * PAGE_SIZE;
+    }
+
+    private static boolean getBooleanOption(Map<String, ?> options, String key) {
+        return options != null && Boolean.parseBoolean(String.valueOf(options.get(key)));
+    }
 }
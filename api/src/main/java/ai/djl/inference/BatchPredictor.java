@@ -0,0 +1,260 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.inference;
+
+import ai.djl.metric.Metrics;
+import ai.djl.metric.Unit;
+import ai.djl.translate.TranslateException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A thread-safe {@code BatchPredictor} that coalesces concurrent single-item requests into batches.
+ *
+ * <p>A {@link Predictor} is not thread-safe and its {@link Predictor#predict(Object)} runs a
+ * forward pass with batch size 1. {@code BatchPredictor} owns a single {@link Predictor} and a
+ * worker thread. Callers from any thread enqueue inputs with {@link #predictAsync(Object)}; the
+ * worker collects them until either {@code maxBatchSize} inputs are queued or {@code maxDelay} has
+ * elapsed since the first input of the batch arrived, then runs them together with {@link
+ * Predictor#batchPredict(List)}. With a {@link ai.djl.translate.Batchifier}, this is a single
+ * forward pass per batch.
+ *
+ * <pre>
+ * try (BatchPredictor&lt;Image, Classifications&gt; predictor =
+ *         new BatchPredictor&lt;&gt;(model.newPredictor(translator), 32, 5, TimeUnit.MILLISECONDS)) {
+ *     CompletableFuture&lt;Classifications&gt; result = predictor.predictAsync(image);
+ * }
+ * </pre>
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+public class BatchPredictor<I, O> implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchPredictor.class);
+
+    private Predictor<I, O> predictor;
+    private int maxBatchSize;
+    private long maxDelayNanos;
+    private BlockingQueue<Request<I, O>> queue;
+    private Thread worker;
+    private Metrics metrics;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new instance of {@code BatchPredictor}.
+     *
+     * <p>The {@code BatchPredictor} takes ownership of the given {@link Predictor} and closes it
+     * when it is closed. The {@link Predictor} must not be used by other threads.
+     *
+     * @param predictor the predictor used to run the batches
+     * @param maxBatchSize the maximum number of inputs in a batch
+     * @param maxDelay the maximum time to wait for more inputs after the first input of a batch
+     * @param unit the time unit of {@code maxDelay}
+     */
+    public BatchPredictor(
+            Predictor<I, O> predictor, int maxBatchSize, long maxDelay, TimeUnit unit) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        if (maxDelay < 0) {
+            throw new IllegalArgumentException("maxDelay must not be negative: " + maxDelay);
+        }
+        this.predictor = predictor;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = unit.toNanos(maxDelay);
+        queue = new LinkedBlockingQueue<>();
+        worker = new Thread(this::run, "djl-batch-predictor");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Predicts an item for inference asynchronously.
+     *
+     * @param input the input
+     * @return a {@code CompletableFuture} that completes with the output, or exceptionally with a
+     *     {@link TranslateException} if the batch containing the input failed
+     */
+    public CompletableFuture<O> predictAsync(I input) {
+        CompletableFuture<O> future = new CompletableFuture<>();
+        // close() drains the queue once no request can be added anymore
+        synchronized (this) {
+            if (closed) {
+                future.completeExceptionally(
+                        new IllegalStateException("BatchPredictor is closed."));
+                return future;
+            }
+            queue.add(new Request<>(input, future));
+        }
+        return future;
+    }
+
+    /**
+     * Predicts an item for inference and waits for the result.
+     *
+     * @param input the input
+     * @return the output object defined by the user
+     * @throws TranslateException if an error occurs during prediction
+     */
+    public O predict(I input) throws TranslateException {
+        try {
+            return predictAsync(input).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslateException("Interrupted while waiting for prediction", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TranslateException) {
+                throw (TranslateException) cause;
+            }
+            throw new TranslateException(cause);
+        }
+    }
+
+    /**
+     * Attaches a Metrics param to use for benchmark.
+     *
+     * <p>In addition to the metrics collected by the {@link Predictor}, the {@code BatchSize} of
+     * each batch and the {@code QueueTime} of each request are recorded.
+     *
+     * @param metrics the Metrics class
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+        predictor.setMetrics(metrics);
+    }
+
+    /**
+     * Returns the number of requests waiting to be batched.
+     *
+     * @return the number of requests waiting to be batched
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Closes the {@code BatchPredictor} and the underlying {@link Predictor}.
+     *
+     * <p>Requests that were already queued are still processed before the worker thread exits.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            worker.interrupt();
+        }
+        List<Request<I, O>> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        for (Request<I, O> request : pending) {
+            request.future.completeExceptionally(
+                    new IllegalStateException("BatchPredictor is closed."));
+        }
+        predictor.close();
+    }
+
+    private void run() {
+        List<Request<I, O>> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (true) {
+                Request<I, O> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Request<I, O> next =
+                            remaining > 0
+                                    ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                                    : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                processBatch(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            logger.debug("BatchPredictor worker interrupted.");
+            Thread.currentThread().interrupt();
+            for (Request<I, O> request : batch) {
+                request.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void processBatch(List<Request<I, O>> batch) {
+        int size = batch.size();
+        List<I> inputs = new ArrayList<>(size);
+        long begin = System.nanoTime();
+        for (Request<I, O> request : batch) {
+            inputs.add(request.input);
+            if (metrics != null) {
+                long queueTime = (begin - request.timestamp) / 1000;
+                metrics.addMetric("QueueTime", queueTime, Unit.MICROSECONDS);
+            }
+        }
+        if (metrics != null) {
+            metrics.addMetric("BatchSize", size, Unit.COUNT);
+        }
+
+        try {
+            List<O> outputs = predictor.batchPredict(inputs);
+            for (int i = 0; i < size; ++i) {
+                batch.get(i).future.complete(outputs.get(i));
+            }
+        } catch (TranslateException | RuntimeException e) {
+            logger.debug("Batch prediction failed.", e);
+            for (Request<I, O> request : batch) {
+                request.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class Request<I, O> {
+
+        I input;
+        CompletableFuture<O> future;
+        long timestamp;
+
+        Request(I input, CompletableFuture<O> future) {
+            this.input = input;
+            this.future = future;
+            timestamp = System.nanoTime();
+        }
+    }
+}
@@ -14,6 +14,8 @@ package ai.djl.inference;
 
 import ai.djl.Device;
 import ai.djl.Model;
+import ai.djl.metric.Dimension;
+import ai.djl.metric.Metric;
 import ai.djl.metric.Metrics;
 import ai.djl.metric.Unit;
 import ai.djl.ndarray.LazyNDArray;
@@ -23,6 +25,7 @@ import ai.djl.ndarray.NDManager;
 import ai.djl.nn.Block;
 import ai.djl.training.ParameterStore;
 import ai.djl.translate.Batchifier;
+import ai.djl.translate.BucketBatchifier;
 import ai.djl.translate.TranslateException;
 import ai.djl.translate.Translator;
 import ai.djl.translate.TranslatorContext;
@@ -173,6 +176,15 @@ public class Predictor<I, O> implements AutoCloseable {
                 return ret;
             }
 
+            if (batchifier instanceof BucketBatchifier && inputs.size() > 1) {
+                List<O> ret = predictBuckets(context, (BucketBatchifier) batchifier, inputs);
+                if (metrics != null) {
+                    long duration = (System.nanoTime() - begin) / 1000;
+                    metrics.addMetric("Total", duration, Unit.MICROSECONDS);
+                }
+                return ret;
+            }
+
             timestamp = System.nanoTime();
             NDList inputBatch = processInputs(context, inputs);
             preprocessEnd(inputBatch);
@@ -217,6 +229,70 @@ public class Predictor<I, O> implements AutoCloseable {
         return translator.getBatchifier().batchify(preprocessed);
     }
 
+    @SuppressWarnings("PMD.SignatureDeclareThrowsException")
+    private List<O> predictBuckets(
+            TranslatorContext ctx, BucketBatchifier batchifier, List<I> inputs) throws Exception {
+        long begin = System.nanoTime();
+        NDList[] preprocessed = new NDList[inputs.size()];
+        for (int i = 0; i < preprocessed.length; ++i) {
+            preprocessed[i] = translator.processInput(ctx, inputs.get(i));
+        }
+        // each stage is timed per bucket and reported once as the sum over all buckets
+        long preprocess = System.nanoTime() - begin;
+        long inference = 0;
+        long postprocess = 0;
+
+        // run each bucket as its own batch, and put the outputs back in the order of the inputs
+        List<O> ret = new ArrayList<>(Collections.nCopies(preprocessed.length, null));
+        for (int[] indices : batchifier.group(preprocessed)) {
+            long start = System.nanoTime();
+            NDList[] bucket = new NDList[indices.length];
+            for (int i = 0; i < indices.length; ++i) {
+                bucket[i] = preprocessed[indices[i]];
+            }
+            NDList inputBatch = batchifier.batchify(bucket);
+            if (metrics != null) {
+                waitToRead(inputBatch);
+            }
+            long batched = System.nanoTime();
+
+            NDList result = predictInternal(ctx, inputBatch);
+            if (metrics != null) {
+                waitToRead(result);
+            }
+            long predicted = System.nanoTime();
+
+            List<O> outputs = processOutputs(ctx, result);
+            for (int i = 0; i < indices.length; ++i) {
+                ret.set(indices[i], outputs.get(i));
+            }
+            long end = System.nanoTime();
+            preprocess += batched - start;
+            inference += predicted - batched;
+            postprocess += end - predicted;
+
+            if (metrics != null) {
+                long length = 0;
+                for (NDList input : bucket) {
+                    length = Math.max(length, batchifier.getLength(input));
+                }
+                long padded = batchifier.getPaddedLength(length);
+                Dimension dimension = new Dimension("Bucket", String.valueOf(padded));
+                long duration = (end - start) / 1000;
+                metrics.addMetric(
+                        new Metric("BucketBatchSize", indices.length, Unit.COUNT, dimension));
+                metrics.addMetric(
+                        new Metric("BucketLatency", duration, Unit.MICROSECONDS, dimension));
+            }
+        }
+        if (metrics != null) {
+            metrics.addMetric("Preprocess", preprocess / 1000, Unit.MICROSECONDS);
+            metrics.addMetric("Inference", inference / 1000, Unit.MICROSECONDS);
+            metrics.addMetric("Postprocess", postprocess / 1000, Unit.MICROSECONDS);
+        }
+        return ret;
+    }
+
     @SuppressWarnings("PMD.SignatureDeclareThrowsException")
     private List<O> processOutputs(TranslatorContext ctx, NDList list) throws Exception {
         NDList[] unbatched = translator.getBatchifier().unbatchify(list);
@@ -0,0 +1,429 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Metrics} implementation that aggregates values into fixed-memory histograms instead of
+ * storing every {@link Metric}.
+ *
+ * <p>Each metric name is backed by a striped log-linear histogram (similar to HdrHistogram) and a
+ * set of counters. Values are bucketed by their binary exponent and the top 6 bits of their
+ * mantissa, so percentiles are reported with a relative error below 1%. Recording a value is
+ * lock-free and does not allocate once the buckets for its magnitude have been created, and the
+ * memory used by a metric does not grow with the number of samples.
+ *
+ * <p>Since the individual samples are not kept, {@link #getMetric(String)} only returns the first
+ * {@code retainedSamples} samples recorded for a name since the last {@link #reset()}, not the full
+ * series. {@link #latestMetric(String)}, {@link #percentile(String, int)}, {@link #mean(String)}
+ * and {@link #count(String)} reflect all the samples recorded. Callers that need every value, for
+ * example to dump them to a file, should use {@link Metrics} instead.
+ *
+ * <p>{@code HistogramMetrics} can be used anywhere a {@link Metrics} is accepted, for example with
+ * {@link ai.djl.inference.Predictor#setMetrics(Metrics)} or {@link
+ * ai.djl.training.Trainer#setMetrics(Metrics)}.
+ */
+public class HistogramMetrics extends Metrics {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MIN_EXPONENT = -32;
+    private static final int MAX_EXPONENT = 63;
+    private static final int EXPONENTS = MAX_EXPONENT - MIN_EXPONENT + 1;
+    private static final int STRIPES = stripeCount();
+
+    private int retainedSamples;
+    private Map<String, Histogram> histograms;
+
+    /** Constructs an empty {@code HistogramMetrics} instance that retains 16 samples per name. */
+    public HistogramMetrics() {
+        this(16);
+    }
+
+    /**
+     * Constructs an empty {@code HistogramMetrics} instance.
+     *
+     * @param retainedSamples the number of samples per name to keep for {@link #getMetric(String)}
+     */
+    public HistogramMetrics(int retainedSamples) {
+        this.retainedSamples = retainedSamples;
+        histograms = new ConcurrentHashMap<>();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void addMetric(Metric metric) {
+        String name = metric.getMetricName();
+        Histogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histogram =
+                    histograms.computeIfAbsent(
+                            name, k -> new Histogram(k, metric.getUnit(), retainedSamples));
+        }
+        histogram.record(metric.getValue(), metric);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void addMetric(String name, Number value) {
+        addMetric(name, value, Unit.COUNT);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void addMetric(String name, Number value, Unit unit) {
+        Histogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histogram =
+                    histograms.computeIfAbsent(name, k -> new Histogram(k, unit, retainedSamples));
+        }
+        histogram.record(value.doubleValue(), null);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean hasMetric(String name) {
+        Histogram histogram = histograms.get(name);
+        return histogram != null && histogram.getCount() > 0;
+    }
+
+    /**
+     * Returns the retained {@link Metric}s with the specified metric name.
+     *
+     * <p>Only the first {@code retainedSamples} samples since the last {@link #reset()} are
+     * retained, so this is a sample of the series rather than the series itself. Use {@link
+     * #count(String)} to check how many samples were recorded.
+     *
+     * @param name the name of the metric
+     * @return a list of the retained {@link Metric} with the specified metric name
+     */
+    @Override
+    public List<Metric> getMetric(String name) {
+        Histogram histogram = histograms.get(name);
+        if (histogram == null) {
+            return Collections.emptyList();
+        }
+        return histogram.getRetained();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Set<String> getMetricNames() {
+        return histograms.keySet();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Metric latestMetric(String name) {
+        Histogram histogram = histograms.get(name);
+        if (histogram == null || histogram.getCount() == 0) {
+            throw new IllegalArgumentException("Could not find metric: " + name);
+        }
+        return histogram.toMetric(histogram.latest);
+    }
+
+    /**
+     * Returns a percentile {@link Metric} object for the specified metric name.
+     *
+     * <p>The value is the representative value of the histogram bucket that contains the
+     * percentile, clamped to the minimum and maximum recorded values.
+     *
+     * @param metricName the name of the metric
+     * @param percentile the percentile
+     * @return the {@link Metric} object at specified {@code percentile}
+     */
+    @Override
+    public Metric percentile(String metricName, int percentile) {
+        Histogram histogram = histograms.get(metricName);
+        if (histogram == null || histogram.getCount() == 0) {
+            throw new IllegalArgumentException("Metric name not found: " + metricName);
+        }
+        return histogram.toMetric(histogram.percentile(percentile));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double mean(String metricName) {
+        Histogram histogram = histograms.get(metricName);
+        if (histogram == null) {
+            throw new IllegalArgumentException("Metric name not found: " + metricName);
+        }
+        long count = histogram.getCount();
+        if (count == 0) {
+            throw new IllegalArgumentException("Metric name not found: " + metricName);
+        }
+        return histogram.sum.sum() / count;
+    }
+
+    /**
+     * Returns the number of samples recorded for the specified metric since the last {@link
+     * #reset()}.
+     *
+     * @param metricName the name of the metric
+     * @return the number of samples recorded for the specified metric
+     */
+    public long count(String metricName) {
+        Histogram histogram = histograms.get(metricName);
+        return histogram == null ? 0 : histogram.getCount();
+    }
+
+    /**
+     * Clears all the recorded samples and starts a new window.
+     *
+     * <p>The histogram buckets are reused, so no memory is allocated for the new window.
+     */
+    public void reset() {
+        for (Histogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    static int bucketIndex(double value) {
+        if (value == 0 || Double.isNaN(value)) {
+            return -1;
+        }
+        double abs = Math.abs(value);
+        int exponent = Math.getExponent(abs);
+        int sub;
+        if (exponent < MIN_EXPONENT) {
+            exponent = MIN_EXPONENT;
+            sub = 0;
+        } else if (exponent > MAX_EXPONENT) {
+            exponent = MAX_EXPONENT;
+            sub = SUB_BUCKETS - 1;
+        } else {
+            long bits = Double.doubleToRawLongBits(abs);
+            sub = (int) (bits >>> (52 - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        }
+        int row = exponent - MIN_EXPONENT;
+        if (value < 0) {
+            row += EXPONENTS;
+        }
+        return row * SUB_BUCKETS + sub;
+    }
+
+    static double bucketValue(int index) {
+        if (index < 0) {
+            return 0;
+        }
+        int row = index / SUB_BUCKETS;
+        int sub = index % SUB_BUCKETS;
+        boolean negative = row >= EXPONENTS;
+        int exponent = (negative ? row - EXPONENTS : row) + MIN_EXPONENT;
+        double mid = Math.scalb(1 + (sub + 0.5) / SUB_BUCKETS, exponent);
+        return negative ? -mid : mid;
+    }
+
+    private static int stripeCount() {
+        int cpus = Math.min(Runtime.getRuntime().availableProcessors(), 16);
+        int stripes = 1;
+        while (stripes < cpus) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+
+    private static final class Histogram {
+
+        private String name;
+        private Unit unit;
+        private List<AtomicReferenceArray<AtomicLongArray>> stripes;
+        private LongAdder zeros;
+        private LongAdder count;
+        private DoubleAdder sum;
+        private AtomicLong min;
+        private AtomicLong max;
+        private AtomicReferenceArray<Metric> retained;
+        private AtomicInteger retainedCount;
+        private volatile boolean integral;
+        volatile double latest;
+
+        Histogram(String name, Unit unit, int retainedSamples) {
+            this.name = name;
+            this.unit = unit;
+            stripes = new ArrayList<>(STRIPES);
+            for (int i = 0; i < STRIPES; ++i) {
+                stripes.add(new AtomicReferenceArray<>(EXPONENTS * 2));
+            }
+            zeros = new LongAdder();
+            count = new LongAdder();
+            sum = new DoubleAdder();
+            min = new AtomicLong(Double.doubleToRawLongBits(Double.POSITIVE_INFINITY));
+            max = new AtomicLong(Double.doubleToRawLongBits(Double.NEGATIVE_INFINITY));
+            retained = new AtomicReferenceArray<>(retainedSamples);
+            retainedCount = new AtomicInteger();
+            integral = true;
+        }
+
+        void record(double value, Metric metric) {
+            int index = bucketIndex(value);
+            if (index < 0) {
+                zeros.increment();
+            } else {
+                int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+                AtomicReferenceArray<AtomicLongArray> rows = stripes.get(stripe);
+                int row = index / SUB_BUCKETS;
+                AtomicLongArray buckets = rows.get(row);
+                if (buckets == null) {
+                    rows.compareAndSet(row, null, new AtomicLongArray(SUB_BUCKETS));
+                    buckets = rows.get(row);
+                }
+                buckets.incrementAndGet(index % SUB_BUCKETS);
+            }
+            if (integral && value != Math.rint(value)) {
+                integral = false;
+            }
+            updateMin(value);
+            updateMax(value);
+            sum.add(value);
+            latest = value;
+            if (retainedCount.get() < retained.length()) {
+                int pos = retainedCount.getAndIncrement();
+                if (pos < retained.length()) {
+                    retained.set(pos, metric == null ? toMetric(value) : metric);
+                }
+            }
+            count.increment();
+        }
+
+        long getCount() {
+            return count.sum();
+        }
+
+        List<Metric> getRetained() {
+            int size = Math.min(retainedCount.get(), retained.length());
+            List<Metric> list = new ArrayList<>(size);
+            for (int i = 0; i < size; ++i) {
+                Metric metric = retained.get(i);
+                if (metric != null) {
+                    list.add(metric);
+                }
+            }
+            return list;
+        }
+
+        double percentile(int percentile) {
+            int rows = EXPONENTS * 2;
+            long zero = zeros.sum();
+            long total = zero;
+            for (int row = 0; row < rows; ++row) {
+                for (int i = 0; i < SUB_BUCKETS; ++i) {
+                    total += bucketCount(row, i);
+                }
+            }
+            long rank = total * percentile / 100;
+            if (rank >= total) {
+                rank = total - 1;
+            }
+
+            long cumulative = 0;
+            // negative values first, from the largest magnitude down
+            for (int row = rows - 1; row >= EXPONENTS; --row) {
+                for (int i = SUB_BUCKETS - 1; i >= 0; --i) {
+                    cumulative += bucketCount(row, i);
+                    if (cumulative > rank) {
+                        return clamp(bucketValue(row * SUB_BUCKETS + i));
+                    }
+                }
+            }
+            cumulative += zero;
+            if (cumulative > rank) {
+                return 0;
+            }
+            for (int row = 0; row < EXPONENTS; ++row) {
+                for (int i = 0; i < SUB_BUCKETS; ++i) {
+                    cumulative += bucketCount(row, i);
+                    if (cumulative > rank) {
+                        return clamp(bucketValue(row * SUB_BUCKETS + i));
+                    }
+                }
+            }
+            return Double.longBitsToDouble(max.get());
+        }
+
+        private long bucketCount(int row, int sub) {
+            long c = 0;
+            for (AtomicReferenceArray<AtomicLongArray> stripe : stripes) {
+                AtomicLongArray array = stripe.get(row);
+                if (array != null) {
+                    c += array.get(sub);
+                }
+            }
+            return c;
+        }
+
+        void reset() {
+            for (AtomicReferenceArray<AtomicLongArray> rows : stripes) {
+                for (int row = 0; row < rows.length(); ++row) {
+                    AtomicLongArray array = rows.get(row);
+                    if (array != null) {
+                        for (int i = 0; i < SUB_BUCKETS; ++i) {
+                            array.set(i, 0);
+                        }
+                    }
+                }
+            }
+            zeros.reset();
+            count.reset();
+            sum.reset();
+            min.set(Double.doubleToRawLongBits(Double.POSITIVE_INFINITY));
+            max.set(Double.doubleToRawLongBits(Double.NEGATIVE_INFINITY));
+            for (int i = 0; i < retained.length(); ++i) {
+                retained.set(i, null);
+            }
+            retainedCount.set(0);
+            integral = true;
+        }
+
+        Metric toMetric(double value) {
+            if (integral) {
+                return new Metric(name, Math.round(value), unit);
+            }
+            return new Metric(name, value, unit);
+        }
+
+        private double clamp(double value) {
+            double lower = Double.longBitsToDouble(min.get());
+            double upper = Double.longBitsToDouble(max.get());
+            return Math.max(lower, Math.min(upper, value));
+        }
+
+        private void updateMin(double value) {
+            long current = min.get();
+            while (value < Double.longBitsToDouble(current)
+                    && !min.compareAndSet(current, Double.doubleToRawLongBits(value))) {
+                current = min.get();
+            }
+        }
+
+        private void updateMax(double value) {
+            long current = max.get();
+            while (value > Double.longBitsToDouble(current)
+                    && !max.compareAndSet(current, Double.doubleToRawLongBits(value))) {
+                current = max.get();
+            }
+        }
+    }
+}
@@ -33,15 +33,21 @@ import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferByte;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.WritableRaster;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.file.Path;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.IntStream;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 
 /** {@code BufferedImageFactory} is the default implementation of {@link ImageFactory}. */
 public class BufferedImageFactory extends ImageFactory {
@@ -63,6 +69,34 @@ public class BufferedImageFactory extends ImageFactory {
         return new BufferedImageWrapper(image);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Image fromFile(Path path, int width, int height) throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(path.toFile())) {
+            Iterator<ImageReader> readers = iis == null ? null : ImageIO.getImageReaders(iis);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Failed to read image from: " + path);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                // keep every n-th pixel, but at least twice the target size, so the resize
+                // that follows still filters the image instead of aliasing it
+                int step =
+                        Math.min(
+                                reader.getWidth(0) / (2 * width),
+                                reader.getHeight(0) / (2 * height));
+                if (step > 1) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                return new BufferedImageWrapper(reader.read(0, param));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public Image fromInputStream(InputStream is) throws IOException {
@@ -183,45 +217,237 @@ public class BufferedImageFactory extends ImageFactory {
         public NDArray toNDArray(NDManager manager, Flag flag) {
             int width = image.getWidth();
             int height = image.getHeight();
-            int channel;
-            if (flag == Flag.GRAYSCALE) {
-                channel = 1;
-            } else {
-                channel = 3;
-            }
+            int channel = flag == Flag.GRAYSCALE ? 1 : 3;
 
             ByteBuffer bb = manager.allocateDirect(channel * height * width);
-            if (image.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+            bb.put(getPixels(channel));
+            bb.rewind();
+            return manager.create(bb, new Shape(height, width, channel), DataType.UINT8);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public NDArray toTensor(NDManager manager, Flag flag, float[] mean, float[] std) {
+            int width = image.getWidth();
+            int height = image.getHeight();
+            int channel = flag == Flag.GRAYSCALE ? 1 : 3;
+            int area = width * height;
+
+            // fold ToTensor and Normalize into one multiply-add per value
+            float[] scale = new float[channel];
+            float[] bias = new float[channel];
+            for (int c = 0; c < channel; ++c) {
+                if (mean == null) {
+                    scale[c] = 1f / 255;
+                } else {
+                    scale[c] = 1f / (255 * std[c]);
+                    bias[c] = -mean[c] / std[c];
+                }
+            }
+            byte[] pixels = getPixels(channel);
+            float[] data = new float[channel * area];
+            for (int c = 0; c < channel; ++c) {
+                float s = scale[c];
+                float b = bias[c];
+                int offset = c * area;
+                for (int i = 0, j = c; i < area; ++i, j += channel) {
+                    data[offset + i] = (pixels[j] & 0xFF) * s + b;
+                }
+            }
+            ByteBuffer bb = manager.allocateDirect(data.length * 4);
+            bb.asFloatBuffer().put(data);
+            return manager.create(bb, new Shape(channel, height, width), DataType.FLOAT32);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public NDArray toTensor(
+                NDManager manager,
+                Flag flag,
+                Rectangle crop,
+                int width,
+                int height,
+                boolean flip,
+                float[] mean,
+                float[] std) {
+            int channel = flag == Flag.GRAYSCALE ? 1 : 3;
+            double cropX = 0;
+            double cropY = 0;
+            double cropWidth = image.getWidth();
+            double cropHeight = image.getHeight();
+            if (crop != null) {
+                cropX = crop.getX();
+                cropY = crop.getY();
+                cropWidth = crop.getWidth();
+                cropHeight = crop.getHeight();
+            }
+            // only read the pixels covered by the crop
+            int left = Math.max(0, (int) Math.floor(cropX));
+            int top = Math.max(0, (int) Math.floor(cropY));
+            int right = Math.min(image.getWidth(), (int) Math.ceil(cropX + cropWidth));
+            int bottom = Math.min(image.getHeight(), (int) Math.ceil(cropY + cropHeight));
+            int srcWidth = right - left;
+            int srcHeight = bottom - top;
+            BufferedImageWrapper src = this;
+            if (srcWidth != image.getWidth() || srcHeight != image.getHeight()) {
+                src = new BufferedImageWrapper(image.getSubimage(left, top, srcWidth, srcHeight));
+            }
+            byte[] pixels = src.getPixels(channel);
+
+            float[] scale = new float[channel];
+            float[] bias = new float[channel];
+            for (int c = 0; c < channel; ++c) {
+                if (mean == null) {
+                    scale[c] = 1f / 255;
+                } else {
+                    scale[c] = 1f / (255 * std[c]);
+                    bias[c] = -mean[c] / std[c];
+                }
+            }
+
+            // bilinear sampling with pixel centers aligned, the same as the engine resize
+            double scaleX = cropWidth / width;
+            double scaleY = cropHeight / height;
+            int[] x0 = new int[width];
+            int[] x1 = new int[width];
+            float[] wx = new float[width];
+            for (int x = 0; x < width; ++x) {
+                int dst = flip ? width - 1 - x : x;
+                double fx = cropX - left + (dst + 0.5) * scaleX - 0.5;
+                fx = Math.min(Math.max(fx, 0), srcWidth - 1);
+                int ix = (int) fx;
+                x0[x] = ix * channel;
+                x1[x] = Math.min(ix + 1, srcWidth - 1) * channel;
+                wx[x] = (float) (fx - ix);
+            }
+            int area = width * height;
+            float[] data = new float[channel * area];
+            int stride = srcWidth * channel;
+            for (int y = 0; y < height; ++y) {
+                double fy = cropY - top + (y + 0.5) * scaleY - 0.5;
+                fy = Math.min(Math.max(fy, 0), srcHeight - 1);
+                int iy = (int) fy;
+                float wy = (float) (fy - iy);
+                int row0 = iy * stride;
+                int row1 = Math.min(iy + 1, srcHeight - 1) * stride;
+                for (int c = 0; c < channel; ++c) {
+                    float s = scale[c];
+                    float b = bias[c];
+                    int offset = c * area + y * width;
+                    for (int x = 0; x < width; ++x) {
+                        float p00 = pixels[row0 + x0[x] + c] & 0xFF;
+                        float p01 = pixels[row0 + x1[x] + c] & 0xFF;
+                        float p10 = pixels[row1 + x0[x] + c] & 0xFF;
+                        float p11 = pixels[row1 + x1[x] + c] & 0xFF;
+                        float upper = p00 + (p01 - p00) * wx[x];
+                        float lower = p10 + (p11 - p10) * wx[x];
+                        data[offset + x] = (upper + (lower - upper) * wy) * s + b;
+                    }
+                }
+            }
+            ByteBuffer bb = manager.allocateDirect(data.length * 4);
+            bb.asFloatBuffer().put(data);
+            return manager.create(bb, new Shape(channel, height, width), DataType.FLOAT32);
+        }
+
+        private byte[] getPixels(int channel) {
+            int width = image.getWidth();
+            int height = image.getHeight();
+            byte[] pixels = new byte[channel * height * width];
+            int type = image.getType();
+            WritableRaster raster = image.getRaster();
+            // read the common byte layouts directly from the raster, bypassing the ColorModel
+            if ((type == BufferedImage.TYPE_3BYTE_BGR
+                            || type == BufferedImage.TYPE_4BYTE_ABGR
+                            || type == BufferedImage.TYPE_BYTE_GRAY)
+                    && raster.getDataBuffer() instanceof DataBufferByte
+                    && raster.getSampleModel() instanceof PixelInterleavedSampleModel) {
+                readRaster(raster, pixels, channel);
+            } else if (type == BufferedImage.TYPE_BYTE_GRAY) {
                 int[] data = new int[width * height];
-                image.getData().getPixels(0, 0, width, height, data);
+                raster.getPixels(0, 0, width, height, data);
+                int index = 0;
                 for (int gray : data) {
                     byte b = (byte) gray;
-                    bb.put(b);
-                    if (flag != Flag.GRAYSCALE) {
-                        bb.put(b);
-                        bb.put(b);
+                    pixels[index++] = b;
+                    if (channel == 3) {
+                        pixels[index++] = b;
+                        pixels[index++] = b;
                     }
                 }
             } else {
                 // get an array of integer pixels in the default RGB color mode
-                int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
-                for (int rgb : pixels) {
+                int[] data = image.getRGB(0, 0, width, height, null, 0, width);
+                int index = 0;
+                for (int rgb : data) {
                     int red = (rgb >> 16) & 0xFF;
                     int green = (rgb >> 8) & 0xFF;
                     int blue = rgb & 0xFF;
+                    if (channel == 1) {
+                        pixels[index++] = toGray(red, green, blue);
+                    } else {
+                        pixels[index++] = (byte) red;
+                        pixels[index++] = (byte) green;
+                        pixels[index++] = (byte) blue;
+                    }
+                }
+            }
+            return pixels;
+        }
 
-                    if (flag == Flag.GRAYSCALE) {
-                        int gray = Math.round(0.299f * red + 0.587f * green + 0.114f * blue);
-                        bb.put((byte) gray);
+        private void readRaster(WritableRaster raster, byte[] pixels, int channel) {
+            int width = image.getWidth();
+            int height = image.getHeight();
+            DataBufferByte buffer = (DataBufferByte) raster.getDataBuffer();
+            PixelInterleavedSampleModel sm = (PixelInterleavedSampleModel) raster.getSampleModel();
+            byte[] data = buffer.getData();
+            int pixelStride = sm.getPixelStride();
+            int scanlineStride = sm.getScanlineStride();
+            // sub images share the data buffer with their parent
+            int origin =
+                    buffer.getOffset()
+                            - raster.getSampleModelTranslateY() * scanlineStride
+                            - raster.getSampleModelTranslateX() * pixelStride;
+            // band offsets are in RGB(A) order, which reorders BGR and ABGR pixels
+            int[] bandOffsets = sm.getBandOffsets();
+            int index = 0;
+            if (bandOffsets.length == 1) {
+                for (int y = 0; y < height; ++y) {
+                    int pos = origin + y * scanlineStride + bandOffsets[0];
+                    for (int x = 0; x < width; ++x, pos += pixelStride) {
+                        byte b = data[pos];
+                        pixels[index++] = b;
+                        if (channel == 3) {
+                            pixels[index++] = b;
+                            pixels[index++] = b;
+                        }
+                    }
+                }
+                return;
+            }
+            int red = bandOffsets[0];
+            int green = bandOffsets[1];
+            int blue = bandOffsets[2];
+            for (int y = 0; y < height; ++y) {
+                int pos = origin + y * scanlineStride;
+                for (int x = 0; x < width; ++x, pos += pixelStride) {
+                    if (channel == 1) {
+                        pixels[index++] =
+                                toGray(
+                                        data[pos + red] & 0xFF,
+                                        data[pos + green] & 0xFF,
+                                        data[pos + blue] & 0xFF);
                     } else {
-                        bb.put((byte) red);
-                        bb.put((byte) green);
-                        bb.put((byte) blue);
+                        pixels[index++] = data[pos + red];
+                        pixels[index++] = data[pos + green];
+                        pixels[index++] = data[pos + blue];
                     }
                 }
             }
-            bb.rewind();
-            return manager.create(bb, new Shape(height, width, channel), DataType.UINT8);
+        }
+
+        private byte toGray(int red, int green, int blue) {
+            return (byte) Math.round(0.299f * red + 0.587f * green + 0.114f * blue);
         }
 
         /** {@inheritDoc} */
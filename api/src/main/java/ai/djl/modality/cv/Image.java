@@ -15,8 +15,12 @@ package ai.djl.modality.cv;
 import ai.djl.modality.cv.output.BoundingBox;
 import ai.djl.modality.cv.output.DetectedObjects;
 import ai.djl.modality.cv.output.Joints;
+import ai.djl.modality.cv.output.Rectangle;
+import ai.djl.modality.cv.util.NDImageUtils;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -86,6 +90,86 @@ public interface Image {
      */
     NDArray toNDArray(NDManager manager, Flag flag);
 
+    /**
+     * Converts image to a {@link DataType#FLOAT32} {@link NDArray} of shape CHW in the range {@code
+     * [0, 1]}, optionally normalized with the given mean and standard deviation.
+     *
+     * <p>This gives the same result as {@link #toNDArray(NDManager, Flag)} followed by {@link
+     * ai.djl.modality.cv.transform.ToTensor} and {@link ai.djl.modality.cv.transform.Normalize},
+     * but implementations may convert the image in a single pass.
+     *
+     * @param manager a {@link NDManager} to create the new NDArray with
+     * @param flag the color mode
+     * @param mean the mean to normalize with for each channel, or {@code null} to skip
+     *     normalization
+     * @param std the standard deviation to normalize with for each channel
+     * @return {@link NDArray}
+     */
+    default NDArray toTensor(NDManager manager, Flag flag, float[] mean, float[] std) {
+        NDArray array =
+                toNDArray(manager, flag)
+                        .toType(DataType.FLOAT32, false)
+                        .transpose(2, 0, 1)
+                        .div(255);
+        if (mean != null) {
+            Shape shape = new Shape(mean.length, 1, 1);
+            array = array.sub(manager.create(mean, shape)).div(manager.create(std, shape));
+        }
+        return array;
+    }
+
+    /**
+     * Converts a region of the image to a {@link DataType#FLOAT32} {@link NDArray} of shape CHW and
+     * the given size, optionally flipped left to right and normalized with the given mean and
+     * standard deviation.
+     *
+     * <p>This gives the same result, up to rounding, as cropping the image, converting it with
+     * {@link #toNDArray(NDManager, Flag)}, resizing it with bilinear interpolation, flipping it,
+     * then applying {@link ai.djl.modality.cv.transform.ToTensor} and {@link
+     * ai.djl.modality.cv.transform.Normalize}. Implementations may do all of it in a single pass.
+     *
+     * @param manager a {@link NDManager} to create the new NDArray with
+     * @param flag the color mode
+     * @param crop the region of the image to convert, in pixels, or {@code null} for the whole
+     *     image
+     * @param width the width of the output
+     * @param height the height of the output
+     * @param flip whether to flip the output left to right
+     * @param mean the mean to normalize with for each channel, or {@code null} to skip
+     *     normalization
+     * @param std the standard deviation to normalize with for each channel
+     * @return {@link NDArray}
+     */
+    default NDArray toTensor(
+            NDManager manager,
+            Flag flag,
+            Rectangle crop,
+            int width,
+            int height,
+            boolean flip,
+            float[] mean,
+            float[] std) {
+        Image image = this;
+        if (crop != null) {
+            image =
+                    getSubImage(
+                            (int) crop.getX(),
+                            (int) crop.getY(),
+                            (int) crop.getWidth(),
+                            (int) crop.getHeight());
+        }
+        NDArray array = NDImageUtils.resize(image.toNDArray(manager, flag), width, height);
+        if (flip) {
+            array = array.flip(1);
+        }
+        array = array.toType(DataType.FLOAT32, false).transpose(2, 0, 1).div(255);
+        if (mean != null) {
+            Shape shape = new Shape(mean.length, 1, 1);
+            array = array.sub(manager.create(mean, shape)).div(manager.create(std, shape));
+        }
+        return array;
+    }
+
     /**
      * Save the image to file.
      *
@@ -84,6 +84,24 @@ public abstract class ImageFactory {
      */
     public abstract Image fromFile(Path path) throws IOException;
 
+    /**
+     * Gets {@link Image} from file, decoded at a reduced resolution if the image is larger than
+     * needed.
+     *
+     * <p>Implementations may subsample the image while decoding it, as long as the decoded image is
+     * at least {@code width} by {@code height} pixels. This is faster for large images that are
+     * resized anyway. By default, the image is decoded at full resolution.
+     *
+     * @param path the path to the image
+     * @param width the minimum width of the decoded image
+     * @param height the minimum height of the decoded image
+     * @return {@link Image}
+     * @throws IOException Image not found or not readable
+     */
+    public Image fromFile(Path path, int width, int height) throws IOException {
+        return fromFile(path);
+    }
+
     /**
      * Gets {@link Image} from URL.
      *
@@ -12,15 +12,13 @@
  */
 package ai.djl.modality.cv.translator;
 
-import ai.djl.modality.cv.output.BoundingBox;
 import ai.djl.modality.cv.output.DetectedObjects;
-import ai.djl.modality.cv.output.Rectangle;
+import ai.djl.modality.cv.util.DetectionUtils;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.translate.TranslatorContext;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Map;
 
 /**
@@ -43,45 +41,41 @@ public class SingleShotDetectionTranslator extends ObjectDetectionTranslator {
     public DetectedObjects processOutput(TranslatorContext ctx, NDList list) {
         float[] classIds = list.get(0).toFloatArray();
         float[] probabilities = list.get(1).toFloatArray();
-        NDArray boundingBoxes = list.get(2);
-
-        List<String> retNames = new ArrayList<>();
-        List<Double> retProbs = new ArrayList<>();
-        List<BoundingBox> retBB = new ArrayList<>();
+        float[] boundingBoxes = list.get(2).toFloatArray();
 
+        int[] classIndices = new int[classIds.length];
+        int[] indices = new int[classIds.length];
+        int count = 0;
         for (int i = 0; i < classIds.length; ++i) {
             int classId = (int) classIds[i];
-            double probability = probabilities[i];
             // classId starts from 0, -1 means background
-            if (classId >= 0 && probability > threshold) {
+            if (classId >= 0 && probabilities[i] > threshold) {
                 if (classId >= classes.size()) {
                     throw new AssertionError("Unexpected index: " + classId);
                 }
-                String className = classes.get(classId);
-                float[] box = boundingBoxes.get(i).toFloatArray();
+                classIndices[i] = classId;
+                indices[count++] = i;
                 // rescale box coordinates by imageWidth and imageHeight
-                double x = imageWidth > 0 ? box[0] / imageWidth : box[0];
-                double y = imageHeight > 0 ? box[1] / imageHeight : box[1];
-                double w = imageWidth > 0 ? box[2] / imageWidth - x : box[2] - x;
-                double h = imageHeight > 0 ? box[3] / imageHeight - y : box[3] - y;
-                Rectangle rect;
-                if (applyRatio) {
-                    rect =
-                            new Rectangle(
-                                    x / imageWidth,
-                                    y / imageHeight,
-                                    w / imageWidth,
-                                    h / imageHeight);
-                } else {
-                    rect = new Rectangle(x, y, w, h);
+                if (imageWidth > 0) {
+                    boundingBoxes[i * 4] /= imageWidth;
+                    boundingBoxes[i * 4 + 2] /= imageWidth;
+                }
+                if (imageHeight > 0) {
+                    boundingBoxes[i * 4 + 1] /= imageHeight;
+                    boundingBoxes[i * 4 + 3] /= imageHeight;
                 }
-                retNames.add(className);
-                retProbs.add(probability);
-                retBB.add(rect);
             }
         }
-
-        return new DetectedObjects(retNames, retProbs, retBB);
+        double scaleX = applyRatio ? 1 / imageWidth : 1;
+        double scaleY = applyRatio ? 1 / imageHeight : 1;
+        return DetectionUtils.toDetectedObjects(
+                classes,
+                classIndices,
+                probabilities,
+                boundingBoxes,
+                Arrays.copyOf(indices, count),
+                scaleX,
+                scaleY);
     }
 
     /**
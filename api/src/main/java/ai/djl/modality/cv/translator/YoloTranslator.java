@@ -12,16 +12,13 @@
  */
 package ai.djl.modality.cv.translator;
 
-import ai.djl.modality.cv.output.BoundingBox;
 import ai.djl.modality.cv.output.DetectedObjects;
-import ai.djl.modality.cv.output.Rectangle;
-import ai.djl.ndarray.NDArray;
+import ai.djl.modality.cv.util.DetectionUtils;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.translate.TranslatorContext;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Map;
 
 /** A translator for yolo models. */
@@ -40,43 +37,37 @@ public class YoloTranslator extends ObjectDetectionTranslator {
     @Override
     public DetectedObjects processOutput(TranslatorContext ctx, NDList list) {
         int[] classIndices = list.get(0).toType(DataType.INT32, true).flatten().toIntArray();
-        double[] probs = list.get(1).toType(DataType.FLOAT64, true).flatten().toDoubleArray();
-        NDArray boundingBoxes = list.get(2);
-        int detected = Math.toIntExact(probs.length);
+        float[] probs = list.get(1).toType(DataType.FLOAT32, true).flatten().toFloatArray();
+        float[] boundingBoxes = list.get(2).toType(DataType.FLOAT32, true).toFloatArray();
+        int detected = probs.length;
 
-        NDArray xMin = boundingBoxes.get(":, 0").clip(0, imageWidth).div(imageWidth);
-        NDArray yMin = boundingBoxes.get(":, 1").clip(0, imageHeight).div(imageHeight);
-        NDArray xMax = boundingBoxes.get(":, 2").clip(0, imageWidth).div(imageWidth);
-        NDArray yMax = boundingBoxes.get(":, 3").clip(0, imageHeight).div(imageHeight);
-
-        float[] boxX = xMin.toFloatArray();
-        float[] boxY = yMin.toFloatArray();
-        float[] boxWidth = xMax.sub(xMin).toFloatArray();
-        float[] boxHeight = yMax.sub(yMin).toFloatArray();
-
-        List<String> retClasses = new ArrayList<>(detected);
-        List<Double> retProbs = new ArrayList<>(detected);
-        List<BoundingBox> retBB = new ArrayList<>(detected);
+        int[] indices = new int[detected];
+        int count = 0;
         for (int i = 0; i < detected; i++) {
             if (classIndices[i] < 0 || probs[i] < threshold) {
                 continue;
             }
-            retClasses.add(classes.get(classIndices[i]));
-            retProbs.add(probs[i]);
-            Rectangle rect;
-            if (applyRatio) {
-                rect =
-                        new Rectangle(
-                                boxX[i] / imageWidth,
-                                boxY[i] / imageHeight,
-                                boxWidth[i] / imageWidth,
-                                boxHeight[i] / imageHeight);
-            } else {
-                rect = new Rectangle(boxX[i], boxY[i], boxWidth[i], boxHeight[i]);
-            }
-            retBB.add(rect);
+            indices[count++] = i;
+            int b = i * 4;
+            boundingBoxes[b] = clip(boundingBoxes[b], imageWidth);
+            boundingBoxes[b + 1] = clip(boundingBoxes[b + 1], imageHeight);
+            boundingBoxes[b + 2] = clip(boundingBoxes[b + 2], imageWidth);
+            boundingBoxes[b + 3] = clip(boundingBoxes[b + 3], imageHeight);
         }
-        return new DetectedObjects(retClasses, retProbs, retBB);
+        double scaleX = applyRatio ? 1 / imageWidth : 1;
+        double scaleY = applyRatio ? 1 / imageHeight : 1;
+        return DetectionUtils.toDetectedObjects(
+                classes,
+                classIndices,
+                probs,
+                boundingBoxes,
+                Arrays.copyOf(indices, count),
+                scaleX,
+                scaleY);
+    }
+
+    private static float clip(float value, double max) {
+        return (float) (Math.min(Math.max(value, 0), max) / max);
     }
 
     /**
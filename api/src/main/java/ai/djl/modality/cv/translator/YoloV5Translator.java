@@ -12,28 +12,45 @@
  */
 package ai.djl.modality.cv.translator;
 
-import ai.djl.modality.cv.output.BoundingBox;
 import ai.djl.modality.cv.output.DetectedObjects;
 import ai.djl.modality.cv.output.Rectangle;
+import ai.djl.modality.cv.util.DetectionUtils;
+import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
 import ai.djl.translate.ArgumentsUtil;
 import ai.djl.translate.TranslatorContext;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.PriorityQueue;
 
 /**
  * A translator for YoloV5 models. This was tested with ONNX exported Yolo models. For details check
  * here: https://github.com/ultralytics/yolov5
+ *
+ * <p>The {@link YoloOutputType#DETECT} output type decodes the raw outputs of the Detect layer. By
+ * default, it uses the YoloV5 anchors for the strides 8, 16 and 32. Models with other detection
+ * levels, for example the P6 models, must set their strides and anchors with {@link
+ * Builder#optAnchors(int[], float[][])}.
+ *
+ * <p>Overlapping boxes are removed with non-maximum suppression by default. Set {@link
+ * Builder#optSoftNmsSigma(float)} to decay their scores with Gaussian soft non-maximum suppression
+ * instead.
  */
 public class YoloV5Translator extends ObjectDetectionTranslator {
 
+    private static final int[] STRIDES = {8, 16, 32};
+    private static final float[][] ANCHORS = {
+        {10, 13, 16, 30, 33, 23}, {30, 61, 62, 45, 59, 119}, {116, 90, 156, 198, 373, 326}
+    };
+
     private YoloOutputType yoloOutputLayerType;
     private float nmsThreshold;
+    private float softNmsSigma;
+    private int[] strides;
+    private float[][] anchors;
 
     /**
      * Constructs an ImageTranslator with the provided builder.
@@ -44,6 +61,9 @@ public class YoloV5Translator extends ObjectDetectionTranslator {
         super(builder);
         yoloOutputLayerType = builder.outputType;
         nmsThreshold = builder.nmsThreshold;
+        softNmsSigma = builder.softNmsSigma;
+        strides = builder.strides;
+        anchors = builder.anchors;
     }
 
     /**
@@ -68,6 +88,15 @@ public class YoloV5Translator extends ObjectDetectionTranslator {
         return builder;
     }
 
+    /**
+     * Computes the intersection of two boxes.
+     *
+     * @param a the first box
+     * @param b the second box
+     * @return the intersection area of the two boxes
+     * @deprecated use {@link DetectionUtils#iou(float[], int, int)} instead
+     */
+    @Deprecated
     protected double boxIntersection(Rectangle a, Rectangle b) {
         double w =
                 overlap(
@@ -87,69 +116,105 @@ public class YoloV5Translator extends ObjectDetectionTranslator {
         return w * h;
     }
 
+    /**
+     * Computes the intersection over union of two boxes.
+     *
+     * @param a the first box
+     * @param b the second box
+     * @return the intersection over union of the two boxes
+     * @deprecated use {@link DetectionUtils#iou(float[], int, int)} instead
+     */
+    @Deprecated
     protected double boxIou(Rectangle a, Rectangle b) {
-        return boxIntersection(a, b) / boxUnion(a, b);
+        float[] boxes = new float[8];
+        toCorners(a, boxes, 0);
+        toCorners(b, boxes, 1);
+        return DetectionUtils.iou(boxes, 0, 1);
     }
 
+    /**
+     * Computes the union of two boxes.
+     *
+     * @param a the first box
+     * @param b the second box
+     * @return the union area of the two boxes
+     * @deprecated use {@link DetectionUtils#iou(float[], int, int)} instead
+     */
+    @Deprecated
     protected double boxUnion(Rectangle a, Rectangle b) {
         double i = boxIntersection(a, b);
         return (a.getWidth()) * (a.getHeight()) + (b.getWidth()) * (b.getHeight()) - i;
     }
 
+    /**
+     * Applies non-maximum suppression per class to the candidate boxes.
+     *
+     * @param list the candidate boxes
+     * @return the {@link DetectedObjects} for the kept boxes
+     * @deprecated use {@link #nms(float[], float[], int[], int)} instead
+     */
+    @Deprecated
     protected DetectedObjects nms(List<IntermediateResult> list) {
-        List<String> retClasses = new ArrayList<>();
-        List<Double> retProbs = new ArrayList<>();
-        List<BoundingBox> retBB = new ArrayList<>();
-
-        for (int k = 0; k < classes.size(); k++) {
-            // 1.find max confidence per class
-            PriorityQueue<IntermediateResult> pq =
-                    new PriorityQueue<>(
-                            50,
-                            (lhs, rhs) -> {
-                                // Intentionally reversed to put high confidence at the head of the
-                                // queue.
-                                return Double.compare(rhs.getConfidence(), lhs.getConfidence());
-                            });
-
-            for (IntermediateResult intermediateResult : list) {
-                if (intermediateResult.getDetectedClass() == k) {
-                    pq.add(intermediateResult);
-                }
-            }
+        int count = list.size();
+        float[] boxes = new float[count * 4];
+        float[] scores = new float[count];
+        int[] classIds = new int[count];
+        for (int i = 0; i < count; ++i) {
+            IntermediateResult result = list.get(i);
+            toCorners(result.getLocation(), boxes, i);
+            scores[i] = (float) result.getConfidence();
+            classIds[i] = result.getDetectedClass();
+        }
+        return nms(boxes, scores, classIds, count);
+    }
 
-            // 2.do non maximum suppression
-            while (pq.size() > 0) {
-                // insert detection with max confidence
-                IntermediateResult[] a = new IntermediateResult[pq.size()];
-                IntermediateResult[] detections = pq.toArray(a);
-                Rectangle rec = detections[0].getLocation();
-                retClasses.add(detections[0].id);
-                retProbs.add(detections[0].confidence);
-                if (applyRatio) {
-                    retBB.add(
-                            new Rectangle(
-                                    rec.getX() / imageWidth,
-                                    rec.getY() / imageHeight,
-                                    rec.getWidth() / imageWidth,
-                                    rec.getHeight() / imageHeight));
-                } else {
-                    retBB.add(
-                            new Rectangle(rec.getX(), rec.getY(), rec.getWidth(), rec.getHeight()));
-                }
-                pq.clear();
-                for (int j = 1; j < detections.length; j++) {
-                    IntermediateResult detection = detections[j];
-                    Rectangle location = detection.getLocation();
-                    if (boxIou(rec, location) < nmsThreshold) {
-                        pq.add(detection);
-                    }
-                }
-            }
+    /**
+     * Applies non-maximum suppression per class to the candidate boxes.
+     *
+     * <p>The detections are grouped by class, and sorted by descending score within each class.
+     *
+     * @param boxes the candidate boxes in corner format, see {@link DetectionUtils}
+     * @param scores the scores of the candidates
+     * @param classIds the class of each candidate
+     * @param count the number of candidates
+     * @return the {@link DetectedObjects} for the kept boxes
+     */
+    protected DetectedObjects nms(float[] boxes, float[] scores, int[] classIds, int count) {
+        int[] keep;
+        if (softNmsSigma > 0) {
+            keep = DetectionUtils.softNms(boxes, scores, classIds, count, softNmsSigma, threshold);
+        } else {
+            keep = DetectionUtils.nms(boxes, scores, classIds, count, nmsThreshold);
+        }
+        // stable counting sort by class, the boxes of each class stay sorted by score
+        int[] offsets = new int[classes.size() + 1];
+        for (int i : keep) {
+            ++offsets[classIds[i] + 1];
+        }
+        for (int c = 1; c < offsets.length; ++c) {
+            offsets[c] += offsets[c - 1];
         }
-        return new DetectedObjects(retClasses, retProbs, retBB);
+        int[] sorted = new int[keep.length];
+        for (int i : keep) {
+            sorted[offsets[classIds[i]]++] = i;
+        }
+        double scaleX = applyRatio ? 1 / imageWidth : 1;
+        double scaleY = applyRatio ? 1 / imageHeight : 1;
+        return DetectionUtils.toDetectedObjects(
+                classes, classIds, scores, boxes, sorted, scaleX, scaleY);
     }
 
+    /**
+     * Computes the overlap of two line segments given by their centers and widths.
+     *
+     * @param x1 the center of the first segment
+     * @param w1 the width of the first segment
+     * @param x2 the center of the second segment
+     * @param w2 the width of the second segment
+     * @return the overlap, negative if the segments are disjoint
+     * @deprecated use {@link DetectionUtils#iou(float[], int, int)} instead
+     */
+    @Deprecated
     protected double overlap(double x1, double w1, double x2, double w2) {
         double l1 = x1 - w1 / 2;
         double l2 = x2 - w2 / 2;
@@ -160,12 +225,23 @@ public class YoloV5Translator extends ObjectDetectionTranslator {
         return right - left;
     }
 
+    private static void toCorners(Rectangle rect, float[] boxes, int index) {
+        int b = index * 4;
+        boxes[b] = (float) rect.getX();
+        boxes[b + 1] = (float) rect.getY();
+        boxes[b + 2] = (float) (rect.getX() + rect.getWidth());
+        boxes[b + 3] = (float) (rect.getY() + rect.getHeight());
+    }
+
     private DetectedObjects processFromBoxOutput(NDList list) {
         float[] flattened = list.get(0).toFloatArray();
-        ArrayList<IntermediateResult> intermediateResults = new ArrayList<>();
         int sizeClasses = classes.size();
         int stride = 5 + sizeClasses;
         int size = flattened.length / stride;
+        float[] boxes = new float[size * 4];
+        float[] scores = new float[size];
+        int[] classIds = new int[size];
+        int count = 0;
         for (int i = 0; i < size; i++) {
             int indexBase = i * stride;
             float maxClass = 0;
@@ -182,18 +258,107 @@ public class YoloV5Translator extends ObjectDetectionTranslator {
                 float yPos = flattened[indexBase + 1];
                 float w = flattened[indexBase + 2];
                 float h = flattened[indexBase + 3];
-                Rectangle rect =
-                        new Rectangle(Math.max(0, xPos - w / 2), Math.max(0, yPos - h / 2), w, h);
-                intermediateResults.add(
-                        new IntermediateResult(classes.get(maxIndex), score, maxIndex, rect));
+                float x = Math.max(0, xPos - w / 2);
+                float y = Math.max(0, yPos - h / 2);
+                int b = count * 4;
+                boxes[b] = x;
+                boxes[b + 1] = y;
+                boxes[b + 2] = x + w;
+                boxes[b + 3] = y + h;
+                scores[count] = score;
+                classIds[count] = maxIndex;
+                ++count;
             }
         }
-        return nms(intermediateResults);
+        return nms(boxes, scores, classIds, count);
     }
 
-    private DetectedObjects processFromDetectOutput() {
-        throw new UnsupportedOperationException(
-                "detect layer output is not supported yet, check correct YoloV5 export format");
+    private DetectedObjects processFromDetectOutput(NDList list) {
+        // raw Detect layer outputs, one (batch, anchors, height, width, 5 + classes) per level
+        if (list.size() > strides.length) {
+            throw new IllegalArgumentException(
+                    "The model has "
+                            + list.size()
+                            + " detection levels, but the anchors are only set for "
+                            + strides.length
+                            + " levels.");
+        }
+        int sizeClasses = classes.size();
+        int stride = 5 + sizeClasses;
+        int total = 0;
+        for (NDArray array : list) {
+            total += Math.toIntExact(array.size() / stride);
+        }
+        float[] boxes = new float[total * 4];
+        float[] scores = new float[total];
+        int[] classIds = new int[total];
+        int count = 0;
+        for (int level = 0; level < list.size(); ++level) {
+            NDArray array = list.get(level);
+            Shape shape = array.getShape();
+            int dim = shape.dimension();
+            int numAnchors = (int) shape.get(dim - 4);
+            int gridHeight = (int) shape.get(dim - 3);
+            int gridWidth = (int) shape.get(dim - 2);
+            float step = strides[level];
+            float[] levelAnchors = anchors[level];
+            if (levelAnchors.length < numAnchors * 2) {
+                throw new IllegalArgumentException(
+                        "Detection level "
+                                + level
+                                + " has "
+                                + numAnchors
+                                + " anchors, but only "
+                                + levelAnchors.length / 2
+                                + " are set.");
+            }
+            float[] data = array.toFloatArray();
+            for (int a = 0; a < numAnchors; ++a) {
+                for (int gy = 0; gy < gridHeight; ++gy) {
+                    for (int gx = 0; gx < gridWidth; ++gx) {
+                        int indexBase = ((a * gridHeight + gy) * gridWidth + gx) * stride;
+                        float objectness = sigmoid(data[indexBase + 4]);
+                        if (objectness <= threshold) {
+                            continue;
+                        }
+                        // sigmoid is monotonic, so the max logit is the max class score
+                        float maxLogit = data[indexBase + 5];
+                        int maxIndex = 0;
+                        for (int c = 1; c < sizeClasses; c++) {
+                            if (data[indexBase + c + 5] > maxLogit) {
+                                maxLogit = data[indexBase + c + 5];
+                                maxIndex = c;
+                            }
+                        }
+                        float score = objectness * sigmoid(maxLogit);
+                        if (score <= threshold) {
+                            continue;
+                        }
+                        float xPos = (sigmoid(data[indexBase]) * 2 - 0.5f + gx) * step;
+                        float yPos = (sigmoid(data[indexBase + 1]) * 2 - 0.5f + gy) * step;
+                        float w = sigmoid(data[indexBase + 2]) * 2;
+                        float h = sigmoid(data[indexBase + 3]) * 2;
+                        w = w * w * levelAnchors[a * 2];
+                        h = h * h * levelAnchors[a * 2 + 1];
+                        float x = Math.max(0, xPos - w / 2);
+                        float y = Math.max(0, yPos - h / 2);
+                        int b = count * 4;
+                        boxes[b] = x;
+                        boxes[b + 1] = y;
+                        boxes[b + 2] = x + w;
+                        boxes[b + 3] = y + h;
+                        scores[count] = score;
+                        classIds[count] = maxIndex;
+                        ++count;
+                    }
+                }
+            }
+        }
+        return nms(boxes, scores, classIds, count);
+    }
+
+    private static float sigmoid(float x) {
+        return 1f / (1f + (float) Math.exp(-x));
     }
 
     /** {@inheritDoc} */
@@ -201,10 +366,10 @@ public class YoloV5Translator extends ObjectDetectionTranslator {
     public DetectedObjects processOutput(TranslatorContext ctx, NDList list) {
         switch (yoloOutputLayerType) {
             case DETECT:
-                return processFromDetectOutput();
+                return processFromDetectOutput(list);
             case AUTO:
                 if (list.get(0).getShape().dimension() > 2) {
-                    return processFromDetectOutput();
+                    return processFromDetectOutput(list);
                 } else {
                     return processFromBoxOutput(list);
                 }
@@ -226,6 +391,9 @@ public class YoloV5Translator extends ObjectDetectionTranslator {
 
         YoloOutputType outputType = YoloOutputType.AUTO;
         float nmsThreshold = 0.4f;
+        float softNmsSigma;
+        int[] strides = STRIDES;
+        float[][] anchors = ANCHORS;
 
         /**
          * Sets the {@code YoloOutputType}.
@@ -249,6 +417,35 @@ public class YoloV5Translator extends ObjectDetectionTranslator {
             return this;
         }
 
+        /**
+         * Sets the sigma of Gaussian soft non-maximum suppression.
+         *
+         * <p>If the sigma is positive, the scores of overlapping boxes are decayed instead of the
+         * boxes being removed, and boxes whose score drops below the threshold are dropped. The NMS
+         * threshold is not used in this case.
+         *
+         * @param softNmsSigma the Gaussian decay parameter, or 0 to use non-maximum suppression
+         * @return this builder
+         */
+        public Builder optSoftNmsSigma(float softNmsSigma) {
+            this.softNmsSigma = softNmsSigma;
+            return this;
+        }
+
+        /**
+         * Sets the strides and anchors of the detection levels, used to decode the {@link
+         * YoloOutputType#DETECT} outputs.
+         *
+         * @param strides the stride of each detection level
+         * @param anchors the anchors of each detection level, as {@code (width, height)} pairs
+         * @return this builder
+         */
+        public Builder optAnchors(int[] strides, float[][] anchors) {
+            this.strides = strides;
+            this.anchors = anchors;
+            return this;
+        }
+
         /** {@inheritDoc} */
         @Override
         protected Builder self() {
@@ -262,6 +459,30 @@ public class YoloV5Translator extends ObjectDetectionTranslator {
             String type = ArgumentsUtil.stringValue(arguments, "outputType", "AUTO");
             outputType = YoloOutputType.valueOf(type.toUpperCase(Locale.ENGLISH));
             nmsThreshold = ArgumentsUtil.floatValue(arguments, "nmsThreshold", 0.4f);
+            softNmsSigma = ArgumentsUtil.floatValue(arguments, "softNmsSigma", 0f);
+            String stridesValue = ArgumentsUtil.stringValue(arguments, "strides");
+            String anchorsValue = ArgumentsUtil.stringValue(arguments, "anchors");
+            if (stridesValue != null && anchorsValue != null) {
+                // for example strides=8,16,32 and anchors=10,13,16,30,...,373,326
+                String[] stridesList = stridesValue.split(",");
+                String[] anchorsList = anchorsValue.split(",");
+                int levels = stridesList.length;
+                if (anchorsList.length % (levels * 2) != 0) {
+                    throw new IllegalArgumentException(
+                            "The anchors cannot be split evenly into " + levels + " levels.");
+                }
+                int perLevel = anchorsList.length / levels;
+                strides = new int[levels];
+                anchors = new float[levels][perLevel];
+                for (int i = 0; i < levels; ++i) {
+                    strides[i] = Integer.parseInt(stridesList[i].trim());
+                    for (int j = 0; j < perLevel; ++j) {
+                        anchors[i][j] = Float.parseFloat(anchorsList[i * perLevel + j].trim());
+                    }
+                }
+            } else if (stridesValue != null || anchorsValue != null) {
+                throw new IllegalArgumentException("The strides and anchors must be set together.");
+            }
         }
 
         /**
@@ -275,6 +496,10 @@ public class YoloV5Translator extends ObjectDetectionTranslator {
                 addTransform(
                         array -> array.transpose(2, 0, 1).toType(DataType.FLOAT32, false).div(255));
             }
+            if (strides.length != anchors.length) {
+                throw new IllegalArgumentException(
+                        "The strides and anchors must have the same number of levels.");
+            }
             validate();
             return new YoloV5Translator(this);
         }
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.cv.util;
+
+import ai.djl.modality.cv.output.BoundingBox;
+import ai.djl.modality.cv.output.DetectedObjects;
+import ai.djl.modality.cv.output.Rectangle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@code DetectionUtils} is an allocation-light set of utilities to post-process object detection
+ * output.
+ *
+ * <p>All methods work on primitive arrays. Boxes are stored in corner format, 4 values per box:
+ * {@code [x1, y1, x2, y2]}, so box {@code i} occupies {@code boxes[4 * i]} to {@code boxes[4 * i +
+ * 3]}.
+ */
+public final class DetectionUtils {
+
+    private DetectionUtils() {}
+
+    /**
+     * Returns the indices of the first {@code count} scores sorted by descending score.
+     *
+     * <p>Equal scores are ordered by ascending index.
+     *
+     * @param scores the scores
+     * @param count the number of scores to sort
+     * @return the sorted indices
+     */
+    public static int[] sortByScore(float[] scores, int count) {
+        // sort (score, index) pairs packed into a long, avoiding boxed comparators
+        long[] keys = new long[count];
+        for (int i = 0; i < count; ++i) {
+            int bits = Float.floatToIntBits(scores[i]);
+            // map float bits to an int with the same signed ordering, then reverse it
+            int sortable = ~(bits ^ ((bits >> 31) & 0x7fffffff));
+            keys[i] = ((long) sortable << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] indices = new int[count];
+        for (int i = 0; i < count; ++i) {
+            indices[i] = (int) keys[i];
+        }
+        return indices;
+    }
+
+    /**
+     * Computes the area of the first {@code count} boxes.
+     *
+     * @param boxes the boxes in corner format
+     * @param count the number of boxes
+     * @return the areas of the boxes
+     */
+    public static float[] areas(float[] boxes, int count) {
+        float[] areas = new float[count];
+        for (int i = 0; i < count; ++i) {
+            int b = i * 4;
+            areas[i] =
+                    Math.max(0, boxes[b + 2] - boxes[b]) * Math.max(0, boxes[b + 3] - boxes[b + 1]);
+        }
+        return areas;
+    }
+
+    /**
+     * Computes the intersection over union of two boxes.
+     *
+     * @param boxes the boxes in corner format
+     * @param i the index of the first box
+     * @param j the index of the second box
+     * @return the intersection over union of the two boxes
+     */
+    public static float iou(float[] boxes, int i, int j) {
+        int a = i * 4;
+        int b = j * 4;
+        float areaA =
+                Math.max(0, boxes[a + 2] - boxes[a]) * Math.max(0, boxes[a + 3] - boxes[a + 1]);
+        float areaB =
+                Math.max(0, boxes[b + 2] - boxes[b]) * Math.max(0, boxes[b + 3] - boxes[b + 1]);
+        return intersectionOverUnion(
+                boxes, boxes[a], boxes[a + 1], boxes[a + 2], boxes[a + 3], areaA, b, areaB);
+    }
+
+    /**
+     * Applies non-maximum suppression to the first {@code count} boxes.
+     *
+     * <p>If {@code classIds} is not {@code null}, boxes are only suppressed by boxes of the same
+     * class. This gives the same result as offsetting the boxes of each class so that boxes of
+     * different classes never overlap, and runs all classes in a single pass.
+     *
+     * @param boxes the boxes in corner format
+     * @param scores the scores of the boxes
+     * @param classIds the class of each box, or {@code null} to ignore classes
+     * @param count the number of boxes
+     * @param iouThreshold boxes overlapping a kept box by this intersection over union or more are
+     *     suppressed
+     * @return the indices of the kept boxes, sorted by descending score
+     */
+    public static int[] nms(
+            float[] boxes, float[] scores, int[] classIds, int count, float iouThreshold) {
+        int[] order = sortByScore(scores, count);
+        float[] areas = areas(boxes, count);
+        boolean[] suppressed = new boolean[count];
+        int[] keep = new int[count];
+        int kept = 0;
+        for (int m = 0; m < count; ++m) {
+            int i = order[m];
+            if (suppressed[i]) {
+                continue;
+            }
+            keep[kept++] = i;
+            int a = i * 4;
+            float x1 = boxes[a];
+            float y1 = boxes[a + 1];
+            float x2 = boxes[a + 2];
+            float y2 = boxes[a + 3];
+            for (int n = m + 1; n < count; ++n) {
+                int j = order[n];
+                if (suppressed[j] || (classIds != null && classIds[j] != classIds[i])) {
+                    continue;
+                }
+                if (intersectionOverUnion(boxes, x1, y1, x2, y2, areas[i], j * 4, areas[j])
+                        >= iouThreshold) {
+                    suppressed[j] = true;
+                }
+            }
+        }
+        return Arrays.copyOf(keep, kept);
+    }
+
+    /**
+     * Applies Gaussian soft non-maximum suppression to the first {@code count} boxes.
+     *
+     * <p>Instead of removing overlapping boxes, the score of each box is decayed by {@code exp(-iou
+     * * iou / sigma)} for every higher scoring box of the same class. Boxes whose score drops below
+     * {@code scoreThreshold} are removed. The decayed scores are written back to {@code scores}.
+     *
+     * @param boxes the boxes in corner format
+     * @param scores the scores of the boxes, updated in place
+     * @param classIds the class of each box, or {@code null} to ignore classes
+     * @param count the number of boxes
+     * @param sigma the Gaussian decay parameter
+     * @param scoreThreshold the minimum score of a kept box
+     * @return the indices of the kept boxes, sorted by descending score
+     */
+    public static int[] softNms(
+            float[] boxes,
+            float[] scores,
+            int[] classIds,
+            int count,
+            float sigma,
+            float scoreThreshold) {
+        int[] order = sortByScore(scores, count);
+        float[] areas = areas(boxes, count);
+        for (int m = 0; m < count; ++m) {
+            // scores change as boxes are selected, find the highest remaining one
+            int best = m;
+            for (int n = m + 1; n < count; ++n) {
+                if (scores[order[n]] > scores[order[best]]) {
+                    best = n;
+                }
+            }
+            int i = order[best];
+            if (scores[i] < scoreThreshold) {
+                return Arrays.copyOf(order, m);
+            }
+            order[best] = order[m];
+            order[m] = i;
+
+            int a = i * 4;
+            float x1 = boxes[a];
+            float y1 = boxes[a + 1];
+            float x2 = boxes[a + 2];
+            float y2 = boxes[a + 3];
+            for (int n = m + 1; n < count; ++n) {
+                int j = order[n];
+                if (classIds != null && classIds[j] != classIds[i]) {
+                    continue;
+                }
+                float iou = intersectionOverUnion(boxes, x1, y1, x2, y2, areas[i], j * 4, areas[j]);
+                if (iou > 0) {
+                    scores[j] *= (float) Math.exp(-iou * iou / sigma);
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Creates {@link DetectedObjects} from the selected boxes.
+     *
+     * <p>The coordinates of the boxes are multiplied by {@code scaleX} and {@code scaleY}.
+     *
+     * @param classes the class names
+     * @param classIds the class of each box
+     * @param scores the scores of the boxes
+     * @param boxes the boxes in corner format
+     * @param indices the indices of the boxes to include, in output order
+     * @param scaleX the scale to apply to the x coordinates
+     * @param scaleY the scale to apply to the y coordinates
+     * @return the {@link DetectedObjects}
+     */
+    public static DetectedObjects toDetectedObjects(
+            List<String> classes,
+            int[] classIds,
+            float[] scores,
+            float[] boxes,
+            int[] indices,
+            double scaleX,
+            double scaleY) {
+        List<String> retClasses = new ArrayList<>(indices.length);
+        List<Double> retProbs = new ArrayList<>(indices.length);
+        List<BoundingBox> retBB = new ArrayList<>(indices.length);
+        for (int i : indices) {
+            int b = i * 4;
+            double x = boxes[b] * scaleX;
+            double y = boxes[b + 1] * scaleY;
+            double w = boxes[b + 2] * scaleX - x;
+            double h = boxes[b + 3] * scaleY - y;
+            retClasses.add(classes.get(classIds[i]));
+            retProbs.add((double) scores[i]);
+            retBB.add(new Rectangle(x, y, w, h));
+        }
+        return new DetectedObjects(retClasses, retProbs, retBB);
+    }
+
+    private static float intersectionOverUnion(
+            float[] boxes,
+            float x1,
+            float y1,
+            float x2,
+            float y2,
+            float areaA,
+            int b,
+            float areaB) {
+        float w = Math.min(x2, boxes[b + 2]) - Math.max(x1, boxes[b]);
+        if (w <= 0) {
+            return 0;
+        }
+        float h = Math.min(y2, boxes[b + 3]) - Math.max(y1, boxes[b + 1]);
+        if (h <= 0) {
+            return 0;
+        }
+        float intersection = w * h;
+        return intersection / (areaA + areaB - intersection);
+    }
+}
@@ -16,13 +16,17 @@ import ai.djl.modality.nlp.Vocabulary;
 import ai.djl.modality.nlp.preprocess.SimpleTokenizer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * WordpieceTokenizer tokenizes a piece of text into its word pieces.
  *
  * <p>This uses a greedy longest-match-first algorithm to perform tokenization using the given
- * vocabulary. The input text should already be cleaned and preprocessed.
+ * vocabulary. The input text should already be cleaned and preprocessed. The vocabulary is compiled
+ * into a prefix trie, so each word piece is matched in a single pass over its characters.
  *
  * <pre>
  * jshell&gt; String input = "unaffable";
@@ -38,7 +42,8 @@ public class WordpieceTokenizer extends SimpleTokenizer {
 
     private String unknown;
     private int maxInputChars;
-    private Vocabulary vocabulary;
+    private long unknownId;
+    private Trie trie;
 
     /**
      * Creates an instance of {@code WordpieceTokenizer}.
@@ -50,58 +55,179 @@ public class WordpieceTokenizer extends SimpleTokenizer {
     public WordpieceTokenizer(Vocabulary vocabulary, String unknown, int maxInputChars) {
         this.unknown = unknown;
         this.maxInputChars = maxInputChars;
-        this.vocabulary = vocabulary;
+        unknownId = vocabulary.contains(unknown) ? vocabulary.getIndex(unknown) : -1;
+        trie = new Trie(vocabulary);
     }
 
     /** {@inheritDoc} */
     @Override
     public List<String> tokenize(String sentence) {
-        StringBuilder sb = new StringBuilder();
-        List<String> subTokens = new ArrayList<>();
-        List<String> outputTokens = new ArrayList<>();
-        for (String token : super.tokenize(sentence.trim())) {
-            char[] chars = token.toCharArray();
-            if (chars.length > maxInputChars) {
-                outputTokens.add(unknown);
+        String text = sentence.trim();
+        long[] nodes = new long[text.length()];
+        int count = wordpieces(text, nodes, 0);
+        List<String> outputTokens = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            int node = (int) nodes[i];
+            outputTokens.add(node < 0 ? unknown : trie.tokens[node]);
+        }
+        return outputTokens;
+    }
+
+    /**
+     * Tokenizes the space separated words of a sentence into word piece ids.
+     *
+     * <p>This gives the ids of the tokens returned by {@link #tokenize(String)} without creating
+     * any {@code String}. A sentence never has more word pieces than characters, so {@code ids}
+     * needs room for {@code sentence.length()} ids after {@code offset}.
+     *
+     * @param sentence the sentence to tokenize
+     * @param ids the buffer to write the ids to
+     * @param offset the index in {@code ids} to write the first id to
+     * @return the number of ids written
+     */
+    public int encode(String sentence, long[] ids, int offset) {
+        int count = wordpieces(sentence, ids, offset);
+        for (int i = offset; i < offset + count; ++i) {
+            int node = (int) ids[i];
+            ids[i] = node < 0 ? unknownId : trie.ids[node];
+        }
+        return count;
+    }
+
+    /**
+     * Tokenizes the words into word piece ids.
+     *
+     * @param words the words to tokenize
+     * @return the word piece ids
+     */
+    public long[] encode(List<String> words) {
+        int size = 0;
+        for (String word : words) {
+            size += word.length() + 1;
+        }
+        long[] ids = new long[size];
+        int count = 0;
+        for (String word : words) {
+            count += encode(word, ids, count);
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    // writes the trie nodes of the word pieces of each space separated word, -1 for unknown words
+    private int wordpieces(String text, long[] nodes, int offset) {
+        int count = offset;
+        int length = text.length();
+        int begin = 0;
+        while (begin < length) {
+            int end = text.indexOf(' ', begin);
+            if (end < 0) {
+                end = length;
+            }
+            if (end == begin) {
+                ++begin;
                 continue;
             }
-            boolean isBad = false;
-            int start = 0;
-            subTokens.clear();
-            String currentSubString = null;
-            while (start < chars.length) {
-                int end = chars.length;
+            if (end - begin > maxInputChars) {
+                nodes[count++] = -1;
+            } else {
+                int first = count;
+                int start = begin;
+                int root = Trie.ROOT;
                 while (start < end) {
-                    sb.setLength(0);
-                    sb.append(token, start, end);
-                    if (start > 0) {
-                        sb.insert(0, "##");
+                    // greedy longest match in a single pass over the characters
+                    int matched = -1;
+                    int matchedEnd = start;
+                    int node = root;
+                    for (int i = start; i < end && node >= 0; ++i) {
+                        node = trie.child(node, text.charAt(i));
+                        if (node >= 0 && trie.ids[node] >= 0) {
+                            matched = node;
+                            matchedEnd = i + 1;
+                        }
                     }
-                    String subString = sb.toString();
-                    if (vocabulary.contains(subString)) {
-                        currentSubString = subString;
+                    if (matched < 0) {
+                        count = first;
+                        nodes[count++] = -1;
+                        break;
+                    }
+                    nodes[count++] = matched;
+                    start = matchedEnd;
+                    root = trie.suffixRoot;
+                    if (root < 0 && start < end) {
+                        // the vocabulary has no "##" pieces
+                        count = first;
+                        nodes[count++] = -1;
                         break;
-                    } else {
-                        currentSubString = null;
                     }
-                    end--;
                 }
-                if (currentSubString == null) {
-                    isBad = true;
-                    break;
+            }
+            begin = end + 1;
+        }
+        return count - offset;
+    }
+
+    /** A prefix trie of the vocabulary, stored in flat arrays. */
+    private static final class Trie {
+
+        static final int ROOT = 0;
+
+        int[] offsets;
+        char[] labels;
+        int[] children;
+        long[] ids;
+        String[] tokens;
+        int suffixRoot;
+
+        Trie(Vocabulary vocabulary) {
+            List<TreeMap<Character, Integer>> nodes = new ArrayList<>();
+            List<String> nodeTokens = new ArrayList<>();
+            nodes.add(new TreeMap<>());
+            nodeTokens.add(null);
+            long size = vocabulary.size();
+            for (long i = 0; i < size; ++i) {
+                String token = vocabulary.getToken(i);
+                if (token == null || token.isEmpty()) {
+                    continue;
                 }
-                subTokens.add(currentSubString);
-                if (subTokens.size() > maxInputChars) {
-                    throw new IllegalStateException("Too many subTokens for: '" + sentence + '\'');
+                int node = ROOT;
+                for (int j = 0; j < token.length(); ++j) {
+                    int next = nodes.size();
+                    Integer child = nodes.get(node).putIfAbsent(token.charAt(j), next);
+                    if (child == null) {
+                        nodes.add(new TreeMap<>());
+                        nodeTokens.add(null);
+                        node = next;
+                    } else {
+                        node = child;
+                    }
                 }
-                start = end;
+                nodeTokens.set(node, token);
             }
-            if (isBad) {
-                outputTokens.add(unknown);
-            } else {
-                outputTokens.addAll(subTokens);
+
+            int numNodes = nodes.size();
+            offsets = new int[numNodes + 1];
+            labels = new char[numNodes - 1];
+            children = new int[numNodes - 1];
+            ids = new long[numNodes];
+            tokens = nodeTokens.toArray(new String[0]);
+            int edge = 0;
+            for (int i = 0; i < numNodes; ++i) {
+                offsets[i] = edge;
+                for (Map.Entry<Character, Integer> entry : nodes.get(i).entrySet()) {
+                    labels[edge] = entry.getKey();
+                    children[edge++] = entry.getValue();
+                }
+                ids[i] = tokens[i] == null ? -1 : vocabulary.getIndex(tokens[i]);
             }
+            offsets[numNodes] = edge;
+
+            int node = child(ROOT, '#');
+            suffixRoot = node < 0 ? -1 : child(node, '#');
+        }
+
+        int child(int node, char c) {
+            int index = Arrays.binarySearch(labels, offsets[node], offsets[node + 1], c);
+            return index < 0 ? -1 : children[index];
         }
-        return outputTokens;
     }
 }
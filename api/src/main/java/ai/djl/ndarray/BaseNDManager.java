@@ -17,6 +17,7 @@ import ai.djl.engine.Engine;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
 import ai.djl.util.Float16Utils;
+import ai.djl.util.NativeResource;
 import ai.djl.util.PairList;
 import ai.djl.util.RandomUtils;
 
@@ -25,6 +26,7 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
@@ -32,8 +34,10 @@ import java.nio.LongBuffer;
 import java.nio.ShortBuffer;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
+import java.util.Queue;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /** {@code BaseNDManager} is the default implementation of {@link NDManager}. */
@@ -50,12 +54,19 @@ public abstract class BaseNDManager implements NDManager {
     protected ConcurrentHashMap<String, TempResource> tempResources;
     protected AtomicBoolean closed = new AtomicBoolean(false);
     protected AtomicBoolean capped = new AtomicBoolean(false);
+    protected DirectBufferPool bufferPool;
+    protected Queue<ByteBuffer> pooledBuffers;
+    protected AtomicBoolean pooledBuffersEscaped = new AtomicBoolean(false);
 
     protected BaseNDManager(NDManager parent, Device device) {
         this.parent = parent;
         this.device = device == null ? defaultDevice() : device;
         resources = new ConcurrentHashMap<>();
         tempResources = new ConcurrentHashMap<>();
+        pooledBuffers = new ConcurrentLinkedQueue<>();
+        if (parent != null) {
+            bufferPool = parent.getBufferPool();
+        }
         uid = UUID.randomUUID().toString();
         Engine engine = getEngine().getAlternativeEngine();
         if (engine != null) {
@@ -69,6 +80,30 @@ public abstract class BaseNDManager implements NDManager {
         return getEngine().defaultDevice();
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public ByteBuffer allocateDirect(int capacity) {
+        DirectBufferPool pool = bufferPool;
+        if (pool == null) {
+            return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+        }
+        ByteBuffer bb = pool.acquire(capacity);
+        pooledBuffers.add(bb);
+        return bb.slice().order(ByteOrder.nativeOrder());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setBufferPool(DirectBufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public DirectBufferPool getBufferPool() {
+        return bufferPool;
+    }
+
     /** {@inheritDoc} */
     @Override
     public NDArray create(String[] data, Charset charset, Shape shape) {
@@ -332,7 +367,11 @@ public abstract class BaseNDManager implements NDManager {
                     tempResource.detached = true;
                     return tempResource;
                 });
-        resources.remove(resourceId);
+        AutoCloseable resource = resources.remove(resourceId);
+        if (resource != null && !pooledBuffers.isEmpty() && !isReleased(resource)) {
+            // the resource leaves this manager alive and may wrap one of its pooled buffers
+            pooledBuffersEscaped.set(true);
+        }
     }
 
     /** {@inheritDoc} */
@@ -365,6 +404,13 @@ public abstract class BaseNDManager implements NDManager {
             parent.detachInternal(uid);
             resources.clear();
             tempResources.clear();
+            // the arrays are closed, their buffers can be reused unless one of them escaped
+            if (bufferPool != null && !pooledBuffersEscaped.get()) {
+                for (ByteBuffer bb : pooledBuffers) {
+                    bufferPool.release(bb);
+                }
+            }
+            pooledBuffers.clear();
         }
     }
 
@@ -455,6 +501,17 @@ public abstract class BaseNDManager implements NDManager {
         target.rewind();
     }
 
+    private static boolean isReleased(AutoCloseable resource) {
+        if (resource instanceof NDArrayAdapter) {
+            return ((NDArrayAdapter) resource).isClosed;
+        } else if (resource instanceof NativeResource) {
+            return ((NativeResource<?>) resource).isReleased();
+        } else if (resource instanceof BaseNDManager) {
+            return ((BaseNDManager) resource).closed.get();
+        }
+        return false;
+    }
+
     protected static final class TempResource {
 
         private NDResource resource;
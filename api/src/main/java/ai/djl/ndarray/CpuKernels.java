@@ -0,0 +1,1479 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.ndarray;
+
+import ai.djl.ndarray.index.full.NDIndexFullSlice;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * {@code CpuKernels} implements common {@link NDArray} operations in Java for {@link
+ * NDArrayAdapter}.
+ *
+ * <p>The kernels read the input arrays straight from their buffers and return a {@link CpuNDArray},
+ * so engines built on {@link NDArrayAdapter} do not have to copy their arrays to an alternative
+ * engine and back for post-processing. Integer arrays are computed exactly in 64-bit integers and
+ * wrap around like Java integers when stored. Floating point arrays, and operations without an
+ * exact integer result, are computed in double precision. The result types follow PyTorch: true
+ * division and negative powers of integers, operations between integers and floating point scalars,
+ * and means of integers return {@code FLOAT32}, and sums and products of integers return {@code
+ * INT64}. The inner loops are plain counted loops over primitive arrays that the JIT compiler
+ * vectorizes.
+ */
+final class CpuKernels {
+
+    private static final int MAX_SIZE = Integer.MAX_VALUE / 8;
+
+    private CpuKernels() {}
+
+    /**
+     * Returns whether the kernels can read the given array.
+     *
+     * @param array the array
+     * @return whether the kernels can read the given array
+     */
+    static boolean isSupported(NDArray array) {
+        if (!(array instanceof NDArrayAdapter) || !isSupported(array.getDataType())) {
+            return false;
+        }
+        return array.getShape().size() <= MAX_SIZE;
+    }
+
+    /**
+     * Returns whether the kernels can read and write the given data type.
+     *
+     * @param dataType the data type
+     * @return whether the kernels can read and write the given data type
+     */
+    static boolean isSupported(DataType dataType) {
+        if (dataType == null) {
+            return false;
+        }
+        switch (dataType) {
+            case FLOAT32:
+            case FLOAT64:
+            case INT8:
+            case UINT8:
+            case INT32:
+            case INT64:
+            case BOOLEAN:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns whether the kernels can compute element-wise operations of the given arrays.
+     *
+     * @param array the array
+     * @param other the other array
+     * @return whether the kernels can compute element-wise operations of the given arrays
+     */
+    static boolean isSupported(NDArray array, NDArray other) {
+        return isSupported(array)
+                && isSupported(other)
+                && array.getDataType() == other.getDataType();
+    }
+
+    /**
+     * Returns whether the kernels can compute arithmetic operations of the given array.
+     *
+     * @param array the array
+     * @return whether the kernels can compute arithmetic operations of the given array
+     */
+    static boolean isNumeric(NDArray array) {
+        return isSupported(array) && array.getDataType() != DataType.BOOLEAN;
+    }
+
+    /**
+     * Returns whether the kernels can compute arithmetic operations of the given arrays.
+     *
+     * @param array the array
+     * @param other the other array
+     * @return whether the kernels can compute arithmetic operations of the given arrays
+     */
+    static boolean isNumeric(NDArray array, NDArray other) {
+        return isNumeric(array) && isSupported(array, other);
+    }
+
+    /**
+     * Returns whether the kernels can compute floating point operations of the given array.
+     *
+     * @param array the array
+     * @return whether the kernels can compute floating point operations of the given array
+     */
+    static boolean isFloating(NDArray array) {
+        return isSupported(array) && array.getDataType().isFloating();
+    }
+
+    /**
+     * Applies a binary operation between two arrays, with broadcasting.
+     *
+     * @param array the left operand
+     * @param other the right operand
+     * @param op the operation
+     * @return the result
+     */
+    static NDArray binary(NDArray array, NDArray other, BinaryOp op) {
+        Shape shape = broadcastShape(array.getShape(), other.getShape());
+        int[] xOffsets = broadcastOffsets(array.getShape(), shape);
+        int[] yOffsets = broadcastOffsets(other.getShape(), shape);
+        DataType dataType = op.isComparison() ? DataType.BOOLEAN : array.getDataType();
+        if (isExact(array)) {
+            long[] y = gather(toLongArray(other), yOffsets);
+            if (isExact(op, y)) {
+                long[] x = gather(toLongArray(array), xOffsets);
+                apply(op, x, y);
+                return create(array, x, shape, dataType);
+            }
+            dataType = DataType.FLOAT32;
+        }
+        double[] x = gather(toDoubleArray(array), xOffsets);
+        double[] y = gather(toDoubleArray(other), yOffsets);
+        apply(op, x, y);
+        return create(array, x, shape, dataType);
+    }
+
+    /**
+     * Applies a binary operation between an array and a scalar.
+     *
+     * @param array the left operand
+     * @param n the right operand
+     * @param op the operation
+     * @return the result
+     */
+    static NDArray binary(NDArray array, Number n, BinaryOp op) {
+        DataType dataType = op.isComparison() ? DataType.BOOLEAN : array.getDataType();
+        if (isExact(array)) {
+            boolean integral =
+                    n instanceof Long
+                            || n instanceof Integer
+                            || n instanceof Short
+                            || n instanceof Byte;
+            if (integral && isExact(op, n.longValue())) {
+                long[] x = toLongArray(array);
+                apply(op, x, n.longValue());
+                return create(array, x, array.getShape(), dataType);
+            }
+            if (!op.isComparison()) {
+                dataType = DataType.FLOAT32;
+            }
+        }
+        double[] x = toDoubleArray(array);
+        apply(op, x, n.doubleValue());
+        return create(array, x, array.getShape(), dataType);
+    }
+
+    /**
+     * Applies a unary operation to an array.
+     *
+     * @param array the array
+     * @param op the operation
+     * @return the result
+     */
+    static NDArray unary(NDArray array, UnaryOp op) {
+        if (isExact(array) && op.isExact()) {
+            long[] x = toLongArray(array);
+            apply(op, x);
+            return create(array, x, array.getShape(), array.getDataType());
+        }
+        double[] x = toDoubleArray(array);
+        apply(op, x);
+        return create(array, x, array.getShape(), array.getDataType());
+    }
+
+    /**
+     * Reduces an array along the given axes.
+     *
+     * @param array the array
+     * @param op the reduction
+     * @param axes the axes to reduce, or {@code null} to reduce all axes
+     * @param keepDims whether to keep the reduced axes as axes of size 1
+     * @return the result
+     */
+    static NDArray reduce(NDArray array, ReduceOp op, int[] axes, boolean keepDims) {
+        Shape shape = array.getShape();
+        int dim = shape.dimension();
+        boolean[] reduced = new boolean[dim];
+        if (axes == null) {
+            Arrays.fill(reduced, true);
+        } else {
+            for (int axis : axes) {
+                reduced[normalizeAxis(axis, dim)] = true;
+            }
+        }
+
+        // move the reduced axes last, so each output value reduces a contiguous row
+        int[] order = new int[dim];
+        long[] keptDims = new long[dim];
+        int k = 0;
+        int rows = 1;
+        for (int d = 0; d < dim; ++d) {
+            keptDims[d] = reduced[d] ? 1 : shape.get(d);
+            if (!reduced[d]) {
+                order[k++] = d;
+                rows *= shape.get(d);
+            }
+        }
+        long[] kept = new long[k];
+        for (int i = 0; i < k; ++i) {
+            kept[i] = shape.get(order[i]);
+        }
+        for (int d = 0; d < dim; ++d) {
+            if (reduced[d]) {
+                order[k++] = d;
+            }
+        }
+        int[] offsets = permuteOffsets(shape, order);
+        int size = (int) shape.size();
+        int len = rows == 0 ? 0 : size / rows;
+        Shape outShape = keepDims ? new Shape(keptDims) : new Shape(kept);
+        if (isExact(array) && op != ReduceOp.MEAN) {
+            long[] x = gather(toLongArray(array), offsets);
+            long[] out = new long[rows];
+            for (int r = 0; r < rows; ++r) {
+                out[r] = reduceRow(op, x, r * len, len);
+            }
+            boolean widen = op == ReduceOp.SUM || op == ReduceOp.PROD;
+            return create(array, out, outShape, widen ? DataType.INT64 : array.getDataType());
+        }
+        double[] x = gather(toDoubleArray(array), offsets);
+        double[] out = new double[rows];
+        for (int r = 0; r < rows; ++r) {
+            out[r] = reduceRow(op, x, r * len, len);
+        }
+        DataType dataType = isExact(array) ? DataType.FLOAT32 : array.getDataType();
+        return create(array, out, outShape, dataType);
+    }
+
+    /**
+     * Returns the indices of the maximum or minimum values along an axis.
+     *
+     * @param array the array
+     * @param axis the axis, or {@code null} to search the flattened array
+     * @param max whether to find the maximum values
+     * @return the indices
+     */
+    static NDArray argReduce(NDArray array, Integer axis, boolean max) {
+        Shape shape = array.getShape();
+        if (shape.size() == 0) {
+            throw new IllegalArgumentException("attempt to get argMax/argMin of an empty NDArray");
+        }
+        int outer = 1;
+        int len = (int) shape.size();
+        int inner = 1;
+        Shape outShape = new Shape();
+        if (axis != null) {
+            int a = normalizeAxis(axis, shape.dimension());
+            outer = (int) shape.slice(0, a).size();
+            len = (int) shape.get(a);
+            inner = (int) shape.slice(a + 1).size();
+            outShape = removeAxis(shape, a);
+        }
+        long[] out = new long[outer * inner];
+        if (isExact(array)) {
+            long[] x = toLongArray(array);
+            for (int o = 0; o < outer; ++o) {
+                for (int i = 0; i < inner; ++i) {
+                    int base = o * len * inner + i;
+                    int best = 0;
+                    long value = x[base];
+                    for (int k = 1; k < len; ++k) {
+                        long v = x[base + k * inner];
+                        if (max ? v > value : v < value) {
+                            best = k;
+                            value = v;
+                        }
+                    }
+                    out[o * inner + i] = best;
+                }
+            }
+        } else {
+            double[] x = toDoubleArray(array);
+            for (int o = 0; o < outer; ++o) {
+                for (int i = 0; i < inner; ++i) {
+                    int base = o * len * inner + i;
+                    int best = 0;
+                    double value = x[base];
+                    for (int k = 1; k < len; ++k) {
+                        double v = x[base + k * inner];
+                        if (max ? v > value : v < value) {
+                            best = k;
+                            value = v;
+                        }
+                    }
+                    out[o * inner + i] = best;
+                }
+            }
+        }
+        return create(array, out, outShape, DataType.INT64);
+    }
+
+    /**
+     * Applies softmax or log softmax along an axis.
+     *
+     * @param array the array
+     * @param axis the axis
+     * @param log whether to compute log softmax
+     * @return the result
+     */
+    static NDArray softmax(NDArray array, int axis, boolean log) {
+        Shape shape = array.getShape();
+        int a = normalizeAxis(axis, shape.dimension());
+        int outer = (int) shape.slice(0, a).size();
+        int len = (int) shape.get(a);
+        int inner = (int) shape.slice(a + 1).size();
+        double[] x = toDoubleArray(array);
+        for (int o = 0; o < outer; ++o) {
+            for (int i = 0; i < inner; ++i) {
+                int base = o * len * inner + i;
+                int end = base + len * inner;
+                double max = Double.NEGATIVE_INFINITY;
+                for (int j = base; j < end; j += inner) {
+                    max = Math.max(max, x[j]);
+                }
+                double sum = 0;
+                for (int j = base; j < end; j += inner) {
+                    double v = x[j] - max;
+                    x[j] = log ? v : Math.exp(v);
+                    sum += log ? Math.exp(v) : x[j];
+                }
+                if (log) {
+                    double logSum = Math.log(sum);
+                    for (int j = base; j < end; j += inner) {
+                        x[j] -= logSum;
+                    }
+                } else {
+                    for (int j = base; j < end; j += inner) {
+                        x[j] /= sum;
+                    }
+                }
+            }
+        }
+        return create(array, x, shape, array.getDataType());
+    }
+
+    /**
+     * Sorts an array along an axis.
+     *
+     * <p>The sort is stable, {@code NaN} sorts after all other values.
+     *
+     * @param array the array
+     * @param axis the axis
+     * @param ascending whether to sort in ascending order
+     * @param returnIndices whether to return the indices that sort the array instead of the sorted
+     *     values
+     * @return the sorted values or indices
+     */
+    static NDArray sort(NDArray array, int axis, boolean ascending, boolean returnIndices) {
+        Shape shape = array.getShape();
+        int a = normalizeAxis(axis, shape.dimension());
+        int outer = (int) shape.slice(0, a).size();
+        int len = (int) shape.get(a);
+        int inner = (int) shape.slice(a + 1).size();
+        int sign = ascending ? 1 : -1;
+        if (isExact(array)) {
+            long[] x = toLongArray(array);
+            long[] values = new long[len];
+            int[] indices = new int[len];
+            int[] buffer = new int[len];
+            for (int o = 0; o < outer; ++o) {
+                for (int i = 0; i < inner; ++i) {
+                    int base = o * len * inner + i;
+                    for (int k = 0; k < len; ++k) {
+                        values[k] = x[base + k * inner];
+                        indices[k] = k;
+                    }
+                    sortIndices(
+                            indices, buffer, (p, q) -> sign * Long.compare(values[p], values[q]));
+                    for (int k = 0; k < len; ++k) {
+                        x[base + k * inner] = returnIndices ? indices[k] : values[indices[k]];
+                    }
+                }
+            }
+            return create(array, x, shape, returnIndices ? DataType.INT64 : array.getDataType());
+        }
+        double[] x = toDoubleArray(array);
+        double[] values = new double[len];
+        int[] indices = new int[len];
+        int[] buffer = new int[len];
+        for (int o = 0; o < outer; ++o) {
+            for (int i = 0; i < inner; ++i) {
+                int base = o * len * inner + i;
+                for (int k = 0; k < len; ++k) {
+                    values[k] = x[base + k * inner];
+                    indices[k] = k;
+                }
+                sortIndices(indices, buffer, (p, q) -> sign * Double.compare(values[p], values[q]));
+                for (int k = 0; k < len; ++k) {
+                    x[base + k * inner] = returnIndices ? indices[k] : values[indices[k]];
+                }
+            }
+        }
+        return create(array, x, shape, returnIndices ? DataType.INT64 : array.getDataType());
+    }
+
+    /**
+     * Converts an array to another data type.
+     *
+     * @param array the array
+     * @param dataType the data type to convert to
+     * @return the result
+     */
+    static NDArray toType(NDArray array, DataType dataType) {
+        if (isExact(array)) {
+            return create(array, toLongArray(array), array.getShape(), dataType);
+        }
+        return create(array, toDoubleArray(array), array.getShape(), dataType);
+    }
+
+    /**
+     * Returns a copy of an array with a new shape.
+     *
+     * @param array the array
+     * @param shape the new shape, one dimension can be -1 to be inferred
+     * @return the result
+     */
+    static NDArray reshape(NDArray array, Shape shape) {
+        long size = array.getShape().size();
+        long[] dims = shape.getShape();
+        int unknown = -1;
+        long known = 1;
+        for (int i = 0; i < dims.length; ++i) {
+            if (dims[i] == -1 && unknown == -1) {
+                unknown = i;
+            } else {
+                known *= dims[i];
+            }
+        }
+        if (unknown != -1 && known != 0) {
+            dims = dims.clone();
+            dims[unknown] = size / known;
+            known *= dims[unknown];
+        }
+        if (known != size || Arrays.stream(dims).anyMatch(d -> d < 0)) {
+            throw new IllegalArgumentException(
+                    "Cannot reshape array of shape " + array.getShape() + " into " + shape);
+        }
+        NDManager manager = array.getManager();
+        ByteBuffer bb = manager.allocateDirect(array.toByteBuffer().remaining());
+        bb.put(array.toByteBuffer().duplicate());
+        bb.rewind();
+        return new CpuNDArray(
+                manager, alternativeManager(array), bb, new Shape(dims), array.getDataType());
+    }
+
+    /**
+     * Returns a copy of an array with an axis of size 1 inserted.
+     *
+     * @param array the array
+     * @param axis the position of the new axis
+     * @return the result
+     */
+    static NDArray expandDims(NDArray array, int axis) {
+        Shape shape = array.getShape();
+        int a = normalizeAxis(axis, shape.dimension() + 1);
+        return reshape(array, shape.slice(0, a).add(1).addAll(shape.slice(a)));
+    }
+
+    /**
+     * Returns a copy of an array with the given axes of size 1 removed.
+     *
+     * @param array the array
+     * @param axes the axes to remove
+     * @return the result
+     */
+    static NDArray squeeze(NDArray array, int[] axes) {
+        Shape shape = array.getShape();
+        int dim = shape.dimension();
+        boolean[] removed = new boolean[dim];
+        for (int axis : axes) {
+            int a = normalizeAxis(axis, dim);
+            if (shape.get(a) != 1) {
+                throw new IllegalArgumentException(
+                        "Cannot squeeze axis " + axis + " of size " + shape.get(a));
+            }
+            removed[a] = true;
+        }
+        long[] dims = new long[dim];
+        int k = 0;
+        for (int d = 0; d < dim; ++d) {
+            if (!removed[d]) {
+                dims[k++] = shape.get(d);
+            }
+        }
+        return reshape(array, new Shape(Arrays.copyOf(dims, k)));
+    }
+
+    /**
+     * Returns the part of an array selected by a {@link NDIndexFullSlice}.
+     *
+     * @param array the array
+     * @param manager the manager to attach the result to
+     * @param fullSlice the slice
+     * @return the result
+     */
+    static NDArray get(NDArray array, NDManager manager, NDIndexFullSlice fullSlice) {
+        int width = array.getDataType().getNumOfBytes();
+        int size = (int) fullSlice.getShape().size();
+        int run = contiguousRun(fullSlice);
+        ByteBuffer src = array.toByteBuffer().duplicate();
+        ByteBuffer dst = manager.allocateDirect(size * width);
+        for (int offset : runOffsets(array.getShape(), fullSlice, run)) {
+            src.clear();
+            src.limit((offset + run) * width);
+            src.position(offset * width);
+            dst.put(src);
+        }
+        dst.rewind();
+        return new CpuNDArray(
+                manager,
+                alternativeManager(array),
+                dst,
+                fullSlice.getSqueezedShape(),
+                array.getDataType());
+    }
+
+    /**
+     * Returns a copy of the data of an array with the part selected by a {@link NDIndexFullSlice}
+     * set to a value.
+     *
+     * @param array the array
+     * @param fullSlice the slice
+     * @param value the value to set
+     * @return the new data of the array
+     */
+    static ByteBuffer set(NDArray array, NDIndexFullSlice fullSlice, Number value) {
+        DataType dataType = array.getDataType();
+        int width = dataType.getNumOfBytes();
+        ByteBuffer bb = ByteBuffer.allocate(width).order(ByteOrder.nativeOrder());
+        switch (dataType) {
+            case FLOAT32:
+                bb.putFloat(value.floatValue());
+                break;
+            case FLOAT64:
+                bb.putDouble(value.doubleValue());
+                break;
+            case INT32:
+                bb.putInt(value.intValue());
+                break;
+            case INT64:
+                bb.putLong(value.longValue());
+                break;
+            case BOOLEAN:
+                bb.put((byte) (value.doubleValue() == 0 ? 0 : 1));
+                break;
+            default:
+                bb.put(value.byteValue());
+                break;
+        }
+        byte[] bytes = bb.array();
+
+        // the data of some engines is freed with the array, the copy must not be pooled
+        ByteBuffer data = copyOf(array.toByteBuffer());
+        int run = contiguousRun(fullSlice);
+        for (int offset : runOffsets(array.getShape(), fullSlice, run)) {
+            for (int i = offset * width; i < (offset + run) * width; i += width) {
+                data.position(i);
+                data.put(bytes);
+            }
+        }
+        data.rewind();
+        return data;
+    }
+
+    /**
+     * Returns an unpooled direct copy of a buffer, in native order.
+     *
+     * @param buffer the buffer to copy
+     * @return the copy
+     */
+    static ByteBuffer copyOf(ByteBuffer buffer) {
+        ByteBuffer src = buffer.duplicate();
+        src.rewind();
+        ByteBuffer copy = ByteBuffer.allocateDirect(src.remaining()).order(ByteOrder.nativeOrder());
+        copy.put(src);
+        copy.rewind();
+        return copy;
+    }
+
+    /**
+     * Returns a non-negative axis.
+     *
+     * @param axis the axis, may be negative to count from the last axis
+     * @param dim the number of dimensions
+     * @return the non-negative axis
+     */
+    static int normalizeAxis(int axis, int dim) {
+        int a = axis < 0 ? axis + dim : axis;
+        if (a < 0 || a >= dim) {
+            throw new IllegalArgumentException(
+                    "Axis " + axis + " is out of bounds for array of dimension " + dim);
+        }
+        return a;
+    }
+
+    private static boolean isExact(NDArray array) {
+        return !array.getDataType().isFloating();
+    }
+
+    // true division and negative powers of integers have no exact integer result
+    private static boolean isExact(BinaryOp op, long... y) {
+        if (op == BinaryOp.DIV) {
+            return false;
+        }
+        if (op == BinaryOp.POW) {
+            for (long v : y) {
+                if (v < 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static double[] toDoubleArray(NDArray array) {
+        ByteBuffer bb = array.toByteBuffer().duplicate().order(ByteOrder.nativeOrder());
+        bb.rewind();
+        int size = (int) array.getShape().size();
+        double[] out = new double[size];
+        switch (array.getDataType()) {
+            case FLOAT32:
+                FloatBuffer floats = bb.asFloatBuffer();
+                for (int i = 0; i < size; ++i) {
+                    out[i] = floats.get(i);
+                }
+                break;
+            case FLOAT64:
+                bb.asDoubleBuffer().get(out);
+                break;
+            case INT32:
+                IntBuffer ints = bb.asIntBuffer();
+                for (int i = 0; i < size; ++i) {
+                    out[i] = ints.get(i);
+                }
+                break;
+            case INT64:
+                LongBuffer longs = bb.asLongBuffer();
+                for (int i = 0; i < size; ++i) {
+                    out[i] = longs.get(i);
+                }
+                break;
+            case INT8:
+                for (int i = 0; i < size; ++i) {
+                    out[i] = bb.get(i);
+                }
+                break;
+            case UINT8:
+                for (int i = 0; i < size; ++i) {
+                    out[i] = bb.get(i) & 0xff;
+                }
+                break;
+            case BOOLEAN:
+                for (int i = 0; i < size; ++i) {
+                    out[i] = bb.get(i) == 0 ? 0 : 1;
+                }
+                break;
+            default:
+                throw new UnsupportedOperationException(
+                        "Unsupported data type: " + array.getDataType());
+        }
+        return out;
+    }
+
+    private static long[] toLongArray(NDArray array) {
+        ByteBuffer bb = array.toByteBuffer().duplicate().order(ByteOrder.nativeOrder());
+        bb.rewind();
+        int size = (int) array.getShape().size();
+        long[] out = new long[size];
+        switch (array.getDataType()) {
+            case INT32:
+                IntBuffer ints = bb.asIntBuffer();
+                for (int i = 0; i < size; ++i) {
+                    out[i] = ints.get(i);
+                }
+                break;
+            case INT64:
+                bb.asLongBuffer().get(out);
+                break;
+            case INT8:
+                for (int i = 0; i < size; ++i) {
+                    out[i] = bb.get(i);
+                }
+                break;
+            case UINT8:
+                for (int i = 0; i < size; ++i) {
+                    out[i] = bb.get(i) & 0xff;
+                }
+                break;
+            case BOOLEAN:
+                for (int i = 0; i < size; ++i) {
+                    out[i] = bb.get(i) == 0 ? 0 : 1;
+                }
+                break;
+            default:
+                throw new UnsupportedOperationException(
+                        "Unsupported data type: " + array.getDataType());
+        }
+        return out;
+    }
+
+    private static NDArray create(NDArray like, double[] data, Shape shape, DataType dataType) {
+        int size = data.length;
+        NDManager manager = like.getManager();
+        ByteBuffer bb = manager.allocateDirect(size * dataType.getNumOfBytes());
+        switch (dataType) {
+            case FLOAT32:
+                FloatBuffer floats = bb.asFloatBuffer();
+                for (int i = 0; i < size; ++i) {
+                    floats.put(i, (float) data[i]);
+                }
+                break;
+            case FLOAT64:
+                bb.asDoubleBuffer().put(data);
+                break;
+            case INT32:
+                IntBuffer ints = bb.asIntBuffer();
+                for (int i = 0; i < size; ++i) {
+                    // wrap around like the exact integer operations
+                    ints.put(i, (int) (long) data[i]);
+                }
+                break;
+            case INT64:
+                LongBuffer longs = bb.asLongBuffer();
+                for (int i = 0; i < size; ++i) {
+                    longs.put(i, (long) data[i]);
+                }
+                break;
+            case INT8:
+            case UINT8:
+                for (int i = 0; i < size; ++i) {
+                    bb.put(i, (byte) (long) data[i]);
+                }
+                break;
+            case BOOLEAN:
+                for (int i = 0; i < size; ++i) {
+                    bb.put(i, (byte) (data[i] == 0 ? 0 : 1));
+                }
+                break;
+            default:
+                throw new UnsupportedOperationException("Unsupported data type: " + dataType);
+        }
+        return new CpuNDArray(manager, alternativeManager(like), bb, shape, dataType);
+    }
+
+    private static NDArray create(NDArray like, long[] data, Shape shape, DataType dataType) {
+        int size = data.length;
+        NDManager manager = like.getManager();
+        ByteBuffer bb = manager.allocateDirect(size * dataType.getNumOfBytes());
+        switch (dataType) {
+            case FLOAT32:
+                FloatBuffer floats = bb.asFloatBuffer();
+                for (int i = 0; i < size; ++i) {
+                    floats.put(i, data[i]);
+                }
+                break;
+            case FLOAT64:
+                DoubleBuffer doubles = bb.asDoubleBuffer();
+                for (int i = 0; i < size; ++i) {
+                    doubles.put(i, data[i]);
+                }
+                break;
+            case INT32:
+                IntBuffer ints = bb.asIntBuffer();
+                for (int i = 0; i < size; ++i) {
+                    ints.put(i, (int) data[i]);
+                }
+                break;
+            case INT64:
+                bb.asLongBuffer().put(data);
+                break;
+            case INT8:
+            case UINT8:
+                for (int i = 0; i < size; ++i) {
+                    bb.put(i, (byte) data[i]);
+                }
+                break;
+            case BOOLEAN:
+                for (int i = 0; i < size; ++i) {
+                    bb.put(i, (byte) (data[i] == 0 ? 0 : 1));
+                }
+                break;
+            default:
+                throw new UnsupportedOperationException("Unsupported data type: " + dataType);
+        }
+        return new CpuNDArray(manager, alternativeManager(like), bb, shape, dataType);
+    }
+
+    private static Shape removeAxis(Shape shape, int axis) {
+        return shape.slice(0, axis).addAll(shape.slice(axis + 1));
+    }
+
+    private static NDManager alternativeManager(NDArray array) {
+        return ((NDArrayAdapter) array).alternativeManager;
+    }
+
+    private static void apply(BinaryOp op, double[] x, double[] y) {
+        int size = x.length;
+        switch (op) {
+            case ADD:
+                for (int i = 0; i < size; ++i) {
+                    x[i] += y[i];
+                }
+                break;
+            case SUB:
+                for (int i = 0; i < size; ++i) {
+                    x[i] -= y[i];
+                }
+                break;
+            case MUL:
+                for (int i = 0; i < size; ++i) {
+                    x[i] *= y[i];
+                }
+                break;
+            case DIV:
+                for (int i = 0; i < size; ++i) {
+                    x[i] /= y[i];
+                }
+                break;
+            case POW:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = Math.pow(x[i], y[i]);
+                }
+                break;
+            case MAXIMUM:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = Math.max(x[i], y[i]);
+                }
+                break;
+            case MINIMUM:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = Math.min(x[i], y[i]);
+                }
+                break;
+            case EQ:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] == y[i] ? 1 : 0;
+                }
+                break;
+            case NEQ:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] != y[i] ? 1 : 0;
+                }
+                break;
+            case GT:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] > y[i] ? 1 : 0;
+                }
+                break;
+            case GTE:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] >= y[i] ? 1 : 0;
+                }
+                break;
+            case LT:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] < y[i] ? 1 : 0;
+                }
+                break;
+            case LTE:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] <= y[i] ? 1 : 0;
+                }
+                break;
+            default:
+                throw new AssertionError("Unexpected operation: " + op);
+        }
+    }
+
+    private static void apply(BinaryOp op, double[] x, double y) {
+        int size = x.length;
+        switch (op) {
+            case ADD:
+                for (int i = 0; i < size; ++i) {
+                    x[i] += y;
+                }
+                break;
+            case SUB:
+                for (int i = 0; i < size; ++i) {
+                    x[i] -= y;
+                }
+                break;
+            case MUL:
+                for (int i = 0; i < size; ++i) {
+                    x[i] *= y;
+                }
+                break;
+            case DIV:
+                for (int i = 0; i < size; ++i) {
+                    x[i] /= y;
+                }
+                break;
+            case POW:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = Math.pow(x[i], y);
+                }
+                break;
+            case MAXIMUM:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = Math.max(x[i], y);
+                }
+                break;
+            case MINIMUM:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = Math.min(x[i], y);
+                }
+                break;
+            case EQ:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] == y ? 1 : 0;
+                }
+                break;
+            case NEQ:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] != y ? 1 : 0;
+                }
+                break;
+            case GT:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] > y ? 1 : 0;
+                }
+                break;
+            case GTE:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] >= y ? 1 : 0;
+                }
+                break;
+            case LT:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] < y ? 1 : 0;
+                }
+                break;
+            case LTE:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] <= y ? 1 : 0;
+                }
+                break;
+            default:
+                throw new AssertionError("Unexpected operation: " + op);
+        }
+    }
+
+    private static void apply(BinaryOp op, long[] x, long[] y) {
+        int size = x.length;
+        switch (op) {
+            case ADD:
+                for (int i = 0; i < size; ++i) {
+                    x[i] += y[i];
+                }
+                break;
+            case SUB:
+                for (int i = 0; i < size; ++i) {
+                    x[i] -= y[i];
+                }
+                break;
+            case MUL:
+                for (int i = 0; i < size; ++i) {
+                    x[i] *= y[i];
+                }
+                break;
+            case POW:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = pow(x[i], y[i]);
+                }
+                break;
+            case MAXIMUM:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = Math.max(x[i], y[i]);
+                }
+                break;
+            case MINIMUM:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = Math.min(x[i], y[i]);
+                }
+                break;
+            case EQ:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] == y[i] ? 1 : 0;
+                }
+                break;
+            case NEQ:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] != y[i] ? 1 : 0;
+                }
+                break;
+            case GT:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] > y[i] ? 1 : 0;
+                }
+                break;
+            case GTE:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] >= y[i] ? 1 : 0;
+                }
+                break;
+            case LT:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] < y[i] ? 1 : 0;
+                }
+                break;
+            case LTE:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] <= y[i] ? 1 : 0;
+                }
+                break;
+            default:
+                throw new AssertionError("Unexpected operation: " + op);
+        }
+    }
+
+    private static void apply(BinaryOp op, long[] x, long y) {
+        int size = x.length;
+        switch (op) {
+            case ADD:
+                for (int i = 0; i < size; ++i) {
+                    x[i] += y;
+                }
+                break;
+            case SUB:
+                for (int i = 0; i < size; ++i) {
+                    x[i] -= y;
+                }
+                break;
+            case MUL:
+                for (int i = 0; i < size; ++i) {
+                    x[i] *= y;
+                }
+                break;
+            case POW:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = pow(x[i], y);
+                }
+                break;
+            case MAXIMUM:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = Math.max(x[i], y);
+                }
+                break;
+            case MINIMUM:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = Math.min(x[i], y);
+                }
+                break;
+            case EQ:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] == y ? 1 : 0;
+                }
+                break;
+            case NEQ:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] != y ? 1 : 0;
+                }
+                break;
+            case GT:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] > y ? 1 : 0;
+                }
+                break;
+            case GTE:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] >= y ? 1 : 0;
+                }
+                break;
+            case LT:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] < y ? 1 : 0;
+                }
+                break;
+            case LTE:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] <= y ? 1 : 0;
+                }
+                break;
+            default:
+                throw new AssertionError("Unexpected operation: " + op);
+        }
+    }
+
+    private static void apply(UnaryOp op, double[] x) {
+        int size = x.length;
+        switch (op) {
+            case NEG:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = -x[i];
+                }
+                break;
+            case ABS:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = Math.abs(x[i]);
+                }
+                break;
+            case SQUARE:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] * x[i];
+                }
+                break;
+            case SQRT:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = Math.sqrt(x[i]);
+                }
+                break;
+            case EXP:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = Math.exp(x[i]);
+                }
+                break;
+            case LOG:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = Math.log(x[i]);
+                }
+                break;
+            default:
+                throw new AssertionError("Unexpected operation: " + op);
+        }
+    }
+
+    private static void apply(UnaryOp op, long[] x) {
+        int size = x.length;
+        switch (op) {
+            case NEG:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = -x[i];
+                }
+                break;
+            case ABS:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = Math.abs(x[i]);
+                }
+                break;
+            case SQUARE:
+                for (int i = 0; i < size; ++i) {
+                    x[i] = x[i] * x[i];
+                }
+                break;
+            default:
+                throw new AssertionError("Unexpected operation: " + op);
+        }
+    }
+
+    private static double reduceRow(ReduceOp op, double[] x, int from, int len) {
+        int to = from + len;
+        double value;
+        switch (op) {
+            case SUM:
+            case MEAN:
+                value = 0;
+                for (int i = from; i < to; ++i) {
+                    value += x[i];
+                }
+                return op == ReduceOp.MEAN ? value / len : value;
+            case PROD:
+                value = 1;
+                for (int i = from; i < to; ++i) {
+                    value *= x[i];
+                }
+                return value;
+            case MAX:
+                value = Double.NEGATIVE_INFINITY;
+                for (int i = from; i < to; ++i) {
+                    value = Math.max(value, x[i]);
+                }
+                return value;
+            case MIN:
+                value = Double.POSITIVE_INFINITY;
+                for (int i = from; i < to; ++i) {
+                    value = Math.min(value, x[i]);
+                }
+                return value;
+            default:
+                throw new AssertionError("Unexpected reduction: " + op);
+        }
+    }
+
+    private static long reduceRow(ReduceOp op, long[] x, int from, int len) {
+        int to = from + len;
+        long value;
+        switch (op) {
+            case SUM:
+                value = 0;
+                for (int i = from; i < to; ++i) {
+                    value += x[i];
+                }
+                return value;
+            case PROD:
+                value = 1;
+                for (int i = from; i < to; ++i) {
+                    value *= x[i];
+                }
+                return value;
+            case MAX:
+                value = Long.MIN_VALUE;
+                for (int i = from; i < to; ++i) {
+                    value = Math.max(value, x[i]);
+                }
+                return value;
+            case MIN:
+                value = Long.MAX_VALUE;
+                for (int i = from; i < to; ++i) {
+                    value = Math.min(value, x[i]);
+                }
+                return value;
+            default:
+                throw new AssertionError("Unexpected reduction: " + op);
+        }
+    }
+
+    // base to the power of a non-negative exponent, with wrap around
+    private static long pow(long base, long exponent) {
+        long result = 1;
+        long b = base;
+        for (long e = exponent; e > 0; e >>= 1) {
+            if ((e & 1) != 0) {
+                result *= b;
+            }
+            b *= b;
+        }
+        return result;
+    }
+
+    private static Shape broadcastShape(Shape a, Shape b) {
+        int dim = Math.max(a.dimension(), b.dimension());
+        long[] dims = new long[dim];
+        for (int i = 0; i < dim; ++i) {
+            int ia = a.dimension() - dim + i;
+            int ib = b.dimension() - dim + i;
+            long da = ia < 0 ? 1 : a.get(ia);
+            long db = ib < 0 ? 1 : b.get(ib);
+            if (da != db && da != 1 && db != 1) {
+                throw new IllegalArgumentException(
+                        "Shapes " + a + " and " + b + " cannot be broadcast together");
+            }
+            dims[i] = da == 1 ? db : da;
+        }
+        return new Shape(dims);
+    }
+
+    // the offsets to read an array of the given shape broadcast to another shape, or null
+    private static int[] broadcastOffsets(Shape from, Shape to) {
+        if (from.equals(to)) {
+            return null;
+        }
+        int dim = to.dimension();
+        long[] strides = new long[dim];
+        long stride = 1;
+        for (int i = dim - 1, j = from.dimension() - 1; j >= 0; --i, --j) {
+            if (from.get(j) != 1) {
+                strides[i] = stride;
+            }
+            stride *= from.get(j);
+        }
+        return offsets(to.getShape(), strides);
+    }
+
+    // the offsets to read an array with its axes in the given order, or null
+    private static int[] permuteOffsets(Shape shape, int[] order) {
+        int dim = order.length;
+        boolean identity = true;
+        for (int i = 0; i < dim; ++i) {
+            identity &= order[i] == i;
+        }
+        if (identity) {
+            return null;
+        }
+        long[] strides = strides(shape);
+        long[] dims = new long[dim];
+        long[] permuted = new long[dim];
+        for (int i = 0; i < dim; ++i) {
+            dims[i] = shape.get(order[i]);
+            permuted[i] = strides[order[i]];
+        }
+        return offsets(dims, permuted);
+    }
+
+    // the offsets to read an array of the given dimensions with the given strides
+    private static int[] offsets(long[] dims, long[] strides) {
+        int dim = dims.length;
+        int size = (int) new Shape(dims).size();
+        int[] out = new int[size];
+        int[] index = new int[dim];
+        int src = 0;
+        for (int i = 0; i < size; ++i) {
+            out[i] = src;
+            for (int d = dim - 1; d >= 0; --d) {
+                src += strides[d];
+                if (++index[d] < dims[d]) {
+                    break;
+                }
+                src -= strides[d] * dims[d];
+                index[d] = 0;
+            }
+        }
+        return out;
+    }
+
+    private static double[] gather(double[] data, int[] offsets) {
+        if (offsets == null) {
+            return data;
+        }
+        double[] out = new double[offsets.length];
+        for (int i = 0; i < out.length; ++i) {
+            out[i] = data[offsets[i]];
+        }
+        return out;
+    }
+
+    private static long[] gather(long[] data, int[] offsets) {
+        if (offsets == null) {
+            return data;
+        }
+        long[] out = new long[offsets.length];
+        for (int i = 0; i < out.length; ++i) {
+            out[i] = data[offsets[i]];
+        }
+        return out;
+    }
+
+    private static long[] strides(Shape shape) {
+        int dim = shape.dimension();
+        long[] strides = new long[dim];
+        long stride = 1;
+        for (int d = dim - 1; d >= 0; --d) {
+            strides[d] = stride;
+            stride *= shape.get(d);
+        }
+        return strides;
+    }
+
+    // the number of contiguous elements the slice selects at a time
+    private static int contiguousRun(NDIndexFullSlice fullSlice) {
+        long[] step = fullSlice.getStep();
+        int last = step.length - 1;
+        if (last < 0 || step[last] != 1) {
+            return 1;
+        }
+        return (int) fullSlice.getShape().get(last);
+    }
+
+    // the offsets of the runs of contiguous elements selected by the slice
+    private static int[] runOffsets(Shape shape, NDIndexFullSlice fullSlice, int run) {
+        long size = fullSlice.getShape().size();
+        if (size == 0) {
+            return new int[0];
+        }
+        long[] min = fullSlice.getMin();
+        long[] step = fullSlice.getStep();
+        long[] dims = fullSlice.getShape().getShape();
+        long[] strides = strides(shape);
+        int dim = run > 1 ? dims.length - 1 : dims.length;
+        int[] offsets = new int[(int) (size / run)];
+        int[] index = new int[dim];
+        long pos = 0;
+        for (int d = 0; d < dims.length; ++d) {
+            pos += min[d] * strides[d];
+        }
+        for (int i = 0; i < offsets.length; ++i) {
+            offsets[i] = (int) pos;
+            for (int d = dim - 1; d >= 0; --d) {
+                pos += step[d] * strides[d];
+                if (++index[d] < dims[d]) {
+                    break;
+                }
+                pos -= step[d] * strides[d] * dims[d];
+                index[d] = 0;
+            }
+        }
+        return offsets;
+    }
+
+    // stable bottom-up merge sort of the indices by value
+    private static void sortIndices(int[] indices, int[] buffer, IntBinaryOperator comparator) {
+        int len = indices.length;
+        int[] src = indices;
+        int[] dst = buffer;
+        for (int width = 1; width < len; width *= 2) {
+            for (int lo = 0; lo < len; lo += 2 * width) {
+                int mid = Math.min(lo + width, len);
+                int hi = Math.min(lo + 2 * width, len);
+                int i = lo;
+                int j = mid;
+                for (int k = lo; k < hi; ++k) {
+                    if (j >= hi || i < mid && comparator.applyAsInt(src[i], src[j]) <= 0) {
+                        dst[k] = src[i++];
+                    } else {
+                        dst[k] = src[j++];
+                    }
+                }
+            }
+            int[] tmp = src;
+            src = dst;
+            dst = tmp;
+        }
+        if (src != indices) {
+            System.arraycopy(src, 0, indices, 0, len);
+        }
+    }
+
+    /** The binary operations of {@link CpuKernels}. */
+    enum BinaryOp {
+        ADD,
+        SUB,
+        MUL,
+        DIV,
+        POW,
+        MAXIMUM,
+        MINIMUM,
+        EQ,
+        NEQ,
+        GT,
+        GTE,
+        LT,
+        LTE;
+
+        boolean isComparison() {
+            return compareTo(EQ) >= 0;
+        }
+    }
+
+    /** The unary operations of {@link CpuKernels}. */
+    enum UnaryOp {
+        NEG,
+        ABS,
+        SQUARE,
+        SQRT,
+        EXP,
+        LOG;
+
+        boolean isExact() {
+            return compareTo(SQRT) < 0;
+        }
+    }
+
+    /** The reductions of {@link CpuKernels}. */
+    enum ReduceOp {
+        SUM,
+        PROD,
+        MAX,
+        MIN,
+        MEAN
+    }
+}
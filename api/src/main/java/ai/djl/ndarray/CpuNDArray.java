@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.ndarray;
+
+import ai.djl.Device;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.UUID;
+
+/**
+ * {@code CpuNDArray} is an {@link NDArray} backed by a direct buffer that holds the results of the
+ * operations {@link NDArrayAdapter} computes in Java with {@link CpuKernels}.
+ *
+ * <p>The array is attached to the manager of the array it was computed from, so it shares its
+ * lifecycle, but its data always lives on the CPU.
+ */
+final class CpuNDArray extends NDArrayAdapter {
+
+    private ByteBuffer data;
+
+    CpuNDArray(
+            NDManager manager,
+            NDManager alternativeManager,
+            ByteBuffer data,
+            Shape shape,
+            DataType dataType) {
+        super(manager, alternativeManager, shape, dataType, UUID.randomUUID().toString());
+        this.data = data;
+        manager.attachInternal(uid, this);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Device getDevice() {
+        return Device.cpu();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void set(Buffer buffer) {
+        int size = Math.toIntExact(shape.size());
+        BaseNDManager.validateBufferSize(buffer, dataType, size);
+        ByteBuffer bb = data.duplicate().order(ByteOrder.nativeOrder());
+        bb.clear();
+        if (buffer instanceof ByteBuffer) {
+            bb.put(((ByteBuffer) buffer).duplicate());
+            return;
+        }
+        switch (dataType) {
+            case FLOAT32:
+                bb.asFloatBuffer().put((FloatBuffer) buffer);
+                break;
+            case FLOAT64:
+                bb.asDoubleBuffer().put((DoubleBuffer) buffer);
+                break;
+            case INT32:
+                bb.asIntBuffer().put((IntBuffer) buffer);
+                break;
+            case INT64:
+                bb.asLongBuffer().put((LongBuffer) buffer);
+                break;
+            default:
+                super.set(buffer);
+                break;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void intern(NDArray replaced) {
+        ByteBuffer bb = replaced.toByteBuffer();
+        if (!(replaced instanceof CpuNDArray)) {
+            // the buffer of other arrays may be freed with them
+            bb = CpuKernels.copyOf(bb);
+        }
+        data = bb;
+        shape = replaced.getShape();
+        dataType = replaced.getDataType();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void detach() {
+        manager.detachInternal(getUid());
+        if (manager.getBufferPool() != null) {
+            // a pooled buffer goes back to the pool when the manager is closed
+            data = CpuKernels.copyOf(data);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ByteBuffer toByteBuffer() {
+        data.rewind();
+        return data;
+    }
+}
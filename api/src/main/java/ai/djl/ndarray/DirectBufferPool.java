@@ -0,0 +1,186 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.ndarray;
+
+import ai.djl.metric.Metrics;
+import ai.djl.metric.Unit;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@code DirectBufferPool} recycles direct {@link ByteBuffer}s allocated by {@link NDManager}s.
+ *
+ * <p>Buffers are grouped in power-of-two size classes. A buffer allocated with {@link
+ * NDManager#allocateDirect(int)} is taken from the pool if a buffer of the same size class is
+ * available, and returns to the pool when the {@link NDManager} that allocated it is closed. The
+ * pool is shared by the whole {@link NDManager} hierarchy below the manager it is set on:
+ *
+ * <pre>
+ * model.getNDManager().setBufferPool(new DirectBufferPool());
+ * </pre>
+ *
+ * <p>Engines that wrap direct buffers without copying them, like ONNX Runtime, keep using the
+ * buffer after the {@link NDArray} is created. A manager therefore only returns its buffers to the
+ * pool if all of its arrays were closed with it. If an array is detached or attached to another
+ * manager, the buffers of the manager it left are dropped instead, and freed by the garbage
+ * collector. A pooled buffer must only be used to create arrays on the manager that allocated it.
+ */
+public class DirectBufferPool {
+
+    private static final int MIN_CLASS = 6;
+    private static final int MAX_CLASS = 30;
+    private static final byte[] ZEROS = new byte[8192];
+
+    private List<ConcurrentLinkedDeque<ByteBuffer>> pools;
+    private long maxPoolSize;
+    private AtomicLong poolSize;
+    private LongAdder hits;
+    private LongAdder misses;
+
+    /** Creates a new instance of {@code DirectBufferPool} that holds up to 256 MB of buffers. */
+    public DirectBufferPool() {
+        this(256L * 1024 * 1024);
+    }
+
+    /**
+     * Creates a new instance of {@code DirectBufferPool}.
+     *
+     * @param maxPoolSize the maximum number of bytes held by the idle buffers in the pool
+     */
+    public DirectBufferPool(long maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+        pools = new ArrayList<>(MAX_CLASS + 1);
+        for (int i = 0; i <= MAX_CLASS; ++i) {
+            pools.add(new ConcurrentLinkedDeque<>());
+        }
+        poolSize = new AtomicLong();
+        hits = new LongAdder();
+        misses = new LongAdder();
+    }
+
+    /**
+     * Returns a zero-filled direct buffer in native order with at least the given capacity.
+     *
+     * <p>The returned buffer has its limit set to {@code capacity}. Its capacity is the size class
+     * of the request, which may be larger.
+     *
+     * @param capacity the requested capacity, in bytes
+     * @return a direct buffer
+     */
+    public ByteBuffer acquire(int capacity) {
+        int sizeClass = sizeClass(capacity);
+        if (sizeClass > MAX_CLASS) {
+            misses.increment();
+            return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+        }
+        ByteBuffer bb = pools.get(sizeClass).pollFirst();
+        if (bb == null) {
+            misses.increment();
+            bb = ByteBuffer.allocateDirect(1 << sizeClass).order(ByteOrder.nativeOrder());
+        } else {
+            hits.increment();
+            poolSize.addAndGet(-bb.capacity());
+            bb.clear();
+            // fresh direct buffers are zero-filled, reused buffers must be as well
+            while (bb.position() < capacity) {
+                bb.put(ZEROS, 0, Math.min(ZEROS.length, capacity - bb.position()));
+            }
+            bb.clear();
+        }
+        bb.limit(capacity);
+        return bb;
+    }
+
+    /**
+     * Returns a buffer obtained from {@link #acquire(int)} to the pool.
+     *
+     * <p>The buffer is dropped if the pool is full.
+     *
+     * @param bb the buffer to return
+     */
+    public void release(ByteBuffer bb) {
+        int capacity = bb.capacity();
+        int sizeClass = sizeClass(capacity);
+        if (sizeClass > MAX_CLASS || capacity != 1 << sizeClass) {
+            return;
+        }
+        if (poolSize.addAndGet(capacity) > maxPoolSize) {
+            poolSize.addAndGet(-capacity);
+            return;
+        }
+        // LIFO keeps recently used memory warm in cache
+        pools.get(sizeClass).offerFirst(bb);
+    }
+
+    /**
+     * Returns the number of requests served from the pool.
+     *
+     * @return the number of requests served from the pool
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of requests that allocated a new buffer.
+     *
+     * @return the number of requests that allocated a new buffer
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of bytes held by the idle buffers in the pool.
+     *
+     * @return the number of bytes held by the idle buffers in the pool
+     */
+    public long getPoolSize() {
+        return poolSize.get();
+    }
+
+    /**
+     * Adds the hit count, miss count and size of the pool to the given {@link Metrics}.
+     *
+     * @param metrics the {@link Metrics} to add to
+     */
+    public void addMetrics(Metrics metrics) {
+        metrics.addMetric("BufferPoolHit", getHitCount(), Unit.COUNT);
+        metrics.addMetric("BufferPoolMiss", getMissCount(), Unit.COUNT);
+        metrics.addMetric("BufferPoolSize", getPoolSize(), Unit.BYTES);
+    }
+
+    /** Drops all idle buffers in the pool. */
+    public void clear() {
+        for (int i = MIN_CLASS; i <= MAX_CLASS; ++i) {
+            ByteBuffer bb = pools.get(i).pollFirst();
+            while (bb != null) {
+                poolSize.addAndGet(-bb.capacity());
+                bb = pools.get(i).pollFirst();
+            }
+        }
+    }
+
+    private static int sizeClass(int capacity) {
+        if (capacity <= 1 << MIN_CLASS) {
+            return MIN_CLASS;
+        }
+        return 32 - Integer.numberOfLeadingZeros(capacity - 1);
+    }
+}
@@ -14,6 +14,7 @@ package ai.djl.ndarray;
 
 import ai.djl.Device;
 import ai.djl.ndarray.index.NDIndex;
+import ai.djl.ndarray.index.full.NDIndexFullSlice;
 import ai.djl.ndarray.internal.NDArrayEx;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
@@ -31,6 +32,10 @@ import java.util.function.Function;
  * <p>This interface should only be used for the NDArray implementations that do not plan to
  * implement a large portion of the interface. For the ones that do, they should directly implement
  * {@link NDArray} so that the unsupported operations are better highlighted in the code.
+ *
+ * <p>Common element-wise, reduction, sorting and indexing operations on numeric arrays are computed
+ * in Java on the data of the array. The remaining operations are delegated to the alternative
+ * engine of the manager, if there is one.
  */
 public abstract class NDArrayAdapter implements NDArray {
 
@@ -144,6 +149,9 @@ public abstract class NDArrayAdapter implements NDArray {
         if (dataType.equals(getDataType()) && !copy) {
             return this;
         }
+        if (CpuKernels.isSupported(this) && CpuKernels.isSupported(dataType)) {
+            return CpuKernels.toType(this, dataType);
+        }
         return duplicate();
     }
 
@@ -213,6 +221,11 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public void set(NDIndex index, Number value) {
+        NDIndexFullSlice fullSlice = getFullSlice(index);
+        if (fullSlice != null) {
+            set(CpuKernels.set(this, fullSlice, value));
+            return;
+        }
         getAlternativeArray().set(index, value);
         set(alternativeArray.toByteBuffer());
     }
@@ -234,10 +247,28 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public void setScalar(NDIndex index, Number value) {
+        NDIndexFullSlice fullSlice = getFullSlice(index);
+        if (fullSlice != null) {
+            if (fullSlice.getShape().size() != 1) {
+                throw new IllegalArgumentException("The provided index does not set a scalar");
+            }
+            set(CpuKernels.set(this, fullSlice, value));
+            return;
+        }
         getAlternativeArray().setScalar(index, value);
         set(alternativeArray.toByteBuffer());
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public NDArray get(NDManager manager, NDIndex index) {
+        NDIndexFullSlice fullSlice = getFullSlice(index);
+        if (fullSlice != null) {
+            return CpuKernels.get(this, manager, fullSlice);
+        }
+        return NDArray.super.get(manager, index);
+    }
+
     /** {@inheritDoc} */
     @Override
     public void copyTo(NDArray array) {
@@ -277,120 +308,180 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray eq(Number n) {
+        if (CpuKernels.isSupported(this)) {
+            return CpuKernels.binary(this, n, CpuKernels.BinaryOp.EQ);
+        }
         return getAlternativeArray().eq(n);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray eq(NDArray other) {
+        if (CpuKernels.isSupported(this, other)) {
+            return CpuKernels.binary(this, other, CpuKernels.BinaryOp.EQ);
+        }
         return getAlternativeArray().eq(other);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray neq(Number n) {
+        if (CpuKernels.isSupported(this)) {
+            return CpuKernels.binary(this, n, CpuKernels.BinaryOp.NEQ);
+        }
         return getAlternativeArray().neq(n);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray neq(NDArray other) {
+        if (CpuKernels.isSupported(this, other)) {
+            return CpuKernels.binary(this, other, CpuKernels.BinaryOp.NEQ);
+        }
         return getAlternativeArray().neq(other);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray gt(Number n) {
+        if (CpuKernels.isSupported(this)) {
+            return CpuKernels.binary(this, n, CpuKernels.BinaryOp.GT);
+        }
         return getAlternativeArray().gt(n);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray gt(NDArray other) {
+        if (CpuKernels.isSupported(this, other)) {
+            return CpuKernels.binary(this, other, CpuKernels.BinaryOp.GT);
+        }
         return getAlternativeArray().gt(other);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray gte(Number n) {
+        if (CpuKernels.isSupported(this)) {
+            return CpuKernels.binary(this, n, CpuKernels.BinaryOp.GTE);
+        }
         return getAlternativeArray().gte(n);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray gte(NDArray other) {
+        if (CpuKernels.isSupported(this, other)) {
+            return CpuKernels.binary(this, other, CpuKernels.BinaryOp.GTE);
+        }
         return getAlternativeArray().gte(other);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray lt(Number n) {
+        if (CpuKernels.isSupported(this)) {
+            return CpuKernels.binary(this, n, CpuKernels.BinaryOp.LT);
+        }
         return getAlternativeArray().lt(n);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray lt(NDArray other) {
+        if (CpuKernels.isSupported(this, other)) {
+            return CpuKernels.binary(this, other, CpuKernels.BinaryOp.LT);
+        }
         return getAlternativeArray().lt(other);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray lte(Number n) {
+        if (CpuKernels.isSupported(this)) {
+            return CpuKernels.binary(this, n, CpuKernels.BinaryOp.LTE);
+        }
         return getAlternativeArray().lte(n);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray lte(NDArray other) {
+        if (CpuKernels.isSupported(this, other)) {
+            return CpuKernels.binary(this, other, CpuKernels.BinaryOp.LTE);
+        }
         return getAlternativeArray().lte(other);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray add(Number n) {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.binary(this, n, CpuKernels.BinaryOp.ADD);
+        }
         return getAlternativeArray().add(n);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray add(NDArray other) {
+        if (CpuKernels.isNumeric(this, other)) {
+            return CpuKernels.binary(this, other, CpuKernels.BinaryOp.ADD);
+        }
         return getAlternativeArray().add(other);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray sub(Number n) {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.binary(this, n, CpuKernels.BinaryOp.SUB);
+        }
         return getAlternativeArray().sub(n);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray sub(NDArray other) {
+        if (CpuKernels.isNumeric(this, other)) {
+            return CpuKernels.binary(this, other, CpuKernels.BinaryOp.SUB);
+        }
         return getAlternativeArray().sub(other);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray mul(Number n) {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.binary(this, n, CpuKernels.BinaryOp.MUL);
+        }
         return getAlternativeArray().mul(n);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray mul(NDArray other) {
+        if (CpuKernels.isNumeric(this, other)) {
+            return CpuKernels.binary(this, other, CpuKernels.BinaryOp.MUL);
+        }
         return getAlternativeArray().mul(other);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray div(Number n) {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.binary(this, n, CpuKernels.BinaryOp.DIV);
+        }
         return getAlternativeArray().div(n);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray div(NDArray other) {
+        if (CpuKernels.isNumeric(this, other)) {
+            return CpuKernels.binary(this, other, CpuKernels.BinaryOp.DIV);
+        }
         return getAlternativeArray().div(other);
     }
 
@@ -409,12 +500,18 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray pow(Number n) {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.binary(this, n, CpuKernels.BinaryOp.POW);
+        }
         return getAlternativeArray().pow(n);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray pow(NDArray other) {
+        if (CpuKernels.isNumeric(this, other)) {
+            return CpuKernels.binary(this, other, CpuKernels.BinaryOp.POW);
+        }
         return getAlternativeArray().pow(other);
     }
 
@@ -505,30 +602,45 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray maximum(Number n) {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.binary(this, n, CpuKernels.BinaryOp.MAXIMUM);
+        }
         return getAlternativeArray().maximum(n);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray maximum(NDArray other) {
+        if (CpuKernels.isNumeric(this, other)) {
+            return CpuKernels.binary(this, other, CpuKernels.BinaryOp.MAXIMUM);
+        }
         return getAlternativeArray().maximum(other);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray minimum(Number n) {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.binary(this, n, CpuKernels.BinaryOp.MINIMUM);
+        }
         return getAlternativeArray().minimum(n);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray minimum(NDArray other) {
+        if (CpuKernels.isNumeric(this, other)) {
+            return CpuKernels.binary(this, other, CpuKernels.BinaryOp.MINIMUM);
+        }
         return getAlternativeArray().minimum(other);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray neg() {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.unary(this, CpuKernels.UnaryOp.NEG);
+        }
         return getAlternativeArray().neg();
     }
 
@@ -541,18 +653,27 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray abs() {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.unary(this, CpuKernels.UnaryOp.ABS);
+        }
         return getAlternativeArray().abs();
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray square() {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.unary(this, CpuKernels.UnaryOp.SQUARE);
+        }
         return getAlternativeArray().square();
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray sqrt() {
+        if (CpuKernels.isFloating(this)) {
+            return CpuKernels.unary(this, CpuKernels.UnaryOp.SQRT);
+        }
         return getAlternativeArray().sqrt();
     }
 
@@ -589,12 +710,18 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray exp() {
+        if (CpuKernels.isFloating(this)) {
+            return CpuKernels.unary(this, CpuKernels.UnaryOp.EXP);
+        }
         return getAlternativeArray().exp();
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray log() {
+        if (CpuKernels.isFloating(this)) {
+            return CpuKernels.unary(this, CpuKernels.UnaryOp.LOG);
+        }
         return getAlternativeArray().log();
     }
 
@@ -697,60 +824,90 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray max() {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.reduce(this, CpuKernels.ReduceOp.MAX, null, false);
+        }
         return getAlternativeArray().max();
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray max(int[] axes, boolean keepDims) {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.reduce(this, CpuKernels.ReduceOp.MAX, axes, keepDims);
+        }
         return getAlternativeArray().max(axes, keepDims);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray min() {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.reduce(this, CpuKernels.ReduceOp.MIN, null, false);
+        }
         return getAlternativeArray().min();
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray min(int[] axes, boolean keepDims) {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.reduce(this, CpuKernels.ReduceOp.MIN, axes, keepDims);
+        }
         return getAlternativeArray().min(axes, keepDims);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray sum() {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.reduce(this, CpuKernels.ReduceOp.SUM, null, false);
+        }
         return getAlternativeArray().sum();
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray sum(int[] axes, boolean keepDims) {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.reduce(this, CpuKernels.ReduceOp.SUM, axes, keepDims);
+        }
         return getAlternativeArray().sum(axes, keepDims);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray prod() {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.reduce(this, CpuKernels.ReduceOp.PROD, null, false);
+        }
         return getAlternativeArray().prod();
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray prod(int[] axes, boolean keepDims) {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.reduce(this, CpuKernels.ReduceOp.PROD, axes, keepDims);
+        }
         return getAlternativeArray().prod(axes, keepDims);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray mean() {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.reduce(this, CpuKernels.ReduceOp.MEAN, null, false);
+        }
         return getAlternativeArray().mean();
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray mean(int[] axes, boolean keepDims) {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.reduce(this, CpuKernels.ReduceOp.MEAN, axes, keepDims);
+        }
         return getAlternativeArray().mean(axes, keepDims);
     }
 
@@ -781,24 +938,36 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray flatten() {
+        if (CpuKernels.isSupported(this)) {
+            return CpuKernels.reshape(this, new Shape(getShape().size()));
+        }
         return getAlternativeArray().flatten();
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray reshape(Shape shape) {
+        if (CpuKernels.isSupported(this)) {
+            return CpuKernels.reshape(this, shape);
+        }
         return getAlternativeArray().reshape(shape);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray expandDims(int axis) {
+        if (CpuKernels.isSupported(this)) {
+            return CpuKernels.expandDims(this, axis);
+        }
         return getAlternativeArray().expandDims(axis);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray squeeze(int[] axes) {
+        if (CpuKernels.isSupported(this)) {
+            return CpuKernels.squeeze(this, axes);
+        }
         return getAlternativeArray().squeeze(axes);
     }
 
@@ -829,30 +998,45 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray argSort(int axis, boolean ascending) {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.sort(this, axis, ascending, true);
+        }
         return getAlternativeArray().argSort(axis, ascending);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray sort() {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.sort(this, -1, true, false);
+        }
         return getAlternativeArray().sort();
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray sort(int axis) {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.sort(this, axis, true, false);
+        }
         return getAlternativeArray().sort(axis);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray softmax(int axis) {
+        if (CpuKernels.isFloating(this)) {
+            return CpuKernels.softmax(this, axis, false);
+        }
         return getAlternativeArray().softmax(axis);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray logSoftmax(int axis) {
+        if (CpuKernels.isFloating(this)) {
+            return CpuKernels.softmax(this, axis, true);
+        }
         return getAlternativeArray().logSoftmax(axis);
     }
 
@@ -973,24 +1157,36 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray argMax() {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.argReduce(this, null, true);
+        }
         return getAlternativeArray().argMax();
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray argMax(int axis) {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.argReduce(this, axis, true);
+        }
         return getAlternativeArray().argMax(axis);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray argMin() {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.argReduce(this, null, false);
+        }
         return getAlternativeArray().argMin();
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray argMin(int axis) {
+        if (CpuKernels.isNumeric(this)) {
+            return CpuKernels.argReduce(this, axis, false);
+        }
         return getAlternativeArray().argMin(axis);
     }
 
@@ -1076,12 +1272,12 @@ public abstract class NDArrayAdapter implements NDArray {
     @Override
     public void close() {
         if (!isClosed) {
+            isClosed = true;
             manager.detachInternal(getUid());
             if (alternativeArray != null) {
                 alternativeArray.close();
                 alternativeArray = null;
             }
-            isClosed = true;
         }
     }
 
@@ -1094,6 +1290,13 @@ public abstract class NDArrayAdapter implements NDArray {
         return toDebugString();
     }
 
+    private NDIndexFullSlice getFullSlice(NDIndex index) {
+        if (!CpuKernels.isSupported(this)) {
+            return null;
+        }
+        return NDIndexFullSlice.fromIndex(index, getShape()).orElse(null);
+    }
+
     private NDArray getAlternativeArray() {
         if (alternativeManager == null) {
             throw new UnsupportedOperationException(UNSUPPORTED_MSG);
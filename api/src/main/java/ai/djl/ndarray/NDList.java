@@ -24,9 +24,18 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PushbackInputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -43,6 +52,8 @@ public class NDList extends ArrayList<NDArray> implements NDResource, BytesSuppl
 
     private static final long serialVersionUID = 1L;
 
+    private static final int ZIP_LOCAL_HEADER = 0x04034b50;
+
     /** Constructs an empty NDList. */
     public NDList() {}
 
@@ -103,11 +114,8 @@ public class NDList extends ArrayList<NDArray> implements NDResource, BytesSuppl
             if (magic[0] == 'P' && magic[1] == 'K') {
                 // assume this is npz file
                 return decodeNumpy(manager, pis);
-            } else if (magic[0] == (byte) 0x39
-                    && magic[1] == 'N'
-                    && magic[2] == 'U'
-                    && magic[3] == 'M') {
-                return new NDList(NDSerializer.decode(manager, pis));
+            } else if (isNumpy(magic)) {
+                return new NDList(NDSerializer.decodeNumpy(manager, pis));
             }
 
             dis = new DataInputStream(pis);
@@ -125,21 +133,131 @@ public class NDList extends ArrayList<NDArray> implements NDResource, BytesSuppl
         }
     }
 
+    /**
+     * Decodes NDList from a file by memory mapping it.
+     *
+     * <p>The file can be an encoded NDList, a {@code .npy} file or a {@code .npz} file. The data of
+     * the {@link NDArray}s is mapped privately rather than read, so engines that accept external
+     * buffers create the arrays directly over the file, and changes to the arrays are not written
+     * back. If the file is read only, the data is copied instead. Files written with {@link
+     * #encode(WritableByteChannel)} have their data aligned to 64 bytes. Compressed {@code .npz}
+     * entries cannot be mapped and are read instead.
+     *
+     * @param manager manager assigned to {@link NDArray}
+     * @param path the file to load from
+     * @return {@code NDList}
+     * @throws IOException if failed to read the file
+     */
+    public static NDList decode(NDManager manager, Path path) throws IOException {
+        // engines may update arrays created over the data in place, which needs a private mapping.
+        // Java only maps privately from a channel opened for writing, but the file is never written
+        try (FileChannel fc =
+                Files.isWritable(path)
+                        ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                        : FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer bb = ByteBuffer.allocate(4);
+            if (fc.read(bb, 0) < 4) {
+                throw new IllegalArgumentException("Malformed data: " + path);
+            }
+            byte[] magic = bb.array();
+            if (magic[0] == 'P' && magic[1] == 'K') {
+                NDList list = decodeNumpy(manager, fc);
+                if (list == null) {
+                    try (InputStream is = Files.newInputStream(path)) {
+                        return decode(manager, is);
+                    }
+                }
+                return list;
+            } else if (isNumpy(magic)) {
+                return new NDList(NDSerializer.decodeNumpy(manager, fc));
+            }
+
+            DataInputStream dis = new DataInputStream(Channels.newInputStream(fc));
+            int size = dis.readInt();
+            if (size < 0) {
+                throw new IllegalArgumentException("Invalid NDList size: " + size);
+            }
+            NDList list = new NDList();
+            for (int i = 0; i < size; i++) {
+                list.add(i, NDSerializer.decode(manager, fc));
+            }
+            return list;
+        }
+    }
+
     private static NDList decodeNumpy(NDManager manager, InputStream is) throws IOException {
         NDList list = new NDList();
         ZipInputStream zis = new ZipInputStream(is);
         ZipEntry entry;
         while ((entry = zis.getNextEntry()) != null) {
-            String name = entry.getName();
             NDArray array = NDSerializer.decodeNumpy(manager, zis);
-            if (!name.startsWith("arr_") && name.endsWith(".npy")) {
-                array.setName(name.substring(0, name.length() - 4));
+            setNumpyName(array, entry.getName());
+            list.add(array);
+        }
+        return list;
+    }
+
+    // maps the stored entries of a npz file, returns null if an entry is compressed
+    private static NDList decodeNumpy(NDManager manager, FileChannel fc) throws IOException {
+        List<String> names = new ArrayList<>();
+        List<Long> offsets = new ArrayList<>();
+        ByteBuffer header = ByteBuffer.allocate(30).order(ByteOrder.LITTLE_ENDIAN);
+        long position = 0;
+        while (fc.read(header, position) == header.capacity()
+                && header.getInt(0) == ZIP_LOCAL_HEADER) {
+            int flags = header.getShort(6) & 0xffff;
+            int method = header.getShort(8) & 0xffff;
+            if (method != ZipEntry.STORED || (flags & 8) != 0) {
+                return null;
             }
+            long size = header.getInt(22) & 0xffffffffL;
+            int nameLength = header.getShort(26) & 0xffff;
+            int extraLength = header.getShort(28) & 0xffff;
+            ByteBuffer buf = ByteBuffer.allocate(nameLength + extraLength);
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            fc.read(buf, position + header.capacity());
+            if (size == 0xffffffffL) {
+                size = getZip64Size(buf, nameLength);
+            }
+            names.add(new String(buf.array(), 0, nameLength, StandardCharsets.UTF_8));
+            long offset = position + header.capacity() + nameLength + extraLength;
+            offsets.add(offset);
+            position = offset + size;
+            header.clear();
+        }
+
+        NDList list = new NDList(names.size());
+        for (int i = 0; i < names.size(); ++i) {
+            fc.position(offsets.get(i));
+            NDArray array = NDSerializer.decodeNumpy(manager, fc);
+            setNumpyName(array, names.get(i));
             list.add(array);
         }
         return list;
     }
 
+    private static long getZip64Size(ByteBuffer extra, int offset) {
+        int i = offset;
+        while (i + 4 <= extra.limit()) {
+            int id = extra.getShort(i) & 0xffff;
+            if (id == 1) {
+                return extra.getLong(i + 4);
+            }
+            i += 4 + (extra.getShort(i + 2) & 0xffff);
+        }
+        throw new IllegalArgumentException("Invalid zip64 entry");
+    }
+
+    private static void setNumpyName(NDArray array, String name) {
+        if (!name.startsWith("arr_") && name.endsWith(".npy")) {
+            array.setName(name.substring(0, name.length() - 4));
+        }
+    }
+
+    private static boolean isNumpy(byte[] magic) {
+        return magic[0] == (byte) 0x93 && magic[1] == 'N' && magic[2] == 'U' && magic[3] == 'M';
+    }
+
     /**
      * Returns the first occurrence of the specified element from this NDList if it is present.
      *
@@ -355,6 +473,27 @@ public class NDList extends ArrayList<NDArray> implements NDResource, BytesSuppl
         dos.flush();
     }
 
+    /**
+     * Writes the encoded NDList to a {@code WritableByteChannel}.
+     *
+     * <p>The data of each {@link NDArray} is aligned to 64 bytes from the start of the output and
+     * written without copying it to the heap, with gathering writes if the channel supports them. A
+     * file written this way from its start can be memory mapped with {@link #decode(NDManager,
+     * Path)}. The output can also be read with {@link #decode(NDManager, InputStream)}.
+     *
+     * @param channel the {@code WritableByteChannel} to be written to
+     * @throws IOException if failed on IO operation
+     */
+    public void encode(WritableByteChannel channel) throws IOException {
+        ByteBuffer bb = ByteBuffer.allocate(4);
+        bb.putInt(size());
+        bb.flip();
+        long position = NDSerializer.write(channel, bb);
+        for (NDArray nd : this) {
+            position += NDSerializer.encode(nd, channel, position);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public byte[] getAsBytes() {
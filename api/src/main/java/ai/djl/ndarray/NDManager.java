@@ -164,6 +164,27 @@ public interface NDManager extends AutoCloseable {
      */
     ByteBuffer allocateDirect(int capacity);
 
+    /**
+     * Sets the {@link DirectBufferPool} used by {@link #allocateDirect(int)}.
+     *
+     * <p>Sub-managers created after this call share the pool. Buffers allocated from the pool
+     * return to it when this {@code NDManager} is closed, unless an {@link NDArray} that may still
+     * reference them was detached from this {@code NDManager}. The default implementation doesn't
+     * support pooling and ignores the pool.
+     *
+     * @param bufferPool the {@link DirectBufferPool}, or {@code null} to disable pooling
+     */
+    default void setBufferPool(DirectBufferPool bufferPool) {}
+
+    /**
+     * Returns the {@link DirectBufferPool} used by {@link #allocateDirect(int)}.
+     *
+     * @return the {@link DirectBufferPool}, or {@code null} if pooling is disabled
+     */
+    default DirectBufferPool getBufferPool() {
+        return null;
+    }
+
     /**
      * Creates a new {@code NDArray} if the input {@link NDArray} is from an external engine.
      *
@@ -24,6 +24,11 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.regex.Matcher;
@@ -33,6 +38,7 @@ import java.util.regex.Pattern;
 final class NDSerializer {
 
     private static final int VERSION = 3;
+    private static final int ALIGNED_VERSION = 4;
 
     private static final int BUFFER_SIZE = 1024 * 1024;
     private static final String MAGIC_NUMBER = "NDAR";
@@ -61,24 +67,8 @@ final class NDSerializer {
 
     static void encode(NDArray array, OutputStream os) throws IOException {
         DataOutputStream dos = new DataOutputStream(os);
-        // magic string for version identification
-        dos.writeUTF(MAGIC_NUMBER);
-        dos.writeInt(VERSION);
-        String name = array.getName();
-        if (name == null) {
-            dos.write(0);
-        } else {
-            dos.write(1);
-            dos.writeUTF(name);
-        }
-        dos.writeUTF(array.getSparseFormat().name());
-        dos.writeUTF(array.getDataType().name());
-
-        Shape shape = array.getShape();
-        dos.write(shape.getEncoded());
-
         ByteBuffer bb = array.toByteBuffer();
-        dos.write(bb.order() == ByteOrder.BIG_ENDIAN ? '>' : '<');
+        writeHeader(dos, array, bb, VERSION);
         int length = bb.remaining();
         dos.writeInt(length);
 
@@ -99,6 +89,75 @@ final class NDSerializer {
         dos.flush();
     }
 
+    /**
+     * Encodes {@link NDArray} to a channel with its data aligned to {@link #ARRAY_ALIGN} bytes.
+     *
+     * <p>The header and the data are written with a single gathering write if the channel supports
+     * it, the data is not copied to the heap.
+     *
+     * @param array the input {@link NDArray}
+     * @param channel the channel to write to
+     * @param position the number of bytes written since the start of the aligned data
+     * @return the number of bytes written
+     * @throws IOException if failed to write to the channel
+     */
+    static long encode(NDArray array, WritableByteChannel channel, long position)
+            throws IOException {
+        ByteBuffer bb = array.toByteBuffer();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(128);
+        DataOutputStream dos = new DataOutputStream(baos);
+        writeHeader(dos, array, bb, ALIGNED_VERSION);
+        dos.writeInt(bb.remaining());
+        int padding =
+                (int) ((ARRAY_ALIGN - (position + baos.size() + 1) % ARRAY_ALIGN) % ARRAY_ALIGN);
+        dos.write(padding);
+        dos.write(new byte[padding]);
+        dos.flush();
+
+        return write(channel, ByteBuffer.wrap(baos.toByteArray()), bb);
+    }
+
+    static long write(WritableByteChannel channel, ByteBuffer... buffers) throws IOException {
+        long total = 0;
+        for (ByteBuffer bb : buffers) {
+            total += bb.remaining();
+        }
+        if (channel instanceof GatheringByteChannel) {
+            GatheringByteChannel gbc = (GatheringByteChannel) channel;
+            long remaining = total;
+            while (remaining > 0) {
+                remaining -= gbc.write(buffers);
+            }
+        } else {
+            for (ByteBuffer bb : buffers) {
+                while (bb.hasRemaining()) {
+                    channel.write(bb);
+                }
+            }
+        }
+        return total;
+    }
+
+    private static void writeHeader(DataOutputStream dos, NDArray array, ByteBuffer bb, int version)
+            throws IOException {
+        // magic string for version identification
+        dos.writeUTF(MAGIC_NUMBER);
+        dos.writeInt(version);
+        String name = array.getName();
+        if (name == null) {
+            dos.write(0);
+        } else {
+            dos.write(1);
+            dos.writeUTF(name);
+        }
+        dos.writeUTF(array.getSparseFormat().name());
+        dos.writeUTF(array.getDataType().name());
+
+        Shape shape = array.getShape();
+        dos.write(shape.getEncoded());
+        dos.write(bb.order() == ByteOrder.BIG_ENDIAN ? '>' : '<');
+    }
+
     static void encodeAsNumpy(NDArray array, OutputStream os) throws IOException {
         StringBuilder sb = new StringBuilder(80);
         sb.append("{'descr': '")
@@ -145,58 +204,91 @@ final class NDSerializer {
         } else {
             dis = new DataInputStream(is);
         }
+        Header header = readHeader(dis);
+        ByteBuffer data = manager.allocateDirect(header.length);
+        data.order(header.order);
+        readData(dis, data, header.length);
+        return header.toNDArray(manager, data);
+    }
+
+    /**
+     * Decodes {@link NDArray} at the current position of a {@link FileChannel}.
+     *
+     * <p>The data is memory mapped rather than read, engines that accept external buffers create
+     * the {@link NDArray} directly over the mapped file. The mapping is private, so the file is
+     * left unchanged. If the channel is not writable, the mapped data is copied. Data that is not
+     * in the native byte order is converted when the array is created, so it is mapped read only.
+     *
+     * @param manager the {@link NDManager} assigned to the {@link NDArray}
+     * @param fc the file to load from
+     * @return {@link NDArray}
+     * @throws IOException data is not readable
+     */
+    static NDArray decode(NDManager manager, FileChannel fc) throws IOException {
+        Header header = readHeader(new DataInputStream(Channels.newInputStream(fc)));
+        return header.toNDArray(manager, map(manager, fc, header));
+    }
+
+    static NDArray decodeNumpy(NDManager manager, InputStream is) throws IOException {
+        DataInputStream dis;
+        if (is instanceof DataInputStream) {
+            dis = (DataInputStream) is;
+        } else {
+            dis = new DataInputStream(is);
+        }
+        Header header = readNumpyHeader(dis);
+        ByteBuffer data = manager.allocateDirect(header.length);
+        data.order(header.order);
+        readData(dis, data, header.length);
+        return header.toNDArray(manager, data);
+    }
+
+    static NDArray decodeNumpy(NDManager manager, FileChannel fc) throws IOException {
+        Header header = readNumpyHeader(new DataInputStream(Channels.newInputStream(fc)));
+        return header.toNDArray(manager, map(manager, fc, header));
+    }
 
+    private static Header readHeader(DataInputStream dis) throws IOException {
         if (!"NDAR".equals(dis.readUTF())) {
             throw new IllegalArgumentException("Malformed NDArray data");
         }
 
         // NDArray encode version
         int version = dis.readInt();
-        if (version < 1 || version > VERSION) {
+        if (version < 1 || version > ALIGNED_VERSION) {
             throw new IllegalArgumentException("Unexpected NDArray encode version " + version);
         }
 
-        String name = null;
+        Header header = new Header();
         if (version > 1) {
             byte flag = dis.readByte();
             if (flag == 1) {
-                name = dis.readUTF();
+                header.name = dis.readUTF();
             }
         }
 
         dis.readUTF(); // ignore SparseFormat
 
         // DataType
-        DataType dataType = DataType.valueOf(dis.readUTF());
+        header.dataType = DataType.valueOf(dis.readUTF());
 
         // Shape
-        Shape shape = Shape.decode(dis);
+        header.shape = Shape.decode(dis);
 
         // Data
-        ByteOrder order;
         if (version > 2) {
-            order = dis.readByte() == '>' ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+            header.order = dis.readByte() == '>' ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
         } else {
-            order = ByteOrder.nativeOrder();
+            header.order = ByteOrder.nativeOrder();
         }
-        int length = dis.readInt();
-        ByteBuffer data = manager.allocateDirect(length);
-        data.order(order);
-        readData(dis, data, length);
-
-        NDArray array = manager.create(dataType.asDataType(data), shape, dataType);
-        array.setName(name);
-        return array;
-    }
-
-    static NDArray decodeNumpy(NDManager manager, InputStream is) throws IOException {
-        DataInputStream dis;
-        if (is instanceof DataInputStream) {
-            dis = (DataInputStream) is;
-        } else {
-            dis = new DataInputStream(is);
+        header.length = dis.readInt();
+        if (version > 3) {
+            dis.readFully(new byte[dis.readUnsignedByte()]); // skip alignment padding
         }
+        return header;
+    }
 
+    private static Header readNumpyHeader(DataInputStream dis) throws IOException {
         byte[] buf = new byte[NUMPY_MAGIC.length];
         dis.readFully(buf);
         if (!Arrays.equals(buf, NUMPY_MAGIC)) {
@@ -233,18 +325,46 @@ final class NDSerializer {
             String[] tokens = shapeStr.split(", ?");
             longs = Arrays.stream(tokens).mapToLong(Long::parseLong).toArray();
         }
-        Shape shape = new Shape(longs);
-        len = Math.toIntExact(shape.size() * dataType.getNumOfBytes());
-        ByteBuffer data = manager.allocateDirect(len);
+        Header ret = new Header();
+        ret.dataType = dataType;
+        ret.shape = new Shape(longs);
+        ret.length = Math.toIntExact(ret.shape.size() * dataType.getNumOfBytes());
         char order = typeStr.charAt(0);
         if (order == '>') {
-            data.order(ByteOrder.BIG_ENDIAN);
+            ret.order = ByteOrder.BIG_ENDIAN;
         } else if (order == '<') {
-            data.order(ByteOrder.LITTLE_ENDIAN);
+            ret.order = ByteOrder.LITTLE_ENDIAN;
+        } else {
+            ret.order = ByteOrder.nativeOrder();
         }
-        readData(dis, data, len);
+        return ret;
+    }
 
-        return manager.create(dataType.asDataType(data), shape, dataType);
+    private static ByteBuffer map(NDManager manager, FileChannel fc, Header header)
+            throws IOException {
+        long position = fc.position();
+        if (position + header.length > fc.size()) {
+            throw new IllegalArgumentException("Unexpected end of file");
+        }
+        ByteBuffer data;
+        if (header.order != ByteOrder.nativeOrder()) {
+            // the data is converted to the native order when the array is created
+            data = fc.map(FileChannel.MapMode.READ_ONLY, position, header.length);
+            fc.position(position + header.length);
+            return data.order(header.order);
+        }
+        try {
+            // a private mapping lets engines use the data in place, even if they update it
+            data = fc.map(FileChannel.MapMode.PRIVATE, position, header.length);
+        } catch (NonWritableChannelException e) {
+            // engines may write to the buffer, a read only mapping must be copied
+            ByteBuffer mapped = fc.map(FileChannel.MapMode.READ_ONLY, position, header.length);
+            data = manager.allocateDirect(header.length);
+            data.put(mapped);
+            data.rewind();
+        }
+        fc.position(position + header.length);
+        return data.order(header.order);
     }
 
     private static void readData(DataInputStream dis, ByteBuffer data, int len) throws IOException {
@@ -261,4 +381,27 @@ final class NDSerializer {
             data.rewind();
         }
     }
+
+    /** The metadata of an encoded {@link NDArray}. */
+    private static final class Header {
+
+        String name;
+        DataType dataType;
+        Shape shape;
+        ByteOrder order;
+        int length;
+
+        NDArray toNDArray(NDManager manager, ByteBuffer data) {
+            if (data.order() != ByteOrder.nativeOrder()) {
+                // engines read direct buffers in the native order, convert the data first
+                ByteBuffer converted = manager.allocateDirect(data.remaining());
+                BaseNDManager.copyBuffer(dataType.asDataType(data), converted);
+                data = converted;
+            }
+            // engines like PyTorch only wrap a direct ByteBuffer, typed views would be copied
+            NDArray array = manager.create(data, shape, dataType);
+            array.setName(name);
+            return array;
+        }
+    }
 }
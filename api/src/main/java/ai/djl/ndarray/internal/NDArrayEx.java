@@ -266,6 +266,67 @@ public interface NDArrayEx {
             float momentum,
             boolean lazyUpdate);
 
+    // Multi-tensor updates update each weight with its own states and learning rate. Engines that
+    // fuse them into a single operation report StandardCapabilities.MULTI_TENSOR_UPDATE.
+
+    default void multiAdamUpdate(
+            NDList weights,
+            NDList grads,
+            NDList means,
+            NDList variances,
+            float[] learningRates,
+            float weightDecay,
+            float rescaleGrad,
+            float clipGrad,
+            float beta1,
+            float beta2,
+            float epsilon) {
+        for (int i = 0; i < weights.size(); ++i) {
+            NDArray weight = weights.get(i);
+            NDList inputs = new NDList(weight, grads.get(i), means.get(i), variances.get(i));
+            weight.getNDArrayInternal()
+                    .adamUpdate(
+                            inputs,
+                            new NDList(weight),
+                            learningRates[i],
+                            weightDecay,
+                            rescaleGrad,
+                            clipGrad,
+                            beta1,
+                            beta2,
+                            epsilon,
+                            true);
+        }
+    }
+
+    default void multiSgdUpdate(
+            NDList weights,
+            NDList grads,
+            NDList states,
+            float[] learningRates,
+            float weightDecay,
+            float rescaleGrad,
+            float clipGrad,
+            float momentum) {
+        for (int i = 0; i < weights.size(); ++i) {
+            NDArray weight = weights.get(i);
+            NDList inputs =
+                    states == null
+                            ? new NDList(weight, grads.get(i))
+                            : new NDList(weight, grads.get(i), states.get(i));
+            weight.getNDArrayInternal()
+                    .sgdUpdate(
+                            inputs,
+                            new NDList(weight),
+                            learningRates[i],
+                            weightDecay,
+                            rescaleGrad,
+                            clipGrad,
+                            momentum,
+                            true);
+        }
+    }
+
     ////////////////////////////////////////
     // Neural network
     ////////////////////////////////////////
@@ -25,6 +25,7 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * {@code Parameter} is a container class that holds a learnable parameter of a model.
@@ -40,13 +41,15 @@ import java.util.UUID;
 public class Parameter implements AutoCloseable {
 
     private static final byte VERSION = 1;
+    private static final byte REFERENCE_VERSION = 2;
 
     private String id;
     private String name;
     private Shape shape;
     private Type type;
     private Initializer initializer;
-    private NDArray array;
+    private volatile NDArray array;
+    private volatile Supplier<NDArray> loader;
     private boolean requiresGrad;
 
     Parameter(Builder builder) {
@@ -116,13 +119,27 @@ public class Parameter implements AutoCloseable {
     /**
      * Gets the values of this {@code Parameter} as an {@link NDArray}.
      *
+     * <p>If the parameter was loaded lazily, the array is created on the first call.
+     *
      * @return an {@link NDArray} that contains values of this {@code Parameter}
      */
     public NDArray getArray() {
         if (!isInitialized()) {
             throw new IllegalStateException("The array has not been initialized");
         }
-        return array;
+        NDArray ret = array;
+        if (ret == null) {
+            synchronized (this) {
+                if (array == null) {
+                    NDArray loaded = loader.get();
+                    loaded.setName(name);
+                    array = loaded;
+                    loader = null;
+                }
+                ret = array;
+            }
+        }
+        return ret;
     }
 
     /**
@@ -147,7 +164,7 @@ public class Parameter implements AutoCloseable {
      */
     public void freeze(boolean freeze) {
         requiresGrad = !freeze;
-        array.setRequiresGradient(requiresGrad);
+        getArray().setRequiresGradient(requiresGrad);
     }
 
     /**
@@ -156,7 +173,8 @@ public class Parameter implements AutoCloseable {
      * @return {@code true} if this {@code Parameter} is initialized
      */
     public boolean isInitialized() {
-        return array != null;
+        // getArray sets the array before it clears the loader, so read them in the reverse order
+        return loader != null || array != null;
     }
 
     /**
@@ -185,7 +203,7 @@ public class Parameter implements AutoCloseable {
         }
 
         if (requiresGradient()) {
-            array.setRequiresGradient(true);
+            getArray().setRequiresGradient(true);
         }
     }
 
@@ -202,9 +220,16 @@ public class Parameter implements AutoCloseable {
         }
 
         dos.writeChar('P');
+        if (dos instanceof ParameterOutputStream) {
+            // the array is written to the data section of the file, only its index is written here
+            dos.writeByte(REFERENCE_VERSION);
+            dos.writeUTF(getName());
+            dos.writeInt(((ParameterOutputStream) dos).addArray(getArray()));
+            return;
+        }
         dos.writeByte(VERSION);
         dos.writeUTF(getName());
-        dos.write(array.encode());
+        dos.write(getArray().encode());
     }
 
     /**
@@ -213,6 +238,9 @@ public class Parameter implements AutoCloseable {
      * <p>Currently, we cannot deserialize into the exact subclass of NDArray. The SparseNDArray
      * will be loaded as NDArray only.
      *
+     * <p>If the array is stored in the data section of a {@link ParameterInputStream}, it is only
+     * created when {@link #getArray()} is first called.
+     *
      * @param manager the NDManager
      * @param dis the InputStream
      * @throws IOException if failed to read
@@ -230,7 +258,7 @@ public class Parameter implements AutoCloseable {
 
         // Version
         byte version = dis.readByte();
-        if (version != VERSION) {
+        if (version != VERSION && version != REFERENCE_VERSION) {
             throw new MalformedModelException("Unsupported encoding version: " + version);
         }
 
@@ -240,6 +268,17 @@ public class Parameter implements AutoCloseable {
                     "Unexpected parameter name: " + parameterName + ", expected: " + name);
         }
 
+        if (version == REFERENCE_VERSION) {
+            if (!(dis instanceof ParameterInputStream)) {
+                throw new MalformedModelException(
+                        "Parameter " + name + " is stored outside of the input stream.");
+            }
+            ParameterInputStream pis = (ParameterInputStream) dis;
+            int index = pis.readInt();
+            loader = pis.getArray(manager, index);
+            shape = pis.getShape(index);
+            return;
+        }
         array = manager.decode(dis);
         // set the shape of the parameter and prepare() can be skipped
         shape = array.getShape();
@@ -248,6 +287,7 @@ public class Parameter implements AutoCloseable {
     /** {@inheritDoc} */
     @Override
     public void close() {
+        loader = null;
         if (array != null) {
             array.close();
             array = null;
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.nn;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+
+import java.io.DataInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A {@code ParameterInputStream} is the stream {@link Block#loadParameters(NDManager,
+ * DataInputStream)} reads from when loading a parameter file with a separate data section.
+ *
+ * <p>The data section is indexed, so an array can be created from its buffer, usually a memory
+ * mapped region of the file, without reading any other array. Read-only buffers are copied when the
+ * array is created.
+ *
+ * @see ParameterOutputStream
+ */
+public class ParameterInputStream extends DataInputStream {
+
+    private ByteOrder byteOrder;
+    private List<ByteBuffer> buffers;
+    private List<Shape> shapes;
+    private List<DataType> dataTypes;
+
+    /**
+     * Constructs a new {@code ParameterInputStream}.
+     *
+     * @param in the underlying input stream
+     * @param byteOrder the byte order of the data section
+     */
+    public ParameterInputStream(InputStream in, ByteOrder byteOrder) {
+        super(in);
+        this.byteOrder = byteOrder;
+        buffers = new ArrayList<>();
+        shapes = new ArrayList<>();
+        dataTypes = new ArrayList<>();
+    }
+
+    /**
+     * Adds an array of the data section.
+     *
+     * @param data the data of the array
+     * @param shape the shape of the array
+     * @param dataType the data type of the array
+     */
+    public void addArray(ByteBuffer data, Shape shape, DataType dataType) {
+        buffers.add(data);
+        shapes.add(shape);
+        dataTypes.add(dataType);
+    }
+
+    /**
+     * Returns the shape of an array of the data section.
+     *
+     * @param index the index of the array
+     * @return the shape of the array
+     */
+    public Shape getShape(int index) {
+        return shapes.get(index);
+    }
+
+    /**
+     * Returns a {@link Supplier} that creates an array of the data section.
+     *
+     * <p>The data is only read when the supplier is called.
+     *
+     * @param manager the manager to create the array with
+     * @param index the index of the array
+     * @return a {@link Supplier} that creates the array
+     */
+    public Supplier<NDArray> getArray(NDManager manager, int index) {
+        ByteBuffer data = buffers.get(index);
+        Shape shape = shapes.get(index);
+        DataType dataType = dataTypes.get(index);
+        return () -> {
+            ByteBuffer bb = data.duplicate().order(byteOrder);
+            if (bb.isReadOnly()) {
+                // engines may use a direct buffer in place and update it
+                ByteBuffer copy = manager.allocateDirect(bb.remaining()).order(byteOrder);
+                copy.put(bb);
+                copy.rewind();
+                bb = copy;
+            }
+            if (byteOrder == ByteOrder.nativeOrder()) {
+                return manager.create(bb, shape, dataType);
+            }
+            // engines expect byte buffers in native order, let the typed buffer convert it
+            return manager.create(dataType.asDataType(bb), shape, dataType);
+        };
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.nn;
+
+import ai.djl.ndarray.NDArray;
+
+import java.io.DataOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@code ParameterOutputStream} is the stream {@link Block#saveParameters(DataOutputStream)}
+ * writes to when saving to a parameter file with a separate data section.
+ *
+ * <p>{@link Parameter}s only write a reference to their array to the stream. The arrays are
+ * collected with {@link #addArray(NDArray)} and written by the model after the block tree, each
+ * aligned to a page so that it can be memory mapped when the file is loaded.
+ */
+public class ParameterOutputStream extends DataOutputStream {
+
+    private List<NDArray> arrays;
+
+    /**
+     * Constructs a new {@code ParameterOutputStream}.
+     *
+     * @param out the underlying output stream
+     */
+    public ParameterOutputStream(OutputStream out) {
+        super(out);
+        arrays = new ArrayList<>();
+    }
+
+    /**
+     * Adds an array to the data section.
+     *
+     * @param array the array to add
+     * @return the index of the array in the data section
+     */
+    public int addArray(NDArray array) {
+        arrays.add(array);
+        return arrays.size() - 1;
+    }
+
+    /**
+     * Returns the arrays of the data section, in index order.
+     *
+     * @return the arrays of the data section
+     */
+    public List<NDArray> getArrays() {
+        return arrays;
+    }
+}
@@ -38,8 +38,14 @@ import java.nio.file.StandardCopyOption;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipInputStream;
 
@@ -53,6 +59,11 @@ public abstract class AbstractRepository implements Repository {
 
     private static final Logger logger = LoggerFactory.getLogger(AbstractRepository.class);
 
+    private static final int DOWNLOAD_THREADS =
+            Integer.getInteger("ai.djl.repository.download_threads", 8);
+    private static final long SEGMENT_SIZE =
+            Long.getLong("ai.djl.repository.segment_size", 16L * 1024 * 1024);
+
     protected String name;
     protected URI uri;
     protected Map<String, String> arguments;
@@ -124,9 +135,12 @@ public abstract class AbstractRepository implements Repository {
 
     /** {@inheritDoc} */
     @Override
+    @SuppressWarnings("try")
     public void prepare(Artifact artifact, Progress progress) throws IOException {
         Path resourceDir = getResourceDirectory(artifact);
-        if (Files.exists(resourceDir)) {
+        RepositoryCache cache = RepositoryCache.getInstance(getCacheDirectory());
+        boolean cached = cache.contains(resourceDir);
+        if (!cached && Files.exists(resourceDir)) {
             logger.debug("Files have been downloaded already: {}", resourceDir);
             return;
         }
@@ -141,19 +155,57 @@ public abstract class AbstractRepository implements Repository {
         }
 
         Files.createDirectories(parentDir);
+        if (!cached) {
+            downloadArtifact(resourceDir, parentDir, baseUri, files, progress);
+            return;
+        }
+        // the resource directory can't be evicted once it is used by this process
+        boolean downloaded = false;
+        while (!cache.use(resourceDir)) {
+            // only one thread or process downloads the artifact, the others wait for it
+            try (RepositoryCache.Lock ignore = cache.lock(resourceDir)) {
+                if (Files.notExists(resourceDir)) {
+                    downloadArtifact(resourceDir, parentDir, baseUri, files, progress);
+                    cache.add(resourceDir);
+                    downloaded = true;
+                }
+            }
+        }
+        if (!downloaded) {
+            logger.debug("Files have been downloaded already: {}", resourceDir);
+            cache.hit(resourceDir);
+        }
+    }
+
+    private void downloadArtifact(
+            Path resourceDir,
+            Path parentDir,
+            URI baseUri,
+            Map<String, Artifact.Item> files,
+            Progress progress)
+            throws IOException {
         Path tmp = Files.createTempDirectory(parentDir, resourceDir.toFile().getName());
+        DownloadProgress downloadProgress = null;
         if (progress != null) {
             long totalSize = 0;
             for (Artifact.Item item : files.values()) {
                 totalSize += item.getSize();
             }
-            progress.reset("Downloading", totalSize);
+            downloadProgress = new DownloadProgress(progress);
+            downloadProgress.reset("Downloading", totalSize);
         }
 
         try {
             logger.debug("Items to download: {}", files.size());
-            for (Artifact.Item item : files.values()) {
-                download(tmp, baseUri, item, progress);
+            long begin = System.nanoTime();
+            downloadAll(tmp, baseUri, files.values(), downloadProgress);
+            if (downloadProgress != null && logger.isDebugEnabled()) {
+                logger.debug(
+                        String.format(
+                                "Downloaded %d bytes in %d ms, %.2f MB/s",
+                                downloadProgress.getDownloaded(),
+                                (System.nanoTime() - begin) / 1_000_000,
+                                downloadProgress.getBandwidth() / 1024 / 1024));
             }
             Utils.moveQuietly(tmp, resourceDir);
         } finally {
@@ -190,9 +242,43 @@ public abstract class AbstractRepository implements Repository {
             fileUri = getBaseUri().resolve(baseUri).resolve(fileUri);
         }
 
+        download(fileUri, tmp, item, progress);
+    }
+
+    /**
+     * Downloads an item from the given URI and saves it in the temporary directory.
+     *
+     * <p>HTTP downloads are split in byte ranges that are downloaded in parallel, and resume from
+     * the partial download kept in the cache directory if an earlier attempt failed. The checksum
+     * is verified before the item is saved.
+     *
+     * @param fileUri the URI of the item
+     * @param tmp the temporary directory to save the item in
+     * @param item the item to download
+     * @param progress the (optionally null) progress tracker, must be thread safe
+     * @throws IOException if the item cannot be downloaded
+     */
+    protected void download(URI fileUri, Path tmp, Artifact.Item item, Progress progress)
+            throws IOException {
         logger.debug("Downloading artifact: {} ...", fileUri);
-        try (InputStream is = new BufferedInputStream(fileUri.toURL().openStream())) {
-            save(is, tmp, item, progress);
+        String scheme = fileUri.getScheme();
+        if (!"http".equalsIgnoreCase(scheme) && !"https".equalsIgnoreCase(scheme)) {
+            try (InputStream is = new BufferedInputStream(fileUri.toURL().openStream())) {
+                save(is, tmp, item, progress);
+            }
+            return;
+        }
+
+        Path downloadDir = getCacheDirectory().resolve("downloads");
+        RangedDownloader downloader =
+                new RangedDownloader(fileUri.toURL(), downloadDir, SEGMENT_SIZE, DOWNLOAD_THREADS);
+        // part files are kept if the download fails, so the next attempt can resume
+        InputStream is = downloader.download(progress);
+        try (InputStream bis = new BufferedInputStream(is)) {
+            // downloaded bytes are already reported to the progress
+            save(bis, tmp, item, null);
+        } finally {
+            downloader.delete();
         }
     }
 
@@ -234,6 +320,34 @@ public abstract class AbstractRepository implements Repository {
         pis.validateChecksum(item);
     }
 
+    private void downloadAll(
+            Path tmp, URI baseUri, Collection<Artifact.Item> items, Progress progress)
+            throws IOException {
+        int threads = Math.min(items.size(), DOWNLOAD_THREADS);
+        if (threads <= 1) {
+            for (Artifact.Item item : items) {
+                download(tmp, baseUri, item, progress);
+            }
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(items.size());
+            for (Artifact.Item item : items) {
+                futures.add(
+                        executor.submit(
+                                () -> {
+                                    download(tmp, baseUri, item, progress);
+                                    return null;
+                                }));
+            }
+            RangedDownloader.await(futures);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private void untar(InputStream is, Path dir, boolean gzip) throws IOException {
         InputStream bis;
         if (gzip) {
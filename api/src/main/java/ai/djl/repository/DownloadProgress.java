@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.repository;
+
+import ai.djl.util.Progress;
+
+/**
+ * A {@code DownloadProgress} is a thread safe {@link Progress} shared by the concurrent downloads
+ * of an artifact.
+ *
+ * <p>It forwards the total number of downloaded bytes to the wrapped {@link Progress}, with the
+ * download bandwidth as message. Calls to {@link #end()} from a single download are ignored, the
+ * wrapped {@link Progress} ends when all items of the artifact are saved.
+ */
+final class DownloadProgress implements Progress {
+
+    private Progress progress;
+    private long downloaded;
+    private long startTime;
+
+    /**
+     * Constructs a new {@code DownloadProgress}.
+     *
+     * @param progress the progress to forward to
+     */
+    DownloadProgress(Progress progress) {
+        this.progress = progress;
+        startTime = System.nanoTime();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void reset(String message, long max, String trailingMessage) {
+        progress.reset(message, max, trailingMessage);
+        downloaded = 0;
+        startTime = System.nanoTime();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void start(long initialProgress) {
+        progress.start(initialProgress);
+        downloaded = initialProgress;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void end() {}
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void increment(long increment) {
+        update(downloaded + increment);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void update(long progress, String message) {
+        downloaded = progress;
+        if (message == null) {
+            message = String.format("%.2f MB/s", getBandwidth() / 1024 / 1024);
+        }
+        this.progress.update(progress, message);
+    }
+
+    /**
+     * Returns the number of bytes downloaded.
+     *
+     * @return the number of bytes downloaded
+     */
+    public synchronized long getDownloaded() {
+        return downloaded;
+    }
+
+    /**
+     * Returns the average download bandwidth since the last reset, in bytes per second.
+     *
+     * @return the average download bandwidth
+     */
+    public synchronized double getBandwidth() {
+        long elapsed = System.nanoTime() - startTime;
+        if (elapsed <= 0) {
+            return 0;
+        }
+        return downloaded * 1e9 / elapsed;
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.repository;
+
+import ai.djl.util.Progress;
+import ai.djl.util.Utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A {@code RangedDownloader} downloads a file over HTTP in byte ranges fetched in parallel.
+ *
+ * <p>The file is split in segments, each downloaded into its own part file under the download
+ * directory. Part files are kept when a download fails, so the download resumes where each segment
+ * stopped, on retry or in a later process. The part files are keyed by the URL, length and entity
+ * tag of the file, so a file that changed on the server is never resumed from stale parts. If the
+ * server doesn't support range requests, the file is downloaded as a single segment.
+ */
+final class RangedDownloader {
+
+    private static final Logger logger = LoggerFactory.getLogger(RangedDownloader.class);
+
+    private static final int MAX_RETRY = 3;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private URL url;
+    private Path dir;
+    private long segmentSize;
+    private int threads;
+    private boolean ranged;
+    private String validator;
+    private List<Path> parts;
+
+    /**
+     * Constructs a new {@code RangedDownloader}.
+     *
+     * @param url the URL of the file
+     * @param downloadDir the directory that holds partial downloads
+     * @param segmentSize the size of a segment, in bytes
+     * @param threads the maximum number of segments downloaded in parallel
+     */
+    RangedDownloader(URL url, Path downloadDir, long segmentSize, int threads) {
+        this.url = url;
+        this.segmentSize = segmentSize;
+        this.threads = threads;
+        dir = downloadDir;
+    }
+
+    /**
+     * Downloads the file, and returns a stream over the downloaded content.
+     *
+     * <p>Bytes that were downloaded by an earlier attempt are reported to the progress first.
+     *
+     * @param progress the (optionally null) progress tracker, must be thread safe
+     * @return a stream over the downloaded content
+     * @throws IOException if the file cannot be downloaded
+     */
+    InputStream download(Progress progress) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        long length = -1;
+        boolean acceptRanges = false;
+        try {
+            conn.setRequestMethod("HEAD");
+            if (conn.getResponseCode() == HttpURLConnection.HTTP_OK) {
+                length = conn.getContentLengthLong();
+                acceptRanges = "bytes".equalsIgnoreCase(conn.getHeaderField("Accept-Ranges"));
+                validator = conn.getHeaderField("ETag");
+                if (validator == null) {
+                    validator = conn.getHeaderField("Last-Modified");
+                }
+            }
+        } finally {
+            conn.disconnect();
+        }
+
+        String key = url.toString() + '\n' + length + '\n' + validator;
+        dir = dir.resolve(AbstractRepository.md5hash(key));
+        Files.createDirectories(dir);
+
+        ranged = acceptRanges && length > 0;
+        parts = new ArrayList<>();
+        List<long[]> ranges = new ArrayList<>();
+        long existing = 0;
+        if (ranged) {
+            for (long start = 0; start < length; start += segmentSize) {
+                Path part = dir.resolve(parts.size() + ".part");
+                existing += Files.exists(part) ? Files.size(part) : 0;
+                parts.add(part);
+                ranges.add(new long[] {start, Math.min(start + segmentSize, length)});
+            }
+        } else {
+            // a partial download can't be resumed without range requests
+            Path part = dir.resolve("0.part");
+            Files.deleteIfExists(part);
+            parts.add(part);
+            ranges.add(new long[] {0, length});
+        }
+        if (progress != null && existing > 0) {
+            logger.debug("Resuming download of {} from {} bytes", url, existing);
+            progress.increment(existing);
+        }
+
+        int nThreads = Math.min(parts.size(), threads);
+        if (nThreads <= 1) {
+            for (int i = 0; i < parts.size(); ++i) {
+                fetch(parts.get(i), ranges.get(i), progress);
+            }
+        } else {
+            logger.debug("Downloading {} in {} segments", url, parts.size());
+            ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+            try {
+                List<Future<?>> futures = new ArrayList<>(parts.size());
+                for (int i = 0; i < parts.size(); ++i) {
+                    Path part = parts.get(i);
+                    long[] range = ranges.get(i);
+                    futures.add(executor.submit(() -> fetch(part, range, progress)));
+                }
+                await(futures);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        return new SequenceInputStream(new PartEnumeration());
+    }
+
+    /** Deletes the part files of this download. */
+    void delete() {
+        Utils.deleteQuietly(dir);
+    }
+
+    /**
+     * Waits for all futures to complete, and rethrows the first failure.
+     *
+     * @param futures the futures to wait for
+     * @throws IOException if any task failed with an {@link IOException}, or the current thread was
+     *     interrupted
+     */
+    static void await(List<Future<?>> futures) throws IOException {
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Download interrupted.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private Void fetch(Path part, long[] range, Progress progress) throws IOException {
+        for (int i = 0; ; ++i) {
+            try {
+                fetchOnce(part, range[0], range[1], progress);
+                return null;
+            } catch (IOException e) {
+                if (i >= MAX_RETRY || Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                logger.debug("Retrying download of {}: {}", url, e.getMessage());
+            }
+        }
+    }
+
+    private void fetchOnce(Path part, long start, long end, Progress progress) throws IOException {
+        long done = Files.exists(part) ? Files.size(part) : 0;
+        if (end >= 0 && start + done >= end) {
+            if (start + done > end) {
+                Files.delete(part);
+                throw new IOException("Part file is larger than its segment: " + part);
+            }
+            return;
+        }
+
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        try {
+            if (ranged) {
+                conn.setRequestProperty("Range", "bytes=" + (start + done) + '-' + (end - 1));
+                if (validator != null) {
+                    conn.setRequestProperty("If-Range", validator);
+                }
+            }
+            int code = conn.getResponseCode();
+            if (code == HttpURLConnection.HTTP_OK) {
+                if (start > 0) {
+                    // If-Range failed, the file changed since the download started
+                    throw new IOException("Remote file changed during download: " + url);
+                }
+                done = 0;
+            } else if (code != HttpURLConnection.HTTP_PARTIAL) {
+                throw new IOException("Failed to download " + url + ", HTTP code: " + code);
+            }
+
+            StandardOpenOption mode =
+                    done > 0 ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING;
+            byte[] buf = new byte[BUFFER_SIZE];
+            try (InputStream is = conn.getInputStream();
+                    OutputStream os =
+                            Files.newOutputStream(
+                                    part,
+                                    StandardOpenOption.CREATE,
+                                    StandardOpenOption.WRITE,
+                                    mode)) {
+                int read;
+                while ((read = is.read(buf)) != -1) {
+                    os.write(buf, 0, read);
+                    if (progress != null) {
+                        progress.increment(read);
+                    }
+                }
+            }
+        } finally {
+            conn.disconnect();
+        }
+
+        if (end >= 0 && start + Files.size(part) != end) {
+            throw new IOException("Incomplete download of " + url + ", segment: " + part);
+        }
+    }
+
+    /** Opens the part files one at a time, so a large download doesn't hold many files open. */
+    private final class PartEnumeration implements Enumeration<InputStream> {
+
+        private int index;
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean hasMoreElements() {
+            return index < parts.size();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public InputStream nextElement() {
+            if (!hasMoreElements()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                return Files.newInputStream(parts.get(index++));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,623 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.repository;
+
+import ai.djl.metric.Metrics;
+import ai.djl.metric.Unit;
+import ai.djl.util.Hex;
+import ai.djl.util.Utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * A {@code RepositoryCache} manages the resource directories that repositories download into a
+ * cache directory, and is safe to share between processes.
+ *
+ * <p>A resource directory is downloaded while holding a file lock next to it, so when several
+ * processes prepare the same artifact at once, only one of them downloads it and the others wait
+ * for it. A process that uses a resource directory holds a shared lock on the same file until it
+ * releases the resource directory, and resource directories in use are never evicted. Models loaded
+ * by a {@link ai.djl.repository.zoo.ModelLoader} release their resource directory when they are
+ * closed. After a download, files with the same content as a file already in the cache are replaced
+ * with hard links to a single copy. If a maximum size is set, the least recently used resource
+ * directories are evicted to keep the cache within that size:
+ *
+ * <pre>
+ * RepositoryCache.getInstance(repository.getCacheDirectory()).setMaxSize(20L &lt;&lt; 30);
+ * </pre>
+ *
+ * <p>The maximum size can also be set with the {@code ai.djl.repository.cache_size} system
+ * property, in bytes. Resource directories downloaded by earlier DJL versions are not tracked.
+ */
+public final class RepositoryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryCache.class);
+
+    private static final Map<Path, RepositoryCache> CACHES = new ConcurrentHashMap<>();
+    private static final Map<Path, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+    private static final Map<Path, Usage> IN_USE = new ConcurrentHashMap<>();
+
+    private static final String LOCK_SUFFIX = ".lock";
+    private static final String BLOBS = "blobs";
+    private static final long MIN_DEDUP_SIZE = 64 * 1024;
+
+    private Path cacheDir;
+    private long maxSize;
+    private LongAdder hits;
+    private LongAdder misses;
+    private LongAdder evictions;
+    private LongAdder dedupSize;
+
+    private RepositoryCache(Path cacheDir) {
+        this.cacheDir = cacheDir;
+        maxSize = Long.getLong("ai.djl.repository.cache_size", -1);
+        hits = new LongAdder();
+        misses = new LongAdder();
+        evictions = new LongAdder();
+        dedupSize = new LongAdder();
+    }
+
+    /**
+     * Returns the {@code RepositoryCache} of a cache directory.
+     *
+     * @param cacheDir the cache directory
+     * @return the {@code RepositoryCache} of the cache directory
+     */
+    public static RepositoryCache getInstance(Path cacheDir) {
+        return CACHES.computeIfAbsent(cacheDir.toAbsolutePath().normalize(), RepositoryCache::new);
+    }
+
+    /**
+     * Returns the maximum size of the cache, in bytes.
+     *
+     * @return the maximum size of the cache, or -1 if the cache is unbounded
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the maximum size of the cache, in bytes.
+     *
+     * <p>The size is enforced each time a resource directory is added to the cache.
+     *
+     * @param maxSize the maximum size of the cache, or -1 for an unbounded cache
+     */
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns whether the resource directory is managed by this cache.
+     *
+     * @param resourceDir the resource directory
+     * @return {@code true} if the resource directory is in the cache directory
+     */
+    public boolean contains(Path resourceDir) {
+        return resourceDir.toAbsolutePath().normalize().startsWith(cacheDir);
+    }
+
+    /**
+     * Acquires the lock to download a resource directory, waiting for other threads and processes
+     * that hold it.
+     *
+     * @param resourceDir the resource directory
+     * @return the lock, to be closed when the download is complete
+     * @throws IOException if the lock file cannot be opened
+     */
+    public Lock lock(Path resourceDir) throws IOException {
+        return Lock.acquire(lockFile(resourceDir), true);
+    }
+
+    /**
+     * Marks a resource directory as used by this process, if it exists.
+     *
+     * <p>The resource directory is not evicted by this or any other process until it is released as
+     * many times as it was marked as used, or this process exits. This waits for other threads and
+     * processes that download or evict the resource directory.
+     *
+     * @param resourceDir the resource directory
+     * @return {@code true} if the resource directory exists and is marked as used
+     * @throws IOException if the lock file cannot be opened
+     * @see #release(Path)
+     */
+    public boolean use(Path resourceDir) throws IOException {
+        Path lockFile = lockFile(resourceDir);
+        Path key = lockFile.toAbsolutePath().normalize();
+        ReentrantLock threadLock = LOCKS.computeIfAbsent(key, k -> new ReentrantLock());
+        threadLock.lock();
+        try {
+            Usage usage = IN_USE.get(key);
+            if (usage == null) {
+                usage = new Usage(Lock.open(lockFile, true, true).channel());
+                IN_USE.put(key, usage);
+            }
+            if (!Files.isDirectory(resourceDir)) {
+                if (usage.count == 0) {
+                    // closing the channel releases the shared lock, so it can be downloaded
+                    IN_USE.remove(key);
+                    usage.channel.close();
+                }
+                return false;
+            }
+            ++usage.count;
+            touch(lockFile);
+            return true;
+        } finally {
+            threadLock.unlock();
+        }
+    }
+
+    /**
+     * Releases a resource directory marked as used by {@link #use(Path)}.
+     *
+     * @param resourceDir the resource directory
+     */
+    public void release(Path resourceDir) {
+        Path key = lockFile(resourceDir).toAbsolutePath().normalize();
+        ReentrantLock threadLock = LOCKS.computeIfAbsent(key, k -> new ReentrantLock());
+        threadLock.lock();
+        try {
+            Usage usage = IN_USE.get(key);
+            if (usage != null && --usage.count <= 0) {
+                IN_USE.remove(key);
+                usage.channel.close();
+            }
+        } catch (IOException e) {
+            logger.debug("Failed to release: {}", resourceDir, e);
+        } finally {
+            threadLock.unlock();
+        }
+    }
+
+    /**
+     * Records that a resource directory was found in the cache.
+     *
+     * @param resourceDir the resource directory
+     */
+    public void hit(Path resourceDir) {
+        hits.increment();
+        touch(lockFile(resourceDir));
+    }
+
+    /**
+     * Adds a downloaded resource directory to the cache.
+     *
+     * <p>The caller must hold the lock of the resource directory. Files of the resource directory
+     * are deduplicated, then least recently used resource directories are evicted if the cache
+     * exceeds its maximum size.
+     *
+     * @param resourceDir the resource directory
+     * @throws IOException if the cache lock file cannot be opened
+     */
+    @SuppressWarnings("try")
+    public void add(Path resourceDir) throws IOException {
+        misses.increment();
+        Path lockFile = lockFile(resourceDir.toAbsolutePath().normalize());
+        touch(lockFile);
+        try (Lock ignore = Lock.acquire(cacheDir.resolve(".cache" + LOCK_SUFFIX), true)) {
+            deduplicate(resourceDir);
+            if (maxSize >= 0) {
+                evict(lockFile);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of bytes used by the resource directories in the cache.
+     *
+     * <p>Files that are hard linked from several resource directories are counted once.
+     *
+     * @return the number of bytes used by the cache
+     * @throws IOException if the cache directory cannot be read
+     */
+    public long getSize() throws IOException {
+        long size = 0;
+        for (Long fileSize : listFiles(listEntries()).values()) {
+            size += fileSize;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of resource directories found in the cache.
+     *
+     * @return the number of resource directories found in the cache
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of resource directories downloaded into the cache.
+     *
+     * @return the number of resource directories downloaded into the cache
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of resource directories evicted from the cache.
+     *
+     * @return the number of resource directories evicted from the cache
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the number of bytes saved by replacing duplicate files with hard links.
+     *
+     * @return the number of bytes saved by deduplication
+     */
+    public long getDedupSize() {
+        return dedupSize.sum();
+    }
+
+    /**
+     * Adds the usage of the cache to the given {@link Metrics}.
+     *
+     * @param metrics the {@link Metrics} to add to
+     * @throws IOException if the cache directory cannot be read
+     */
+    public void addMetrics(Metrics metrics) throws IOException {
+        metrics.addMetric("CacheHit", getHitCount(), Unit.COUNT);
+        metrics.addMetric("CacheMiss", getMissCount(), Unit.COUNT);
+        metrics.addMetric("CacheEviction", getEvictionCount(), Unit.COUNT);
+        metrics.addMetric("CacheDedupSize", getDedupSize(), Unit.BYTES);
+        metrics.addMetric("CacheSize", getSize(), Unit.BYTES);
+    }
+
+    private void deduplicate(Path resourceDir) {
+        Path blobs = cacheDir.resolve(BLOBS);
+        try {
+            // hard link counts are needed to find unused blobs
+            if (!Files.getFileStore(cacheDir).supportsFileAttributeView("unix")) {
+                return;
+            }
+            Files.createDirectories(blobs);
+            List<Path> files = new ArrayList<>();
+            Files.walkFileTree(
+                    resourceDir,
+                    new SimpleFileVisitor<Path>() {
+                        /** {@inheritDoc} */
+                        @Override
+                        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                            if (attrs.isRegularFile() && attrs.size() >= MIN_DEDUP_SIZE) {
+                                files.add(file);
+                            }
+                            return FileVisitResult.CONTINUE;
+                        }
+                    });
+            for (Path file : files) {
+                Path blob = blobs.resolve(sha1(file));
+                if (Files.exists(blob)) {
+                    // link into the resource directory first, so the file is replaced atomically
+                    Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+                    Files.deleteIfExists(tmp);
+                    Files.createLink(tmp, blob);
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+                    dedupSize.add(Files.size(blob));
+                } else {
+                    Files.createLink(blob, file);
+                }
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            logger.debug("Failed to deduplicate: {}", resourceDir, e);
+        }
+    }
+
+    private void evict(Path current) throws IOException {
+        List<Path> entries = listEntries();
+        Map<Object, Long> sizes = listFiles(entries);
+        long size = 0;
+        for (Long fileSize : sizes.values()) {
+            size += fileSize;
+        }
+        if (size <= maxSize) {
+            return;
+        }
+
+        // count the references to each file, a file is only freed with its last reference
+        Map<Path, List<Object>> filesByEntry = new HashMap<>();
+        Map<Object, Integer> refCounts = new HashMap<>();
+        for (Path entry : entries) {
+            List<Object> keys = new ArrayList<>(listFiles(entry).keySet());
+            filesByEntry.put(entry, keys);
+            for (Object key : keys) {
+                refCounts.merge(key, 1, Integer::sum);
+            }
+        }
+        entries.sort(Comparator.comparing(RepositoryCache::lastAccessTime));
+        for (Path lockFile : entries) {
+            if (size <= maxSize) {
+                break;
+            }
+            if (lockFile.equals(current)) {
+                continue;
+            }
+            // skip resource directories that are being downloaded or used by any process
+            try (Lock lock = Lock.acquire(lockFile, false)) {
+                if (lock == null) {
+                    continue;
+                }
+                Path dir = resourceDir(lockFile);
+                // rename first, so no process sees a partially deleted directory
+                Path trash = Files.createTempDirectory(dir.getParent(), "evicted");
+                Files.move(dir, trash.resolve("dir"), StandardCopyOption.ATOMIC_MOVE);
+                Utils.deleteQuietly(trash);
+                lock.delete(lockFile);
+                evictions.increment();
+                logger.debug("Evicted from cache: {}", dir);
+            }
+            for (Object key : filesByEntry.get(lockFile)) {
+                if (refCounts.merge(key, -1, Integer::sum) == 0) {
+                    size -= sizes.get(key);
+                }
+            }
+        }
+        deleteUnusedBlobs();
+    }
+
+    private void deleteUnusedBlobs() throws IOException {
+        Path blobs = cacheDir.resolve(BLOBS);
+        if (!Files.isDirectory(blobs)) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(blobs)) {
+            stream.forEach(files::add);
+        }
+        for (Path blob : files) {
+            if (((Number) Files.getAttribute(blob, "unix:nlink")).intValue() <= 1) {
+                Files.deleteIfExists(blob);
+            }
+        }
+    }
+
+    private List<Path> listEntries() throws IOException {
+        List<Path> entries = new ArrayList<>();
+        if (!Files.isDirectory(cacheDir)) {
+            return entries;
+        }
+        Files.walkFileTree(
+                cacheDir,
+                new SimpleFileVisitor<Path>() {
+                    /** {@inheritDoc} */
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                        if (dir.equals(cacheDir.resolve(BLOBS))) {
+                            return FileVisitResult.SKIP_SUBTREE;
+                        }
+                        Path lockFile = lockFile(dir);
+                        if (!dir.equals(cacheDir) && Files.exists(lockFile)) {
+                            entries.add(lockFile);
+                            return FileVisitResult.SKIP_SUBTREE;
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+        return entries;
+    }
+
+    private static Map<Object, Long> listFiles(List<Path> entries) throws IOException {
+        Map<Object, Long> files = new HashMap<>();
+        for (Path entry : entries) {
+            files.putAll(listFiles(entry));
+        }
+        return files;
+    }
+
+    private static Map<Object, Long> listFiles(Path lockFile) throws IOException {
+        Map<Object, Long> files = new HashMap<>();
+        Path dir = resourceDir(lockFile);
+        if (!Files.isDirectory(dir)) {
+            return files;
+        }
+        Files.walkFileTree(
+                dir,
+                new SimpleFileVisitor<Path>() {
+                    /** {@inheritDoc} */
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        // hard links to the same file share the file key
+                        Object key = attrs.fileKey();
+                        files.put(key == null ? file : key, attrs.size());
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+        return files;
+    }
+
+    private static FileTime lastAccessTime(Path lockFile) {
+        try {
+            return Files.getLastModifiedTime(lockFile);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static void touch(Path lockFile) {
+        try {
+            if (Files.exists(lockFile)) {
+                Files.setLastModifiedTime(
+                        lockFile, FileTime.fromMillis(System.currentTimeMillis()));
+            }
+        } catch (IOException e) {
+            logger.debug("Failed to update access time: {}", lockFile, e);
+        }
+    }
+
+    private static Path lockFile(Path resourceDir) {
+        return resourceDir.resolveSibling(resourceDir.getFileName() + LOCK_SUFFIX);
+    }
+
+    private static Path resourceDir(Path lockFile) {
+        String name = lockFile.getFileName().toString();
+        return lockFile.resolveSibling(name.substring(0, name.length() - LOCK_SUFFIX.length()));
+    }
+
+    private static String sha1(Path file) throws IOException {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError("SHA1 algorithm not found.", e);
+        }
+        byte[] buf = new byte[64 * 1024];
+        try (InputStream is = Files.newInputStream(file)) {
+            int read;
+            while ((read = is.read(buf)) != -1) {
+                md.update(buf, 0, read);
+            }
+        }
+        return Hex.toHexString(md.digest());
+    }
+
+    /**
+     * A {@code Lock} is a lock on a file that is exclusive across threads and processes.
+     *
+     * <p>{@link FileLock}s are held by the whole process, so threads of the same process are also
+     * excluded with a {@link ReentrantLock}.
+     */
+    public static final class Lock implements AutoCloseable {
+
+        private ReentrantLock threadLock;
+        private FileChannel channel;
+        private FileLock fileLock;
+
+        private Lock(ReentrantLock threadLock, FileChannel channel, FileLock fileLock) {
+            this.threadLock = threadLock;
+            this.channel = channel;
+            this.fileLock = fileLock;
+        }
+
+        static Lock acquire(Path file, boolean wait) throws IOException {
+            ReentrantLock threadLock =
+                    LOCKS.computeIfAbsent(
+                            file.toAbsolutePath().normalize(), k -> new ReentrantLock());
+            if (wait) {
+                threadLock.lock();
+            } else if (!threadLock.tryLock()) {
+                return null;
+            }
+            if (!wait && IN_USE.containsKey(file.toAbsolutePath().normalize())) {
+                // this process holds a shared lock on the file
+                threadLock.unlock();
+                return null;
+            }
+            try {
+                FileLock fileLock = open(file, false, wait);
+                if (fileLock != null) {
+                    return new Lock(threadLock, fileLock.channel(), fileLock);
+                }
+                threadLock.unlock();
+                return null;
+            } catch (IOException | RuntimeException e) {
+                threadLock.unlock();
+                throw e;
+            }
+        }
+
+        // a lock file deleted by an eviction is marked as stale, waiting callers that lock
+        // a stale file retry with a new lock file, callers that don't wait get null instead
+        private static FileLock open(Path file, boolean shared, boolean wait) throws IOException {
+            while (true) {
+                FileChannel channel =
+                        shared
+                                ? FileChannel.open(
+                                        file,
+                                        StandardOpenOption.CREATE,
+                                        StandardOpenOption.READ,
+                                        StandardOpenOption.WRITE)
+                                : FileChannel.open(
+                                        file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                try {
+                    FileLock fileLock =
+                            wait
+                                    ? channel.lock(0, Long.MAX_VALUE, shared)
+                                    : channel.tryLock(0, Long.MAX_VALUE, shared);
+                    if (fileLock != null && channel.size() == 0) {
+                        return fileLock;
+                    }
+                } catch (IOException | RuntimeException e) {
+                    channel.close();
+                    throw e;
+                }
+                channel.close();
+                if (!wait) {
+                    return null;
+                }
+            }
+        }
+
+        private void delete(Path file) {
+            try {
+                Files.deleteIfExists(file);
+                // only mark the file once it is deleted, or waiters would retry on it forever
+                channel.write(ByteBuffer.wrap(new byte[] {1}));
+            } catch (IOException e) {
+                logger.debug("Failed to delete lock file: {}", file, e);
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() throws IOException {
+            try {
+                fileLock.release();
+                channel.close();
+            } finally {
+                threadLock.unlock();
+            }
+        }
+    }
+
+    /** The shared lock on a resource directory used by this process, and its number of users. */
+    private static final class Usage {
+
+        FileChannel channel;
+        int count;
+
+        Usage(FileChannel channel) {
+            this.channel = channel;
+        }
+    }
+}
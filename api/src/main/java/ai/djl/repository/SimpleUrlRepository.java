@@ -19,9 +19,7 @@ import ai.djl.util.Progress;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.nio.file.Path;
@@ -98,10 +96,7 @@ public class SimpleUrlRepository extends AbstractRepository {
     @Override
     protected void download(Path tmp, URI baseUri, Artifact.Item item, Progress progress)
             throws IOException {
-        logger.debug("Downloading artifact: {} ...", uri);
-        try (InputStream is = new BufferedInputStream(uri.toURL().openStream())) {
-            save(is, tmp, item, progress);
-        }
+        download(uri, tmp, item, progress);
     }
 
     private synchronized Metadata getMetadata() throws IOException {
@@ -21,6 +21,8 @@ import ai.djl.nn.Block;
 import ai.djl.nn.BlockFactory;
 import ai.djl.repository.Artifact;
 import ai.djl.repository.MRL;
+import ai.djl.repository.Repository;
+import ai.djl.repository.RepositoryCache;
 import ai.djl.translate.DefaultTranslatorFactory;
 import ai.djl.translate.TranslateException;
 import ai.djl.translate.Translator;
@@ -81,6 +83,7 @@ public class BaseModelLoader implements ModelLoader {
         Map<String, Object> arguments = artifact.getArguments(criteria.getArguments());
         Map<String, String> options = artifact.getOptions(criteria.getOptions());
 
+        Runnable release = null;
         try {
             TranslatorFactory factory = getTranslatorFactory(criteria, arguments);
             Class<I> input = criteria.getInputClass();
@@ -93,12 +96,18 @@ public class BaseModelLoader implements ModelLoader {
             }
 
             mrl.prepare(artifact, progress);
+            Repository repository = mrl.getRepository();
+            Path modelPath = repository.getResourceDirectory(artifact);
+            RepositoryCache cache = RepositoryCache.getInstance(repository.getCacheDirectory());
+            if (cache.contains(modelPath)) {
+                // the resource directory is used until the model is closed
+                release = () -> cache.release(modelPath);
+            }
             if (progress != null) {
                 progress.reset("Loading", 2);
                 progress.update(1);
             }
 
-            Path modelPath = mrl.getRepository().getResourceDirectory(artifact);
             Path modelDir = Files.isRegularFile(modelPath) ? modelPath.getParent() : modelPath;
             if (modelDir == null) {
                 throw new AssertionError("Directory should not be null.");
@@ -157,10 +166,15 @@ public class BaseModelLoader implements ModelLoader {
             model.load(modelPath, null, options);
             Translator<I, O> translator =
                     (Translator<I, O>) factory.newInstance(input, output, model, arguments);
-            return new ZooModel<>(model, translator);
+            ZooModel<I, O> zooModel = new ZooModel<>(model, translator, release);
+            release = null;
+            return zooModel;
         } catch (TranslateException e) {
             throw new ModelNotFoundException("No matching translator found", e);
         } finally {
+            if (release != null) {
+                release.run();
+            }
             if (progress != null) {
                 progress.end();
             }
@@ -42,6 +42,7 @@ public class ZooModel<I, O> implements Model {
 
     private Model model;
     private Translator<I, O> translator;
+    private Runnable onClose;
 
     /**
      * Constructs a {@code ZooModel} given the model and translator.
@@ -54,6 +55,11 @@ public class ZooModel<I, O> implements Model {
         this.translator = translator;
     }
 
+    ZooModel(Model model, Translator<I, O> translator, Runnable onClose) {
+        this(model, translator);
+        this.onClose = onClose;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void load(Path modelPath, String prefix, Map<String, ?> options) {
@@ -221,6 +227,13 @@ public class ZooModel<I, O> implements Model {
     /** {@inheritDoc} */
     @Override
     public void close() {
-        model.close();
+        try {
+            model.close();
+        } finally {
+            if (onClose != null) {
+                onClose.run();
+                onClose = null;
+            }
+        }
     }
 }
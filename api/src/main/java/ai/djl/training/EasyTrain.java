@@ -12,6 +12,11 @@
  */
 package ai.djl.training;
 
+import ai.djl.Device;
+import ai.djl.metric.Dimension;
+import ai.djl.metric.Metric;
+import ai.djl.metric.Metrics;
+import ai.djl.metric.Unit;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.training.dataset.Batch;
@@ -24,6 +29,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 
@@ -88,7 +94,8 @@ public final class EasyTrain {
                     "The data must be on the same engine as the trainer. You may need to change one"
                             + " of your NDManagers.");
         }
-        Batch[] splits = batch.split(trainer.getDevices(), false);
+        Device[] devices = trainer.getDevices();
+        Batch[] splits = batch.split(devices, false);
         BatchData batchData =
                 new BatchData(batch, new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
         try (GradientCollector collector = trainer.newGradientCollector()) {
@@ -97,17 +104,19 @@ public final class EasyTrain {
                 // multi-threaded
                 ExecutorService executor = trainer.getExecutorService().get();
                 List<CompletableFuture<Boolean>> futures = new ArrayList<>(splits.length);
-                for (Batch split : splits) {
+                for (int i = 0; i < splits.length; ++i) {
+                    Batch split = splits[i];
+                    Device device = devices[i];
                     futures.add(
                             CompletableFuture.supplyAsync(
-                                    () -> trainSplit(trainer, collector, batchData, split),
+                                    () -> trainSplit(trainer, collector, batchData, split, device),
                                     executor));
                 }
-                CompletableFuture.allOf(futures.stream().toArray(CompletableFuture[]::new));
+                join(futures);
             } else {
                 // sequence
-                for (Batch split : splits) {
-                    trainSplit(trainer, collector, batchData, split);
+                for (int i = 0; i < splits.length; ++i) {
+                    trainSplit(trainer, collector, batchData, splits[i], devices[i]);
                 }
             }
         }
@@ -116,7 +125,12 @@ public final class EasyTrain {
     }
 
     private static boolean trainSplit(
-            Trainer trainer, GradientCollector collector, BatchData batchData, Batch split) {
+            Trainer trainer,
+            GradientCollector collector,
+            BatchData batchData,
+            Batch split,
+            Device device) {
+        long begin = System.nanoTime();
         NDList data = split.getData();
         NDList labels = split.getLabels();
         NDList preds = trainer.forward(data, labels);
@@ -128,6 +142,17 @@ public final class EasyTrain {
         batchData.getLabels().put(labels.get(0).getDevice(), labels);
         batchData.getPredictions().put(preds.get(0).getDevice(), preds);
         trainer.addMetric("training-metrics", time);
+        Metrics metrics = trainer.getMetrics();
+        if (metrics != null) {
+            // the time each device spends on its split shows how well the splits overlap
+            long duration = (System.nanoTime() - begin) / 1000;
+            metrics.addMetric(
+                    new Metric(
+                            "train-split",
+                            duration,
+                            Unit.MICROSECONDS,
+                            new Dimension("Device", device.toString())));
+        }
         return true;
     }
 
@@ -159,7 +184,7 @@ public final class EasyTrain {
                         CompletableFuture.supplyAsync(
                                 () -> validateSplit(trainer, batchData, split), executor));
             }
-            CompletableFuture.allOf(futures.stream().toArray(CompletableFuture[]::new));
+            join(futures);
         } else {
             // sequence
             for (Batch split : splits) {
@@ -179,6 +204,20 @@ public final class EasyTrain {
         return true;
     }
 
+    private static void join(List<CompletableFuture<Boolean>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
     /**
      * Evaluates the test dataset.
      *
@@ -14,8 +14,12 @@ package ai.djl.training;
 
 import ai.djl.Device;
 import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDArrays;
+import ai.djl.ndarray.NDList;
 import ai.djl.training.optimizer.Optimizer;
 
+import java.util.Arrays;
+
 /** {@code LocalParameterServer} is an implementation of the {@code ParameterServer} interface. */
 public class LocalParameterServer implements ParameterServer {
 
@@ -61,7 +65,86 @@ public class LocalParameterServer implements ParameterServer {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The gradients of the bucket are flattened into a single array per device, so reducing the
+     * gradients and broadcasting the result takes one transfer per device for the whole bucket
+     * instead of one per parameter. All the parameters in the bucket must have the same data type.
+     * The bucket is then passed to {@link Optimizer#update(String[], NDArray[], NDArray[])}, which
+     * may update it with a single fused operation.
+     */
+    @Override
+    public void update(String[] parameterIds, NDArray[][] params) {
+        int numDevices = params[0].length;
+        if (parameterIds.length == 1) {
+            update(parameterIds[0], params[0]);
+            return;
+        }
+        if (numDevices == 1) {
+            NDArray[] weights = weightsOf(params, 0);
+            NDArray[] grads =
+                    Arrays.stream(weights).map(NDArray::getGradient).toArray(NDArray[]::new);
+            optimizer.update(parameterIds, weights, grads);
+            Arrays.stream(grads).forEach(NDArray::close);
+            return;
+        }
+
+        long[] indices = new long[parameterIds.length - 1];
+        long offset = 0;
+        for (int i = 0; i < indices.length; ++i) {
+            offset += params[i][0].size();
+            indices[i] = offset;
+        }
+
+        Device firstDevice = params[0][0].getDevice();
+        try (NDArray reduced = flatten(params, 0)) {
+            // reduce gradient from all devices to first device
+            for (int j = 1; j < numDevices; ++j) {
+                try (NDArray flat = flatten(params, j);
+                        NDArray copy = flat.toDevice(firstDevice, true)) {
+                    reduced.addi(copy);
+                }
+            }
+            // update weights on different devices with reduced gradient
+            for (int j = 0; j < numDevices; ++j) {
+                NDArray[] weights = weightsOf(params, j);
+                Device device = weights[0].getDevice();
+                try (NDArray grad =
+                                device.equals(firstDevice)
+                                        ? reduced.duplicate()
+                                        : reduced.toDevice(device, true);
+                        NDList parts = grad.split(indices);
+                        NDList grads = new NDList(parameterIds.length)) {
+                    for (int i = 0; i < parameterIds.length; ++i) {
+                        grads.add(parts.get(i).reshape(weights[i].getShape()));
+                    }
+                    optimizer.update(parameterIds, weights, grads.toArray(new NDArray[0]));
+                }
+            }
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public void close() {}
+
+    private static NDArray[] weightsOf(NDArray[][] params, int device) {
+        NDArray[] weights = new NDArray[params.length];
+        for (int i = 0; i < params.length; ++i) {
+            weights[i] = params[i][device];
+        }
+        return weights;
+    }
+
+    private static NDArray flatten(NDArray[][] params, int device) {
+        try (NDList grads = new NDList(params.length)) {
+            for (NDArray[] param : params) {
+                try (NDArray grad = param[device].getGradient()) {
+                    grads.add(grad.flatten());
+                }
+            }
+            return NDArrays.concat(grads);
+        }
+    }
 }
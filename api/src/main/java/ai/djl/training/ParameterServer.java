@@ -39,6 +39,24 @@ public interface ParameterServer extends AutoCloseable {
         update(parameterId, grads, params);
         Arrays.stream(grads).forEach(NDArray::close);
     }
+
+    /**
+     * Updates a bucket of parameters from Parameter Server.
+     *
+     * <p>Implementations may reduce the gradients of all the parameters in the bucket together to
+     * save on the number of transfers between devices. The default implementation updates the
+     * parameters one at a time.
+     *
+     * @param parameterIds the keys to identify the parameters
+     * @param params the parameter NDArrays in different devices to be updated, indexed by parameter
+     *     and then by device
+     */
+    default void update(String[] parameterIds, NDArray[][] params) {
+        for (int i = 0; i < parameterIds.length; ++i) {
+            update(parameterIds[i], params[i]);
+        }
+    }
+
     /**
      * Updates the parameter of a key from Parameter Server.
      *
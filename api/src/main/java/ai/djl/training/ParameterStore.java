@@ -16,6 +16,7 @@ package ai.djl.training;
 import ai.djl.Device;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
 import ai.djl.nn.Parameter;
 
 import java.util.ArrayList;
@@ -29,6 +30,8 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class ParameterStore {
 
+    private static final long BUCKET_SIZE = 25L * 1024 * 1024;
+
     private NDManager manager;
     private Map<String, ParameterData> parameterMap;
     private Map<Device, Integer> deviceMap;
@@ -70,18 +73,44 @@ public class ParameterStore {
         }
     }
 
-    /** Updates all the mirrored parameters. */
+    /**
+     * Updates all the mirrored parameters.
+     *
+     * <p>Parameters of the same data type are grouped in buckets of about 25 MB, and each bucket is
+     * updated with a single call to the {@link ParameterServer}.
+     */
     public void updateAllParameters() {
+        List<String> ids = new ArrayList<>();
+        List<NDArray[]> bucket = new ArrayList<>();
+        DataType bucketType = null;
+        long bucketBytes = 0;
         for (Map.Entry<String, ParameterData> entry : parameterMap.entrySet()) {
-            String parameterId = entry.getKey();
             ParameterData data = entry.getValue();
-            if (data.requireGradient()) {
-                NDArray[] params = data.toArray();
-                parameterServer.update(parameterId, params);
+            if (!data.requireGradient()) {
+                continue;
             }
+            NDArray[] params = data.toArray();
+            DataType dataType = params[0].getDataType();
+            if (!ids.isEmpty() && (dataType != bucketType || bucketBytes >= BUCKET_SIZE)) {
+                updateBucket(ids, bucket);
+                bucketBytes = 0;
+            }
+            ids.add(entry.getKey());
+            bucket.add(params);
+            bucketType = dataType;
+            bucketBytes += params[0].size() * dataType.getNumOfBytes();
+        }
+        if (!ids.isEmpty()) {
+            updateBucket(ids, bucket);
         }
     }
 
+    private void updateBucket(List<String> ids, List<NDArray[]> bucket) {
+        parameterServer.update(ids.toArray(new String[0]), bucket.toArray(new NDArray[0][]));
+        ids.clear();
+        bucket.clear();
+    }
+
     /**
      * Returns the value of a mirrored parameter on a device.
      *
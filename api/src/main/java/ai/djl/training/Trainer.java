@@ -22,6 +22,7 @@ import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.Shape;
 import ai.djl.nn.Parameter;
 import ai.djl.training.dataset.Batch;
+import ai.djl.training.dataset.DataIterable;
 import ai.djl.training.dataset.Dataset;
 import ai.djl.training.evaluator.Evaluator;
 import ai.djl.training.listener.EpochTrainingListener;
@@ -135,7 +136,11 @@ public class Trainer implements AutoCloseable {
      * @throws TranslateException if there is an error while processing input
      */
     public Iterable<Batch> iterateDataset(Dataset dataset) throws IOException, TranslateException {
-        return dataset.getData(getManager(), executorService);
+        Iterable<Batch> data = dataset.getData(getManager(), executorService);
+        if (metrics != null && data instanceof DataIterable) {
+            ((DataIterable) data).setMetrics(metrics);
+        }
+        return data;
     }
 
     /**
@@ -226,6 +231,28 @@ public class Trainer implements AutoCloseable {
         return devices;
     }
 
+    /**
+     * Returns the gradients of the parameters that require gradient on the given device.
+     *
+     * <p>The gradients are in the order of the parameters of the model's block. The caller is
+     * responsible for closing them.
+     *
+     * @param device the device to get the gradients from
+     * @return the gradients of the parameters that require gradient
+     */
+    public NDList getGradients(Device device) {
+        NDList grads = new NDList();
+        model.getBlock().getParameters().values().stream()
+                .filter(Parameter::requiresGradient)
+                .forEach(
+                        param ->
+                                grads.add(
+                                        parameterStore
+                                                .getValue(param, device, true)
+                                                .getGradient()));
+        return grads;
+    }
+
     /**
      * Gets the training {@link Loss} function of the trainer.
      *
@@ -325,18 +352,9 @@ public class Trainer implements AutoCloseable {
      * {@code backward}.
      */
     private void checkGradients() {
-        List<NDArray> grads = new ArrayList<>();
-        model.getBlock().getParameters().values().stream()
-                .filter(Parameter::requiresGradient)
-                .forEach(
-                        param ->
-                                grads.add(
-                                        parameterStore
-                                                .getValue(param, devices[0], true)
-                                                .getGradient()));
-
+        NDList grads = getGradients(devices[0]);
         try (NDManager scoped = manager.newSubManager()) {
-            scoped.tempAttachAll(new NDList(grads));
+            scoped.tempAttachAll(grads);
             NDList list = new NDList(grads.stream().map(NDArray::sum).toArray(NDArray[]::new));
             float gradSum = NDArrays.stack(list).sum().getFloat();
 
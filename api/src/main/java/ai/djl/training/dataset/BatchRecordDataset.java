@@ -0,0 +1,43 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.ndarray.NDManager;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A {@link RandomAccessDataset} that can read all the records of a batch at once.
+ *
+ * <p>When a dataset implements {@code BatchRecordDataset}, the {@link DataIterable} reads each
+ * batch with a single call to {@link #getBatch(NDManager, List)} instead of reading every record
+ * with {@link RandomAccessDataset#get(NDManager, long)} and stacking them. This is only done when
+ * there is no data {@link ai.djl.translate.Pipeline} and both the data and label {@link
+ * ai.djl.translate.Batchifier}s are {@link ai.djl.translate.StackBatchifier}s.
+ */
+public interface BatchRecordDataset {
+
+    /**
+     * Gets the batched {@link Record} for the given indices from the dataset.
+     *
+     * <p>The result must be the same as stacking the records returned by {@link
+     * RandomAccessDataset#get(NDManager, long)} for each index.
+     *
+     * @param manager the manager used to create the arrays
+     * @param indices the indices of the requested data items
+     * @return a {@link Record} that contains the batched data and labels
+     * @throws IOException if an I/O error occurs
+     */
+    Record getBatch(NDManager manager, List<Long> indices) throws IOException;
+}
@@ -13,24 +13,31 @@
 package ai.djl.training.dataset;
 
 import ai.djl.Device;
+import ai.djl.metric.Metrics;
+import ai.djl.metric.Unit;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
 import ai.djl.translate.Batchifier;
 import ai.djl.translate.Pipeline;
+import ai.djl.translate.StackBatchifier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -39,6 +46,13 @@ import java.util.concurrent.atomic.AtomicInteger;
  *
  * <p>We don't recommended using DataIterable directly. Instead use {@link RandomAccessDataset}
  * combined with {@link ai.djl.training.Trainer} to iterate over the {@link RandomAccessDataset}}
+ *
+ * <p>When an {@link ExecutorService} is given, up to {@code preFetchNumber} batches are loaded in
+ * the background. By default, each batch is loaded by a single task. With {@code parallelRecords},
+ * every record of a batch is loaded by its own task and the batch is assembled by whichever task
+ * finishes last, so a single slow record does not keep the other threads idle. With {@code
+ * outOfOrder}, batches are returned in the order they finish loading rather than the order they
+ * were sampled, which is only appropriate for samplers where the batch order does not matter.
  */
 public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
 
@@ -56,8 +70,12 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
     private Iterator<List<Long>> sample;
     // for multithreading
     private Queue<Future<Batch>> queue;
+    private BlockingQueue<Future<Batch>> completed;
     private AtomicInteger progressCounter;
     private boolean autoClose;
+    private boolean parallelRecords;
+    private boolean outOfOrder;
+    private Metrics metrics;
 
     /**
      * Creates a new instance of {@code DataIterable} with the given parameters.
@@ -84,6 +102,52 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
             ExecutorService executor,
             int preFetchNumber,
             Device device) {
+        this(
+                dataset,
+                manager,
+                sampler,
+                dataBatchifier,
+                labelBatchifier,
+                pipeline,
+                targetPipeline,
+                executor,
+                preFetchNumber,
+                device,
+                false,
+                false);
+    }
+
+    /**
+     * Creates a new instance of {@code DataIterable} with the given parameters.
+     *
+     * @param dataset the dataset to iterate on
+     * @param manager the manager to create the arrays
+     * @param sampler a sampler to sample data with
+     * @param dataBatchifier a batchifier for data
+     * @param labelBatchifier a batchifier for labels
+     * @param pipeline the pipeline of transforms to apply on the data
+     * @param targetPipeline the pipeline of transforms to apply on the labels
+     * @param executor an {@link ExecutorService}
+     * @param preFetchNumber the number of samples to prefetch
+     * @param device the {@link Device}
+     * @param parallelRecords whether to load the records of a batch in parallel, only used with an
+     *     {@code executor}
+     * @param outOfOrder whether batches can be returned in the order they finish loading, only used
+     *     with an {@code executor}
+     */
+    public DataIterable(
+            RandomAccessDataset dataset,
+            NDManager manager,
+            Sampler sampler,
+            Batchifier dataBatchifier,
+            Batchifier labelBatchifier,
+            Pipeline pipeline,
+            Pipeline targetPipeline,
+            ExecutorService executor,
+            int preFetchNumber,
+            Device device,
+            boolean parallelRecords,
+            boolean outOfOrder) {
         this.dataset = dataset;
         this.manager = manager.newSubManager();
         this.manager.setName("dataIter");
@@ -93,13 +157,22 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
         this.targetPipeline = targetPipeline;
         this.executor = executor;
         this.device = device;
+        this.parallelRecords = parallelRecords;
+        this.outOfOrder = outOfOrder;
         progressCounter = new AtomicInteger(0);
         String close = System.getProperty("ai.djl.dataiterator.autoclose", "true");
         autoClose = Boolean.parseBoolean(close);
 
         sample = sampler.sample(dataset);
         if (executor != null) {
-            queue = new LinkedList<>();
+            if (parallelRecords || outOfOrder) {
+                queue = new ArrayDeque<>(Math.max(preFetchNumber, 1) + 1);
+                if (outOfOrder) {
+                    completed = new LinkedBlockingQueue<>();
+                }
+            } else {
+                queue = new LinkedList<>();
+            }
             // prefetch
             for (int i = 0; i < preFetchNumber; i++) {
                 preFetch();
@@ -107,6 +180,18 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
         }
     }
 
+    /**
+     * Attaches a {@link Metrics} to record the time spent waiting for data.
+     *
+     * <p>When loading with an {@link ExecutorService}, the time {@link #next()} blocks until a
+     * batch is ready is recorded as {@code DataWait}.
+     *
+     * @param metrics the {@link Metrics} to record to
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
     /** {@inheritDoc} */
     @Override
     public Iterator<Batch> iterator() {
@@ -150,9 +235,21 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
         } else {
             // multithreading data loading with async fetch
             preFetch();
-            Future<Batch> future = queue.poll();
+            long begin = System.nanoTime();
             try {
-                return future.get();
+                Future<Batch> future;
+                if (outOfOrder) {
+                    future = completed.take();
+                    queue.remove(future);
+                } else {
+                    future = queue.poll();
+                }
+                Batch batch = future.get();
+                if (metrics != null) {
+                    long wait = (System.nanoTime() - begin) / 1000;
+                    metrics.addMetric("DataWait", wait, Unit.MICROSECONDS);
+                }
+                return batch;
             } catch (InterruptedException | ExecutionException e) {
                 logger.error(e.getMessage());
                 throw new IllegalStateException("Data loading failed", e);
@@ -163,25 +260,59 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
     private Batch fetch(List<Long> indices, int progress) throws IOException {
         NDManager subManager = manager.newSubManager();
         subManager.setName("dataIter fetch");
-        int batchSize = indices.size();
-        NDList[] data = new NDList[batchSize];
-        NDList[] labels = new NDList[batchSize];
-        for (int i = 0; i < batchSize; i++) {
-            Record record = dataset.get(subManager, indices.get(i));
-            data[i] = record.getData();
-            // apply transform
-            if (pipeline != null) {
-                data[i] = pipeline.transform(data[i]);
+        try {
+            if (isBatchRead()) {
+                Record record = ((BatchRecordDataset) dataset).getBatch(subManager, indices);
+                return toBatch(subManager, record.getData(), record.getLabels(), indices, progress);
             }
+            int batchSize = indices.size();
+            NDList[] data = new NDList[batchSize];
+            NDList[] labels = new NDList[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                Record record = dataset.get(subManager, indices.get(i));
+                data[i] = record.getData();
+                // apply transform
+                if (pipeline != null) {
+                    data[i] = pipeline.transform(data[i]);
+                }
 
-            labels[i] = record.getLabels();
+                labels[i] = record.getLabels();
+            }
+            return assemble(subManager, data, labels, indices, progress);
+        } catch (IOException | RuntimeException e) {
+            subManager.close();
+            throw e;
         }
+    }
+
+    private Batch assemble(
+            NDManager subManager,
+            NDList[] data,
+            NDList[] labels,
+            List<Long> indices,
+            int progress) {
         NDList batchData = dataBatchifier.batchify(data);
         NDList batchLabels = labelBatchifier.batchify(labels);
 
         Arrays.stream(data).forEach(NDList::close);
         Arrays.stream(labels).forEach(NDList::close);
+        return toBatch(subManager, batchData, batchLabels, indices, progress);
+    }
 
+    private boolean isBatchRead() {
+        return dataset instanceof BatchRecordDataset
+                && pipeline == null
+                && dataBatchifier instanceof StackBatchifier
+                && labelBatchifier instanceof StackBatchifier;
+    }
+
+    private Batch toBatch(
+            NDManager subManager,
+            NDList batchData,
+            NDList batchLabels,
+            List<Long> indices,
+            int progress) {
+        int batchSize = indices.size();
         // apply label transform
         if (targetPipeline != null) {
             batchLabels = targetPipeline.transform(batchLabels);
@@ -208,11 +339,91 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
             return;
         }
         List<Long> indices = sample.next();
+        if (parallelRecords && !isBatchRead()) {
+            queue.offer(fetchRecords(indices));
+            return;
+        }
+        if (parallelRecords || outOfOrder) {
+            int progress = progressCounter.getAndAdd(indices.size());
+            CompletableFuture<Batch> result = new CompletableFuture<>();
+            queue.offer(result);
+            executor.execute(
+                    () -> {
+                        try {
+                            result.complete(fetch(indices, progress));
+                        } catch (IOException | RuntimeException e) {
+                            result.completeExceptionally(e);
+                        }
+                        if (outOfOrder) {
+                            completed.add(result);
+                        }
+                    });
+            return;
+        }
         Callable<Batch> task = new PreFetchCallable(indices);
         Future<Batch> result = executor.submit(task);
         queue.offer(result);
     }
 
+    private CompletableFuture<Batch> fetchRecords(List<Long> indices) {
+        int progress = progressCounter.getAndAdd(indices.size());
+        NDManager subManager = manager.newSubManager();
+        subManager.setName("dataIter fetch");
+        int batchSize = indices.size();
+        NDList[] data = new NDList[batchSize];
+        NDList[] labels = new NDList[batchSize];
+        AtomicInteger remaining = new AtomicInteger(batchSize);
+        CompletableFuture<Batch> result = new CompletableFuture<>();
+        if (outOfOrder) {
+            result.whenComplete((b, t) -> completed.add(result));
+        }
+        for (int i = 0; i < batchSize; i++) {
+            int index = i;
+            executor.execute(
+                    () -> {
+                        try {
+                            // skip the record if another record of this batch already failed
+                            if (!result.isDone()) {
+                                Record record = dataset.get(subManager, indices.get(index));
+                                NDList recordData = record.getData();
+                                if (pipeline != null) {
+                                    recordData = pipeline.transform(recordData);
+                                }
+                                data[index] = recordData;
+                                labels[index] = record.getLabels();
+                            }
+                        } catch (IOException | RuntimeException e) {
+                            result.completeExceptionally(e);
+                        } finally {
+                            // the last record to finish assembles the batch, or releases it
+                            if (remaining.decrementAndGet() == 0) {
+                                complete(result, subManager, data, labels, indices, progress);
+                            }
+                        }
+                    });
+        }
+        return result;
+    }
+
+    private void complete(
+            CompletableFuture<Batch> result,
+            NDManager subManager,
+            NDList[] data,
+            NDList[] labels,
+            List<Long> indices,
+            int progress) {
+        if (result.isDone()) {
+            subManager.close();
+            return;
+        }
+        try {
+            result.complete(assemble(subManager, data, labels, indices, progress));
+        } catch (RuntimeException e) {
+            subManager.close();
+            result.completeExceptionally(e);
+        }
+    }
+
     class PreFetchCallable implements Callable<Batch> {
 
         private List<Long> indices;
@@ -49,6 +49,8 @@ public abstract class RandomAccessDataset implements Dataset {
     protected Pipeline pipeline;
     protected Pipeline targetPipeline;
     protected int prefetchNumber;
+    protected boolean parallelRecords;
+    protected boolean outOfOrder;
     protected long limit;
     protected Device device;
 
@@ -67,6 +69,8 @@ public abstract class RandomAccessDataset implements Dataset {
         this.pipeline = builder.pipeline;
         this.targetPipeline = builder.targetPipeline;
         this.prefetchNumber = builder.prefetchNumber;
+        this.parallelRecords = builder.parallelRecords;
+        this.outOfOrder = builder.outOfOrder;
         this.limit = builder.limit;
         this.device = builder.device;
     }
@@ -95,7 +99,9 @@ public abstract class RandomAccessDataset implements Dataset {
                 targetPipeline,
                 null,
                 prefetchNumber,
-                device);
+                device,
+                parallelRecords,
+                outOfOrder);
     }
 
     /** {@inheritDoc} */
@@ -113,7 +119,9 @@ public abstract class RandomAccessDataset implements Dataset {
                 targetPipeline,
                 executorService,
                 prefetchNumber,
-                device);
+                device,
+                parallelRecords,
+                outOfOrder);
     }
 
     /**
@@ -138,7 +146,9 @@ public abstract class RandomAccessDataset implements Dataset {
                 targetPipeline,
                 null,
                 prefetchNumber,
-                device);
+                device,
+                parallelRecords,
+                outOfOrder);
     }
 
     /**
@@ -166,7 +176,9 @@ public abstract class RandomAccessDataset implements Dataset {
                 targetPipeline,
                 executorService,
                 prefetchNumber,
-                device);
+                device,
+                parallelRecords,
+                outOfOrder);
     }
 
     /**
@@ -284,6 +296,8 @@ public abstract class RandomAccessDataset implements Dataset {
         protected Pipeline pipeline;
         protected Pipeline targetPipeline;
         protected int prefetchNumber = 2;
+        protected boolean parallelRecords;
+        protected boolean outOfOrder;
         protected long limit = Long.MAX_VALUE;
         protected Device device;
 
@@ -423,6 +437,35 @@ public abstract class RandomAccessDataset implements Dataset {
             return self();
         }
 
+        /**
+         * Sets whether the records within a batch are loaded in parallel.
+         *
+         * <p>This only applies when the data is loaded with an {@link ExecutorService}. Each record
+         * is then loaded by its own task instead of one task loading the whole batch.
+         *
+         * @param parallelRecords whether to load the records within a batch in parallel
+         * @return this {@code BaseBuilder}
+         */
+        public T optParallelRecords(boolean parallelRecords) {
+            this.parallelRecords = parallelRecords;
+            return self();
+        }
+
+        /**
+         * Sets whether batches may be returned in the order they finish loading.
+         *
+         * <p>This only applies when the data is loaded with an {@link ExecutorService}. It avoids
+         * stalling on a slow batch, but should only be used with samplers where the order of the
+         * batches does not matter, such as random sampling.
+         *
+         * @param outOfOrder whether batches may be returned in the order they finish loading
+         * @return this {@code BaseBuilder}
+         */
+        public T optOutOfOrder(boolean outOfOrder) {
+            this.outOfOrder = outOfOrder;
+            return self();
+        }
+
         /**
          * Sets the {@link Device}.
          *
@@ -474,6 +517,8 @@ public abstract class RandomAccessDataset implements Dataset {
             this.pipeline = dataset.pipeline;
             this.targetPipeline = dataset.targetPipeline;
             this.prefetchNumber = dataset.prefetchNumber;
+            this.parallelRecords = dataset.parallelRecords;
+            this.outOfOrder = dataset.outOfOrder;
             this.device = dataset.device;
 
             limit = Long.MAX_VALUE;
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.listener;
+
+import ai.djl.Device;
+import ai.djl.metric.Metrics;
+import ai.djl.metric.Unit;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDArrays;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.nn.Parameter;
+import ai.djl.training.Trainer;
+import ai.djl.util.Pair;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TrainingListener} that collects gradient statistics without blocking the training step.
+ *
+ * <p>Every {@code frequency} batches, the norm of the gradient of each parameter is computed with a
+ * single stacked reduction per device. The result is copied to the host on a background thread, so
+ * the training thread never waits for the device. The norms are added to the trainer {@link
+ * Metrics} as {@code GradientNorm} and {@code NonFiniteGradients}, and a warning is logged when a
+ * gradient contains NaN or infinite values.
+ *
+ * <p>The listener can also clip the gradients by their global norm on every batch. The scale is
+ * computed and applied on the device, so clipping doesn't synchronize either. With several devices,
+ * the gradients are clipped by the sum of the norms of each device, which bounds the norm of the
+ * reduced gradient.
+ */
+public class GradientStatisticsTrainingListener extends TrainingListenerAdapter {
+
+    private static final Logger logger =
+            LoggerFactory.getLogger(GradientStatisticsTrainingListener.class);
+
+    private int frequency;
+    private float maxNorm;
+    private int numBatches;
+    private ExecutorService executor;
+
+    private volatile Map<String, Float> norms = Collections.emptyMap();
+    private volatile float globalNorm;
+    private volatile int nonFinite;
+
+    /**
+     * Constructs a {@code GradientStatisticsTrainingListener} that collects statistics every {@code
+     * frequency} batches.
+     *
+     * @param frequency the number of batches between two collections
+     */
+    public GradientStatisticsTrainingListener(int frequency) {
+        this(frequency, 0);
+    }
+
+    /**
+     * Constructs a {@code GradientStatisticsTrainingListener} that collects statistics every {@code
+     * frequency} batches, and clips the gradients to a maximum global norm.
+     *
+     * @param frequency the number of batches between two collections
+     * @param maxNorm the maximum global norm of the gradients, or 0 to disable clipping
+     */
+    public GradientStatisticsTrainingListener(int frequency, float maxNorm) {
+        if (frequency <= 0) {
+            throw new IllegalArgumentException("frequency must be positive");
+        }
+        this.frequency = frequency;
+        this.maxNorm = maxNorm;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onTrainingBatch(Trainer trainer, BatchData batchData) {
+        boolean collect = ++numBatches % frequency == 0;
+        if (!collect && maxNorm <= 0) {
+            return;
+        }
+
+        Device[] devices = trainer.getDevices();
+        try (NDManager scoped = trainer.getManager().newSubManager()) {
+            NDList[] grads = new NDList[devices.length];
+            NDArray[] squares = new NDArray[devices.length];
+            for (int i = 0; i < devices.length; ++i) {
+                grads[i] = trainer.getGradients(devices[i]);
+                // the gradient arrays are new handles owned by the caller, close them with the
+                // scope
+                scoped.attachAll(grads[i]);
+                NDList list = new NDList(grads[i].size());
+                for (NDArray grad : grads[i]) {
+                    list.add(grad.toType(DataType.FLOAT32, false).square().sum());
+                }
+                squares[i] = NDArrays.stack(list);
+            }
+            if (maxNorm > 0) {
+                clip(devices, grads, squares);
+            }
+            if (collect) {
+                NDArray result = sum(devices, squares);
+                // the result outlives this scope, the background task closes it
+                result.detach();
+                List<String> names = parameterNames(trainer);
+                Metrics metrics = trainer.getMetrics();
+                int batch = numBatches;
+                if (executor == null) {
+                    // created per fit, since onTrainingEnd shuts it down
+                    executor =
+                            Executors.newSingleThreadExecutor(
+                                    r -> {
+                                        Thread thread = new Thread(r, "gradient-statistics");
+                                        thread.setDaemon(true);
+                                        return thread;
+                                    });
+                }
+                executor.execute(() -> report(result, names, metrics, batch));
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onTrainingEnd(Trainer trainer) {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.warn("Timed out waiting for gradient statistics.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+    }
+
+    /**
+     * Returns the norm of the gradient of each parameter from the last collection.
+     *
+     * @return the norm of the gradient of each parameter
+     */
+    public Map<String, Float> getNorms() {
+        return norms;
+    }
+
+    /**
+     * Returns the global norm of the gradients from the last collection.
+     *
+     * @return the global norm of the gradients
+     */
+    public float getGlobalNorm() {
+        return globalNorm;
+    }
+
+    /**
+     * Returns the number of parameters whose gradient had NaN or infinite values in the last
+     * collection.
+     *
+     * @return the number of parameters whose gradient had NaN or infinite values
+     */
+    public int getNonFiniteCount() {
+        return nonFinite;
+    }
+
+    private void clip(Device[] devices, NDList[] grads, NDArray[] squares) {
+        NDArray total = squares[0].sum().sqrt();
+        for (int i = 1; i < devices.length; ++i) {
+            total = total.add(squares[i].sum().sqrt().toDevice(devices[0], false));
+        }
+        NDArray scale = total.add(1e-6f).pow(-1).mul(maxNorm).minimum(1f);
+        for (int i = 0; i < devices.length; ++i) {
+            NDArray deviceScale = scale.toDevice(devices[i], false);
+            for (NDArray grad : grads[i]) {
+                grad.muli(deviceScale.toType(grad.getDataType(), false));
+            }
+        }
+    }
+
+    private static NDArray sum(Device[] devices, NDArray[] squares) {
+        NDArray result = squares[0];
+        for (int i = 1; i < devices.length; ++i) {
+            result = result.add(squares[i].toDevice(devices[0], false));
+        }
+        return result;
+    }
+
+    private void report(NDArray result, List<String> names, Metrics metrics, int batch) {
+        float[] squares;
+        try (NDArray array = result) {
+            squares = array.toFloatArray();
+        }
+        Map<String, Float> map = new LinkedHashMap<>();
+        double sum = 0;
+        int count = 0;
+        for (int i = 0; i < squares.length; ++i) {
+            float norm = (float) Math.sqrt(squares[i]);
+            map.put(names.get(i), norm);
+            if (Float.isFinite(norm)) {
+                sum += squares[i];
+            } else {
+                ++count;
+            }
+        }
+        norms = Collections.unmodifiableMap(map);
+        globalNorm = count > 0 ? Float.NaN : (float) Math.sqrt(sum);
+        nonFinite = count;
+        if (metrics != null) {
+            metrics.addMetric("GradientNorm", globalNorm);
+            metrics.addMetric("NonFiniteGradients", count, Unit.COUNT);
+        }
+        if (count > 0) {
+            List<String> invalid = new ArrayList<>();
+            for (Map.Entry<String, Float> entry : map.entrySet()) {
+                if (!Float.isFinite(entry.getValue())) {
+                    invalid.add(entry.getKey());
+                }
+            }
+            logger.warn("NaN or infinite gradients at batch {}: {}", batch, invalid);
+        }
+    }
+
+    private static List<String> parameterNames(Trainer trainer) {
+        List<String> names = new ArrayList<>();
+        for (Pair<String, Parameter> pair : trainer.getModel().getBlock().getParameters()) {
+            if (pair.getValue().requiresGradient()) {
+                names.add(pair.getKey());
+            }
+        }
+        return names;
+    }
+}
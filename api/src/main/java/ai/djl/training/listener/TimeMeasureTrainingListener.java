@@ -12,6 +12,7 @@
  */
 package ai.djl.training.listener;
 
+import ai.djl.metric.HistogramMetrics;
 import ai.djl.metric.Metric;
 import ai.djl.metric.Metrics;
 import ai.djl.training.Trainer;
@@ -25,6 +26,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -32,6 +35,9 @@ import java.util.List;
  *
  * <p>The training time data is placed in the file "$outputDir/training.log" and the validation data
  * is placed in "$outputDir/validate.log".
+ *
+ * <p>If the trainer uses {@link HistogramMetrics}, which does not keep every sample, the files
+ * contain the count, mean and percentiles of the batch times instead of the individual times.
  */
 public class TimeMeasureTrainingListener extends TrainingListenerAdapter {
 
@@ -91,13 +97,33 @@ public class TimeMeasureTrainingListener extends TrainingListenerAdapter {
         try {
             Path dir = Paths.get(logDir);
             Files.createDirectories(dir);
-            dumpMetricToFile(dir.resolve("training.log"), metrics.getMetric("train"));
-            dumpMetricToFile(dir.resolve("validate.log"), metrics.getMetric("validate"));
+            dumpMetricToFile(dir.resolve("training.log"), getMetric(metrics, "train"));
+            dumpMetricToFile(dir.resolve("validate.log"), getMetric(metrics, "validate"));
         } catch (IOException e) {
             logger.error("Failed dump training log", e);
         }
     }
 
+    private static List<Metric> getMetric(Metrics metrics, String name) {
+        if (!(metrics instanceof HistogramMetrics)) {
+            return metrics.getMetric(name);
+        }
+        // the retained samples are only the first few, dump the distribution instead
+        HistogramMetrics histogram = (HistogramMetrics) metrics;
+        if (!histogram.hasMetric(name)) {
+            return Collections.emptyList();
+        }
+        List<Metric> list = new ArrayList<>();
+        list.add(new Metric(name + "_count", histogram.count(name)));
+        Metric latest = histogram.latestMetric(name);
+        list.add(new Metric(name + "_mean", histogram.mean(name), latest.getUnit()));
+        for (int percentile : new int[] {50, 90, 99, 100}) {
+            Metric metric = histogram.percentile(name, percentile);
+            list.add(new Metric(name + "_p" + percentile, metric.getValue(), metric.getUnit()));
+        }
+        return list;
+    }
+
     private static void dumpMetricToFile(Path path, List<Metric> metrics) throws IOException {
         if (metrics == null || metrics.isEmpty()) {
             return;
@@ -64,19 +64,8 @@ public class Adam extends Optimizer {
     /** {@inheritDoc} */
     @Override
     public void update(String parameterId, NDArray weight, NDArray grad) {
-        int t = updateCount(parameterId);
-        double coef1 = 1.0 - Math.pow(beta1, t);
-        double coef2 = 1.0 - Math.pow(beta2, t);
-        float lr = learningRateTracker.getNewValue(t);
-        float newLearningRate = (float) (lr * Math.sqrt(coef2) / coef1);
+        float newLearningRate = learningRate(updateCount(parameterId));
         float weightDecay = getWeightDecay();
-
-        Preconditions.checkArgument(
-                !Float.isNaN(newLearningRate)
-                        && !Float.isNaN(weightDecay)
-                        && !Float.isInfinite(newLearningRate)
-                        && !Float.isInfinite(weightDecay),
-                "learning rate or weight decay is nan or infinite");
         NDList inputs =
                 new NDList(
                         weight,
@@ -105,6 +94,59 @@ public class Adam extends Optimizer {
                 true);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void update(String[] parameterIds, NDArray[] weights, NDArray[] grads) {
+        if (!isMultiTensorUpdate(weights)) {
+            super.update(parameterIds, weights, grads);
+            return;
+        }
+        int size = parameterIds.length;
+        float[] learningRates = new float[size];
+        NDList meanList = new NDList(size);
+        NDList varianceList = new NDList(size);
+        for (int i = 0; i < size; ++i) {
+            // the bias correction depends on how many times each parameter was updated
+            learningRates[i] = learningRate(updateCount(parameterIds[i]));
+            NDArray weight = weights[i];
+            Device device = weight.getDevice();
+            meanList.add(withDefaultState(means, parameterIds[i], device, k -> weight.zerosLike()));
+            varianceList.add(
+                    withDefaultState(variances, parameterIds[i], device, k -> weight.zerosLike()));
+        }
+
+        NDArrayEx ex = weights[0].getNDArrayInternal();
+        ex.multiAdamUpdate(
+                new NDList(weights),
+                new NDList(grads),
+                meanList,
+                varianceList,
+                learningRates,
+                getWeightDecay(),
+                rescaleGrad,
+                clipGrad,
+                beta1,
+                beta2,
+                epsilon);
+    }
+
+    // the learning rate at update t, with the bias correction of both moments
+    private float learningRate(int t) {
+        double coef1 = 1.0 - Math.pow(beta1, t);
+        double coef2 = 1.0 - Math.pow(beta2, t);
+        float lr = learningRateTracker.getNewValue(t);
+        float newLearningRate = (float) (lr * Math.sqrt(coef2) / coef1);
+        float weightDecay = getWeightDecay();
+
+        Preconditions.checkArgument(
+                !Float.isNaN(newLearningRate)
+                        && !Float.isNaN(weightDecay)
+                        && !Float.isInfinite(newLearningRate)
+                        && !Float.isInfinite(weightDecay),
+                "learning rate or weight decay is nan or infinite");
+        return newLearningRate;
+    }
+
     /**
      * Creates a builder to build a {@code Adam}.
      *
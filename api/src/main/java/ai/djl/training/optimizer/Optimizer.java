@@ -13,6 +13,7 @@
 package ai.djl.training.optimizer;
 
 import ai.djl.Device;
+import ai.djl.engine.StandardCapabilities;
 import ai.djl.ndarray.NDArray;
 
 import java.util.Map;
@@ -134,6 +135,25 @@ public abstract class Optimizer {
      */
     public abstract void update(String parameterId, NDArray weight, NDArray grad);
 
+    /**
+     * Updates a bucket of parameters according to the gradients.
+     *
+     * <p>All the weights must be on the same device and have the same data type. If the engine
+     * supports {@link StandardCapabilities#MULTI_TENSOR_UPDATE}, optimizers may update the whole
+     * bucket with a single fused operation. Each parameter keeps its own states and update count,
+     * so the composition of the buckets may change between steps. The default implementation
+     * updates the parameters one at a time.
+     *
+     * @param parameterIds the parameters to be updated
+     * @param weights the weights of the parameters
+     * @param grads the gradients of the parameters
+     */
+    public void update(String[] parameterIds, NDArray[] weights, NDArray[] grads) {
+        for (int i = 0; i < parameterIds.length; ++i) {
+            update(parameterIds[i], weights[i], grads[i]);
+        }
+    }
+
     protected NDArray withDefaultState(
             Map<String, Map<Device, NDArray>> state,
             String key,
@@ -160,6 +180,20 @@ public abstract class Optimizer {
                 device, k -> arrayMap.values().iterator().next().toDevice(device, true));
     }
 
+    /**
+     * Returns whether a bucket of weights can be updated with a multi-tensor operation.
+     *
+     * @param weights the weights of the bucket
+     * @return whether a bucket of weights can be updated with a multi-tensor operation
+     */
+    protected boolean isMultiTensorUpdate(NDArray[] weights) {
+        return weights.length > 1
+                && weights[0]
+                        .getManager()
+                        .getEngine()
+                        .hasCapability(StandardCapabilities.MULTI_TENSOR_UPDATE);
+    }
+
     /** The Builder to construct an {@link Optimizer}. */
     @SuppressWarnings("rawtypes")
     public abstract static class OptimizerBuilder<T extends OptimizerBuilder> {
@@ -17,6 +17,7 @@ import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.internal.NDArrayEx;
 import ai.djl.training.tracker.Tracker;
+import ai.djl.util.Preconditions;
 
 import java.util.Map;
 import java.util.Objects;
@@ -78,6 +79,48 @@ public class Sgd extends Optimizer {
                 inputs, weights, learningRate, weightDecay, rescaleGrad, clipGrad, momentum, true);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void update(String[] parameterIds, NDArray[] weights, NDArray[] grads) {
+        if (!isMultiTensorUpdate(weights)) {
+            super.update(parameterIds, weights, grads);
+            return;
+        }
+        int size = parameterIds.length;
+        float weightDecay = getWeightDecay();
+        float[] learningRates = new float[size];
+        NDList states = momentum == 0f ? null : new NDList(size);
+        for (int i = 0; i < size; ++i) {
+            learningRates[i] = learningRateTracker.getNewValue(updateCount(parameterIds[i]));
+            Preconditions.checkArgument(
+                    !Float.isNaN(learningRates[i])
+                            && !Float.isNaN(weightDecay)
+                            && !Float.isInfinite(learningRates[i])
+                            && !Float.isInfinite(weightDecay),
+                    "learning rate or weight decay is nan or infinite");
+            if (states != null) {
+                NDArray weight = weights[i];
+                states.add(
+                        withDefaultState(
+                                momentumStates,
+                                parameterIds[i],
+                                weight.getDevice(),
+                                k -> weight.zerosLike()));
+            }
+        }
+
+        NDArrayEx ex = weights[0].getNDArrayInternal();
+        ex.multiSgdUpdate(
+                new NDList(weights),
+                new NDList(grads),
+                states,
+                learningRates,
+                weightDecay,
+                rescaleGrad,
+                clipGrad,
+                momentum);
+    }
+
     /** The Builder to construct an {@link Sgd} object. */
     public static final class Builder extends OptimizerBuilder<Builder> {
 
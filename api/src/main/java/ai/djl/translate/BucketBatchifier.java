@@ -0,0 +1,211 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.translate;
+
+import ai.djl.ndarray.NDList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The {@code BucketBatchifier} is a {@link Batchifier} that pads variable-length inputs to fixed
+ * bucket lengths, like a {@link PaddingStackBatchifier} with a padding size per bucket.
+ *
+ * <p>The padded length of a batch is the smallest bucket length that fits its longest input, so
+ * engines that specialize on input shapes, like TorchScript or TensorRT, only see a few distinct
+ * shapes. Inputs longer than the largest bucket are padded to the longest input.
+ *
+ * <p>{@link ai.djl.inference.Predictor#batchPredict(java.util.List)} splits the inputs of a {@code
+ * BucketBatchifier} into one sub-batch per bucket with {@link #group(NDList[])}, so short inputs
+ * aren't padded to the length of the longest input of the whole batch. The outputs are returned in
+ * the order of the inputs.
+ */
+public final class BucketBatchifier implements Batchifier {
+
+    private int arrayIndex;
+    private int dimIndex;
+    private int[] buckets;
+    private PaddingStackBatchifier[] batchifiers;
+
+    private BucketBatchifier(Builder builder) {
+        arrayIndex = builder.arrayIndex;
+        dimIndex = builder.dimIndex;
+        buckets = builder.buckets;
+        batchifiers = new PaddingStackBatchifier[buckets.length + 1];
+        for (int i = 0; i <= buckets.length; ++i) {
+            int paddingSize = i < buckets.length ? buckets[i] : -1;
+            batchifiers[i] =
+                    PaddingStackBatchifier.builder()
+                            .optIncludeValidLengths(builder.includeValidLengths)
+                            .addPad(arrayIndex, dimIndex, builder.supplier, paddingSize)
+                            .build();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList batchify(NDList[] inputs) {
+        long maxLength = 0;
+        for (NDList input : inputs) {
+            maxLength = Math.max(maxLength, getLength(input));
+        }
+        return batchifiers[getBucket(maxLength)].batchify(inputs);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList[] unbatchify(NDList inputs) {
+        return batchifiers[0].unbatchify(inputs);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList[] split(NDList list, int numOfSlices, boolean evenSplit) {
+        return batchifiers[0].split(list, numOfSlices, evenSplit);
+    }
+
+    /**
+     * Groups the inputs by bucket.
+     *
+     * @param inputs the inputs to group
+     * @return the indices of the inputs in each non-empty bucket, from the shortest bucket to the
+     *     longest
+     */
+    public List<int[]> group(NDList[] inputs) {
+        int[] counts = new int[buckets.length + 1];
+        int[] bucketOf = new int[inputs.length];
+        for (int i = 0; i < inputs.length; ++i) {
+            bucketOf[i] = getBucket(getLength(inputs[i]));
+            counts[bucketOf[i]]++;
+        }
+        int[][] groups = new int[counts.length][];
+        for (int b = 0; b < counts.length; ++b) {
+            groups[b] = new int[counts[b]];
+        }
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < inputs.length; ++i) {
+            int b = bucketOf[i];
+            groups[b][counts[b]++] = i;
+        }
+        List<int[]> ret = new ArrayList<>();
+        for (int[] group : groups) {
+            if (group.length > 0) {
+                ret.add(group);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Returns the length of the padded dimension of an input.
+     *
+     * @param input the input
+     * @return the length of the padded dimension of an input
+     */
+    public long getLength(NDList input) {
+        return input.get(arrayIndex).getShape().get(dimIndex);
+    }
+
+    /**
+     * Returns the length a batch is padded to, given the length of its longest input.
+     *
+     * @param length the length of the longest input
+     * @return the bucket length, or {@code length} if it is longer than the largest bucket
+     */
+    public long getPaddedLength(long length) {
+        int bucket = getBucket(length);
+        return bucket < buckets.length ? buckets[bucket] : length;
+    }
+
+    private int getBucket(long length) {
+        for (int i = 0; i < buckets.length; ++i) {
+            if (length <= buckets[i]) {
+                return i;
+            }
+        }
+        return buckets.length;
+    }
+
+    /**
+     * Returns a {@link BucketBatchifier.Builder}.
+     *
+     * @return a {@link BucketBatchifier.Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Builder to build a {@link BucketBatchifier}. */
+    public static final class Builder {
+
+        private int arrayIndex;
+        private int dimIndex;
+        private NDArraySupplier supplier;
+        private int[] buckets = {32, 64, 128, 256};
+        private boolean includeValidLengths;
+
+        private Builder() {}
+
+        /**
+         * Sets the dimension to be padded in the input {@link NDList}.
+         *
+         * @param array which array in the {@link NDList} to pad
+         * @param dim which dimension in the array to pad
+         * @param supplier a supplier that produces the padding array, see {@link
+         *     PaddingStackBatchifier.Builder#addPad(int, int, NDArraySupplier)}
+         * @return this builder
+         */
+        public Builder setPad(int array, int dim, NDArraySupplier supplier) {
+            this.arrayIndex = array;
+            this.dimIndex = dim;
+            this.supplier = supplier;
+            return this;
+        }
+
+        /**
+         * Sets the bucket lengths, default is 32, 64, 128 and 256.
+         *
+         * @param buckets the bucket lengths
+         * @return this builder
+         */
+        public Builder optBuckets(int... buckets) {
+            this.buckets = buckets.clone();
+            Arrays.sort(this.buckets);
+            return this;
+        }
+
+        /**
+         * Sets whether to include the valid lengths (length of non-padded data) for each array.
+         *
+         * @param includeValidLengths true to include valid lengths
+         * @return this builder
+         */
+        public Builder optIncludeValidLengths(boolean includeValidLengths) {
+            this.includeValidLengths = includeValidLengths;
+            return this;
+        }
+
+        /**
+         * Builds the {@link BucketBatchifier}.
+         *
+         * @return the constructed {@link BucketBatchifier}
+         */
+        public BucketBatchifier build() {
+            if (supplier == null) {
+                throw new IllegalArgumentException("The padding must be set.");
+            }
+            return new BucketBatchifier(this);
+        }
+    }
+}
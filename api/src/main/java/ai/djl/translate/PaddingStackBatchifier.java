@@ -16,8 +16,10 @@ import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.index.NDIndex;
+import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -41,11 +43,18 @@ public final class PaddingStackBatchifier implements Batchifier {
         includeValidLengths = builder.includeValidLengths;
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     *
+     * <p>When the padding array is a single value or a single slice of the padded dimension, the
+     * padded batch is allocated once and each input is copied into it, instead of padding each
+     * input with a concatenation and stacking the results.
+     */
     @Override
     public NDList batchify(NDList[] inputs) {
         NDList validLengths = new NDList(inputs.length);
         NDManager manager = inputs[0].get(0).getManager();
+        NDArray[] batched = new NDArray[inputs[0].size()];
         for (int i = 0; i < arraysToPad.size(); i++) {
             long[] arrayValidLengths = new long[inputs.length];
             int arrayIndex = arraysToPad.get(i);
@@ -62,6 +71,15 @@ public final class PaddingStackBatchifier implements Batchifier {
                         "The batchifier padding size is too small " + maxSize + " " + paddingSize);
             }
             maxSize = Math.max(maxSize, paddingSize);
+            for (int j = 0; j < inputs.length; j++) {
+                arrayValidLengths[j] = inputs[j].get(arrayIndex).getShape().get(dimIndex);
+            }
+            validLengths.add(manager.create(arrayValidLengths));
+
+            batched[arrayIndex] = padInto(manager, inputs, arrayIndex, dimIndex, maxSize, padding);
+            if (batched[arrayIndex] != null) {
+                continue;
+            }
             for (int j = 0; j < inputs.length; j++) {
                 NDArray array = inputs[j].get(arrayIndex);
                 String arrayName = array.getName();
@@ -73,14 +91,23 @@ public final class PaddingStackBatchifier implements Batchifier {
                                             array.getShape(), dimIndex, maxSize - validLength));
                     array = array.concat(paddingArray.toType(array.getDataType(), false), dimIndex);
                 }
-                arrayValidLengths[j] = validLength;
                 // keep input name
                 array.setName(arrayName);
                 inputs[j].set(arrayIndex, array);
             }
-            validLengths.add(manager.create(arrayValidLengths));
         }
-        NDList result = Batchifier.STACK.batchify(inputs);
+        NDList result = new NDList(batched.length);
+        for (int k = 0; k < batched.length; k++) {
+            if (batched[k] != null) {
+                result.add(batched[k]);
+                continue;
+            }
+            NDList[] kind = new NDList[inputs.length];
+            for (int j = 0; j < inputs.length; j++) {
+                kind[j] = new NDList(inputs[j].get(k));
+            }
+            result.add(Batchifier.STACK.batchify(kind).singletonOrThrow());
+        }
         if (includeValidLengths) {
             result.addAll(validLengths);
         }
@@ -137,6 +164,88 @@ public final class PaddingStackBatchifier implements Batchifier {
         return split;
     }
 
+    private static NDArray padInto(
+            NDManager manager,
+            NDList[] inputs,
+            int arrayIndex,
+            int dimIndex,
+            long maxSize,
+            NDArray padding) {
+        NDArray first = inputs[0].get(arrayIndex);
+        DataType dataType = first.getDataType();
+        if (dataType == DataType.STRING || dataType == DataType.UNKNOWN) {
+            return null;
+        }
+        Shape shape = Shape.update(first.getShape(), dimIndex, maxSize);
+        for (NDList input : inputs) {
+            NDArray array = input.get(arrayIndex);
+            if (array.getDataType() != dataType
+                    || array.getShape().dimension() != shape.dimension()
+                    || !Shape.update(array.getShape(), dimIndex, maxSize).equals(shape)) {
+                // let the regular path report the mismatch
+                return null;
+            }
+        }
+        long outer = 1;
+        for (int d = 0; d < dimIndex; ++d) {
+            outer *= shape.get(d);
+        }
+        long inner = shape.size() / outer / Math.max(maxSize, 1);
+        int elemSize = dataType.getNumOfBytes();
+        int rowBytes = Math.toIntExact(inner * elemSize);
+        long paddingSize = padding.size();
+        if (paddingSize != 1 && paddingSize != outer * inner) {
+            return null;
+        }
+
+        // the padding value of each row, a single value is repeated over the whole row
+        ByteBuffer pad = padding.toType(dataType, false).toByteBuffer();
+        boolean zeros = true;
+        while (pad.hasRemaining()) {
+            if (pad.get() != 0) {
+                zeros = false;
+                break;
+            }
+        }
+        pad.rewind();
+
+        long sampleBytes = shape.size() * elemSize;
+        ByteBuffer bb = manager.allocateDirect(Math.toIntExact(sampleBytes * inputs.length));
+        int maxRowBytes = Math.toIntExact(maxSize * rowBytes);
+        for (int j = 0; j < inputs.length; j++) {
+            NDArray array = inputs[j].get(arrayIndex);
+            ByteBuffer src = array.toByteBuffer();
+            int validRowBytes = Math.toIntExact(array.getShape().get(dimIndex) * rowBytes);
+            for (long o = 0; o < outer; ++o) {
+                int position = Math.toIntExact(j * sampleBytes + o * maxRowBytes);
+                bb.position(position);
+                src.limit(Math.toIntExact((o + 1) * validRowBytes));
+                bb.put(src);
+                if (zeros) {
+                    // direct buffers from the manager are zero-filled
+                    continue;
+                }
+                for (int p = validRowBytes; p < maxRowBytes; p += rowBytes) {
+                    if (paddingSize == 1) {
+                        for (int e = 0; e < rowBytes; e += elemSize) {
+                            pad.rewind();
+                            bb.put(pad);
+                        }
+                    } else {
+                        pad.limit(Math.toIntExact((o + 1) * rowBytes));
+                        pad.position(Math.toIntExact(o * rowBytes));
+                        bb.put(pad);
+                    }
+                }
+            }
+        }
+        bb.rewind();
+        NDArray result = manager.create(bb, new Shape(inputs.length).addAll(shape), dataType);
+        // keep input name
+        result.setName(first.getName());
+        return result;
+    }
+
     /**
      * Returns a {@link PaddingStackBatchifier.Builder}.
      *
@@ -14,6 +14,7 @@ package ai.djl.util.passthrough;
 
 import ai.djl.Device;
 import ai.djl.engine.Engine;
+import ai.djl.ndarray.DirectBufferPool;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
@@ -47,6 +48,18 @@ public final class PassthroughNDManager implements NDManager {
         throw new UnsupportedOperationException(UNSUPPORTED);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void setBufferPool(DirectBufferPool bufferPool) {
+        throw new UnsupportedOperationException(UNSUPPORTED);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public DirectBufferPool getBufferPool() {
+        return null;
+    }
+
     /** {@inheritDoc} */
     @Override
     public NDArray from(NDArray array) {
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.inference;
+
+import ai.djl.Model;
+import ai.djl.translate.TranslateException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+public class BatchPredictorTest {
+
+    @Test
+    public void testBatching() throws InterruptedException, ExecutionException, TimeoutException {
+        try (Model model = Model.newInstance("batch")) {
+            MockPredictor predictor = new MockPredictor(model);
+            try (BatchPredictor<Integer, Integer> batchPredictor =
+                    new BatchPredictor<>(predictor, 4, 10, TimeUnit.SECONDS)) {
+                List<CompletableFuture<Integer>> futures = new ArrayList<>();
+                for (int i = 0; i < 8; ++i) {
+                    futures.add(batchPredictor.predictAsync(i));
+                }
+                for (int i = 0; i < 8; ++i) {
+                    Assert.assertEquals(futures.get(i).get(5, TimeUnit.SECONDS).intValue(), 2 * i);
+                }
+                Assert.assertEquals(predictor.batchSizes, Collections.nCopies(2, 4));
+            }
+        }
+    }
+
+    @Test
+    public void testTimeoutFlush() throws TranslateException {
+        try (Model model = Model.newInstance("batch")) {
+            MockPredictor predictor = new MockPredictor(model);
+            try (BatchPredictor<Integer, Integer> batchPredictor =
+                    new BatchPredictor<>(predictor, 32, 50, TimeUnit.MILLISECONDS)) {
+                long begin = System.nanoTime();
+                Assert.assertEquals(batchPredictor.predict(3).intValue(), 6);
+                Assert.assertTrue(System.nanoTime() - begin >= TimeUnit.MILLISECONDS.toNanos(50));
+                Assert.assertEquals(predictor.batchSizes, Collections.singletonList(1));
+            }
+        }
+    }
+
+    @Test
+    public void testCloseWithPendingRequests()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        try (Model model = Model.newInstance("batch")) {
+            MockPredictor predictor = new MockPredictor(model);
+            predictor.gate = new CountDownLatch(1);
+            BatchPredictor<Integer, Integer> batchPredictor =
+                    new BatchPredictor<>(predictor, 1, 0, TimeUnit.MILLISECONDS);
+            CompletableFuture<Integer> running = batchPredictor.predictAsync(1);
+            CompletableFuture<Integer> queued = batchPredictor.predictAsync(2);
+
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                CompletableFuture<?> closing = CompletableFuture.runAsync(batchPredictor::close);
+                // requests racing with close() must complete either way
+                List<CompletableFuture<Integer>> racing = new ArrayList<>();
+                for (int i = 0; i < 100; ++i) {
+                    int input = i;
+                    racing.add(
+                            CompletableFuture.supplyAsync(
+                                            () -> batchPredictor.predictAsync(input), executor)
+                                    .thenCompose(f -> f));
+                }
+                predictor.gate.countDown();
+                closing.get(5, TimeUnit.SECONDS);
+
+                // requests queued before close() are still processed
+                Assert.assertEquals(running.get(5, TimeUnit.SECONDS).intValue(), 2);
+                Assert.assertEquals(queued.get(5, TimeUnit.SECONDS).intValue(), 4);
+                for (CompletableFuture<Integer> future : racing) {
+                    try {
+                        future.get(5, TimeUnit.SECONDS);
+                    } catch (ExecutionException e) {
+                        Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+                    }
+                }
+                CompletableFuture<Integer> rejected = batchPredictor.predictAsync(3);
+                Assert.assertTrue(rejected.isCompletedExceptionally());
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    private static final class MockPredictor extends Predictor<Integer, Integer> {
+
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch gate;
+
+        MockPredictor(Model model) {
+            // batchPredict() is overridden, the translator is never used
+            super(model, null, model.getNDManager().getDevice(), false);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public List<Integer> batchPredict(List<Integer> inputs) throws TranslateException {
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    throw new TranslateException(e);
+                }
+            }
+            batchSizes.add(inputs.size());
+            return inputs.stream().map(i -> i * 2).collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class HistogramMetricsTest {
+
+    @Test
+    public void testMetrics() {
+        HistogramMetrics metrics = new HistogramMetrics(2);
+        metrics.addMetric(new Metric("m1", 1L));
+        metrics.addMetric("m1", 3L, Unit.COUNT);
+        metrics.addMetric("m1", 2L);
+        Metric p50 = metrics.percentile("m1", 50);
+        Assert.assertEquals(p50.getValue().longValue(), 2L);
+        Assert.assertEquals(metrics.latestMetric("m1").getValue().longValue(), 2L);
+        Assert.assertEquals(metrics.count("m1"), 3);
+        Assert.assertThrows(() -> metrics.latestMetric("none"));
+
+        List<Metric> list = metrics.getMetric("m1");
+        Assert.assertEquals(list.size(), 2);
+        Assert.assertEquals(list.get(1).getValue().longValue(), 3L);
+        Assert.assertEquals(metrics.getMetric("m4").size(), 0);
+
+        metrics.addMetric("m2", -1.5d, Unit.MILLISECONDS);
+        metrics.addMetric("m2", 0d, Unit.MILLISECONDS);
+        metrics.addMetric("m2", 4.5d, Unit.MILLISECONDS);
+        Assert.assertEquals(metrics.mean("m2"), 1d);
+        Assert.assertEquals(metrics.percentile("m2", 0).getValue(), -1.5d, 0.02);
+        Assert.assertEquals(metrics.percentile("m2", 50).getValue(), 0d);
+        Assert.assertEquals(metrics.percentile("m2", 100).getValue(), 4.5d, 0.05);
+        Assert.assertEquals(metrics.percentile("m2", 50).getUnit(), Unit.MILLISECONDS);
+
+        Assert.assertEquals(metrics.getMetricNames().size(), 2);
+        Assert.assertTrue(metrics.hasMetric("m1"));
+        metrics.reset();
+        Assert.assertFalse(metrics.hasMetric("m1"));
+        Assert.assertEquals(metrics.getMetric("m1").size(), 0);
+        Assert.assertThrows(IllegalArgumentException.class, () -> metrics.percentile("m1", 50));
+    }
+
+    @Test
+    public void testPercentileAccuracy() throws InterruptedException {
+        HistogramMetrics metrics = new HistogramMetrics();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; ++t) {
+            executor.submit(
+                    () -> {
+                        for (int i = 1; i <= 10000; ++i) {
+                            metrics.addMetric("Latency", i, Unit.MICROSECONDS);
+                        }
+                    });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        Assert.assertEquals(metrics.count("Latency"), 40000);
+        Assert.assertEquals(metrics.mean("Latency"), 5000.5d);
+        Assert.assertEquals(metrics.percentile("Latency", 50).getValue(), 5000d, 50d);
+        Assert.assertEquals(metrics.percentile("Latency", 90).getValue(), 9000d, 90d);
+        Assert.assertEquals(metrics.percentile("Latency", 99).getValue(), 9900d, 99d);
+        Assert.assertEquals(metrics.percentile("Latency", 100).getValue(), 10000d);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testMeanException() {
+        HistogramMetrics metrics = new HistogramMetrics();
+        metrics.mean("not_found");
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.cv;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+public class BufferedImageFactoryTest {
+
+    private static final int WIDTH = 7;
+    private static final int HEIGHT = 5;
+    private static final float[] MEAN = {0.485f, 0.456f, 0.406f};
+    private static final float[] STD = {0.229f, 0.224f, 0.225f};
+
+    @Test
+    public void testToNDArray() {
+        int[] types = {
+            BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_BYTE_GRAY
+        };
+        try (NDManager manager = NDManager.newBaseManager()) {
+            for (int type : types) {
+                BufferedImage img = randomImage(type, WIDTH, HEIGHT);
+                Image image = ImageFactory.getInstance().fromImage(img);
+                for (Image.Flag flag : Image.Flag.values()) {
+                    int[] expected = referencePixels(img, flag);
+                    NDArray array = image.toNDArray(manager, flag);
+                    int channel = flag == Image.Flag.GRAYSCALE ? 1 : 3;
+                    Assert.assertEquals(array.getShape(), new Shape(HEIGHT, WIDTH, channel));
+                    Assert.assertEquals(toInts(array.toByteArray()), expected, type + " " + flag);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testToTensor() {
+        int[] types = {
+            BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_BYTE_GRAY
+        };
+        try (NDManager manager = NDManager.newBaseManager()) {
+            for (int type : types) {
+                BufferedImage img = randomImage(type, WIDTH, HEIGHT);
+                Image image = ImageFactory.getInstance().fromImage(img);
+                for (Image.Flag flag : Image.Flag.values()) {
+                    int[] pixels = referencePixels(img, flag);
+                    int channel = flag == Image.Flag.GRAYSCALE ? 1 : 3;
+                    float[] mean = flag == Image.Flag.GRAYSCALE ? new float[] {0.5f} : MEAN;
+                    float[] std = flag == Image.Flag.GRAYSCALE ? new float[] {0.25f} : STD;
+
+                    NDArray tensor = image.toTensor(manager, flag, null, null);
+                    Assert.assertEquals(tensor.getShape(), new Shape(channel, HEIGHT, WIDTH));
+                    assertTensor(tensor.toFloatArray(), pixels, channel, null, null);
+
+                    tensor = image.toTensor(manager, flag, mean, std);
+                    assertTensor(tensor.toFloatArray(), pixels, channel, mean, std);
+
+                    // resizing to the same size without a crop samples the source pixels
+                    tensor = image.toTensor(manager, flag, null, WIDTH, HEIGHT, false, mean, std);
+                    assertTensor(tensor.toFloatArray(), pixels, channel, mean, std);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSubImage() {
+        int[] types = {
+            BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_BYTE_GRAY
+        };
+        try (NDManager manager = NDManager.newBaseManager()) {
+            for (int type : types) {
+                BufferedImage img = randomImage(type, WIDTH + 4, HEIGHT + 3);
+                // sub images share the raster of the parent with a translated origin
+                BufferedImage sub = img.getSubimage(3, 2, WIDTH, HEIGHT);
+                Image image = ImageFactory.getInstance().fromImage(sub);
+                for (Image.Flag flag : Image.Flag.values()) {
+                    int[] expected = referencePixels(sub, flag);
+                    NDArray array = image.toNDArray(manager, flag);
+                    Assert.assertEquals(toInts(array.toByteArray()), expected, type + " " + flag);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFromFileSubsampling() throws IOException {
+        Path dir = Paths.get("build/tmp/subsampling");
+        Files.createDirectories(dir);
+        Path path = dir.resolve("image.png");
+        ImageIO.write(randomImage(BufferedImage.TYPE_3BYTE_BGR, 400, 300), "png", path.toFile());
+        ImageFactory factory = ImageFactory.getInstance();
+
+        // decoded at no less than twice the target size
+        Image image = factory.fromFile(path, 100, 50);
+        Assert.assertEquals(image.getWidth(), 200);
+        Assert.assertEquals(image.getHeight(), 150);
+
+        image = factory.fromFile(path, 150, 100);
+        Assert.assertEquals(image.getWidth(), 400);
+        Assert.assertEquals(image.getHeight(), 300);
+    }
+
+    // random pixels written through the ColorModel, so every type holds exact samples
+    private static BufferedImage randomImage(int type, int width, int height) {
+        Random random = new Random(type);
+        BufferedImage img = new BufferedImage(width, height, type);
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                if (type == BufferedImage.TYPE_BYTE_GRAY) {
+                    img.getRaster().setSample(x, y, 0, random.nextInt(256));
+                } else {
+                    img.setRGB(x, y, random.nextInt(0x1000000));
+                }
+            }
+        }
+        return img;
+    }
+
+    // the per-pixel path: raw samples for gray images, getRGB for everything else
+    private static int[] referencePixels(BufferedImage img, Image.Flag flag) {
+        int width = img.getWidth();
+        int height = img.getHeight();
+        int channel = flag == Image.Flag.GRAYSCALE ? 1 : 3;
+        int[] pixels = new int[width * height * channel];
+        int index = 0;
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                int red;
+                int green;
+                int blue;
+                if (img.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+                    red = img.getRaster().getSample(x, y, 0);
+                    green = red;
+                    blue = red;
+                } else {
+                    int rgb = img.getRGB(x, y);
+                    red = (rgb >> 16) & 0xFF;
+                    green = (rgb >> 8) & 0xFF;
+                    blue = rgb & 0xFF;
+                }
+                if (channel == 1) {
+                    pixels[index++] =
+                            img.getType() == BufferedImage.TYPE_BYTE_GRAY
+                                    ? red
+                                    : Math.round(0.299f * red + 0.587f * green + 0.114f * blue);
+                } else {
+                    pixels[index++] = red;
+                    pixels[index++] = green;
+                    pixels[index++] = blue;
+                }
+            }
+        }
+        return pixels;
+    }
+
+    // compares a CHW tensor against HWC pixels
+    private static void assertTensor(
+            float[] actual, int[] pixels, int channel, float[] mean, float[] std) {
+        int area = pixels.length / channel;
+        Assert.assertEquals(actual.length, pixels.length);
+        for (int c = 0; c < channel; ++c) {
+            for (int i = 0; i < area; ++i) {
+                float expected = pixels[i * channel + c] / 255f;
+                if (mean != null) {
+                    expected = (expected - mean[c]) / std[c];
+                }
+                Assert.assertEquals(actual[c * area + i], expected, 1e-5f);
+            }
+        }
+    }
+
+    private static int[] toInts(byte[] bytes) {
+        int[] ints = new int[bytes.length];
+        for (int i = 0; i < bytes.length; ++i) {
+            ints[i] = bytes[i] & 0xFF;
+        }
+        return ints;
+    }
+}
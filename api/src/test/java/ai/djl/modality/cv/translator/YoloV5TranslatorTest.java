@@ -0,0 +1,201 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.cv.translator;
+
+import ai.djl.modality.cv.output.DetectedObjects;
+import ai.djl.modality.cv.output.Rectangle;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.translate.TranslatorContext;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class YoloV5TranslatorTest {
+
+    private static final int CLASSES = 2;
+    private static final int STRIDE = 5 + CLASSES;
+
+    @Test
+    public void testDetectOutput() throws Exception {
+        YoloV5Translator translator =
+                prepare(
+                        YoloV5Translator.builder()
+                                .optSynset(Arrays.asList("a", "b"))
+                                .optOutputType(YoloV5Translator.YoloOutputType.DETECT));
+        try (NDManager manager = NDManager.newBaseManager()) {
+            NDList list =
+                    new NDList(level(manager, 2, 2, 0, 1, 0, 1), level(manager, 1, 1, 2, 0, 0, 0));
+            DetectedObjects detections = translator.processOutput(null, list);
+            Assert.assertEquals(detections.getNumberOfObjects(), 2);
+
+            // stride 8, anchor (10, 13) centered at (4, 12)
+            DetectedObjects.DetectedObject b = find(detections, "b");
+            Assert.assertTrue(b.getProbability() > 0.99);
+            assertRectangle(b, 0, 5.5, 10, 13);
+
+            // stride 16, anchor (59, 119) centered at (8, 8), clamped to the image
+            DetectedObjects.DetectedObject a = find(detections, "a");
+            assertRectangle(a, 0, 0, 59, 119);
+
+            // AUTO picks the Detect decoding for 5 dimensional outputs
+            YoloV5Translator auto =
+                    prepare(YoloV5Translator.builder().optSynset(Arrays.asList("a", "b")));
+            Assert.assertEquals(auto.processOutput(null, list).getNumberOfObjects(), 2);
+        }
+    }
+
+    @Test
+    public void testDetectLevels() throws Exception {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            NDList list = new NDList();
+            for (int i = 0; i < 4; ++i) {
+                list.add(level(manager, 1, 1, -1, 0, 0, 0));
+            }
+            list.set(3, level(manager, 1, 1, 0, 0, 0, 1));
+
+            // the default anchors only cover 3 levels
+            YoloV5Translator translator =
+                    prepare(YoloV5Translator.builder().optSynset(Arrays.asList("a", "b")));
+            Assert.assertThrows(
+                    IllegalArgumentException.class, () -> translator.processOutput(null, list));
+
+            int[] strides = {8, 16, 32, 64};
+            float[][] anchors = {
+                {19, 27, 44, 40, 38, 94},
+                {96, 68, 86, 152, 180, 137},
+                {140, 301, 303, 264, 238, 542},
+                {436, 615, 739, 380, 925, 792}
+            };
+            YoloV5Translator p6 =
+                    prepare(
+                            YoloV5Translator.builder()
+                                    .optSynset(Arrays.asList("a", "b"))
+                                    .optAnchors(strides, anchors));
+            DetectedObjects detections = p6.processOutput(null, list);
+            Assert.assertEquals(detections.getNumberOfObjects(), 1);
+            // stride 64, anchor (436, 615) centered at (32, 32)
+            assertRectangle(find(detections, "b"), 0, 0, 436, 615);
+
+            // the same anchors from the arguments
+            Map<String, Object> arguments = new HashMap<>();
+            arguments.put("synset", "a,b");
+            arguments.put("strides", "8,16,32,64");
+            arguments.put(
+                    "anchors",
+                    "19,27,44,40,38,94,96,68,86,152,180,137,"
+                            + "140,301,303,264,238,542,436,615,739,380,925,792");
+            YoloV5Translator fromArguments = prepare(YoloV5Translator.builder(arguments));
+            Assert.assertEquals(fromArguments.processOutput(null, list).getNumberOfObjects(), 1);
+
+            arguments.put("strides", "8,16,32,64,128");
+            Assert.assertThrows(
+                    IllegalArgumentException.class, () -> YoloV5Translator.builder(arguments));
+            Assert.assertThrows(
+                    IllegalArgumentException.class,
+                    () ->
+                            YoloV5Translator.builder()
+                                    .optSynset(Collections.singletonList("a"))
+                                    .optAnchors(strides, Arrays.copyOf(anchors, 3))
+                                    .build());
+        }
+    }
+
+    @Test
+    public void testBoxOutput() throws Exception {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            // (x, y, w, h, objectness, class scores), the last two boxes overlap with IoU 0.75
+            float[] data = {
+                50, 50, 20, 20, 1, 0, 0.7f,
+                10, 10, 10, 10, 1, 0.8f, 0,
+                80, 80, 20, 20, 1, 0, 0.9f,
+                81, 82, 20, 20, 1, 0, 0.6f
+            };
+            NDList list = new NDList(manager.create(data, new Shape(4, STRIDE)));
+            YoloV5Translator translator =
+                    prepare(YoloV5Translator.builder().optSynset(Arrays.asList("a", "b")));
+            DetectedObjects detections = translator.processOutput(null, list);
+            // grouped by class, then sorted by score
+            Assert.assertEquals(detections.getNumberOfObjects(), 3);
+            Assert.assertEquals(detections.item(0).getClassName(), "a");
+            Assert.assertEquals(detections.item(1).getProbability(), 0.9, 1e-6);
+            Assert.assertEquals(detections.item(2).getProbability(), 0.7, 1e-6);
+
+            // soft NMS decays the overlapping box instead of removing it
+            YoloV5Translator soft =
+                    prepare(
+                            YoloV5Translator.builder()
+                                    .optSynset(Arrays.asList("a", "b"))
+                                    .optSoftNmsSigma(1f));
+            detections = soft.processOutput(null, list);
+            Assert.assertEquals(detections.getNumberOfObjects(), 4);
+            Assert.assertTrue(detections.item(3).getProbability() < 0.6);
+        }
+    }
+
+    // the output of a detection level with 3 anchors, with a detection at an anchor unless it is -1
+    private static NDArray level(
+            NDManager manager, int height, int width, int anchor, int gy, int gx, int classId) {
+        float[] data = new float[3 * height * width * STRIDE];
+        Arrays.fill(data, -10f);
+        if (anchor >= 0) {
+            int base = ((anchor * height + gy) * width + gx) * STRIDE;
+            // sigmoid(0) = 0.5 puts the box at the cell center with the anchor size
+            for (int i = 0; i < 4; ++i) {
+                data[base + i] = 0f;
+            }
+            data[base + 4] = 10f;
+            data[base + 5 + classId] = 10f;
+        }
+        return manager.create(data, new Shape(1, 3, height, width, STRIDE));
+    }
+
+    private static YoloV5Translator prepare(YoloV5Translator.Builder builder) throws Exception {
+        YoloV5Translator translator = builder.build();
+        TranslatorContext ctx =
+                (TranslatorContext)
+                        Proxy.newProxyInstance(
+                                YoloV5TranslatorTest.class.getClassLoader(),
+                                new Class<?>[] {TranslatorContext.class},
+                                (proxy, method, args) -> null);
+        translator.prepare(ctx);
+        return translator;
+    }
+
+    private static DetectedObjects.DetectedObject find(DetectedObjects detections, String name) {
+        for (int i = 0; i < detections.getNumberOfObjects(); ++i) {
+            DetectedObjects.DetectedObject item = detections.item(i);
+            if (item.getClassName().equals(name)) {
+                return item;
+            }
+        }
+        throw new AssertionError("Missing detection: " + name);
+    }
+
+    private static void assertRectangle(
+            DetectedObjects.DetectedObject item, double x, double y, double w, double h) {
+        Rectangle rect = (Rectangle) item.getBoundingBox();
+        Assert.assertEquals(rect.getX(), x, 1e-3);
+        Assert.assertEquals(rect.getY(), y, 1e-3);
+        Assert.assertEquals(rect.getWidth(), w, 1e-3);
+        Assert.assertEquals(rect.getHeight(), h, 1e-3);
+    }
+}
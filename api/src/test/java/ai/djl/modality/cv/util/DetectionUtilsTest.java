@@ -0,0 +1,105 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.cv.util;
+
+import ai.djl.modality.cv.output.DetectedObjects;
+import ai.djl.modality.cv.output.Rectangle;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+public class DetectionUtilsTest {
+
+    private static final float[] BOXES = {
+        0, 0, 10, 10, // 0
+        1, 1, 11, 11, // 1, overlaps 0
+        20, 20, 30, 30, // 2
+        0, 0, 10, 10, // 3, same as 0 but another class
+    };
+
+    @Test
+    public void testSortByScore() {
+        float[] scores = {0.5f, -1f, 0.9f, 0.5f, 0f};
+        int[] order = DetectionUtils.sortByScore(scores, scores.length);
+        Assert.assertEquals(order, new int[] {2, 0, 3, 4, 1});
+
+        order = DetectionUtils.sortByScore(scores, 2);
+        Assert.assertEquals(order, new int[] {0, 1});
+    }
+
+    @Test
+    public void testIou() {
+        Assert.assertEquals(DetectionUtils.iou(BOXES, 0, 3), 1f);
+        Assert.assertEquals(DetectionUtils.iou(BOXES, 0, 1), 81f / 119f, 1e-6);
+        Assert.assertEquals(DetectionUtils.iou(BOXES, 0, 2), 0f);
+    }
+
+    @Test
+    public void testNms() {
+        float[] scores = {0.8f, 0.9f, 0.3f, 0.7f};
+        int[] classIds = {0, 0, 0, 1};
+        int[] keep = DetectionUtils.nms(BOXES, scores, classIds, 4, 0.5f);
+        Assert.assertEquals(keep, new int[] {1, 3, 2});
+
+        keep = DetectionUtils.nms(BOXES, scores, null, 4, 0.5f);
+        Assert.assertEquals(keep, new int[] {1, 2});
+
+        keep = DetectionUtils.nms(BOXES, scores, classIds, 4, 0.9f);
+        Assert.assertEquals(keep, new int[] {1, 0, 3, 2});
+    }
+
+    @Test
+    public void testSoftNms() {
+        float[] scores = {0.8f, 0.9f, 0.3f, 0.7f};
+        int[] classIds = {0, 0, 0, 1};
+        int[] keep = DetectionUtils.softNms(BOXES, scores, classIds, 4, 0.5f, 0.1f);
+        Assert.assertEquals(keep.length, 4);
+        Assert.assertEquals(keep[0], 1);
+        float iou = DetectionUtils.iou(BOXES, 0, 1);
+        Assert.assertEquals(scores[0], 0.8f * (float) Math.exp(-iou * iou / 0.5f), 1e-6);
+        Assert.assertEquals(scores[2], 0.3f);
+        Assert.assertEquals(scores[3], 0.7f);
+
+        scores = new float[] {0.8f, 0.9f, 0.3f, 0.7f};
+        keep = DetectionUtils.softNms(BOXES, scores, classIds, 4, 0.5f, 0.5f);
+        Arrays.sort(keep);
+        Assert.assertEquals(keep, new int[] {1, 3});
+    }
+
+    @Test
+    public void testToDetectedObjects() {
+        float[] scores = {0.8f, 0.9f, 0.3f, 0.7f};
+        int[] classIds = {0, 0, 0, 1};
+        DetectedObjects detections =
+                DetectionUtils.toDetectedObjects(
+                        Arrays.asList("cat", "dog"),
+                        classIds,
+                        scores,
+                        BOXES,
+                        new int[] {2, 3},
+                        0.1,
+                        0.5);
+        Assert.assertEquals(detections.getNumberOfObjects(), 2);
+        DetectedObjects.DetectedObject first = detections.item(0);
+        Assert.assertEquals(first.getClassName(), "cat");
+        Assert.assertEquals(first.getProbability(), 0.3, 1e-6);
+        Rectangle rect = first.getBoundingBox().getBounds();
+        Assert.assertEquals(rect.getX(), 2, 1e-6);
+        Assert.assertEquals(rect.getY(), 10, 1e-6);
+        Assert.assertEquals(rect.getWidth(), 1, 1e-6);
+        Assert.assertEquals(rect.getHeight(), 5, 1e-6);
+        Assert.assertEquals(detections.item(1).getClassName(), "dog");
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.nlp.bert;
+
+import ai.djl.modality.nlp.DefaultVocabulary;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class WordpieceTokenizerTest {
+
+    @Test
+    public void testWordpieceTokenizer() {
+        DefaultVocabulary vocabulary =
+                new DefaultVocabulary(
+                        Arrays.asList(
+                                "[UNK]", "un", "##aff", "##able", "runn", "##ing", "run", "##n",
+                                ",", "want", "##want", "##ed", "wa"));
+        WordpieceTokenizer tokenizer = new WordpieceTokenizer(vocabulary, "[UNK]", 10);
+
+        List<String> tokens =
+                tokenizer.tokenize(" unwanted  running unaffable unaffable, unwantedx ");
+        Assert.assertEquals(
+                tokens,
+                Arrays.asList(
+                        "un", "##want", "##ed", "runn", "##ing", "un", "##aff", "##able", "[UNK]",
+                        "[UNK]"));
+        Assert.assertEquals(
+                tokenizer.tokenize("unwantedly wanted"), Arrays.asList("[UNK]", "want", "##ed"));
+        Assert.assertEquals(tokenizer.tokenize("verylongword"), Arrays.asList("[UNK]"));
+        Assert.assertTrue(tokenizer.tokenize("").isEmpty());
+
+        long[] ids = new long[20];
+        int count = tokenizer.encode("wanted unaffable", ids, 1);
+        Assert.assertEquals(count, 5);
+        Assert.assertEquals(Arrays.copyOfRange(ids, 1, 6), new long[] {9, 11, 1, 2, 3});
+
+        Assert.assertEquals(
+                tokenizer.encode(Arrays.asList("running", "xyz")), new long[] {4, 5, 0});
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.ndarray;
+
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+
+public class CpuKernelsTest {
+
+    private static final long BIG = (1L << 53) + 1;
+
+    @Test
+    public void testInt64Precision() {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            NDArray array = create(manager, new long[] {BIG, BIG - 1, Long.MAX_VALUE - 1});
+            Assert.assertEquals(
+                    array.add(1).toLongArray(), new long[] {BIG + 1, BIG, Long.MAX_VALUE});
+            NDArray other = create(manager, new long[] {BIG - 1, BIG - 1, Long.MAX_VALUE - 1});
+            Assert.assertEquals(array.sub(other).toLongArray(), new long[] {1, 0, 0});
+            Assert.assertEquals(
+                    array.eq(other).toBooleanArray(), new boolean[] {false, true, true});
+            Assert.assertEquals(
+                    array.gt(BIG - 1).toBooleanArray(), new boolean[] {true, false, true});
+
+            NDArray values = create(manager, new long[] {BIG, BIG + 2, BIG + 1});
+            Assert.assertEquals(values.max().getLong(), BIG + 2);
+            Assert.assertEquals(values.min().getLong(), BIG);
+            Assert.assertEquals(values.sum().getLong(), 3 * BIG + 3);
+            Assert.assertEquals(values.argMax().getLong(), 1);
+            Assert.assertEquals(values.sort().toLongArray(), new long[] {BIG, BIG + 1, BIG + 2});
+            Assert.assertEquals(values.argSort().toLongArray(), new long[] {0, 2, 1});
+        }
+    }
+
+    @Test
+    public void testInt32Overflow() {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            NDArray array = create(manager, new int[] {Integer.MAX_VALUE, Integer.MIN_VALUE});
+            Assert.assertEquals(
+                    array.add(1).toIntArray(),
+                    new int[] {Integer.MIN_VALUE, Integer.MIN_VALUE + 1});
+            Assert.assertEquals(array.mul(2).toIntArray(), new int[] {-2, 0});
+            Assert.assertEquals(
+                    array.neg().toIntArray(), new int[] {-Integer.MAX_VALUE, Integer.MIN_VALUE});
+            Assert.assertEquals(array.add(array).toIntArray(), new int[] {-2, 0});
+            // sums of integers are widened to INT64 like PyTorch
+            NDArray sum = array.sum();
+            Assert.assertEquals(sum.getDataType(), DataType.INT64);
+            Assert.assertEquals(sum.getLong(), -1L);
+            Assert.assertEquals(
+                    array.prod().getLong(), (long) Integer.MAX_VALUE * Integer.MIN_VALUE);
+
+            NDArray longs = create(manager, new long[] {1L << 32, (1L << 32) + 5});
+            Assert.assertEquals(longs.toType(DataType.INT32, false).toIntArray(), new int[] {0, 5});
+        }
+    }
+
+    @Test
+    public void testIntegerPromotion() {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            NDArray array = create(manager, new int[] {7, -7, 0});
+            NDArray other = create(manager, new int[] {2, 0, 0});
+
+            // true division of integers returns FLOAT32 and never throws
+            NDArray div = array.div(other);
+            Assert.assertEquals(div.getDataType(), DataType.FLOAT32);
+            float[] quotients = div.toFloatArray();
+            Assert.assertEquals(quotients[0], 3.5f);
+            Assert.assertEquals(quotients[1], Float.NEGATIVE_INFINITY);
+            Assert.assertTrue(Float.isNaN(quotients[2]));
+            Assert.assertEquals(array.div(0).getDataType(), DataType.FLOAT32);
+
+            // negative powers have no integer result
+            NDArray pow = array.pow(-1);
+            Assert.assertEquals(pow.getDataType(), DataType.FLOAT32);
+            Assert.assertEquals(pow.toFloatArray()[2], Float.POSITIVE_INFINITY);
+            Assert.assertEquals(array.pow(2).toIntArray(), new int[] {49, 49, 0});
+
+            // floating point scalars promote to FLOAT32, comparisons stay BOOLEAN
+            Assert.assertEquals(array.add(0.5).toFloatArray(), new float[] {7.5f, -6.5f, 0.5f});
+            Assert.assertEquals(array.gt(0.5).toBooleanArray(), new boolean[] {true, false, false});
+            Assert.assertEquals(array.mean().getDataType(), DataType.FLOAT32);
+            Assert.assertEquals(array.max().getInt(), 7);
+        }
+    }
+
+    @Test
+    public void testFloat() {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            ByteBuffer bb = manager.allocateDirect(12);
+            bb.asFloatBuffer().put(new float[] {1.5f, -2f, 3f});
+            NDArray array = new CpuNDArray(manager, null, bb, new Shape(3), DataType.FLOAT32);
+            Assert.assertEquals(array.add(0.5f).toFloatArray(), new float[] {2f, -1.5f, 3.5f});
+            Assert.assertEquals(array.max().getFloat(), 3f);
+            Assert.assertEquals(
+                    array.toType(DataType.INT32, false).toIntArray(), new int[] {1, -2, 3});
+        }
+    }
+
+    private static NDArray create(NDManager manager, long[] data) {
+        ByteBuffer bb = manager.allocateDirect(data.length * 8);
+        bb.asLongBuffer().put(data);
+        return new CpuNDArray(manager, null, bb, new Shape(data.length), DataType.INT64);
+    }
+
+    private static NDArray create(NDManager manager, int[] data) {
+        ByteBuffer bb = manager.allocateDirect(data.length * 4);
+        bb.asIntBuffer().put(data);
+        return new CpuNDArray(manager, null, bb, new Shape(data.length), DataType.INT32);
+    }
+}
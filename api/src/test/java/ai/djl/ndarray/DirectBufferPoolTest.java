@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.ndarray;
+
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class DirectBufferPoolTest {
+
+    @Test
+    public void testPool() {
+        DirectBufferPool pool = new DirectBufferPool(1024);
+        ByteBuffer bb = pool.acquire(100);
+        Assert.assertTrue(bb.isDirect());
+        Assert.assertEquals(bb.order(), ByteOrder.nativeOrder());
+        Assert.assertEquals(bb.capacity(), 128);
+        Assert.assertEquals(bb.limit(), 100);
+        Assert.assertEquals(pool.getMissCount(), 1);
+
+        bb.put((byte) 1);
+        pool.release(bb);
+        Assert.assertEquals(pool.getPoolSize(), 128);
+
+        ByteBuffer reused = pool.acquire(120);
+        Assert.assertSame(reused, bb);
+        Assert.assertEquals(reused.limit(), 120);
+        Assert.assertEquals(reused.position(), 0);
+        Assert.assertEquals(reused.get(0), 0);
+        Assert.assertEquals(pool.getHitCount(), 1);
+        Assert.assertEquals(pool.getPoolSize(), 0);
+
+        // different size class
+        ByteBuffer small = pool.acquire(1);
+        Assert.assertEquals(small.capacity(), 64);
+        Assert.assertEquals(pool.getMissCount(), 2);
+
+        // buffers beyond the pool size are dropped
+        pool.release(pool.acquire(1000));
+        Assert.assertEquals(pool.getPoolSize(), 1024);
+        pool.release(reused);
+        Assert.assertEquals(pool.getPoolSize(), 1024);
+        pool.clear();
+        Assert.assertEquals(pool.getPoolSize(), 0);
+    }
+
+    @Test
+    public void testManagerRecycling() {
+        DirectBufferPool pool = new DirectBufferPool();
+        float[] expected = {1f, 2f, 3f, 4f};
+        try (NDManager manager = NDManager.newBaseManager()) {
+            manager.setBufferPool(pool);
+            try (NDManager sub = manager.newSubManager()) {
+                ByteBuffer bb = sub.allocateDirect(16);
+                bb.asFloatBuffer().put(expected);
+                NDArray array = sub.create(bb, new Shape(4), DataType.FLOAT32);
+                array.close();
+            }
+            Assert.assertEquals(pool.getMissCount(), 1);
+            Assert.assertEquals(pool.getPoolSize(), 64);
+
+            NDArray escaped;
+            try (NDManager sub = manager.newSubManager()) {
+                ByteBuffer bb = sub.allocateDirect(16);
+                bb.asFloatBuffer().put(expected);
+                escaped = sub.create(bb, new Shape(4), DataType.FLOAT32);
+                escaped.attach(manager);
+            }
+            // the escaped array may still point to the buffer, it must not be reused
+            Assert.assertEquals(pool.getHitCount(), 1);
+            Assert.assertEquals(pool.getPoolSize(), 0);
+
+            try (NDManager sub = manager.newSubManager()) {
+                ByteBuffer bb = sub.allocateDirect(16);
+                bb.asFloatBuffer().put(new float[] {9f, 9f, 9f, 9f});
+                sub.create(bb, new Shape(4), DataType.FLOAT32);
+            }
+            Assert.assertEquals(pool.getMissCount(), 2);
+            Assert.assertEquals(escaped.toFloatArray(), expected);
+        }
+    }
+}
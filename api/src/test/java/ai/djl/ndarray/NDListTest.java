@@ -13,12 +13,18 @@
 package ai.djl.ndarray;
 
 import ai.djl.Device;
+import ai.djl.ndarray.types.Shape;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 public class NDListTest {
 
@@ -35,4 +41,45 @@ public class NDListTest {
             Assert.assertEquals(list.get(0).getName(), "bool8");
         }
     }
+
+    @Test
+    public void testMemoryMapped() throws IOException {
+        try (NDManager manager = NDManager.newBaseManager(Device.cpu())) {
+            NDArray array = manager.create(new float[] {1f, 2f, 3f, 4f}, new Shape(2, 2));
+            array.setName("a");
+            NDList list = new NDList(array, manager.create(new long[] {5L, 6L, 7L}));
+
+            Path dir = Paths.get("build/tmp");
+            Files.createDirectories(dir);
+            Path file = dir.resolve("aligned.ndlist");
+            try (FileChannel fc =
+                    FileChannel.open(
+                            file,
+                            StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE,
+                            StandardOpenOption.TRUNCATE_EXISTING)) {
+                list.encode(fc);
+            }
+
+            NDList decoded = NDList.decode(manager, file);
+            Assert.assertEquals(decoded.size(), 2);
+            Assert.assertEquals(decoded.get(0).getName(), "a");
+            Assert.assertEquals(decoded.get(0).getShape(), new Shape(2, 2));
+            Assert.assertEquals(decoded.get(0).toFloatArray(), new float[] {1f, 2f, 3f, 4f});
+            Assert.assertEquals(decoded.get(1).toLongArray(), new long[] {5L, 6L, 7L});
+
+            // the mapping is private, in place updates are not written to the file
+            decoded.get(0).addi(10f);
+            Assert.assertEquals(decoded.get(0).toFloatArray(), new float[] {11f, 12f, 13f, 14f});
+            decoded = NDList.decode(manager, file);
+            Assert.assertEquals(decoded.get(0).toFloatArray(), new float[] {1f, 2f, 3f, 4f});
+
+            decoded = NDList.decode(manager, Files.readAllBytes(file));
+            Assert.assertEquals(decoded.get(1).toLongArray(), new long[] {5L, 6L, 7L});
+
+            decoded = NDList.decode(manager, Paths.get("src/test/resources/list.npz"));
+            Assert.assertEquals(decoded.size(), 2);
+            Assert.assertEquals(decoded.get(0).getName(), "bool8");
+        }
+    }
 }
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.repository;
+
+import ai.djl.util.Utils;
+import ai.djl.util.ZipUtils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class RangedDownloaderTest {
+
+    private HttpServer server;
+    private byte[] data;
+    private List<String> ranges;
+    private volatile boolean failOnce;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        data = new byte[10_000];
+        new Random(1).nextBytes(data);
+        ranges = new CopyOnWriteArrayList<>();
+
+        Path dir = Paths.get("build/downloadTest/");
+        Utils.deleteQuietly(dir);
+        Files.createDirectories(dir);
+        Files.createFile(dir.resolve("synset.txt"));
+        Path zip = Paths.get("build/tmp/download.zip");
+        Files.createDirectories(zip.getParent());
+        ZipUtils.zip(dir, zip, false);
+        byte[] zipData = Files.readAllBytes(zip);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/data.bin", exchange -> serve(exchange, data));
+        server.createContext("/test.zip", exchange -> serve(exchange, zipData));
+        server.start();
+    }
+
+    @AfterClass
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testDownload() throws IOException {
+        ranges.clear();
+        failOnce = false;
+        Path dir = Paths.get("build/tmp/downloads");
+        RangedDownloader downloader = new RangedDownloader(getUrl("/data.bin"), dir, 3000, 2);
+        try (InputStream is = downloader.download(null)) {
+            Assert.assertEquals(Utils.toByteArray(is), data);
+        } finally {
+            downloader.delete();
+        }
+        Assert.assertEquals(ranges.size(), 4);
+        Assert.assertTrue(ranges.contains("bytes=9000-9999"));
+    }
+
+    @Test
+    public void testResume() throws IOException {
+        ranges.clear();
+        failOnce = true;
+        Path dir = Paths.get("build/tmp/downloads");
+        RangedDownloader downloader = new RangedDownloader(getUrl("/data.bin"), dir, 4000, 1);
+        try (InputStream is = downloader.download(null)) {
+            Assert.assertEquals(Utils.toByteArray(is), data);
+        } finally {
+            downloader.delete();
+        }
+        // the first segment is interrupted after 2000 bytes, and resumed from there
+        Assert.assertEquals(ranges.get(0), "bytes=0-3999");
+        Assert.assertEquals(ranges.get(1), "bytes=2000-3999");
+    }
+
+    @Test
+    public void testPrepare() throws IOException {
+        Repository repo = Repository.newInstance("test", getUrl("/test.zip").toString());
+        List<MRL> list = repo.getResources();
+        Assert.assertEquals(list.size(), 1);
+
+        Artifact artifact = repo.resolve(list.get(0), null);
+        Path resourceDir = repo.getResourceDirectory(artifact);
+        Utils.deleteQuietly(resourceDir);
+        try {
+            repo.prepare(artifact);
+            Assert.assertTrue(Files.exists(resourceDir.resolve("synset.txt")));
+        } finally {
+            Utils.deleteQuietly(resourceDir);
+        }
+    }
+
+    private URL getUrl(String path) throws IOException {
+        return new URL("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+
+    private void serve(HttpExchange exchange, byte[] content) throws IOException {
+        exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+        exchange.getResponseHeaders().add("ETag", "\"1\"");
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().add("Content-Length", String.valueOf(content.length));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+            return;
+        }
+
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        int start = 0;
+        int end = content.length;
+        int code = 200;
+        if (range != null) {
+            ranges.add(range);
+            String[] tokens = range.substring(6).split("-");
+            start = Integer.parseInt(tokens[0]);
+            end = Integer.parseInt(tokens[1]) + 1;
+            code = 206;
+        }
+        exchange.sendResponseHeaders(code, end - start);
+        OutputStream os = exchange.getResponseBody();
+        if (failOnce) {
+            failOnce = false;
+            os.write(content, start, (end - start) / 2);
+            os.flush();
+            // drop the connection in the middle of the response
+            exchange.close();
+            return;
+        }
+        os.write(content, start, end - start);
+        exchange.close();
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.repository;
+
+import ai.djl.util.Utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+public class RepositoryCacheTest {
+
+    private static final int SIZE = 100 * 1024;
+
+    @Test
+    public void testLock() throws IOException, InterruptedException, ExecutionException {
+        Path cacheDir = Paths.get("build/tmp/repoCache/lock");
+        Utils.deleteQuietly(cacheDir);
+        Files.createDirectories(cacheDir);
+        RepositoryCache cache = RepositoryCache.getInstance(cacheDir);
+        Path dir = cacheDir.resolve("model");
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (RepositoryCache.Lock lock = cache.lock(dir)) {
+            Assert.assertNotNull(lock);
+            Path lockFile = cacheDir.resolve("model.lock");
+            Future<Boolean> locked =
+                    executor.submit(
+                            () -> {
+                                try (RepositoryCache.Lock other =
+                                        RepositoryCache.Lock.acquire(lockFile, false)) {
+                                    return other != null;
+                                }
+                            });
+            Assert.assertFalse(locked.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testEviction() throws IOException {
+        Path cacheDir = Paths.get("build/tmp/repoCache/eviction");
+        Utils.deleteQuietly(cacheDir);
+        Files.createDirectories(cacheDir);
+        RepositoryCache cache = RepositoryCache.getInstance(cacheDir);
+        boolean dedup = Files.getFileStore(cacheDir).supportsFileAttributeView("unix");
+
+        byte[] shared = randomBytes(1);
+        add(cache, cacheDir.resolve("a"), shared);
+        add(cache, cacheDir.resolve("b"), shared);
+        add(cache, cacheDir.resolve("c"), randomBytes(2));
+        Assert.assertEquals(cache.getMissCount(), 3);
+        if (dedup) {
+            Assert.assertEquals(cache.getDedupSize(), SIZE);
+            Assert.assertEquals(
+                    Files.readAttributes(cacheDir.resolve("a/model.bin"), BasicFileAttributes.class)
+                            .fileKey(),
+                    Files.readAttributes(cacheDir.resolve("b/model.bin"), BasicFileAttributes.class)
+                            .fileKey());
+            Assert.assertEquals(cache.getSize(), 2 * SIZE);
+        }
+
+        cache.hit(cacheDir.resolve("a"));
+        Assert.assertEquals(cache.getHitCount(), 1);
+
+        // access order: a, b, c
+        String[] names = {"a", "b", "c"};
+        for (int i = 0; i < names.length; ++i) {
+            Path lockFile = cacheDir.resolve(names[i] + ".lock");
+            Files.setLastModifiedTime(lockFile, FileTime.fromMillis(1000L * (i + 1)));
+        }
+        cache.setMaxSize(5 * SIZE / 2);
+        add(cache, cacheDir.resolve("d"), randomBytes(3));
+
+        Assert.assertTrue(Files.notExists(cacheDir.resolve("a")));
+        Assert.assertTrue(Files.notExists(cacheDir.resolve("a.lock")));
+        Assert.assertTrue(Files.exists(cacheDir.resolve("c")));
+        Assert.assertTrue(Files.exists(cacheDir.resolve("d")));
+        Assert.assertTrue(cache.getSize() <= cache.getMaxSize());
+        if (dedup) {
+            // the shared file is only freed when both a and b are evicted
+            Assert.assertTrue(Files.notExists(cacheDir.resolve("b")));
+            Assert.assertEquals(cache.getEvictionCount(), 2);
+            try (Stream<Path> blobs = Files.list(cacheDir.resolve("blobs"))) {
+                Assert.assertEquals(blobs.count(), 2);
+            }
+        }
+    }
+
+    @Test
+    public void testUseDuringEviction()
+            throws IOException, InterruptedException, ExecutionException {
+        Path cacheDir = Paths.get("build/tmp/repoCache/use");
+        Utils.deleteQuietly(cacheDir);
+        Files.createDirectories(cacheDir);
+        RepositoryCache cache = RepositoryCache.getInstance(cacheDir);
+        cache.setMaxSize(SIZE);
+
+        Path used = cacheDir.resolve("used");
+        add(cache, used, randomBytes(1));
+        Files.setLastModifiedTime(cacheDir.resolve("used.lock"), FileTime.fromMillis(1000));
+        Assert.assertTrue(cache.use(used));
+        Assert.assertFalse(cache.use(cacheDir.resolve("missing")));
+
+        // each new entry evicts the previous one, unless a reader uses it first
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        int inUse = 0;
+        try {
+            add(cache, cacheDir.resolve("entry0"), randomBytes(2));
+            for (int i = 0; i < 20; ++i) {
+                Path previous = cacheDir.resolve("entry" + i);
+                Path next = cacheDir.resolve("entry" + (i + 1));
+                long seed = i + 3L;
+                Future<Boolean> reader = executor.submit(() -> cache.use(previous));
+                Future<?> writer =
+                        executor.submit(
+                                () -> {
+                                    add(cache, next, randomBytes(seed));
+                                    return null;
+                                });
+                writer.get();
+                if (reader.get()) {
+                    Assert.assertTrue(Files.exists(previous.resolve("model.bin")));
+                    ++inUse;
+                } else {
+                    Assert.assertTrue(Files.notExists(previous));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue(Files.exists(used.resolve("model.bin")));
+        Assert.assertEquals(cache.getEvictionCount(), 20 - inUse);
+
+        // a resource directory can be evicted once it is released by all its users
+        Assert.assertTrue(cache.use(used));
+        cache.release(used);
+        add(cache, cacheDir.resolve("last"), randomBytes(100));
+        Assert.assertTrue(Files.exists(used.resolve("model.bin")));
+        cache.release(used);
+        add(cache, cacheDir.resolve("next"), randomBytes(101));
+        Assert.assertTrue(Files.notExists(used));
+        Assert.assertTrue(Files.notExists(cacheDir.resolve("used.lock")));
+    }
+
+    @SuppressWarnings("try")
+    private static void add(RepositoryCache cache, Path dir, byte[] data) throws IOException {
+        try (RepositoryCache.Lock ignore = cache.lock(dir)) {
+            Files.createDirectories(dir);
+            Files.write(dir.resolve("model.bin"), data);
+            cache.add(dir);
+        }
+    }
+
+    private static byte[] randomBytes(long seed) {
+        byte[] data = new byte[SIZE];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+}
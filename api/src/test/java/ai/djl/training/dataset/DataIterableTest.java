@@ -0,0 +1,240 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.translate.Batchifier;
+import ai.djl.util.Progress;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+public class DataIterableTest {
+
+    private static final int SIZE = 40;
+    private static final int BATCH_SIZE = 4;
+
+    @Test
+    public void testInOrder() throws InterruptedException {
+        assertInOrder(false, 1);
+        assertInOrder(false, 3);
+        assertInOrder(true, 1);
+        assertInOrder(true, 3);
+    }
+
+    @Test
+    public void testOutOfOrder() throws InterruptedException {
+        assertAllDelivered(false, 1);
+        assertAllDelivered(false, 3);
+        assertAllDelivered(true, 1);
+        assertAllDelivered(true, 3);
+    }
+
+    @Test
+    public void testFailedRecord() throws InterruptedException {
+        TestDataset dataset = new TestDataset(6);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (NDManager manager = NDManager.newBaseManager()) {
+            DataIterable iterable = newIterable(dataset, manager, executor, 2, true, false);
+            Assert.assertTrue(iterable.hasNext());
+            assertBatch(iterable.next(), 0);
+            Assert.assertThrows(IllegalStateException.class, iterable::next);
+        } finally {
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        // the records of the failed batch were released with its manager
+        for (long index = BATCH_SIZE; index < 2 * BATCH_SIZE; ++index) {
+            NDManager recordManager = dataset.managers.get(index);
+            if (recordManager != null) {
+                Assert.assertFalse(recordManager.isOpen());
+            }
+        }
+    }
+
+    private static void assertInOrder(boolean parallelRecords, int preFetchNumber)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (NDManager manager = NDManager.newBaseManager()) {
+            DataIterable iterable =
+                    newIterable(
+                            new TestDataset(-1),
+                            manager,
+                            executor,
+                            preFetchNumber,
+                            parallelRecords,
+                            false);
+            int count = 0;
+            for (Batch batch : iterable) {
+                assertBatch(batch, count * BATCH_SIZE);
+                ++count;
+            }
+            Assert.assertEquals(count, SIZE / BATCH_SIZE);
+        } finally {
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void assertAllDelivered(boolean parallelRecords, int preFetchNumber)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (NDManager manager = NDManager.newBaseManager()) {
+            DataIterable iterable =
+                    newIterable(
+                            new TestDataset(-1),
+                            manager,
+                            executor,
+                            preFetchNumber,
+                            parallelRecords,
+                            true);
+            List<Long> seen = new ArrayList<>();
+            for (Batch batch : iterable) {
+                float[] data = batch.getData().singletonOrThrow().toFloatArray();
+                float[] labels = batch.getLabels().singletonOrThrow().toFloatArray();
+                Assert.assertEquals(data.length, BATCH_SIZE);
+                for (int i = 0; i < data.length; ++i) {
+                    Assert.assertEquals(labels[i], -data[i]);
+                    seen.add((long) data[i]);
+                }
+                batch.close();
+            }
+            seen.sort(null);
+            List<Long> expected = new ArrayList<>();
+            for (long i = 0; i < SIZE; ++i) {
+                expected.add(i);
+            }
+            Assert.assertEquals(seen, expected);
+        } finally {
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private static DataIterable newIterable(
+            RandomAccessDataset dataset,
+            NDManager manager,
+            ExecutorService executor,
+            int preFetchNumber,
+            boolean parallelRecords,
+            boolean outOfOrder) {
+        Batchifier batchifier = new ConcatBatchifier();
+        return new DataIterable(
+                dataset,
+                manager,
+                new BatchSampler(new SequenceSampler(), BATCH_SIZE),
+                batchifier,
+                batchifier,
+                null,
+                null,
+                executor,
+                preFetchNumber,
+                null,
+                parallelRecords,
+                outOfOrder);
+    }
+
+    private static void assertBatch(Batch batch, int first) {
+        float[] data = batch.getData().singletonOrThrow().toFloatArray();
+        float[] labels = batch.getLabels().singletonOrThrow().toFloatArray();
+        float[] expected = new float[BATCH_SIZE];
+        float[] expectedLabels = new float[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; ++i) {
+            expected[i] = first + i;
+            expectedLabels[i] = -(first + i);
+        }
+        Assert.assertEquals(data, expected);
+        Assert.assertEquals(labels, expectedLabels);
+        batch.close();
+    }
+
+    /** A dataset of scalar records that take a random time to load. */
+    private static final class TestDataset extends RandomAccessDataset {
+
+        Map<Long, NDManager> managers = new ConcurrentHashMap<>();
+        private long failure;
+
+        TestDataset(long failure) {
+            super(new Builder().setSampling(BATCH_SIZE, false));
+            this.failure = failure;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Record get(NDManager manager, long index) {
+            managers.put(index, manager);
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (index == failure) {
+                throw new IllegalArgumentException("Failed to load record: " + index);
+            }
+            NDList data = new NDList(manager.create(new float[] {index}));
+            NDList labels = new NDList(manager.create(new float[] {-index}));
+            return new Record(data, labels);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected long availableSize() {
+            return SIZE;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void prepare(Progress progress) {}
+
+        static final class Builder extends BaseBuilder<Builder> {
+
+            /** {@inheritDoc} */
+            @Override
+            protected Builder self() {
+                return this;
+            }
+        }
+    }
+
+    /** Concatenates the scalar records of a batch into a one dimensional array. */
+    private static final class ConcatBatchifier implements Batchifier {
+
+        /** {@inheritDoc} */
+        @Override
+        public NDList batchify(NDList[] inputs) {
+            float[] values = new float[inputs.length];
+            for (int i = 0; i < inputs.length; ++i) {
+                values[i] = inputs[i].singletonOrThrow().getFloat();
+            }
+            NDArray array = inputs[0].singletonOrThrow();
+            return new NDList(array.getManager().create(values));
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public NDList[] unbatchify(NDList inputs) {
+            throw new UnsupportedOperationException("Not supported");
+        }
+    }
+}
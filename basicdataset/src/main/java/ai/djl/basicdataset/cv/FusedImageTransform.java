@@ -0,0 +1,243 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.basicdataset.cv;
+
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.ImageFactory;
+import ai.djl.modality.cv.output.Rectangle;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.util.RandomUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A {@code FusedImageTransform} decodes an image and converts it to a normalized tensor of a fixed
+ * size in a single pass.
+ *
+ * <p>It replaces a {@link ai.djl.translate.Pipeline} of {@link ai.djl.modality.cv.transform.Resize}
+ * or {@link ai.djl.modality.cv.transform.RandomResizedCrop}, optionally followed by {@link
+ * ai.djl.modality.cv.transform.RandomFlipLeftRight}, then {@link
+ * ai.djl.modality.cv.transform.ToTensor} and optionally {@link
+ * ai.djl.modality.cv.transform.Normalize}. Instead of creating an {@link NDArray} for each step,
+ * the image is decoded at the lowest resolution the crop needs, and cropped, resized, flipped and
+ * normalized into the output {@link NDArray} at once, see {@link Image#toTensor(NDManager,
+ * Image.Flag, Rectangle, int, int, boolean, float[], float[])}.
+ */
+public final class FusedImageTransform {
+
+    private int width;
+    private int height;
+    private boolean randomCrop;
+    private double minAreaScale;
+    private double maxAreaScale;
+    private double minAspectRatio;
+    private double maxAspectRatio;
+    private boolean randomFlip;
+    private float[] mean;
+    private float[] std;
+
+    FusedImageTransform(Builder builder) {
+        width = builder.width;
+        height = builder.height;
+        randomCrop = builder.randomCrop;
+        minAreaScale = builder.minAreaScale;
+        maxAreaScale = builder.maxAreaScale;
+        minAspectRatio = builder.minAspectRatio;
+        maxAspectRatio = builder.maxAspectRatio;
+        randomFlip = builder.randomFlip;
+        mean = builder.mean;
+        std = builder.std;
+    }
+
+    /**
+     * Creates a builder to build a {@code FusedImageTransform}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Decodes an image file and transforms it.
+     *
+     * @param manager the manager to create the output with
+     * @param path the path to the image file
+     * @param flag the color mode
+     * @return the transformed image, a {@link ai.djl.ndarray.types.DataType#FLOAT32} {@link
+     *     NDArray} of shape CHW
+     * @throws IOException if the image cannot be read
+     */
+    public NDArray transform(NDManager manager, Path path, Image.Flag flag) throws IOException {
+        int decodeWidth = width;
+        int decodeHeight = height;
+        if (randomCrop) {
+            // the smallest crop should still be at least the output size
+            double factor = Math.sqrt(minAreaScale);
+            decodeWidth = (int) Math.ceil(width / factor);
+            decodeHeight = (int) Math.ceil(height / factor);
+        }
+        Image image = ImageFactory.getInstance().fromFile(path, decodeWidth, decodeHeight);
+        return transform(manager, image, flag);
+    }
+
+    /**
+     * Transforms an image.
+     *
+     * @param manager the manager to create the output with
+     * @param image the image
+     * @param flag the color mode
+     * @return the transformed image, a {@link ai.djl.ndarray.types.DataType#FLOAT32} {@link
+     *     NDArray} of shape CHW
+     */
+    public NDArray transform(NDManager manager, Image image, Image.Flag flag) {
+        Rectangle crop = randomCrop ? randomCrop(image.getWidth(), image.getHeight()) : null;
+        boolean flip = randomFlip && RandomUtils.nextFloat() < 0.5f;
+        return image.toTensor(manager, flag, crop, width, height, flip, mean, std);
+    }
+
+    /**
+     * Returns the width of the output.
+     *
+     * @return the width of the output
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the output.
+     *
+     * @return the height of the output
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    // picks the crop the same way as NDImageUtils.randomResizedCrop()
+    private Rectangle randomCrop(int w, int h) {
+        double srcArea = (double) w * h;
+        double targetArea =
+                minAreaScale * srcArea
+                        + (maxAreaScale - minAreaScale) * srcArea * RandomUtils.nextFloat();
+        // get ratio from maximum achievable h and w
+        double minRatio = (targetArea / h) / h;
+        double maxRatio = w / (targetArea / w);
+        double lower = Math.max(minRatio, minAspectRatio);
+        double upper = Math.min(maxRatio, maxAspectRatio);
+        if (upper < lower) {
+            int cropWidth = Math.min(w, width);
+            int cropHeight = Math.min(h, height);
+            return new Rectangle((w - cropWidth) / 2, (h - cropHeight) / 2, cropWidth, cropHeight);
+        }
+        float ratio = RandomUtils.nextFloat((float) lower, (float) upper);
+        int newWidth = Math.min(w, (int) Math.round(Math.sqrt(targetArea * ratio)));
+        int newHeight = Math.min(h, (int) (newWidth / ratio));
+        int x = w == newWidth ? 0 : RandomUtils.nextInt(w - newWidth);
+        int y = h == newHeight ? 0 : RandomUtils.nextInt(h - newHeight);
+        return new Rectangle(x, y, newWidth, newHeight);
+    }
+
+    /** A builder to build a {@link FusedImageTransform}. */
+    public static final class Builder {
+
+        int width;
+        int height;
+        boolean randomCrop;
+        double minAreaScale;
+        double maxAreaScale;
+        double minAspectRatio;
+        double maxAspectRatio;
+        boolean randomFlip;
+        float[] mean;
+        float[] std;
+
+        Builder() {}
+
+        /**
+         * Sets the size of the output.
+         *
+         * @param width the width of the output
+         * @param height the height of the output
+         * @return this builder
+         */
+        public Builder setImageSize(int width, int height) {
+            this.width = width;
+            this.height = height;
+            return this;
+        }
+
+        /**
+         * Crops a random region of the image before resizing it, like {@link
+         * ai.djl.modality.cv.transform.RandomResizedCrop}.
+         *
+         * @param minAreaScale the minimum area of the crop, relative to the image
+         * @param maxAreaScale the maximum area of the crop, relative to the image
+         * @param minAspectRatio the minimum aspect ratio of the crop
+         * @param maxAspectRatio the maximum aspect ratio of the crop
+         * @return this builder
+         */
+        public Builder optRandomResizedCrop(
+                double minAreaScale,
+                double maxAreaScale,
+                double minAspectRatio,
+                double maxAspectRatio) {
+            randomCrop = true;
+            this.minAreaScale = minAreaScale;
+            this.maxAreaScale = maxAreaScale;
+            this.minAspectRatio = minAspectRatio;
+            this.maxAspectRatio = maxAspectRatio;
+            return this;
+        }
+
+        /**
+         * Flips the image left to right with a probability of 0.5.
+         *
+         * @return this builder
+         */
+        public Builder optRandomFlipLeftRight() {
+            randomFlip = true;
+            return this;
+        }
+
+        /**
+         * Normalizes the image with the given mean and standard deviation for each channel.
+         *
+         * @param mean the mean for each channel
+         * @param std the standard deviation for each channel
+         * @return this builder
+         */
+        public Builder optNormalize(float[] mean, float[] std) {
+            this.mean = mean;
+            this.std = std;
+            return this;
+        }
+
+        /**
+         * Builds the {@link FusedImageTransform}.
+         *
+         * @return the {@link FusedImageTransform}
+         */
+        public FusedImageTransform build() {
+            if (width <= 0 || height <= 0) {
+                throw new IllegalArgumentException("The image size must be set.");
+            }
+            if (randomCrop && (minAreaScale <= 0 || minAreaScale > maxAreaScale)) {
+                throw new IllegalArgumentException("Invalid crop area scale.");
+            }
+            return new FusedImageTransform(this);
+        }
+    }
+}
@@ -12,11 +12,16 @@
  */
 package ai.djl.basicdataset.cv.classification;
 
+import ai.djl.basicdataset.cv.FusedImageTransform;
 import ai.djl.modality.cv.Image;
 import ai.djl.modality.cv.ImageFactory;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
 import ai.djl.repository.MRL;
 import ai.djl.repository.Repository;
 import ai.djl.repository.zoo.DefaultModelZoo;
+import ai.djl.training.dataset.Batch;
+import ai.djl.training.dataset.Sampler;
 import ai.djl.translate.TranslateException;
 import ai.djl.util.Pair;
 import ai.djl.util.PairList;
@@ -34,6 +39,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 /**
@@ -47,6 +56,7 @@ public abstract class AbstractImageFolder extends ImageClassificationDataset {
 
     private static final Set<String> EXT =
             new HashSet<>(Arrays.asList(".jpg", ".jpeg", ".png", ".bmp", ".wbmp", ".gif"));
+    private static final long DECODE_KEEP_ALIVE_SECONDS = 30;
 
     protected List<String> synset;
     protected PairList<String, Integer> items;
@@ -56,12 +66,21 @@ public abstract class AbstractImageFolder extends ImageClassificationDataset {
     private int maxDepth;
     private Integer imageWidth;
     private Integer imageHeight;
+    private FusedImageTransform fusedTransform;
+    private int decodeThreads;
+    private ExecutorService decodeExecutor;
 
     protected AbstractImageFolder(ImageFolderBuilder<?> builder) {
         super(builder);
         this.maxDepth = builder.maxDepth;
         this.imageWidth = builder.imageWidth;
         this.imageHeight = builder.imageHeight;
+        this.fusedTransform = builder.fusedTransform;
+        this.decodeThreads = builder.decodeThreads;
+        if (fusedTransform != null) {
+            imageWidth = fusedTransform.getWidth();
+            imageHeight = fusedTransform.getHeight();
+        }
         this.synset = new ArrayList<>();
         this.items = new PairList<>();
         String path = builder.repository.getBaseUri().toString();
@@ -77,6 +96,16 @@ public abstract class AbstractImageFolder extends ImageClassificationDataset {
         return imageFactory.fromFile(imagePath);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    protected NDArray getRecordImage(NDManager manager, long index) throws IOException {
+        if (fusedTransform == null) {
+            return super.getRecordImage(manager, index);
+        }
+        Pair<String, Integer> item = items.get(Math.toIntExact(index));
+        return fusedTransform.transform(manager, getImagePath(item.getKey()), flag);
+    }
+
     /** {@inheritDoc} */
     @Override
     protected long getClassNumber(long index) {
@@ -90,6 +119,27 @@ public abstract class AbstractImageFolder extends ImageClassificationDataset {
         return items.size();
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Iterable<Batch> getData(NDManager manager) throws IOException, TranslateException {
+        ExecutorService executor = getDecodeExecutor();
+        if (executor == null) {
+            return super.getData(manager);
+        }
+        return getData(manager, executor);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Iterable<Batch> getData(NDManager manager, Sampler sampler)
+            throws IOException, TranslateException {
+        ExecutorService executor = getDecodeExecutor();
+        if (executor == null) {
+            return super.getData(manager, sampler);
+        }
+        return getData(manager, sampler, executor);
+    }
+
     /**
      * Returns the synsets of the ImageFolder dataset.
      *
@@ -128,6 +178,28 @@ public abstract class AbstractImageFolder extends ImageClassificationDataset {
 
     protected abstract Path getImagePath(String key);
 
+    private synchronized ExecutorService getDecodeExecutor() {
+        if (decodeThreads > 0 && decodeExecutor == null) {
+            // datasets are never closed, so idle threads exit and the pool is freed with the
+            // dataset
+            ThreadPoolExecutor executor =
+                    new ThreadPoolExecutor(
+                            decodeThreads,
+                            decodeThreads,
+                            DECODE_KEEP_ALIVE_SECONDS,
+                            TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<>(),
+                            r -> {
+                                Thread thread = new Thread(r, "image-decode");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+            executor.allowCoreThreadTimeOut(true);
+            decodeExecutor = executor;
+        }
+        return decodeExecutor;
+    }
+
     private boolean isImage(File file) {
         String path = file.getName();
         if (!file.isFile() || file.isHidden() || path.startsWith(".")) {
@@ -150,7 +222,7 @@ public abstract class AbstractImageFolder extends ImageClassificationDataset {
     /** {@inheritDoc} */
     @Override
     public Optional<Integer> getImageHeight() {
-        return Optional.ofNullable(imageWidth);
+        return Optional.ofNullable(imageHeight);
     }
 
     /** {@inheritDoc} */
@@ -171,6 +243,8 @@ public abstract class AbstractImageFolder extends ImageClassificationDataset {
         int maxDepth;
         Integer imageWidth;
         Integer imageHeight;
+        FusedImageTransform fusedTransform;
+        int decodeThreads;
 
         protected ImageFolderBuilder() {
             maxDepth = 1;
@@ -253,5 +327,36 @@ public abstract class AbstractImageFolder extends ImageClassificationDataset {
             this.imageHeight = height;
             return self();
         }
+
+        /**
+         * Sets the {@link FusedImageTransform} that decodes and transforms the images.
+         *
+         * <p>The images are returned as normalized {@link ai.djl.ndarray.types.DataType#FLOAT32}
+         * tensors of shape CHW, and the image size is set to the size of the transform. The {@link
+         * ai.djl.translate.Pipeline} should not repeat the fused transforms.
+         *
+         * @param fusedTransform the {@link FusedImageTransform}
+         * @return this builder
+         */
+        public T optFusedTransform(FusedImageTransform fusedTransform) {
+            this.fusedTransform = fusedTransform;
+            return self();
+        }
+
+        /**
+         * Sets the number of threads of a dedicated thread pool that loads the images.
+         *
+         * <p>If set, the images are decoded on this thread pool when the data is iterated without
+         * an {@link ExecutorService}. Use {@link #optParallelRecords(boolean)} to decode the images
+         * of a batch in parallel. The threads are daemon threads, and exit when they have been idle
+         * for 30 seconds.
+         *
+         * @param decodeThreads the number of threads to decode images with
+         * @return this builder
+         */
+        public T optDecodeThreads(int decodeThreads) {
+            this.decodeThreads = decodeThreads;
+            return self();
+        }
     }
 }
@@ -146,6 +146,11 @@ public abstract class TextDataset extends RandomAccessDataset {
         TextData textData = source ? sourceTextData : targetTextData;
         textData.preprocess(
                 manager, newTextData.subList(0, (int) Math.min(limit, newTextData.size())));
+        if (source) {
+            // lengths are computed once from the processed text, for length-aware samplers
+            samples = null;
+            getSamples();
+        }
     }
 
     /** A class stores {@code TextDataset} sample information. */
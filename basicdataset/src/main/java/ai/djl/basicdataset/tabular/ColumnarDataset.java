@@ -0,0 +1,684 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.basicdataset.tabular;
+
+import ai.djl.basicdataset.tabular.utils.DynamicBuffer;
+import ai.djl.basicdataset.tabular.utils.Feature;
+import ai.djl.basicdataset.tabular.utils.Featurizer;
+import ai.djl.basicdataset.tabular.utils.PreparedFeaturizer;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.translate.TranslateException;
+import ai.djl.util.JsonUtils;
+import ai.djl.util.Progress;
+
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code ColumnarDataset} is a {@link TabularDataset} backed by a memory-mapped columnar binary
+ * file.
+ *
+ * <p>The first time it is prepared, the source {@link TabularDataset} (for example a {@link
+ * CsvDataset}) is featurized once and written column by column to the columnar file. Numeric
+ * features are stored as float32 columns and one-hot encoded categorical features are stored as
+ * dictionary encoded int32 columns. The raw cells are stored as well, so {@link #getCell(long,
+ * String)} returns the same values as the source dataset. The statistics of the prepared
+ * featurizers (mean and standard deviation of normalized numeric columns, categorical dictionaries)
+ * are saved alongside the file in a {@code .json} file. Afterwards, the file is memory-mapped and
+ * rows are read directly from the mapped buffers without parsing the CSV file or keeping its
+ * records on the heap.
+ *
+ * <pre>
+ * ColumnarDataset dataset = ColumnarDataset.builder()
+ *         .setSource(csvDataset)
+ *         .setColumnarFile(Paths.get("build/dataset.djlc"))
+ *         .setSampling(32, true)
+ *         .build();
+ * </pre>
+ */
+public class ColumnarDataset extends TabularDataset {
+
+    private static final int MAGIC = 0x434C4A44; // DJLC
+    private static final int VERSION = 2;
+    private static final int ALIGNMENT = 64;
+    private static final byte FLOAT = 0;
+    private static final byte ONE_HOT = 1;
+    private static final long INDEX_CHUNK = 1 << 27;
+    private static final long RAW_CHUNK = 1 << 30;
+
+    private TabularDataset source;
+    private Path columnarFile;
+    private long rows;
+    private Map<String, Column> columns;
+    private boolean prepared;
+
+    /**
+     * Creates a new instance of {@code ColumnarDataset}.
+     *
+     * @param builder a builder with the necessary configurations
+     */
+    protected ColumnarDataset(Builder builder) {
+        super(builder);
+        source = builder.source;
+        columnarFile = builder.columnarFile;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList getRowFeatures(NDManager manager, long index, List<Feature> selected) {
+        if (selected.size() == 1) {
+            Column column = getColumn(selected.get(0).getName());
+            if (column.type == FLOAT) {
+                FloatBuffer buf = column.slice(index);
+                return new NDList(manager.create(buf, new Shape(column.width)));
+            }
+        }
+        int width = 0;
+        for (Feature feature : selected) {
+            width += getColumn(feature.getName()).width;
+        }
+        float[] row = new float[width];
+        int pos = 0;
+        for (Feature feature : selected) {
+            Column column = getColumn(feature.getName());
+            column.read(index, row, pos);
+            pos += column.width;
+        }
+        return new NDList(manager.create(FloatBuffer.wrap(row), new Shape(width)));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList getBatchFeatures(NDManager manager, List<Long> indices, List<Feature> selected) {
+        int batchSize = indices.size();
+        Column[] cols = new Column[selected.size()];
+        int width = 0;
+        for (int i = 0; i < cols.length; ++i) {
+            cols[i] = getColumn(selected.get(i).getName());
+            width += cols[i].width;
+        }
+        float[] batch = new float[batchSize * width];
+        int pos = 0;
+        for (long index : indices) {
+            for (Column column : cols) {
+                column.read(index, batch, pos);
+                pos += column.width;
+            }
+        }
+        return new NDList(manager.create(FloatBuffer.wrap(batch), new Shape(batchSize, width)));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getCell(long rowIndex, String featureName) {
+        return getColumn(featureName).cell(rowIndex);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected long availableSize() {
+        return rows;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void prepare(Progress progress) throws IOException, TranslateException {
+        if (prepared) {
+            return;
+        }
+        if (Files.notExists(columnarFile)) {
+            if (source == null) {
+                throw new IllegalStateException("Columnar file not found: " + columnarFile);
+            }
+            source.prepare(progress);
+            List<Feature> all = new ArrayList<>(features);
+            all.addAll(labels);
+            write(source, all, columnarFile);
+        }
+        map(columnarFile);
+        prepared = true;
+    }
+
+    /**
+     * Returns the statistics of the featurized columns saved alongside the columnar file.
+     *
+     * <p>Each entry contains the {@code type} and {@code width} of the column, followed by the
+     * statistics of its {@link PreparedFeaturizer}, for example the {@code mean} and {@code std} of
+     * a normalized numeric column or the {@code dictionary} from raw value to index of a one-hot
+     * encoded column. One-hot encoded columns whose featurizer was not prepared contain the {@code
+     * dictionary} of the values found in the dataset.
+     *
+     * @return the statistics of the featurized columns by name
+     */
+    public Map<String, Map<String, Object>> getStatistics() {
+        Map<String, Map<String, Object>> ret = new LinkedHashMap<>();
+        for (Column column : columns.values()) {
+            ret.put(column.name, column.toStatistics());
+        }
+        return ret;
+    }
+
+    /**
+     * Converts the featurized values of a {@link TabularDataset} into a columnar file.
+     *
+     * @param dataset the prepared dataset to convert
+     * @param features the features and labels to convert
+     * @param file the columnar file to write
+     * @throws IOException if failed to write the file
+     */
+    public static void write(TabularDataset dataset, List<Feature> features, Path file)
+            throws IOException {
+        long rows = dataset.size();
+        List<Column> list = new ArrayList<>(features.size());
+        Set<String> seen = new HashSet<>();
+        for (Feature feature : features) {
+            if (seen.add(feature.getName())) {
+                list.add(analyze(dataset, feature, rows));
+            }
+        }
+
+        // header: magic, version, rows, count, (name, type, width, offset, rawOffset) per column
+        ByteBuffer header = ByteBuffer.allocate(headerSize(list)).order(ByteOrder.LITTLE_ENDIAN);
+        long offset = align(header.capacity());
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putLong(rows);
+        header.putInt(list.size());
+        for (Column column : list) {
+            byte[] name = column.name.getBytes(StandardCharsets.UTF_8);
+            header.putInt(name.length);
+            header.put(name);
+            header.put(column.type);
+            header.putInt(column.width);
+            column.offset = offset;
+            column.rawOffset = align(offset + rows * column.rowBytes());
+            header.putLong(column.offset);
+            header.putLong(column.rawOffset);
+            offset = align(column.rawOffset + (rows + 1) * 8 + column.rawBytes);
+        }
+        header.flip();
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = Files.createTempFile(parent, "columnar", ".tmp");
+        try {
+            try (FileChannel channel =
+                    FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.READ)) {
+                channel.write(header, 0);
+                ByteBuffer bb = allocate();
+                ByteBuffer index = allocate();
+                ByteBuffer raw = allocate();
+                for (Column column : list) {
+                    Feature feature = column.feature;
+                    long pos = column.offset;
+                    long indexPos = column.rawOffset;
+                    long rawPos = indexPos + (rows + 1) * 8;
+                    long rawLength = 0;
+                    for (long row = 0; row < rows; ++row) {
+                        String cell = dataset.getCell(row, feature.getName());
+                        if (bb.remaining() < column.rowBytes()) {
+                            pos += flush(channel, bb, pos);
+                        }
+                        float[] values = featurize(feature, cell, column.width);
+                        if (column.type == ONE_HOT) {
+                            bb.putInt(indexOfOne(values));
+                        } else {
+                            for (float value : values) {
+                                bb.putFloat(value);
+                            }
+                        }
+
+                        if (index.remaining() < 8) {
+                            indexPos += flush(channel, index, indexPos);
+                        }
+                        index.putLong(rawLength);
+                        byte[] bytes = cell.getBytes(StandardCharsets.UTF_8);
+                        if (raw.remaining() < bytes.length) {
+                            rawPos += flush(channel, raw, rawPos);
+                        }
+                        if (bytes.length > raw.capacity()) {
+                            rawPos += writeFully(channel, ByteBuffer.wrap(bytes), rawPos);
+                        } else {
+                            raw.put(bytes);
+                        }
+                        rawLength += bytes.length;
+                    }
+                    if (index.remaining() < 8) {
+                        indexPos += flush(channel, index, indexPos);
+                    }
+                    index.putLong(rawLength);
+                    flush(channel, bb, pos);
+                    flush(channel, index, indexPos);
+                    flush(channel, raw, rawPos);
+                }
+            }
+            try (Writer writer = Files.newBufferedWriter(statisticsFile(file))) {
+                Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+                for (Column column : list) {
+                    stats.put(column.name, column.toStatistics());
+                }
+                JsonUtils.GSON_PRETTY.toJson(stats, writer);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private void map(Path file) throws IOException {
+        Map<String, Map<String, Object>> stats = null;
+        Path statsFile = statisticsFile(file);
+        if (Files.isRegularFile(statsFile)) {
+            try (Reader reader = Files.newBufferedReader(statsFile)) {
+                Type type = new TypeToken<Map<String, Map<String, Object>>>() {}.getType();
+                stats = JsonUtils.GSON.fromJson(reader, type);
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer bb = read(channel, 0, 20);
+            if (bb.getInt() != MAGIC) {
+                throw new IOException("Invalid columnar file: " + file);
+            }
+            int version = bb.getInt();
+            if (version != VERSION) {
+                throw new IOException(
+                        "Unsupported columnar file version " + version + ", delete: " + file);
+            }
+            rows = bb.getLong();
+            int count = bb.getInt();
+            long pos = 20;
+            columns = new ConcurrentHashMap<>();
+            for (int i = 0; i < count; ++i) {
+                int length = read(channel, pos, 4).getInt();
+                pos += 4;
+                ByteBuffer name = read(channel, pos, length);
+                pos += length;
+                Column column = new Column(StandardCharsets.UTF_8.decode(name).toString());
+                bb = read(channel, pos, 21);
+                pos += 21;
+                column.type = bb.get();
+                column.width = bb.getInt();
+                column.offset = bb.getLong();
+                column.rawOffset = bb.getLong();
+                if (stats != null && stats.containsKey(column.name)) {
+                    column.fromStatistics(stats.get(column.name));
+                }
+                column.map(channel, rows);
+                columns.put(column.name, column);
+            }
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long pos, int size) throws IOException {
+        ByteBuffer bb = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        long position = pos;
+        while (bb.hasRemaining()) {
+            int read = channel.read(bb, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of columnar file.");
+            }
+            position += read;
+        }
+        bb.flip();
+        return bb;
+    }
+
+    private Column getColumn(String name) {
+        Column column = columns.get(name);
+        if (column == null) {
+            throw new IllegalArgumentException("Column not found in columnar file: " + name);
+        }
+        return column;
+    }
+
+    private static Column analyze(TabularDataset dataset, Feature feature, long rows) {
+        Column column = new Column(feature.getName());
+        column.feature = feature;
+        Featurizer featurizer = feature.getFeaturizer();
+        if (featurizer instanceof PreparedFeaturizer) {
+            column.statistics.putAll(((PreparedFeaturizer) featurizer).getStatistics());
+        }
+
+        boolean oneHot = true;
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        column.width = -1;
+        for (long row = 0; row < rows; ++row) {
+            String cell = dataset.getCell(row, feature.getName());
+            column.rawBytes += cell.getBytes(StandardCharsets.UTF_8).length;
+            float[] values = featurize(feature, cell, column.width);
+            column.width = values.length;
+            if (oneHot && column.width > 1) {
+                int index = indexOfOne(values);
+                if (index < 0) {
+                    oneHot = false;
+                } else {
+                    dictionary.putIfAbsent(cell, index);
+                }
+            }
+        }
+        column.width = Math.max(column.width, 0);
+        if (oneHot && column.width > 1) {
+            column.type = ONE_HOT;
+            column.statistics.putIfAbsent("dictionary", dictionary);
+        } else {
+            column.type = FLOAT;
+        }
+        return column;
+    }
+
+    private static float[] featurize(Feature feature, String cell, int expectedWidth) {
+        DynamicBuffer buf = new DynamicBuffer();
+        feature.getFeaturizer().featurize(buf, cell);
+        int length = buf.getLength();
+        if (expectedWidth >= 0 && length != expectedWidth) {
+            throw new IllegalArgumentException(
+                    "Feature "
+                            + feature.getName()
+                            + " has a variable width, expected: "
+                            + expectedWidth
+                            + ", actual: "
+                            + length);
+        }
+        float[] values = new float[length];
+        buf.getBuffer().get(values);
+        return values;
+    }
+
+    private static int indexOfOne(float[] values) {
+        int index = -1;
+        for (int i = 0; i < values.length; ++i) {
+            if (values[i] == 1f) {
+                if (index >= 0) {
+                    return -1;
+                }
+                index = i;
+            } else if (values[i] != 0f) {
+                return -1;
+            }
+        }
+        return index;
+    }
+
+    private static int flush(FileChannel channel, ByteBuffer bb, long pos) throws IOException {
+        bb.flip();
+        int size = writeFully(channel, bb, pos);
+        bb.clear();
+        return size;
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer bb, long pos) throws IOException {
+        int size = bb.remaining();
+        long position = pos;
+        while (bb.hasRemaining()) {
+            position += channel.write(bb, position);
+        }
+        return size;
+    }
+
+    private static int headerSize(List<Column> list) {
+        int size = 20;
+        for (Column column : list) {
+            size += 4 + column.name.getBytes(StandardCharsets.UTF_8).length + 1 + 4 + 8 + 8;
+        }
+        return size;
+    }
+
+    private static ByteBuffer allocate() {
+        return ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static long align(long offset) {
+        return (offset + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    private static Path statisticsFile(Path file) {
+        return Paths.get(file.toString() + ".json");
+    }
+
+    /**
+     * Creates a builder to build a {@link ColumnarDataset}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static final class Column {
+
+        String name;
+        Feature feature;
+        byte type;
+        int width;
+        long offset;
+        long rawOffset;
+        long rawBytes;
+        Map<String, Object> statistics = new LinkedHashMap<>();
+
+        private FloatBuffer[] floatChunks;
+        private IntBuffer[] intChunks;
+        private long rowsPerChunk;
+        private LongBuffer[] indexChunks;
+        private ByteBuffer[] rawChunks;
+
+        Column(String name) {
+            this.name = name;
+        }
+
+        int rowBytes() {
+            return type == ONE_HOT ? 4 : width * 4;
+        }
+
+        void map(FileChannel channel, long rows) throws IOException {
+            long rowBytes = rowBytes();
+            rowsPerChunk = Math.max(1, Integer.MAX_VALUE / rowBytes);
+            int chunks = Math.toIntExact((rows + rowsPerChunk - 1) / rowsPerChunk);
+            if (type == ONE_HOT) {
+                intChunks = new IntBuffer[chunks];
+            } else {
+                floatChunks = new FloatBuffer[chunks];
+            }
+            for (int i = 0; i < chunks; ++i) {
+                long first = i * rowsPerChunk;
+                long size = Math.min(rowsPerChunk, rows - first) * rowBytes;
+                MappedByteBuffer mbb =
+                        channel.map(FileChannel.MapMode.READ_ONLY, offset + first * rowBytes, size);
+                mbb.order(ByteOrder.LITTLE_ENDIAN);
+                if (type == ONE_HOT) {
+                    intChunks[i] = mbb.asIntBuffer();
+                } else {
+                    floatChunks[i] = mbb.asFloatBuffer();
+                }
+            }
+
+            long indexSize = rows + 1;
+            int chunkCount = Math.toIntExact((indexSize + INDEX_CHUNK - 1) / INDEX_CHUNK);
+            indexChunks = new LongBuffer[chunkCount];
+            for (int i = 0; i < chunkCount; ++i) {
+                long first = i * INDEX_CHUNK;
+                long size = Math.min(INDEX_CHUNK, indexSize - first) * 8;
+                MappedByteBuffer mbb =
+                        channel.map(FileChannel.MapMode.READ_ONLY, rawOffset + first * 8, size);
+                indexChunks[i] = mbb.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            }
+            rawBytes = index(rows);
+            long start = rawOffset + indexSize * 8;
+            chunkCount = Math.toIntExact((rawBytes + RAW_CHUNK - 1) / RAW_CHUNK);
+            rawChunks = new ByteBuffer[chunkCount];
+            for (int i = 0; i < chunkCount; ++i) {
+                long first = i * RAW_CHUNK;
+                long size = Math.min(RAW_CHUNK, rawBytes - first);
+                rawChunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start + first, size);
+            }
+        }
+
+        long index(long row) {
+            return indexChunks[(int) (row / INDEX_CHUNK)].get((int) (row % INDEX_CHUNK));
+        }
+
+        String cell(long row) {
+            long start = index(row);
+            byte[] bytes = new byte[Math.toIntExact(index(row + 1) - start)];
+            int pos = 0;
+            while (pos < bytes.length) {
+                long position = start + pos;
+                ByteBuffer chunk = rawChunks[(int) (position / RAW_CHUNK)].duplicate();
+                chunk.position((int) (position % RAW_CHUNK));
+                int length = Math.min(bytes.length - pos, chunk.remaining());
+                chunk.get(bytes, pos, length);
+                pos += length;
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int code(long row) {
+            IntBuffer chunk = intChunks[(int) (row / rowsPerChunk)];
+            return chunk.get((int) (row % rowsPerChunk));
+        }
+
+        FloatBuffer slice(long row) {
+            FloatBuffer chunk = floatChunks[(int) (row / rowsPerChunk)].duplicate();
+            int start = (int) (row % rowsPerChunk) * width;
+            chunk.position(start);
+            chunk.limit(start + width);
+            return chunk.slice();
+        }
+
+        void read(long row, float[] dest, int pos) {
+            if (type == ONE_HOT) {
+                for (int i = 0; i < width; ++i) {
+                    dest[pos + i] = 0f;
+                }
+                dest[pos + code(row)] = 1f;
+            } else {
+                slice(row).get(dest, pos, width);
+            }
+        }
+
+        Map<String, Object> toStatistics() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("type", type == ONE_HOT ? "one_hot" : "float");
+            stats.put("width", width);
+            stats.putAll(statistics);
+            return stats;
+        }
+
+        @SuppressWarnings("unchecked")
+        void fromStatistics(Map<String, Object> stats) {
+            for (Map.Entry<String, Object> entry : stats.entrySet()) {
+                String key = entry.getKey();
+                if ("dictionary".equals(key)) {
+                    // json numbers are parsed as doubles, restore the integer indices
+                    Map<String, Integer> dictionary = new LinkedHashMap<>();
+                    Map<String, Object> dict = (Map<String, Object>) entry.getValue();
+                    for (Map.Entry<String, Object> e : dict.entrySet()) {
+                        dictionary.put(e.getKey(), ((Number) e.getValue()).intValue());
+                    }
+                    statistics.put(key, dictionary);
+                } else if (!"type".equals(key) && !"width".equals(key)) {
+                    statistics.put(key, entry.getValue());
+                }
+            }
+        }
+    }
+
+    /** Used to build a {@link ColumnarDataset}. */
+    public static final class Builder extends TabularDataset.BaseBuilder<Builder> {
+
+        TabularDataset source;
+        Path columnarFile;
+
+        Builder() {}
+
+        /** {@inheritDoc} */
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        /**
+         * Sets the source dataset to convert if the columnar file does not exist yet.
+         *
+         * <p>The features and labels of the source dataset are used unless they are set on this
+         * builder.
+         *
+         * @param source the source dataset
+         * @return this builder
+         */
+        public Builder setSource(TabularDataset source) {
+            this.source = source;
+            return this;
+        }
+
+        /**
+         * Sets the path of the columnar file.
+         *
+         * @param columnarFile the path of the columnar file
+         * @return this builder
+         */
+        public Builder setColumnarFile(Path columnarFile) {
+            this.columnarFile = columnarFile;
+            return this;
+        }
+
+        /**
+         * Builds the new {@link ColumnarDataset}.
+         *
+         * @return the new {@link ColumnarDataset}
+         */
+        public ColumnarDataset build() {
+            if (columnarFile == null) {
+                throw new IllegalArgumentException("Missing columnar file.");
+            }
+            if (source != null) {
+                if (features.isEmpty()) {
+                    features.addAll(source.features);
+                }
+                if (labels.isEmpty()) {
+                    labels.addAll(source.labels);
+                }
+            }
+            validate();
+            return new ColumnarDataset(this);
+        }
+    }
+}
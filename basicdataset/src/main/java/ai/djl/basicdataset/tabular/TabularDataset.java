@@ -18,10 +18,13 @@ import ai.djl.basicdataset.tabular.utils.Featurizers;
 import ai.djl.basicdataset.tabular.utils.PreparedFeaturizer;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
+import ai.djl.training.dataset.BatchRecordDataset;
 import ai.djl.training.dataset.RandomAccessDataset;
 import ai.djl.training.dataset.Record;
 
+import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -29,7 +32,7 @@ import java.util.List;
 import java.util.Map;
 
 /** A abstract class for creating tabular datasets. */
-public abstract class TabularDataset extends RandomAccessDataset {
+public abstract class TabularDataset extends RandomAccessDataset implements BatchRecordDataset {
 
     protected List<Feature> features;
     protected List<Feature> labels;
@@ -80,6 +83,78 @@ public abstract class TabularDataset extends RandomAccessDataset {
         return new NDList(manager.create(buf, new Shape(bb.getLength())));
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Subclasses that override {@link #get(NDManager, long)} should override this method as well
+     * to stay consistent.
+     */
+    @Override
+    public Record getBatch(NDManager manager, List<Long> indices) {
+        NDList data = getBatchFeatures(manager, indices, features);
+
+        NDList label;
+        if (labels.isEmpty()) {
+            label = new NDList();
+        } else {
+            label = getBatchFeatures(manager, indices, labels);
+        }
+
+        return new Record(data, label);
+    }
+
+    /**
+     * Returns the designated features (either data or label features) from a batch of rows.
+     *
+     * <p>All the rows are featurized into a single preallocated buffer and returned as one {@code
+     * [batch, features]} array, which is the same as stacking the results of {@link
+     * #getRowFeatures(NDManager, long, List)}.
+     *
+     * @param manager the manager used to create the arrays
+     * @param indices the indices of the requested data items
+     * @param selected the features to pull from the rows
+     * @return the features formatted as an {@link NDList}
+     */
+    public NDList getBatchFeatures(NDManager manager, List<Long> indices, List<Feature> selected) {
+        int batchSize = indices.size();
+        int width = 0;
+        for (Feature feature : selected) {
+            int required = feature.getFeaturizer().dataRequired();
+            if (required < 0) {
+                // unknown width, featurize the first row to find out
+                width = -1;
+                break;
+            }
+            width += required;
+        }
+        if (width < 0 && batchSize == 0) {
+            width = 0;
+        } else if (width < 0) {
+            DynamicBuffer first = new DynamicBuffer();
+            for (Feature feature : selected) {
+                String value = getCell(indices.get(0), feature.getName());
+                feature.getFeaturizer().featurize(first, value);
+            }
+            width = first.getLength();
+        }
+
+        ByteBuffer data = manager.allocateDirect(batchSize * width * 4);
+        DynamicBuffer bb = new DynamicBuffer(data.asFloatBuffer());
+        for (int i = 0; i < batchSize; ++i) {
+            long index = indices.get(i);
+            for (Feature feature : selected) {
+                String value = getCell(index, feature.getName());
+                feature.getFeaturizer().featurize(bb, value);
+            }
+            if (bb.getLength() != (i + 1) * width) {
+                throw new IllegalStateException(
+                        "Row " + index + " has a different number of features than the batch.");
+            }
+        }
+        // every row has the expected width, so all of them were written into data
+        return new NDList(manager.create(data, new Shape(batchSize, width), DataType.FLOAT32));
+    }
+
     /** Prepares the {@link ai.djl.basicdataset.tabular.utils.PreparedFeaturizer}s. */
     protected void prepareFeaturizers() {
         int availableSize = Math.toIntExact(availableSize());
@@ -25,6 +25,19 @@ public class DynamicBuffer {
         buffer = FloatBuffer.allocate(128);
     }
 
+    /**
+     * Constructs a new instance of {@code DynamicBuffer} that writes into the given buffer.
+     *
+     * <p>The data is written from the beginning of the buffer. If it is too small, the data is
+     * copied into a larger buffer.
+     *
+     * @param buffer the preallocated buffer
+     */
+    public DynamicBuffer(FloatBuffer buffer) {
+        this.buffer = buffer;
+        buffer.clear();
+    }
+
     /**
      * Writes the given float into this buffer at the current position.
      *
@@ -32,13 +45,13 @@ public class DynamicBuffer {
      * @return this buffer
      */
     public DynamicBuffer put(float f) {
-        ++length;
-        if (buffer.capacity() == length) {
+        if (!buffer.hasRemaining()) {
             FloatBuffer buf = buffer;
-            buf.rewind();
-            buffer = FloatBuffer.allocate(length * 2);
+            buf.flip();
+            buffer = FloatBuffer.allocate(Math.max(length * 2, 128));
             buffer.put(buf);
         }
+        ++length;
         buffer.put(f);
         return this;
     }
@@ -22,4 +22,15 @@ public interface Featurizer {
      * @param input the string input
      */
     void featurize(DynamicBuffer buf, String input);
+
+    /**
+     * Returns the number of floats the featurizer puts into the buffer for each input.
+     *
+     * <p>This allows to preallocate the buffer for a whole batch of rows.
+     *
+     * @return the number of floats for each input, or -1 if it is not fixed
+     */
+    default int dataRequired() {
+        return -1;
+    }
 }
@@ -15,8 +15,10 @@ package ai.djl.basicdataset.tabular.utils;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -106,6 +108,12 @@ public final class Featurizers {
         public void featurize(DynamicBuffer buf, String input) {
             buf.put(Float.parseFloat(input));
         }
+
+        /** {@inheritDoc} */
+        @Override
+        public int dataRequired() {
+            return 1;
+        }
     }
 
     private static final class NormalizedNumericFeaturizer implements PreparedFeaturizer {
@@ -120,6 +128,12 @@ public final class Featurizers {
             buf.put(value);
         }
 
+        /** {@inheritDoc} */
+        @Override
+        public int dataRequired() {
+            return 1;
+        }
+
         /** {@inheritDoc} */
         @Override
         public void prepare(List<String> inputs) {
@@ -127,6 +141,15 @@ public final class Featurizers {
             calculateStd(inputs);
         }
 
+        /** {@inheritDoc} */
+        @Override
+        public Map<String, Object> getStatistics() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("mean", mean);
+            stats.put("std", std);
+            return stats;
+        }
+
         private void calculateMean(List<String> inputs) {
             double sum = 0;
             for (String input : inputs) {
@@ -158,6 +181,12 @@ public final class Featurizers {
                 buf.put(i == map.get(input) ? 1 : 0);
             }
         }
+
+        /** {@inheritDoc} */
+        @Override
+        public int dataRequired() {
+            return map == null ? -1 : map.size();
+        }
     }
 
     private static final class PreparedOneHotStringFeaturizer extends OneHotStringFeaturizer
@@ -178,6 +207,14 @@ public final class Featurizers {
                 }
             }
         }
+
+        /** {@inheritDoc} */
+        @Override
+        public Map<String, Object> getStatistics() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("dictionary", new TreeMap<>(map));
+            return stats;
+        }
     }
 
     private static final class StringFeaturizer implements Featurizer {
@@ -210,6 +247,12 @@ public final class Featurizers {
             map.put(input, value);
             buf.put(value);
         }
+
+        /** {@inheritDoc} */
+        @Override
+        public int dataRequired() {
+            return 1;
+        }
     }
 
     /**
@@ -243,5 +286,11 @@ public final class Featurizers {
             long day = ld.toEpochDay();
             buf.put(day);
         }
+
+        /** {@inheritDoc} */
+        @Override
+        public int dataRequired() {
+            return 1;
+        }
     }
 }
@@ -12,7 +12,9 @@
  */
 package ai.djl.basicdataset.tabular.utils;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /** A {@link Featurizer} that must be prepared with the possible feature values before use. */
 public interface PreparedFeaturizer extends Featurizer {
@@ -23,4 +25,14 @@ public interface PreparedFeaturizer extends Featurizer {
      * @param inputs the possible inputs
      */
     void prepare(List<String> inputs);
+
+    /**
+     * Returns the statistics computed by {@link #prepare(List)}, for example the mean and standard
+     * deviation of a normalized numeric feature.
+     *
+     * @return the statistics of the prepared featurizer by name
+     */
+    default Map<String, Object> getStatistics() {
+        return Collections.emptyMap();
+    }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.basicdataset.utils;
+
+import ai.djl.basicdataset.nlp.TextDataset;
+import ai.djl.training.dataset.RandomAccessDataset;
+import ai.djl.training.dataset.Sampler;
+import ai.djl.util.RandomUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * {@code TokenBudgetSampler} is a {@code Sampler} to be used with {@link TextDataset}, and {@link
+ * ai.djl.translate.PaddingStackBatchifier}, that forms batches by a maximum number of tokens rather
+ * than a fixed number of samples.
+ *
+ * <p>Samples are sorted by length, and consecutive samples are grouped as long as the padded size
+ * of the batch, the number of samples times the longest length, stays within the token budget.
+ * Batches of short sentences hold more samples than batches of long sentences, and little padding
+ * is needed in either. The sentence lengths are the ones computed by {@link
+ * TextDataset#getSamples()} when the dataset is prepared.
+ */
+public class TokenBudgetSampler implements Sampler {
+
+    private int maxTokens;
+    private int maxBatchSize;
+    private boolean shuffle;
+
+    /**
+     * Constructs a new instance of {@code TokenBudgetSampler} with the given token budget.
+     *
+     * @param maxTokens the maximum number of tokens in a batch, including padding
+     */
+    public TokenBudgetSampler(int maxTokens) {
+        this(maxTokens, maxTokens, true);
+    }
+
+    /**
+     * Constructs a new instance of {@code TokenBudgetSampler} with the given token budget.
+     *
+     * <p>A sample longer than {@code maxTokens} forms a batch on its own.
+     *
+     * @param maxTokens the maximum number of tokens in a batch, including padding
+     * @param maxBatchSize the maximum number of samples in a batch
+     * @param shuffle whether to shuffle data randomly while sampling
+     */
+    public TokenBudgetSampler(int maxTokens, int maxBatchSize, boolean shuffle) {
+        if (maxTokens <= 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxTokens and maxBatchSize must be positive");
+        }
+        this.maxTokens = maxTokens;
+        this.maxBatchSize = maxBatchSize;
+        this.shuffle = shuffle;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Iterator<List<Long>> sample(RandomAccessDataset dataset) {
+        if (!(dataset instanceof TextDataset)) {
+            throw new IllegalArgumentException(
+                    "TokenBudgetSampler can only be used with TextDataset");
+        }
+        List<TextDataset.Sample> samples = ((TextDataset) dataset).getSamples();
+        if (shuffle) {
+            // randomize the order of samples of the same length, the sort is stable
+            samples = new ArrayList<>(samples);
+            Collections.shuffle(samples, RandomUtils.RANDOM);
+            samples.sort(Comparator.comparingInt(TextDataset.Sample::getSentenceLength));
+        }
+
+        List<List<Long>> batches = new ArrayList<>();
+        List<Long> batch = new ArrayList<>();
+        for (TextDataset.Sample sample : samples) {
+            // samples are sorted, so the current sample is the longest of the batch
+            long length = Math.max(sample.getSentenceLength(), 1);
+            if (!batch.isEmpty()
+                    && (batch.size() >= maxBatchSize || (batch.size() + 1) * length > maxTokens)) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+            }
+            batch.add(sample.getIndex());
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        if (shuffle) {
+            Collections.shuffle(batches, RandomUtils.RANDOM);
+        }
+        return batches.iterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This is the maximum batch size, the actual size of each batch depends on the length of its
+     * samples.
+     */
+    @Override
+    public int getBatchSize() {
+        return maxBatchSize;
+    }
+}
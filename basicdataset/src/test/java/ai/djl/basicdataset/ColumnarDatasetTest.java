@@ -0,0 +1,186 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.basicdataset;
+
+import ai.djl.basicdataset.tabular.ColumnarDataset;
+import ai.djl.basicdataset.tabular.CsvDataset;
+import ai.djl.basicdataset.tabular.TabularDataset;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.training.dataset.Record;
+import ai.djl.translate.TranslateException;
+import ai.djl.util.Utils;
+
+import org.apache.commons.csv.CSVFormat;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class ColumnarDatasetTest {
+
+    private Path dir;
+    private CsvDataset source;
+
+    @BeforeClass
+    public void setUp() throws IOException, TranslateException {
+        dir = Paths.get("build/tmp/columnar");
+        Utils.deleteQuietly(dir);
+        Files.createDirectories(dir);
+        Path csv = dir.resolve("source.csv");
+        List<String> lines =
+                Arrays.asList(
+                        "x,color,label",
+                        "1.5,red,10",
+                        "-2.25,green,20",
+                        "3.0,\"blue, dark\",30",
+                        "0.125,red,40",
+                        "7.75,ünïcödé,50");
+        Files.write(csv, lines, StandardCharsets.UTF_8);
+
+        source =
+                CsvDataset.builder()
+                        .optCsvFile(csv)
+                        .setCsvFormat(
+                                CSVFormat.DEFAULT
+                                        .builder()
+                                        .setHeader()
+                                        .setSkipHeaderRecord(true)
+                                        .build())
+                        .addNumericFeature("x", true)
+                        .addCategoricalFeature("color", true)
+                        .addNumericLabel("label")
+                        .setSampling(2, false)
+                        .build();
+        source.prepare();
+    }
+
+    @AfterClass
+    public void tearDown() {
+        Utils.deleteQuietly(dir);
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException, TranslateException {
+        ColumnarDataset dataset = columnar(source, dir.resolve("dataset.djlc"));
+        Assert.assertEquals(dataset.size(), source.size());
+        Assert.assertTrue(Files.exists(dir.resolve("dataset.djlc.json")));
+        try (NDManager manager = NDManager.newBaseManager()) {
+            assertSameRecords(manager, source, dataset);
+        }
+
+        // reopen the existing file without a source
+        ColumnarDataset reopened =
+                ColumnarDataset.builder()
+                        .setColumnarFile(dir.resolve("dataset.djlc"))
+                        .addNumericFeature("x")
+                        .addCategoricalFeature("color")
+                        .addNumericLabel("label")
+                        .setSampling(2, false)
+                        .build();
+        reopened.prepare();
+        try (NDManager manager = NDManager.newBaseManager()) {
+            assertSameRecords(manager, source, reopened);
+        }
+        Assert.assertEquals(reopened.getStatistics(), dataset.getStatistics());
+
+        // the raw cells are preserved, so the columnar dataset can be converted again
+        ColumnarDataset copy = columnar(dataset, dir.resolve("copy.djlc"));
+        try (NDManager manager = NDManager.newBaseManager()) {
+            assertSameRecords(manager, source, copy);
+        }
+    }
+
+    @Test
+    public void testStatistics() throws IOException, TranslateException {
+        ColumnarDataset dataset = columnar(source, dir.resolve("statistics.djlc"));
+        Map<String, Map<String, Object>> stats = dataset.getStatistics();
+
+        Map<String, Object> x = stats.get("x");
+        Assert.assertEquals(x.get("type"), "float");
+        Assert.assertEquals(x.get("width"), 1);
+        double[] values = {1.5, -2.25, 3.0, 0.125, 7.75};
+        double mean = Arrays.stream(values).average().orElse(0);
+        double variance = Arrays.stream(values).map(v -> (v - mean) * (v - mean)).sum() / 5;
+        Assert.assertEquals(((Number) x.get("mean")).doubleValue(), mean, 1e-5);
+        Assert.assertEquals(((Number) x.get("std")).doubleValue(), Math.sqrt(variance), 1e-5);
+
+        Map<String, Object> color = stats.get("color");
+        Assert.assertEquals(color.get("type"), "one_hot");
+        Assert.assertEquals(color.get("width"), 4);
+        Map<?, ?> dictionary = (Map<?, ?>) color.get("dictionary");
+        Assert.assertEquals(dictionary.get("blue, dark"), 0);
+        Assert.assertEquals(dictionary.get("ünïcödé"), 3);
+
+        Map<String, Object> label = stats.get("label");
+        Assert.assertEquals(label.get("type"), "float");
+        Assert.assertFalse(label.containsKey("mean"));
+    }
+
+    @Test
+    public void testWriteFailure() throws IOException {
+        Path file = dir.resolve("failure/dataset.djlc");
+        // a directory in place of the statistics file fails the write after the data is written
+        Files.createDirectories(dir.resolve("failure/dataset.djlc.json"));
+        Assert.assertThrows(IOException.class, () -> columnar(source, file));
+        Assert.assertTrue(Files.notExists(file));
+        try (Stream<Path> stream = Files.list(file.getParent())) {
+            Assert.assertEquals(stream.count(), 1);
+        }
+    }
+
+    private static ColumnarDataset columnar(TabularDataset source, Path file)
+            throws IOException, TranslateException {
+        ColumnarDataset dataset =
+                ColumnarDataset.builder()
+                        .setSource(source)
+                        .setColumnarFile(file)
+                        .setSampling(2, false)
+                        .build();
+        dataset.prepare();
+        return dataset;
+    }
+
+    private static void assertSameRecords(
+            NDManager manager, TabularDataset expected, ColumnarDataset actual) {
+        long size = expected.size();
+        for (long i = 0; i < size; ++i) {
+            assertSame(expected.get(manager, i), actual.get(manager, i));
+        }
+        List<Long> indices = Arrays.asList(4L, 0L, 2L);
+        assertSame(expected.getBatch(manager, indices), actual.getBatch(manager, indices));
+    }
+
+    private static void assertSame(Record expected, Record actual) {
+        assertSame(expected.getData(), actual.getData());
+        assertSame(expected.getLabels(), actual.getLabels());
+    }
+
+    private static void assertSame(NDList expected, NDList actual) {
+        Assert.assertEquals(actual.size(), expected.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            Assert.assertEquals(actual.get(i).getShape(), expected.get(i).getShape());
+            Assert.assertEquals(actual.get(i).toFloatArray(), expected.get(i).toFloatArray());
+        }
+    }
+}
@@ -13,6 +13,7 @@
 package ai.djl.basicdataset;
 
 import ai.djl.Model;
+import ai.djl.basicdataset.cv.FusedImageTransform;
 import ai.djl.basicdataset.cv.classification.ImageFolder;
 import ai.djl.modality.cv.ImageFactory;
 import ai.djl.modality.cv.transform.Resize;
@@ -20,6 +21,7 @@ import ai.djl.modality.cv.transform.ToTensor;
 import ai.djl.modality.cv.util.NDImageUtils;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
 import ai.djl.nn.Blocks;
 import ai.djl.repository.Repository;
 import ai.djl.testing.Assertions;
@@ -112,6 +114,56 @@ public class ImageFolderTest {
         }
     }
 
+    @Test
+    public void testFusedTransform() throws IOException, TranslateException {
+        Repository repository = Repository.newInstance("test", "src/test/resources/imagefolder");
+        TrainingConfig config = new DefaultTrainingConfig(Loss.softmaxCrossEntropyLoss());
+
+        try (Model model = Model.newInstance("model")) {
+            model.setBlock(Blocks.identityBlock());
+
+            float[] mean = {0.485f, 0.456f, 0.406f};
+            float[] std = {0.229f, 0.224f, 0.225f};
+            FusedImageTransform transform =
+                    FusedImageTransform.builder()
+                            .setImageSize(100, 100)
+                            .optNormalize(mean, std)
+                            .build();
+            ImageFolder dataset =
+                    ImageFolder.builder()
+                            .setRepository(repository)
+                            .optFusedTransform(transform)
+                            .optDecodeThreads(2)
+                            .setSampling(1, false)
+                            .build();
+            Assert.assertEquals(dataset.getImageWidth().orElse(0), Integer.valueOf(100));
+
+            try (Trainer trainer = model.newTrainer(config)) {
+                NDManager manager = trainer.getManager();
+                // the 450x300 image is decoded at 150x100
+                NDArray cat =
+                        ImageFactory.getInstance()
+                                .fromFile(
+                                        Paths.get("src/test/resources/imagefolder/cat/kitten.jpg"),
+                                        100,
+                                        100)
+                                .toNDArray(manager);
+                Assert.assertEquals(cat.getShape(), new Shape(100, 150, 3));
+                NDArray expected =
+                        NDImageUtils.normalize(
+                                NDImageUtils.toTensor(NDImageUtils.resize(cat, 100, 100)),
+                                mean,
+                                std);
+
+                Batch catBatch = trainer.iterateDataset(dataset).iterator().next();
+                // the fused transform doesn't round the resized image to integers
+                Assertions.assertAlmostEquals(
+                        catBatch.getData().singletonOrThrow(), expected.expandDims(0), 0, 2e-2);
+                catBatch.close();
+            }
+        }
+    }
+
     @Test
     public void testRandomSplit() throws IOException, TranslateException {
         Repository repository = Repository.newInstance("test", "src/test/resources/imagefolder");
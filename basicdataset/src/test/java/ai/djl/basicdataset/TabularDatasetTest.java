@@ -0,0 +1,135 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.basicdataset;
+
+import ai.djl.basicdataset.tabular.CsvDataset;
+import ai.djl.basicdataset.tabular.utils.DynamicBuffer;
+import ai.djl.basicdataset.tabular.utils.Feature;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.training.dataset.Record;
+import ai.djl.translate.TranslateException;
+import ai.djl.util.Utils;
+
+import org.apache.commons.csv.CSVFormat;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class TabularDatasetTest {
+
+    private Path dir;
+    private Path csv;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        dir = Paths.get("build/tmp/tabular");
+        Utils.deleteQuietly(dir);
+        Files.createDirectories(dir);
+        csv = dir.resolve("source.csv");
+        List<String> lines =
+                Arrays.asList(
+                        "x,color,label",
+                        "1.5,red,10",
+                        "-2.25,green,20",
+                        "3.0,blue,30",
+                        "0.125,red,40",
+                        "7.75,green,50");
+        Files.write(csv, lines, StandardCharsets.UTF_8);
+    }
+
+    @AfterClass
+    public void tearDown() {
+        Utils.deleteQuietly(dir);
+    }
+
+    @Test
+    public void testGetBatch() throws IOException, TranslateException {
+        CsvDataset dataset =
+                builder()
+                        .addNumericFeature("x", true)
+                        .addCategoricalFeature("color", true)
+                        .addNumericLabel("label")
+                        .build();
+        dataset.prepare();
+        assertBatch(dataset);
+    }
+
+    @Test
+    public void testGetBatchUnknownWidth() throws IOException, TranslateException {
+        // the featurizer does not report its width, so it is inferred from the first row
+        Feature pair =
+                new Feature(
+                        "x",
+                        (DynamicBuffer buf, String input) -> {
+                            float value = Float.parseFloat(input);
+                            buf.put(value).put(-value);
+                        });
+        CsvDataset dataset = builder().addFeature(pair).addNumericLabel("label").build();
+        dataset.prepare();
+        assertBatch(dataset);
+
+        try (NDManager manager = NDManager.newBaseManager()) {
+            Record batch = dataset.getBatch(manager, Collections.emptyList());
+            Assert.assertEquals(batch.getData().head().getShape(), new Shape(0, 0));
+            Assert.assertEquals(batch.getLabels().head().getShape(), new Shape(0, 1));
+        }
+    }
+
+    private CsvDataset.CsvBuilder<?> builder() {
+        return CsvDataset.builder()
+                .optCsvFile(csv)
+                .setCsvFormat(
+                        CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build())
+                .setSampling(2, false);
+    }
+
+    private static void assertBatch(CsvDataset dataset) {
+        List<Long> indices = Arrays.asList(3L, 0L, 4L, 1L);
+        try (NDManager manager = NDManager.newBaseManager()) {
+            NDList[] data = new NDList[indices.size()];
+            NDList[] labels = new NDList[indices.size()];
+            for (int i = 0; i < data.length; ++i) {
+                Record record = dataset.get(manager, indices.get(i));
+                data[i] = record.getData();
+                labels[i] = record.getLabels();
+            }
+            Record batch = dataset.getBatch(manager, indices);
+            assertStacked(batch.getData(), data);
+            assertStacked(batch.getLabels(), labels);
+        }
+    }
+
+    private static void assertStacked(NDList actual, NDList[] rows) {
+        NDArray array = actual.singletonOrThrow();
+        long width = rows[0].singletonOrThrow().size();
+        Assert.assertEquals(array.getShape(), new Shape(rows.length, width));
+        float[] values = array.toFloatArray();
+        for (int i = 0; i < rows.length; ++i) {
+            float[] row = Arrays.copyOfRange(values, (int) (i * width), (int) ((i + 1) * width));
+            Assert.assertEquals(row, rows[i].singletonOrThrow().toFloatArray());
+        }
+    }
+}
@@ -30,6 +30,7 @@ import com.sun.jna.Pointer;
 
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.IntBuffer;
 import java.nio.charset.Charset;
 import java.util.Arrays;
@@ -294,7 +295,9 @@ public class MxNDArray extends NativeResource<Pointer> implements LazyNDArray {
         DataType dType = getDataType();
         long product = sh.size();
         long len = dType.getNumOfBytes() * product;
-        ByteBuffer bb = manager.allocateDirect(Math.toIntExact(len));
+        // the caller keeps the buffer, so it must not come from the manager's buffer pool
+        ByteBuffer bb = ByteBuffer.allocateDirect(Math.toIntExact(len));
+        bb.order(ByteOrder.nativeOrder());
         Pointer pointer = Native.getDirectBufferPointer(bb);
         JnaUtils.syncCopyToCPU(getHandle(), pointer, Math.toIntExact(product));
         return bb;
@@ -17,7 +17,6 @@ import ai.djl.engine.EngineException;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
-import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
 import ai.djl.nn.AbstractSymbolBlock;
 import ai.djl.nn.ParameterList;
@@ -25,6 +24,7 @@ import ai.djl.nn.SymbolBlock;
 import ai.djl.training.ParameterStore;
 import ai.djl.util.PairList;
 import ai.onnxruntime.OnnxJavaType;
+import ai.onnxruntime.OnnxMap;
 import ai.onnxruntime.OnnxSequence;
 import ai.onnxruntime.OnnxTensor;
 import ai.onnxruntime.OnnxValue;
@@ -33,11 +33,18 @@ import ai.onnxruntime.OrtSession;
 import ai.onnxruntime.SequenceInfo;
 
 import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * {@code OrtSymbolBlock} is the ONNX Runtime implementation of {@link SymbolBlock}.
@@ -49,6 +56,8 @@ public class OrtSymbolBlock extends AbstractSymbolBlock implements AutoCloseable
 
     private OrtSession session;
     private OrtNDManager manager;
+    private List<String> inputNames;
+    private Set<String> inputNameSet;
 
     /**
      * Constructs a {@code OrtSymbolBlock}.
@@ -62,6 +71,8 @@ public class OrtSymbolBlock extends AbstractSymbolBlock implements AutoCloseable
     public OrtSymbolBlock(OrtSession session, OrtNDManager manager) {
         this.session = session;
         this.manager = manager;
+        inputNameSet = session.getInputNames();
+        inputNames = new ArrayList<>(inputNameSet);
         manager.attachInternal(UUID.randomUUID().toString(), this);
     }
 
@@ -78,14 +89,22 @@ public class OrtSymbolBlock extends AbstractSymbolBlock implements AutoCloseable
             NDList inputs,
             boolean training,
             PairList<String, Object> params) {
-        List<String> inputNames = new ArrayList<>(session.getInputNames());
         if (inputs.size() != inputNames.size()) {
             throw new IllegalArgumentException("Input mismatch, looking for: " + inputNames);
         }
 
-        Map<String, OnnxTensor> container = new ConcurrentHashMap<>();
+        // Only create a sub manager if some inputs need to be converted to OnnxTensor
+        boolean convert = false;
+        for (NDArray input : inputs) {
+            if (!(input instanceof OrtNDArray)) {
+                convert = true;
+                break;
+            }
+        }
+        OrtNDManager sub = convert ? (OrtNDManager) manager.newSubManager() : manager;
+        Map<String, OnnxTensor> container = new LinkedHashMap<>(inputNames.size() * 2);
         // forward
-        try (OrtNDManager sub = (OrtNDManager) manager.newSubManager()) {
+        try {
             // If input data has name
             if (inputs.get(0).getName() != null) {
                 for (NDArray input : inputs) {
@@ -94,7 +113,7 @@ public class OrtSymbolBlock extends AbstractSymbolBlock implements AutoCloseable
                         throw new IllegalArgumentException(
                                 "All or none of input tensors must have a name.");
                     }
-                    if (!inputNames.contains(name)) {
+                    if (!inputNameSet.contains(name)) {
                         throw new IllegalArgumentException("Invalid input tensor name: " + name);
                     }
                     OrtNDArray ortNDArray = sub.from(input);
@@ -114,6 +133,10 @@ public class OrtSymbolBlock extends AbstractSymbolBlock implements AutoCloseable
             return ret;
         } catch (OrtException e) {
             throw new EngineException(e);
+        } finally {
+            if (convert) {
+                sub.close();
+            }
         }
     }
 
@@ -134,8 +157,11 @@ public class OrtSymbolBlock extends AbstractSymbolBlock implements AutoCloseable
             if ((value instanceof OnnxTensor)) {
                 output.add(manager.createInternal((OnnxTensor) value));
             } else if (value instanceof OnnxSequence) {
-                // TODO: avoid memory copying to heap
                 output.add(seq2Nd((OnnxSequence) value));
+                value.close();
+            } else if (value instanceof OnnxMap) {
+                output.add(map2Nd((OnnxMap) value));
+                value.close();
             } else {
                 throw new UnsupportedOperationException("Unsupported output type! " + r.getKey());
             }
@@ -143,53 +169,151 @@ public class OrtSymbolBlock extends AbstractSymbolBlock implements AutoCloseable
         return output;
     }
 
-    @SuppressWarnings("unchecked")
     private NDArray seq2Nd(OnnxSequence seq) {
         try {
+            // the ONNX Runtime Java API only exposes sequences and maps as boxed values, they are
+            // unboxed straight into a direct buffer in a single pass
             List<Object> values = seq.getValue();
-            OnnxJavaType type = seq.getInfo().sequenceType;
-            Shape shape = new Shape(values.size());
-            DataType dp;
             SequenceInfo info = seq.getInfo();
             if (info.sequenceOfMaps) {
-                type = info.mapInfo.valueType;
-                List<Object> valuesTmp = new ArrayList<>();
-                values.forEach(map -> valuesTmp.addAll(((Map<Object, Object>) map).values()));
-                shape = new Shape(values.size(), valuesTmp.size() / values.size());
-                values = valuesTmp;
+                return fromMaps(manager, values, info.mapInfo.valueType);
             }
-            ByteBuffer buffer = ByteBuffer.allocate(values.size() * type.size);
-            switch (type) {
-                case FLOAT:
-                    values.forEach(ele -> buffer.putFloat((Float) ele));
-                    buffer.rewind();
-                    return manager.create(buffer.asFloatBuffer(), shape, DataType.FLOAT32);
-                case DOUBLE:
-                    values.forEach(ele -> buffer.putDouble((Double) ele));
-                    buffer.rewind();
-                    return manager.create(buffer.asDoubleBuffer(), shape, DataType.FLOAT64);
-                case BOOL:
-                case INT8:
-                    dp = (type == OnnxJavaType.BOOL) ? DataType.BOOLEAN : DataType.INT8;
-                    values.forEach(ele -> buffer.put((Byte) ele));
-                    buffer.rewind();
-                    return manager.create(buffer, shape, dp);
-                case INT32:
-                    values.forEach(ele -> buffer.putInt((Integer) ele));
-                    buffer.rewind();
-                    return manager.create(buffer.asIntBuffer(), shape, DataType.INT32);
-                case INT64:
-                    values.forEach(ele -> buffer.putLong((Long) ele));
-                    buffer.rewind();
-                    return manager.create(buffer.asLongBuffer(), shape, DataType.INT64);
-                default:
-                    throw new UnsupportedOperationException("type is not supported: " + type);
+            return fromValues(manager, values, info.sequenceType);
+        } catch (OrtException e) {
+            throw new EngineException(e);
+        }
+    }
+
+    private NDArray map2Nd(OnnxMap map) {
+        try {
+            Map<Object, Object> values = map.getValue();
+            List<Object> ordered = new ArrayList<>(values.size());
+            for (Object key : sortedKeys(values)) {
+                ordered.add(values.get(key));
             }
+            return fromValues(manager, ordered, map.getInfo().valueType);
         } catch (OrtException e) {
             throw new EngineException(e);
         }
     }
 
+    /**
+     * Converts a sequence of maps, for example the output of a ZipMap operator, into a {@code
+     * (sequence length, map size)} array.
+     *
+     * <p>The values of each map are ordered by key. All the maps must have the same keys.
+     *
+     * @param manager the manager to create the array
+     * @param maps the maps
+     * @param type the type of the values
+     * @return the {@code NDArray}
+     */
+    static NDArray fromMaps(OrtNDManager manager, List<?> maps, OnnxJavaType type) {
+        int rows = maps.size();
+        List<Object> keys =
+                rows == 0 ? Collections.emptyList() : sortedKeys((Map<?, ?>) maps.get(0));
+        int cols = keys.size();
+        ByteBuffer bb = manager.allocateDirect(rows * cols * type.size);
+        List<Object> row = new ArrayList<>(cols);
+        for (int i = 0; i < rows; ++i) {
+            Map<?, ?> map = (Map<?, ?>) maps.get(i);
+            if (map.size() != cols) {
+                throw new EngineException(
+                        "Map "
+                                + i
+                                + " of the sequence has "
+                                + map.size()
+                                + " entries, expected: "
+                                + cols);
+            }
+            row.clear();
+            for (Object key : keys) {
+                Object value = map.get(key);
+                if (value == null) {
+                    throw new EngineException("Map " + i + " of the sequence has no key: " + key);
+                }
+                row.add(value);
+            }
+            put(bb, type, row);
+        }
+        return toNDArray(manager, bb, new Shape(rows, cols), type);
+    }
+
+    /**
+     * Converts a sequence of values into a one dimensional array.
+     *
+     * @param manager the manager to create the array
+     * @param values the values
+     * @param type the type of the values
+     * @return the {@code NDArray}
+     */
+    static NDArray fromValues(OrtNDManager manager, Collection<?> values, OnnxJavaType type) {
+        ByteBuffer bb = manager.allocateDirect(values.size() * type.size);
+        put(bb, type, values);
+        return toNDArray(manager, bb, new Shape(values.size()), type);
+    }
+
+    private static List<Object> sortedKeys(Map<?, ?> map) {
+        List<Object> keys = new ArrayList<>(map.keySet());
+        keys.sort(null);
+        return keys;
+    }
+
+    private static NDArray toNDArray(
+            OrtNDManager manager, ByteBuffer bb, Shape shape, OnnxJavaType type) {
+        bb.rewind();
+        // the buffer is direct and in native order, so OnnxTensor uses it without copying
+        return manager.create(bb, shape, OrtUtils.toDataType(type));
+    }
+
+    private static void put(ByteBuffer bb, OnnxJavaType type, Collection<?> values) {
+        // write through a typed view to avoid a type switch and a bounds check per byte
+        int count = values.size();
+        switch (type) {
+            case FLOAT:
+                FloatBuffer fb = bb.asFloatBuffer();
+                for (Object value : values) {
+                    fb.put((Float) value);
+                }
+                break;
+            case DOUBLE:
+                DoubleBuffer db = bb.asDoubleBuffer();
+                for (Object value : values) {
+                    db.put((Double) value);
+                }
+                break;
+            case BOOL:
+                for (Object value : values) {
+                    if (value instanceof Boolean) {
+                        bb.put((byte) ((Boolean) value ? 1 : 0));
+                    } else {
+                        bb.put((Byte) value);
+                    }
+                }
+                return;
+            case INT8:
+                for (Object value : values) {
+                    bb.put((Byte) value);
+                }
+                return;
+            case INT32:
+                IntBuffer ib = bb.asIntBuffer();
+                for (Object value : values) {
+                    ib.put((Integer) value);
+                }
+                break;
+            case INT64:
+                LongBuffer lb = bb.asLongBuffer();
+                for (Object value : values) {
+                    lb.put((Long) value);
+                }
+                break;
+            default:
+                throw new UnsupportedOperationException("type is not supported: " + type);
+        }
+        bb.position(bb.position() + count * type.size);
+    }
+
     /** {@inheritDoc} */
     @Override
     public void close() {
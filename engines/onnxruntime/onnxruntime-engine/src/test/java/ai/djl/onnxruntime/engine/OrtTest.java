@@ -14,17 +14,21 @@ package ai.djl.onnxruntime.engine;
 
 import ai.djl.Model;
 import ai.djl.ModelException;
+import ai.djl.engine.EngineException;
 import ai.djl.inference.Predictor;
 import ai.djl.modality.Classifications;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.index.NDIndex;
+import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
 import ai.djl.onnxruntime.zoo.tabular.softmax_regression.IrisFlower;
 import ai.djl.repository.zoo.Criteria;
 import ai.djl.repository.zoo.ZooModel;
 import ai.djl.testing.TestRequirements;
 import ai.djl.translate.TranslateException;
+import ai.onnxruntime.OnnxJavaType;
 
 import org.testng.Assert;
 import org.testng.SkipException;
@@ -34,6 +38,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 public class OrtTest {
 
@@ -114,6 +122,45 @@ public class OrtTest {
         }
     }
 
+    @Test
+    public void testJavaOperations() {
+        TestRequirements.notArm();
+
+        try (NDManager manager = OrtNDManager.getSystemManager().newSubManager()) {
+            NDArray array = manager.create(new float[] {1f, 5f, 3f, 2f, 4f, 6f}, new Shape(2, 3));
+            NDArray other = manager.create(new float[] {1f, 2f, 3f});
+            Assert.assertEquals(
+                    array.add(other).toFloatArray(), new float[] {2f, 7f, 6f, 3f, 6f, 9f});
+            Assert.assertEquals(array.mul(2).toFloatArray(), new float[] {2, 10, 6, 4, 8, 12});
+            Assert.assertEquals(
+                    array.gt(other).toBooleanArray(),
+                    new boolean[] {false, true, false, true, true, true});
+            Assert.assertEquals(array.sum(new int[] {0}).toFloatArray(), new float[] {3, 9, 9});
+            Assert.assertEquals(array.max(new int[] {1}, true).getShape(), new Shape(2, 1));
+            Assert.assertEquals(array.mean().getFloat(), 3.5f);
+            Assert.assertEquals(array.argMax(1).toLongArray(), new long[] {1, 2});
+            Assert.assertEquals(array.argMin().getLong(), 0);
+            Assert.assertEquals(
+                    array.argSort(1, false).toLongArray(), new long[] {1, 2, 0, 2, 1, 0});
+
+            float[] softmax = array.softmax(-1).toFloatArray();
+            float sum = softmax[0] + softmax[1] + softmax[2];
+            Assert.assertEquals(sum, 1f, 1e-6);
+            Assert.assertEquals(array.logSoftmax(-1).exp().toFloatArray(), softmax, 1e-6f);
+
+            NDArray row = array.get("1, 1:");
+            Assert.assertEquals(row.getShape(), new Shape(2));
+            Assert.assertEquals(row.toFloatArray(), new float[] {4f, 6f});
+            Assert.assertEquals(array.get(":, 0").toFloatArray(), new float[] {1f, 2f});
+
+            array.set(new NDIndex(":, 1"), 0);
+            Assert.assertEquals(array.toFloatArray(), new float[] {1, 0, 3, 2, 0, 6});
+            Assert.assertEquals(array.reshape(-1, 2).getShape(), new Shape(3, 2));
+            Assert.assertEquals(array.expandDims(0).squeeze(0).getShape(), new Shape(2, 3));
+            Assert.assertEquals(array.toType(DataType.INT32, false).toIntArray()[2], 3);
+        }
+    }
+
     @Test
     public void testStringTensor() throws ModelException, IOException, TranslateException {
         TestRequirements.notArm();
@@ -139,4 +186,81 @@ public class OrtTest {
         }
         System.clearProperty("ai.djl.onnx.disable_alternative");
     }
+
+    @Test
+    public void testSequenceOfMaps() throws ModelException, IOException, TranslateException {
+        TestRequirements.notArm();
+
+        Criteria<NDList, NDList> criteria =
+                Criteria.builder()
+                        .setTypes(NDList.class, NDList.class)
+                        .optEngine("OnnxRuntime")
+                        .optModelPath(Paths.get("src/test/resources/zipmap.onnx"))
+                        .build();
+        try (ZooModel<NDList, NDList> model = criteria.loadModel();
+                Predictor<NDList, NDList> predictor = model.newPredictor()) {
+            NDManager manager = model.getNDManager();
+            float[] data = {0.1f, 0.2f, 0.7f, 0.5f, 0.3f, 0.2f};
+            NDArray x = manager.create(data, new Shape(2, 3));
+            NDList result = predictor.predict(new NDList(x));
+            Assert.assertEquals(result.size(), 2);
+
+            // ZipMap with class labels 0, 1, 2
+            NDArray ints = result.get(0);
+            Assert.assertEquals(ints.getShape(), new Shape(2, 3));
+            Assert.assertEquals(ints.toFloatArray(), data);
+
+            // ZipMap with class labels b, c, a, the columns are ordered by key
+            NDArray strings = result.get(1);
+            Assert.assertEquals(strings.getShape(), new Shape(2, 3));
+            Assert.assertEquals(
+                    strings.toFloatArray(), new float[] {0.7f, 0.1f, 0.2f, 0.2f, 0.5f, 0.3f});
+        }
+    }
+
+    @Test
+    public void testSequenceConversion() {
+        TestRequirements.notArm();
+
+        try (OrtNDManager manager =
+                (OrtNDManager) OrtNDManager.getSystemManager().newSubManager()) {
+            NDArray array =
+                    OrtSymbolBlock.fromValues(
+                            manager, Arrays.asList(1L, -2L, 3L), OnnxJavaType.INT64);
+            Assert.assertEquals(array.getDataType(), DataType.INT64);
+            Assert.assertEquals(array.toLongArray(), new long[] {1, -2, 3});
+
+            array =
+                    OrtSymbolBlock.fromValues(
+                            manager, Arrays.asList(0.5, 1.5), OnnxJavaType.DOUBLE);
+            Assert.assertEquals(array.toDoubleArray(), new double[] {0.5, 1.5});
+
+            Map<Object, Object> row1 = new HashMap<>();
+            row1.put("b", 1f);
+            row1.put("a", 2f);
+            Map<Object, Object> row2 = new HashMap<>();
+            row2.put("a", 3f);
+            row2.put("b", 4f);
+            array = OrtSymbolBlock.fromMaps(manager, Arrays.asList(row1, row2), OnnxJavaType.FLOAT);
+            Assert.assertEquals(array.getShape(), new Shape(2, 2));
+            Assert.assertEquals(array.toFloatArray(), new float[] {2f, 1f, 3f, 4f});
+
+            // every map must have the same keys
+            Map<Object, Object> larger = new HashMap<>(row2);
+            larger.put("c", 5f);
+            Assert.assertThrows(
+                    EngineException.class,
+                    () ->
+                            OrtSymbolBlock.fromMaps(
+                                    manager, Arrays.asList(row1, larger), OnnxJavaType.FLOAT));
+            Map<Object, Object> other = new HashMap<>();
+            other.put("a", 3f);
+            other.put("c", 4f);
+            Assert.assertThrows(
+                    EngineException.class,
+                    () ->
+                            OrtSymbolBlock.fromMaps(
+                                    manager, Arrays.asList(row1, other), OnnxJavaType.FLOAT));
+        }
+    }
 }
@@ -96,6 +96,7 @@ public class PtModel extends BaseModel {
             for (int i = 0; i < extraFileKeys.length; i++) {
                 properties.put(extraFileKeys[i], extraFileValues[i]);
             }
+            setInferenceOnly(options);
         } else {
             Path paramFile = paramPathResolver(prefix, options);
             if (paramFile == null) {
@@ -117,6 +118,7 @@ public class PtModel extends BaseModel {
             mapLocation = Boolean.parseBoolean((String) options.get("mapLocation"));
         }
         load(modelStream, mapLocation);
+        setInferenceOnly(options);
     }
 
     /**
@@ -132,6 +134,15 @@ public class PtModel extends BaseModel {
         block = JniUtils.loadModule((PtNDManager) manager, modelStream, mapLocation, false);
     }
 
+    private void setInferenceOnly(Map<String, ?> options) {
+        if (options != null && Boolean.parseBoolean((String) options.get("inferenceOnly"))) {
+            Object freeze = options.get("freeze");
+            ((PtSymbolBlock) block)
+                    .enableInferenceOnlyMode(
+                            freeze == null || Boolean.parseBoolean((String) freeze));
+        }
+    }
+
     private Path findModelFile(String prefix) {
         if (Files.isRegularFile(modelDir)) {
             Path file = modelDir;
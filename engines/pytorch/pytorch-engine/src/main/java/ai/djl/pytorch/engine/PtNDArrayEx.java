@@ -346,6 +346,60 @@ public class PtNDArrayEx implements NDArrayEx {
         JniUtils.zeroGrad(manager.from(weights.singletonOrThrow()));
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void multiAdamUpdate(
+            NDList weights,
+            NDList grads,
+            NDList means,
+            NDList variances,
+            float[] learningRates,
+            float weightDecay,
+            float rescaleGrad,
+            float clipGrad,
+            float beta1,
+            float beta2,
+            float epsilon) {
+        PtNDManager manager = array.getManager();
+        JniUtils.multiAdamUpdate(
+                weights.stream().map(manager::from).toArray(PtNDArray[]::new),
+                grads.stream().map(manager::from).toArray(PtNDArray[]::new),
+                means.stream().map(manager::from).toArray(PtNDArray[]::new),
+                variances.stream().map(manager::from).toArray(PtNDArray[]::new),
+                learningRates,
+                weightDecay,
+                rescaleGrad,
+                clipGrad,
+                beta1,
+                beta2,
+                epsilon);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void multiSgdUpdate(
+            NDList weights,
+            NDList grads,
+            NDList states,
+            float[] learningRates,
+            float weightDecay,
+            float rescaleGrad,
+            float clipGrad,
+            float momentum) {
+        PtNDManager manager = array.getManager();
+        JniUtils.multiSgdUpdate(
+                weights.stream().map(manager::from).toArray(PtNDArray[]::new),
+                grads.stream().map(manager::from).toArray(PtNDArray[]::new),
+                states == null
+                        ? null
+                        : states.stream().map(manager::from).toArray(PtNDArray[]::new),
+                learningRates,
+                weightDecay,
+                rescaleGrad,
+                clipGrad,
+                momentum);
+    }
+
     /** {@inheritDoc} */
     @Override
     public NDList convolution(
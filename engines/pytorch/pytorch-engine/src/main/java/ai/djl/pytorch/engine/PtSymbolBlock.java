@@ -35,6 +35,7 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -52,9 +53,10 @@ public class PtSymbolBlock extends AbstractSymbolBlock implements AutoCloseable
     private String uid;
     private PtNDManager manager;
     private boolean isTrain;
-    private PairList<String, Shape> inputDescriptions;
-    private PairList<String, Shape> outputDescriptions;
-    private boolean first;
+    private volatile boolean inferenceOnly;
+    private volatile PairList<String, Shape> inputDescriptions;
+    private volatile PairList<String, Shape> outputDescriptions;
+    private AtomicBoolean first;
     private Map<String, Parameter> parameters;
 
     /**
@@ -82,7 +84,7 @@ public class PtSymbolBlock extends AbstractSymbolBlock implements AutoCloseable
         this.manager = manager;
         // training mode is on by default
         isTrain = true;
-        first = true;
+        first = new AtomicBoolean(true);
     }
 
     /** {@inheritDoc} */
@@ -106,6 +108,37 @@ public class PtSymbolBlock extends AbstractSymbolBlock implements AutoCloseable
         return IValueUtils.forward(this, inputs);
     }
 
+    /**
+     * Fixes this block in inference mode, so that many predictors can run it concurrently.
+     *
+     * <p>The module is switched to evaluation mode once, and forward always runs without gradient
+     * tracking and never changes the mode of the module again. Forward in training mode is no
+     * longer allowed. Freezing inlines the parameters and attributes of the module as constants,
+     * which lets TorchScript optimize the graph further, but the parameters are no longer
+     * accessible.
+     *
+     * @param freeze whether to freeze the module
+     */
+    public void enableInferenceOnlyMode(boolean freeze) {
+        JniUtils.enableInferenceMode(this);
+        if (freeze) {
+            JniUtils.freezeModule(this);
+            parameters = null;
+        }
+        isTrain = false;
+        inferenceOnly = true;
+    }
+
+    /**
+     * Returns whether this block is fixed in inference mode.
+     *
+     * @return whether this block is fixed in inference mode
+     * @see #enableInferenceOnlyMode(boolean)
+     */
+    public boolean isInferenceOnly() {
+        return inferenceOnly;
+    }
+
     /** {@inheritDoc} */
     @Override
     protected NDList forwardInternal(
@@ -114,7 +147,11 @@ public class PtSymbolBlock extends AbstractSymbolBlock implements AutoCloseable
             boolean training,
             PairList<String, Object> params) {
         // TODO refactor the forward to not take ParameterStore
-        if (isTrain != training) {
+        if (inferenceOnly) {
+            if (training) {
+                throw new IllegalStateException("The block is in inference only mode.");
+            }
+        } else if (isTrain != training) {
             isTrain = training;
             if (isTrain) {
                 JniUtils.enableTrainingMode(this);
@@ -122,22 +159,22 @@ public class PtSymbolBlock extends AbstractSymbolBlock implements AutoCloseable
                 JniUtils.enableInferenceMode(this);
             }
         }
-        if (first) {
-            synchronized (PtSymbolBlock.class) {
-                if (first) {
-                    inputDescriptions = new PairList<>();
-                    outputDescriptions = new PairList<>();
-                    for (NDArray array : inputs) {
-                        inputDescriptions.add(array.getName(), array.getShape());
-                    }
-                    NDList outputs = IValueUtils.forward(this, inputs, training);
-                    for (NDArray array : outputs) {
-                        outputDescriptions.add(array.getName(), array.getShape());
-                    }
-                    first = false;
-                    return outputs;
+        if (first.get()) {
+            NDList outputs = IValueUtils.forward(this, inputs, training);
+            // only one of the concurrent first calls records the descriptions
+            if (first.compareAndSet(true, false)) {
+                PairList<String, Shape> inputDesc = new PairList<>();
+                for (NDArray array : inputs) {
+                    inputDesc.add(array.getName(), array.getShape());
+                }
+                PairList<String, Shape> outputDesc = new PairList<>();
+                for (NDArray array : outputs) {
+                    outputDesc.add(array.getName(), array.getShape());
                 }
+                inputDescriptions = inputDesc;
+                outputDescriptions = outputDesc;
             }
+            return outputs;
         }
         return IValueUtils.forward(this, inputs, training);
     }
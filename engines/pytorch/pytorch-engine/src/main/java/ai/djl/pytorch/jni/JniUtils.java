@@ -1525,6 +1525,10 @@ public final class JniUtils {
         PyTorchLibrary.LIB.moduleTrain(block.getHandle());
     }
 
+    public static void freezeModule(PtSymbolBlock block) {
+        PyTorchLibrary.LIB.moduleFreeze(block.getHandle());
+    }
+
     public static void zeroGrad(PtNDArray weight) {
         PyTorchLibrary.LIB.zeroGrad(weight.getHandle());
     }
@@ -1575,6 +1579,54 @@ public final class JniUtils {
                 momentum);
     }
 
+    public static void multiAdamUpdate(
+            PtNDArray[] weights,
+            PtNDArray[] grads,
+            PtNDArray[] means,
+            PtNDArray[] variances,
+            float[] lrs,
+            float wd,
+            float rescaleGrad,
+            float clipGrad,
+            float beta1,
+            float beta2,
+            float eps) {
+        PyTorchLibrary.LIB.multiAdamUpdate(
+                Arrays.stream(weights).mapToLong(PtNDArray::getHandle).toArray(),
+                Arrays.stream(grads).mapToLong(PtNDArray::getHandle).toArray(),
+                Arrays.stream(means).mapToLong(PtNDArray::getHandle).toArray(),
+                Arrays.stream(variances).mapToLong(PtNDArray::getHandle).toArray(),
+                lrs,
+                wd,
+                rescaleGrad,
+                clipGrad,
+                beta1,
+                beta2,
+                eps);
+    }
+
+    public static void multiSgdUpdate(
+            PtNDArray[] weights,
+            PtNDArray[] grads,
+            PtNDArray[] states,
+            float[] lrs,
+            float wd,
+            float rescaleGrad,
+            float clipGrad,
+            float momentum) {
+        PyTorchLibrary.LIB.multiSgdUpdate(
+                Arrays.stream(weights).mapToLong(PtNDArray::getHandle).toArray(),
+                Arrays.stream(grads).mapToLong(PtNDArray::getHandle).toArray(),
+                (states == null)
+                        ? null
+                        : Arrays.stream(states).mapToLong(PtNDArray::getHandle).toArray(),
+                lrs,
+                wd,
+                rescaleGrad,
+                clipGrad,
+                momentum);
+    }
+
     // Internal use only
     public static int getLayout(PtNDArray array) {
         return PyTorchLibrary.LIB.torchLayout(array.getHandle());
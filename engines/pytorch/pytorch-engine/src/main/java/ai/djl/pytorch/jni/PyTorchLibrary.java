@@ -490,6 +490,8 @@ final class PyTorchLibrary {
 
     native void moduleTrain(long handle);
 
+    native void moduleFreeze(long handle);
+
     native long moduleForward(long moduleHandle, long[] iValueHandles, boolean isTrain);
 
     native void setGraphExecutorOptimize(boolean enabled);
@@ -599,6 +601,29 @@ final class PyTorchLibrary {
             float clipGrad,
             float momentum);
 
+    native void multiAdamUpdate(
+            long[] weights,
+            long[] grads,
+            long[] means,
+            long[] variances,
+            float[] lrs,
+            float wd,
+            float rescaleGrad,
+            float clipGrad,
+            float beta1,
+            float beta2,
+            float eps);
+
+    native void multiSgdUpdate(
+            long[] weights,
+            long[] grads,
+            long[] states,
+            float[] lrs,
+            float wd,
+            float rescaleGrad,
+            float clipGrad,
+            float momentum);
+
     native long torchNorm(long handle, int ord, long[] axis, boolean keepDims);
 
     native long torchNonZeros(long handle);
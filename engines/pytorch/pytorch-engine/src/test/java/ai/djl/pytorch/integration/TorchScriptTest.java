@@ -24,6 +24,7 @@ import ai.djl.pytorch.engine.PtSymbolBlock;
 import ai.djl.pytorch.jni.JniUtils;
 import ai.djl.repository.zoo.Criteria;
 import ai.djl.repository.zoo.ZooModel;
+import ai.djl.training.ParameterStore;
 import ai.djl.training.util.ProgressBar;
 import ai.djl.translate.TranslateException;
 
@@ -36,6 +37,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /** The file is for integration test for special TorchScript input. */
 public class TorchScriptTest {
@@ -96,4 +101,45 @@ public class TorchScriptTest {
             }
         }
     }
+
+    @Test
+    public void testInferenceOnly() throws IOException, ModelException, TranslateException {
+        Criteria<NDList, NDList> criteria =
+                Criteria.builder()
+                        .setTypes(NDList.class, NDList.class)
+                        .optModelUrls("djl://ai.djl.pytorch/resnet/0.0.1/traced_resnet18")
+                        .optOption("inferenceOnly", "true")
+                        .optProgress(new ProgressBar())
+                        .build();
+        try (ZooModel<NDList, NDList> model = criteria.loadModel()) {
+            PtSymbolBlock block = (PtSymbolBlock) model.getBlock();
+            Assert.assertTrue(block.isInferenceOnly());
+
+            NDManager manager = model.getNDManager();
+            NDList input = new NDList(manager.ones(new Shape(1, 3, 224, 224)));
+            List<Predictor<NDList, NDList>> predictors = new ArrayList<>();
+            List<CompletableFuture<NDList>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; ++i) {
+                Predictor<NDList, NDList> predictor = model.newPredictor();
+                predictors.add(predictor);
+                futures.add(
+                        CompletableFuture.supplyAsync(
+                                () -> {
+                                    try {
+                                        return predictor.predict(input);
+                                    } catch (TranslateException e) {
+                                        throw new CompletionException(e);
+                                    }
+                                }));
+            }
+            for (CompletableFuture<NDList> future : futures) {
+                Assert.assertEquals(future.join().head().getShape(), new Shape(1, 1000));
+            }
+            predictors.forEach(Predictor::close);
+            Assert.assertEquals(block.describeOutput().get(0).getValue(), new Shape(1, 1000));
+
+            ParameterStore ps = new ParameterStore(manager, false);
+            Assert.assertThrows(IllegalStateException.class, () -> block.forward(ps, input, true));
+        }
+    }
 }
@@ -11,6 +11,8 @@
  * and limitations under the License.
  */
 
+#include <algorithm>
+
 #include "ai_djl_pytorch_jni_PyTorchLibrary.h"
 #include "djl_pytorch_jni_exception.h"
 #include "djl_pytorch_utils.h"
@@ -71,6 +73,111 @@ JNIEXPORT void JNICALL Java_ai_djl_pytorch_jni_PyTorchLibrary_sgdUpdate(JNIEnv*
   API_END()
 }
 
+// returns the tensors behind the handles, sharing their storage
+static std::vector<torch::Tensor> GetTensors(const std::vector<int64_t>& handles) {
+  std::vector<torch::Tensor> tensors;
+  tensors.reserve(handles.size());
+  for (auto handle : handles) {
+    tensors.push_back(*reinterpret_cast<torch::Tensor*>(handle));
+  }
+  return tensors;
+}
+
+static std::vector<float> GetLearningRates(JNIEnv* env, jfloatArray jlearning_rates) {
+  std::vector<float> learning_rates(env->GetArrayLength(jlearning_rates));
+  env->GetFloatArrayRegion(jlearning_rates, 0, static_cast<jsize>(learning_rates.size()), learning_rates.data());
+  return learning_rates;
+}
+
+// rescaled_grad = clip(rescale_grad * grad, clip_gradient)) + wd * weight, without changing the input grads
+static std::vector<torch::Tensor> RescaleGrads(const std::vector<torch::Tensor>& weights,
+    const std::vector<torch::Tensor>& grads, float weight_decay, float rescale_grad, float clip_grad) {
+  auto rescaled = at::_foreach_mul(grads, rescale_grad);
+  if (clip_grad >= 0.0) {
+    // there is no multi-tensor clamp in this PyTorch version
+    for (auto& grad : rescaled) {
+      grad.clamp_max_(clip_grad);
+    }
+  }
+  at::_foreach_add_(rescaled, weights, weight_decay);
+  return rescaled;
+}
+
+static bool IsUniform(const std::vector<float>& learning_rates) {
+  return std::all_of(
+      learning_rates.begin(), learning_rates.end(), [&](float lr) { return lr == learning_rates.front(); });
+}
+
+static void ZeroGrads(const std::vector<torch::Tensor>& weights) {
+  std::vector<torch::Tensor> grads;
+  grads.reserve(weights.size());
+  for (const auto& weight : weights) {
+    if (weight.grad().defined()) {
+      grads.push_back(weight.grad());
+    }
+  }
+  if (!grads.empty()) {
+    at::_foreach_zero_(grads);
+  }
+}
+
+JNIEXPORT void JNICALL Java_ai_djl_pytorch_jni_PyTorchLibrary_multiAdamUpdate(JNIEnv* env, jobject jthis,
+    jlongArray jweights, jlongArray jgrads, jlongArray jmeans, jlongArray jvariances, jfloatArray jlearning_rates,
+    jfloat weight_decay, jfloat rescale_grad, jfloat clip_grad, jfloat beta1, jfloat beta2, jfloat eps) {
+  API_BEGIN()
+  torch::autograd::AutoGradMode no_autograd_guard{false};
+  const auto weights = GetTensors(djl::utils::jni::GetVecFromJLongArray(env, jweights));
+  const auto grads = GetTensors(djl::utils::jni::GetVecFromJLongArray(env, jgrads));
+  const auto means = GetTensors(djl::utils::jni::GetVecFromJLongArray(env, jmeans));
+  const auto variances = GetTensors(djl::utils::jni::GetVecFromJLongArray(env, jvariances));
+  const auto learning_rates = GetLearningRates(env, jlearning_rates);
+  const auto rescaled = RescaleGrads(weights, grads, weight_decay, rescale_grad, clip_grad);
+  at::_foreach_mul_(means, beta1);
+  at::_foreach_add_(means, rescaled, 1 - beta1);
+  at::_foreach_mul_(variances, beta2);
+  at::_foreach_addcmul_(variances, rescaled, rescaled, 1 - beta2);
+  auto denominators = at::_foreach_sqrt(variances);
+  at::_foreach_add_(denominators, eps);
+  if (IsUniform(learning_rates)) {
+    at::_foreach_addcdiv_(weights, means, denominators, -learning_rates[0]);
+  } else {
+    // parameters updated a different number of times have different bias corrections
+    for (size_t i = 0; i < weights.size(); ++i) {
+      weights[i].addcdiv_(means[i], denominators[i], -learning_rates[i]);
+    }
+  }
+  ZeroGrads(weights);
+  API_END()
+}
+
+JNIEXPORT void JNICALL Java_ai_djl_pytorch_jni_PyTorchLibrary_multiSgdUpdate(JNIEnv* env, jobject jthis,
+    jlongArray jweights, jlongArray jgrads, jlongArray jstates, jfloatArray jlearning_rates, jfloat weight_decay,
+    jfloat rescale_grad, jfloat clip_grad, jfloat momentum) {
+  API_BEGIN()
+  torch::autograd::AutoGradMode no_autograd_guard{false};
+  const auto weights = GetTensors(djl::utils::jni::GetVecFromJLongArray(env, jweights));
+  const auto grads = GetTensors(djl::utils::jni::GetVecFromJLongArray(env, jgrads));
+  const auto learning_rates = GetLearningRates(env, jlearning_rates);
+  auto rescaled = RescaleGrads(weights, grads, weight_decay, rescale_grad, clip_grad);
+  if (IsUniform(learning_rates)) {
+    at::_foreach_mul_(rescaled, learning_rates[0]);
+  } else {
+    for (size_t i = 0; i < rescaled.size(); ++i) {
+      rescaled[i].mul_(learning_rates[i]);
+    }
+  }
+  if (momentum == 0.0) {
+    at::_foreach_add_(weights, rescaled, -1);
+  } else {
+    const auto states = GetTensors(djl::utils::jni::GetVecFromJLongArray(env, jstates));
+    at::_foreach_mul_(states, momentum);
+    at::_foreach_add_(states, rescaled);
+    at::_foreach_add_(weights, states, -1);
+  }
+  ZeroGrads(weights);
+  API_END()
+}
+
 JNIEXPORT void JNICALL Java_ai_djl_pytorch_jni_PyTorchLibrary_zeroGrad(JNIEnv* env, jobject jthis, jlong jhandle) {
   API_BEGIN()
   torch::NoGradGuard NoGradGuard;
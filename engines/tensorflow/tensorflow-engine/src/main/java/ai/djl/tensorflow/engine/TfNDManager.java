@@ -28,7 +28,6 @@ import org.tensorflow.internal.c_api.TF_Tensor;
 
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 
 @SuppressWarnings("PMD.UseTryWithResources")
@@ -44,12 +43,6 @@ public class TfNDManager extends BaseNDManager {
         return SYSTEM_MANAGER;
     }
 
-    /** {@inheritDoc} */
-    @Override
-    public ByteBuffer allocateDirect(int capacity) {
-        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
-    }
-
     /** {@inheritDoc} */
     @Override
     public TfNDArray from(NDArray array) {
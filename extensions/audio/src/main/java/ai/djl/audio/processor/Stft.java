@@ -0,0 +1,192 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.audio.processor;
+
+import org.jtransforms.fft.FloatFFT_1D;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * {@code Stft} computes short-time Fourier transforms of audio signals with a Hann window.
+ *
+ * <p>Instances are cached per window and stride size, so the window and the FFT plans are only
+ * computed once. The signal is split into frames in a single contiguous buffer, and long signals
+ * are transformed in parallel on the common fork-join pool.
+ */
+public final class Stft {
+
+    private static final Map<Long, Stft> CACHE = new ConcurrentHashMap<>();
+    private static final int FRAMES_PER_TASK = 32;
+
+    private int windowSize;
+    private int strideSize;
+    private float[] window;
+    private ThreadLocal<FloatFFT_1D> fft;
+
+    private Stft(int windowSize, int strideSize) {
+        this.windowSize = windowSize;
+        this.strideSize = strideSize;
+        window = new float[windowSize];
+        for (int i = 1; i < windowSize; i++) {
+            window[i] = (float) (0.5 * (1 - Math.cos((2 * Math.PI * i) / (windowSize - 1))));
+        }
+        fft = ThreadLocal.withInitial(() -> new FloatFFT_1D(windowSize));
+    }
+
+    /**
+     * Returns the {@code Stft} for the given window and stride size.
+     *
+     * @param windowSize the number of samples in a frame
+     * @param strideSize the number of samples between the start of two frames
+     * @return the {@code Stft} for the given window and stride size
+     */
+    public static Stft getInstance(int windowSize, int strideSize) {
+        if (windowSize <= 1 || strideSize <= 0) {
+            throw new IllegalArgumentException(
+                    "Invalid window size " + windowSize + " or stride size " + strideSize);
+        }
+        long key = ((long) windowSize << 32) | strideSize;
+        return CACHE.computeIfAbsent(key, k -> new Stft(windowSize, strideSize));
+    }
+
+    /**
+     * Returns the number of samples in a frame.
+     *
+     * @return the number of samples in a frame
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Returns the number of samples between the start of two frames.
+     *
+     * @return the number of samples between the start of two frames
+     */
+    public int getStrideSize() {
+        return strideSize;
+    }
+
+    /**
+     * Returns the sum of the squares of the window weights.
+     *
+     * @return the sum of the squares of the window weights
+     */
+    public float getWindowPower() {
+        float sum = 0;
+        for (float w : window) {
+            sum += w * w;
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the number of frequency bins of a frame.
+     *
+     * @return the number of frequency bins of a frame
+     */
+    public int getNumBins() {
+        return windowSize / 2 + 1;
+    }
+
+    /**
+     * Returns the number of frames of a signal, trailing samples that do not fill a frame are
+     * dropped.
+     *
+     * @param numSamples the number of samples of the signal
+     * @return the number of frames of the signal
+     */
+    public int getNumFrames(int numSamples) {
+        if (numSamples < windowSize) {
+            return 0;
+        }
+        return (numSamples - windowSize) / strideSize + 1;
+    }
+
+    /**
+     * Computes the scaled log power spectrogram of a signal.
+     *
+     * <p>The result is a {@code [bins, frames]} matrix in row major order, where bin {@code k} of
+     * frame {@code t} is {@code log(|X_t(k)|^2 * scales[k] + eps)}. Only the first {@code
+     * scales.length} bins are computed.
+     *
+     * @param samples the signal
+     * @param scales the scale of each bin
+     * @param eps the value added before taking the logarithm
+     * @return the log power spectrogram
+     */
+    public float[] logPowerSpectrogram(float[] samples, float[] scales, float eps) {
+        int frames = getNumFrames(samples.length);
+        if (frames == 0) {
+            throw new IllegalArgumentException(
+                    "The signal is shorter than the window: " + samples.length);
+        }
+        if (scales.length > getNumBins()) {
+            throw new IllegalArgumentException("Too many bins: " + scales.length);
+        }
+        float[] buffer = new float[frames * windowSize];
+        float[] out = new float[scales.length * frames];
+        int tasks = (frames + FRAMES_PER_TASK - 1) / FRAMES_PER_TASK;
+        IntStream stream = IntStream.range(0, tasks);
+        if (tasks > 1) {
+            stream = stream.parallel();
+        }
+        stream.forEach(
+                task -> {
+                    int end = Math.min(frames, (task + 1) * FRAMES_PER_TASK);
+                    for (int t = task * FRAMES_PER_TASK; t < end; ++t) {
+                        transform(samples, t, buffer, out, frames, scales, eps);
+                    }
+                });
+        return out;
+    }
+
+    private void transform(
+            float[] samples,
+            int frame,
+            float[] buffer,
+            float[] out,
+            int frames,
+            float[] scales,
+            float eps) {
+        int offset = frame * windowSize;
+        int start = frame * strideSize;
+        for (int i = 0; i < windowSize; ++i) {
+            buffer[offset + i] = samples[start + i] * window[i];
+        }
+        fft.get().realForward(buffer, offset);
+
+        // realForward packs Re[0], then Re[n/2] for even n or Im[n/2] for odd n, then (Re, Im)
+        // pairs, with Re[n/2] last for odd n
+        boolean even = windowSize % 2 == 0;
+        int last = windowSize / 2;
+        for (int k = 0; k < scales.length; ++k) {
+            float re;
+            float im;
+            if (k == 0) {
+                re = buffer[offset];
+                im = 0;
+            } else if (k == last) {
+                re = even ? buffer[offset + 1] : buffer[offset + windowSize - 1];
+                im = even ? 0 : buffer[offset + 1];
+            } else {
+                re = buffer[offset + 2 * k];
+                im = buffer[offset + 2 * k + 1];
+            }
+            float power = re * re + im * im;
+            out[k * frames + frame] = (float) Math.log(power * scales[k] + eps);
+        }
+    }
+}
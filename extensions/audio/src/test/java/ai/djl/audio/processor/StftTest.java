@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.audio.processor;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+public class StftTest {
+
+    @Test
+    public void testLogPowerSpectrogram() {
+        Random random = new Random(1);
+        for (int windowSize : new int[] {16, 15}) {
+            Stft stft = Stft.getInstance(windowSize, 4);
+            Assert.assertSame(Stft.getInstance(windowSize, 4), stft);
+
+            float[] samples = new float[windowSize * 10 + 3];
+            for (int i = 0; i < samples.length; ++i) {
+                samples[i] = (float) random.nextGaussian();
+            }
+            int bins = stft.getNumBins();
+            int frames = stft.getNumFrames(samples.length);
+            Assert.assertEquals(frames, (samples.length - windowSize) / 4 + 1);
+
+            float[] scales = new float[bins];
+            for (int k = 0; k < bins; ++k) {
+                scales[k] = k + 1;
+            }
+            float[] spectrogram = stft.logPowerSpectrogram(samples, scales, 1e-14f);
+            Assert.assertEquals(spectrogram.length, bins * frames);
+
+            // compare with a direct DFT of the Hann windowed frames
+            for (int t = 0; t < frames; ++t) {
+                for (int k = 0; k < bins; ++k) {
+                    double re = 0;
+                    double im = 0;
+                    for (int i = 0; i < windowSize; ++i) {
+                        double w = 0.5 * (1 - Math.cos(2 * Math.PI * i / (windowSize - 1)));
+                        double v = samples[t * 4 + i] * w;
+                        double angle = 2 * Math.PI * k * i / windowSize;
+                        re += v * Math.cos(angle);
+                        im -= v * Math.sin(angle);
+                    }
+                    double expected = Math.log((re * re + im * im) * scales[k] + 1e-14);
+                    Assert.assertEquals(spectrogram[k * frames + t], expected, 1e-4);
+                }
+            }
+        }
+    }
+}
@@ -51,6 +51,9 @@ public class Arguments {
     private int maxGpus;
     private int neuronCores;
     private int delay;
+    private double rate;
+    private boolean poisson;
+    private double slo;
     private PairList<DataType, Shape> inputShapes;
 
     /**
@@ -127,6 +130,29 @@ public class Arguments {
         if (cmd.hasOption("delay")) {
             delay = Integer.parseInt(cmd.getOptionValue("delay"));
         }
+        if (cmd.hasOption("rate")) {
+            rate = Double.parseDouble(cmd.getOptionValue("rate"));
+            if (rate <= 0) {
+                throw new IllegalArgumentException("rate must be positive: " + rate);
+            }
+        }
+        if (cmd.hasOption("arrival")) {
+            String arrival = cmd.getOptionValue("arrival");
+            if ("poisson".equalsIgnoreCase(arrival)) {
+                poisson = true;
+            } else if (!"constant".equalsIgnoreCase(arrival)) {
+                throw new IllegalArgumentException("Invalid arrival: " + arrival);
+            }
+        }
+        if (cmd.hasOption("slo")) {
+            if (rate <= 0) {
+                throw new IllegalArgumentException("slo requires an open-loop --rate");
+            }
+            slo = Double.parseDouble(cmd.getOptionValue("slo"));
+            if (slo <= 0) {
+                throw new IllegalArgumentException("slo must be positive: " + slo);
+            }
+        }
 
         String shape = cmd.getOptionValue("input-shapes");
         inputShapes = NDListGenerator.parseShape(shape);
@@ -235,6 +261,29 @@ public class Arguments {
                         .argName("DELAY")
                         .desc("Delay of incremental threads.")
                         .build());
+        options.addOption(
+                Option.builder()
+                        .longOpt("rate")
+                        .hasArg()
+                        .argName("REQUESTS-PER-SECOND")
+                        .desc("Send requests at a fixed rate (open-loop) instead of back to back.")
+                        .build());
+        options.addOption(
+                Option.builder()
+                        .longOpt("arrival")
+                        .hasArg()
+                        .argName("ARRIVAL")
+                        .desc("Arrival process of the open-loop requests: constant or poisson.")
+                        .build());
+        options.addOption(
+                Option.builder()
+                        .longOpt("slo")
+                        .hasArg()
+                        .argName("P99-MILLISECONDS")
+                        .desc(
+                                "Search for the highest rate with a P99 latency within the SLO,"
+                                        + " starting from --rate.")
+                        .build());
         options.addOption(
                 Option.builder("o")
                         .longOpt("output-dir")
@@ -334,6 +383,18 @@ public class Arguments {
         return delay;
     }
 
+    double getRate() {
+        return rate;
+    }
+
+    boolean isPoisson() {
+        return poisson;
+    }
+
+    double getSlo() {
+        return slo;
+    }
+
     PairList<DataType, Shape> getInputShapes() {
         return inputShapes;
     }
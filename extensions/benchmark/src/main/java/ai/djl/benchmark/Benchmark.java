@@ -47,9 +47,13 @@ public final class Benchmark extends AbstractBenchmark {
             if (!list.isEmpty() && "ndlist-gen".equals(list.get(0))) {
                 success = NDListGenerator.generate(Arrays.copyOfRange(args, 1, args.length));
             } else {
-                boolean multithreading = list.contains("-t") || list.contains("--threads");
+                boolean openLoop = list.contains("--rate");
+                boolean multithreading =
+                        openLoop || list.contains("-t") || list.contains("--threads");
                 configEngines(multithreading);
-                if (multithreading) {
+                if (openLoop) {
+                    success = new OpenLoopBenchmark().runBenchmark(args);
+                } else if (multithreading) {
                     success = new MultithreadedBenchmark().runBenchmark(args);
                 } else {
                     success = new Benchmark().runBenchmark(args);
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.benchmark;
+
+import ai.djl.Device;
+import ai.djl.ModelException;
+import ai.djl.engine.Engine;
+import ai.djl.inference.Predictor;
+import ai.djl.metric.Metric;
+import ai.djl.metric.Metrics;
+import ai.djl.metric.Unit;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.training.listener.MemoryTrainingListener;
+import ai.djl.translate.TranslateException;
+import ai.djl.util.JsonUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A class runs open-loop benchmark.
+ *
+ * <p>Requests are sent at a target rate, with constant or Poisson inter-arrival times, regardless
+ * of whether earlier requests have completed. Latency is measured from the time a request was
+ * scheduled, so time spent waiting for a free predictor is included. If an SLO is given, the rate
+ * is searched for the highest throughput whose P99 latency stays within the SLO.
+ */
+public class OpenLoopBenchmark extends MultithreadedBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenLoopBenchmark.class);
+
+    private static final int MAX_SEARCH_STEPS = 20;
+    private static final double SEARCH_PRECISION = 0.05;
+
+    /** {@inheritDoc} */
+    @Override
+    public float[] predict(Arguments arguments, Metrics metrics, int iteration)
+            throws IOException, ModelException, TranslateException {
+
+        MemoryTrainingListener.collectMemoryInfo(metrics); // Measure memory before loading model
+
+        Engine engine = Engine.getEngine(arguments.getEngine());
+        Device[] devices = engine.getDevices(arguments.getMaxGpus());
+        int numOfThreads = arguments.getThreads();
+        if (numOfThreads <= 0) {
+            numOfThreads = Runtime.getRuntime().availableProcessors();
+        }
+        int neuronCores = arguments.getNeuronCores();
+        if (neuronCores > 0) {
+            devices = new Device[neuronCores];
+            Arrays.fill(devices, Device.cpu());
+            numOfThreads = 2 * neuronCores;
+        }
+        logger.info("Open-loop inference with {} threads.", numOfThreads);
+
+        List<ZooModel<Void, float[]>> models = new ArrayList<>(devices.length);
+        BlockingQueue<Predictor<Void, float[]>> predictors = new LinkedBlockingQueue<>();
+        ExecutorService executorService = Executors.newFixedThreadPool(numOfThreads);
+        try {
+            for (Device device : devices) {
+                ZooModel<Void, float[]> model = loadModel(arguments, metrics, device);
+                models.add(model);
+                for (int i = 0; i < numOfThreads / devices.length; ++i) {
+                    Predictor<Void, float[]> predictor = model.newPredictor();
+                    predictor.predict(null); // warmup
+                    predictors.add(predictor);
+                }
+            }
+            MemoryTrainingListener.collectMemoryInfo(metrics); // Measure memory before kickoff
+
+            List<RunResult> results = new ArrayList<>();
+            RunResult best = null;
+            double rate = arguments.getRate();
+            double slo = arguments.getSlo();
+            if (slo <= 0) {
+                best = run(executorService, predictors, rate, arguments, iteration, slo);
+                results.add(best);
+            } else {
+                double lower = 0;
+                double upper = 0;
+                for (int i = 0; i < MAX_SEARCH_STEPS; ++i) {
+                    RunResult result =
+                            run(executorService, predictors, rate, arguments, iteration, slo);
+                    results.add(result);
+                    if (result.sloMet) {
+                        lower = rate;
+                        if (best == null || result.throughput > best.throughput) {
+                            best = result;
+                        }
+                    } else {
+                        upper = rate;
+                    }
+                    if (upper > 0 && (upper - lower) / upper < SEARCH_PRECISION) {
+                        break;
+                    }
+                    // double the rate until the SLO is violated, then bisect
+                    rate = upper == 0 ? rate * 2 : (lower + upper) / 2;
+                }
+                if (best == null) {
+                    logger.warn("No rate meets the P99 SLO of {} ms.", slo);
+                    best = results.get(results.size() - 1);
+                } else {
+                    logger.info(
+                            String.format(
+                                    "Max throughput within P99 SLO of %.3f ms: %.2f at rate %.2f",
+                                    slo, best.throughput, best.rate));
+                }
+            }
+            writeReport(Paths.get(arguments.getOutputDir()), results);
+
+            // report the selected run through the regular benchmark summary
+            for (String name : best.metrics.getMetricNames()) {
+                for (Metric metric : best.metrics.getMetric(name)) {
+                    metrics.addMetric(metric);
+                }
+            }
+            return best.result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("", e);
+            return null;
+        } finally {
+            executorService.shutdown();
+            for (Predictor<Void, float[]> predictor : predictors) {
+                predictor.close();
+            }
+            models.forEach(ZooModel::close);
+        }
+    }
+
+    private RunResult run(
+            ExecutorService executorService,
+            BlockingQueue<Predictor<Void, float[]>> predictors,
+            double rate,
+            Arguments arguments,
+            int iteration,
+            double slo)
+            throws InterruptedException, TranslateException {
+        Metrics metrics = new Metrics();
+        for (Predictor<Void, float[]> predictor : predictors) {
+            predictor.setMetrics(metrics);
+        }
+        CountDownLatch latch = new CountDownLatch(iteration);
+        AtomicReference<float[]> lastResult = new AtomicReference<>();
+        AtomicReference<TranslateException> error = new AtomicReference<>();
+        AtomicInteger failures = new AtomicInteger();
+        Random random = new Random();
+        double interval = 1_000_000_000d / rate;
+
+        metrics.addMetric("start", System.currentTimeMillis(), Unit.MILLISECONDS);
+        long begin = System.nanoTime();
+        double offset = 0;
+        for (int i = 0; i < iteration; ++i) {
+            long scheduled = begin + (long) offset;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            executorService.execute(
+                    () -> {
+                        long start = System.nanoTime();
+                        Predictor<Void, float[]> predictor = null;
+                        try {
+                            predictor = predictors.take();
+                            lastResult.set(predictor.predict(null));
+                        } catch (TranslateException e) {
+                            failures.incrementAndGet();
+                            error.compareAndSet(null, e);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            failures.incrementAndGet();
+                        } finally {
+                            if (predictor != null) {
+                                predictors.add(predictor);
+                            }
+                        }
+                        long end = System.nanoTime();
+                        metrics.addMetric("Latency", (end - scheduled) / 1000, Unit.MICROSECONDS);
+                        metrics.addMetric(
+                                "QueueDelay", (start - scheduled) / 1000, Unit.MICROSECONDS);
+                        latch.countDown();
+                    });
+            if (arguments.isPoisson()) {
+                offset += -Math.log(1 - random.nextDouble()) * interval;
+            } else {
+                offset += interval;
+            }
+        }
+        latch.await();
+        long end = System.nanoTime();
+        metrics.addMetric("end", System.currentTimeMillis(), Unit.MILLISECONDS);
+        if (error.get() != null) {
+            throw error.get();
+        }
+
+        RunResult result = new RunResult();
+        result.rate = rate;
+        result.requests = iteration;
+        result.failures = failures.get();
+        result.throughput = iteration * 1_000_000_000d / (end - begin);
+        result.p50 = metrics.percentile("Latency", 50).getValue() / 1000;
+        result.p90 = metrics.percentile("Latency", 90).getValue() / 1000;
+        result.p99 = metrics.percentile("Latency", 99).getValue() / 1000;
+        result.max =
+                metrics.getMetric("Latency").stream().mapToDouble(Metric::getValue).max().orElse(0)
+                        / 1000;
+        result.queueP99 = metrics.percentile("QueueDelay", 99).getValue() / 1000;
+        result.sloMet = slo <= 0 || result.p99 <= slo;
+        result.metrics = metrics;
+        result.result = lastResult.get();
+        logger.info(
+                String.format(
+                        "rate: %.2f, throughput: %.2f, latency P50: %.3f ms, P90: %.3f ms, P99:"
+                                + " %.3f ms, queue P99: %.3f ms",
+                        result.rate,
+                        result.throughput,
+                        result.p50,
+                        result.p90,
+                        result.p99,
+                        result.queueP99));
+        return result;
+    }
+
+    private static void writeReport(Path dir, List<RunResult> results) throws IOException {
+        Files.createDirectories(dir);
+        Path csv = dir.resolve("open_loop.csv");
+        try (Writer writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write("rate,throughput,requests,failures,p50,p90,p99,max,queue_p99,slo_met\n");
+            for (RunResult r : results) {
+                writer.write(
+                        String.format(
+                                Locale.ROOT,
+                                "%.2f,%.2f,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%b%n",
+                                r.rate,
+                                r.throughput,
+                                r.requests,
+                                r.failures,
+                                r.p50,
+                                r.p90,
+                                r.p99,
+                                r.max,
+                                r.queueP99,
+                                r.sloMet));
+            }
+        }
+        Path json = dir.resolve("open_loop.json");
+        try (Writer writer = Files.newBufferedWriter(json, StandardCharsets.UTF_8)) {
+            JsonUtils.GSON_PRETTY.toJson(results, writer);
+        }
+        logger.info("Open-loop results saved to: {}, {}", csv, json);
+    }
+
+    /** The result of a run at a fixed rate, latencies are in milliseconds. */
+    private static final class RunResult {
+
+        double rate;
+        double throughput;
+        int requests;
+        int failures;
+        double p50;
+        double p90;
+        double p99;
+        double max;
+        double queueP99;
+        boolean sloMet;
+        transient Metrics metrics;
+        transient float[] result;
+    }
+}
@@ -120,4 +120,64 @@ public class BenchmarkTest {
             System.clearProperty("collect-memory");
         }
     }
+
+    @Test
+    public void testOpenLoopArguments() throws ParseException {
+        Options options = Arguments.getOptions();
+        DefaultParser parser = new DefaultParser();
+
+        String[] args = {
+            "-p",
+            "/opt/ml/resnet18_v1",
+            "-s",
+            "(1)",
+            "--rate",
+            "50",
+            "--arrival",
+            "poisson",
+            "--slo",
+            "20"
+        };
+        CommandLine cmd = parser.parse(options, args, null, false);
+        Arguments arguments = new Arguments(cmd);
+        Assert.assertEquals(arguments.getRate(), 50d);
+        Assert.assertTrue(arguments.isPoisson());
+        Assert.assertEquals(arguments.getSlo(), 20d);
+
+        Assert.assertThrows(
+                IllegalArgumentException.class,
+                () -> {
+                    String[] arg = {"-p", "/opt/ml/resnet18_v1", "-s", "(1)", "--arrival", "x"};
+                    new Arguments(parser.parse(options, arg, null, false));
+                });
+
+        // the SLO search only runs in open-loop mode
+        Assert.assertThrows(
+                IllegalArgumentException.class,
+                () -> {
+                    String[] arg = {"-p", "/opt/ml/resnet18_v1", "-s", "(1)", "--slo", "20"};
+                    new Arguments(parser.parse(options, arg, null, false));
+                });
+    }
+
+    @Test
+    public void testOpenLoopBenchmark() {
+        String[] args = {
+            "-e",
+            "PyTorch",
+            "-u",
+            "djl://ai.djl.pytorch/resnet/0.0.1/traced_resnet18",
+            "-s",
+            "(1,3,224,224)f",
+            "-c",
+            "20",
+            "-t",
+            "2",
+            "--rate",
+            "20",
+            "--slo",
+            "1000"
+        };
+        Benchmark.main(args);
+    }
 }
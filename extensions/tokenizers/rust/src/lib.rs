@@ -17,9 +17,9 @@ extern crate tokenizers as tk;
 use std::str::FromStr;
 use tk::tokenizer::{EncodeInput, Encoding};
 use tk::Tokenizer;
-use tk::{FromPretrainedParameters, Offsets};
+use tk::{FromPretrainedParameters, Offsets, PostProcessor, TruncationDirection};
 
-use jni::objects::{JClass, JMethodID, JObject, JString, JValue};
+use jni::objects::{JByteBuffer, JClass, JMethodID, JObject, JString, JValue};
 use jni::sys::{
     jboolean, jint, jlong, jlongArray, jobjectArray, jsize, JNI_TRUE,
 };
@@ -172,6 +172,106 @@ pub extern "system" fn Java_ai_djl_huggingface_tokenizers_jni_TokenizersLibrary_
     ret
 }
 
+#[no_mangle]
+pub extern "system" fn Java_ai_djl_huggingface_tokenizers_jni_TokenizersLibrary_batchEncodePadded(
+    env: JNIEnv,
+    _: JObject,
+    handle: jlong,
+    inputs: jobjectArray,
+    add_special_tokens: jboolean,
+    max_length: jint,
+    pad_to_max_length: jboolean,
+    ids: JObject,
+    type_ids: JObject,
+    attention_mask: JObject,
+    word_ids: JObject,
+    special_token_mask: JObject,
+) -> jint {
+    let tokenizer = cast_handle::<Tokenizer>(handle);
+    let len = env.get_array_length(inputs).unwrap();
+    let mut array: Vec<String> = Vec::new();
+    for i in 0..len {
+        let item = env.get_object_array_element(inputs, i).unwrap().into();
+        let value: String = env
+            .get_string(item)
+            .expect("Couldn't get java string!")
+            .into();
+        array.push(value);
+    }
+
+    let add_special_tokens = add_special_tokens == JNI_TRUE;
+    let max_length = max_length as usize;
+    let (pad_id, pad_type_id) = tokenizer
+        .get_padding()
+        .map_or((0, 0), |p| (p.pad_id as jlong, p.pad_type_id as jlong));
+
+    // the padding and truncation of tokenizer.json would run before the special tokens are
+    // added, so encode with a copy without them, and truncate and pad once below
+    let unpadded;
+    let tokenizer = if tokenizer.get_padding().is_some() || tokenizer.get_truncation().is_some() {
+        let mut copy = tokenizer.clone();
+        copy.with_padding(None).with_truncation(None);
+        unpadded = copy;
+        &unpadded
+    } else {
+        &*tokenizer
+    };
+    let encodings = match tokenizer.encode_batch(array, false) {
+        Ok(output) => output,
+        Err(err) => {
+            env.throw(err.to_string()).unwrap();
+            return 0;
+        }
+    };
+
+    // truncate before adding special tokens, so that they are kept
+    let added = if add_special_tokens {
+        tokenizer.get_post_processor().map_or(0, |p| p.added_tokens(false))
+    } else {
+        0
+    };
+    let mut processed: Vec<Encoding> = Vec::with_capacity(encodings.len());
+    for mut encoding in encodings {
+        if encoding.len() + added > max_length {
+            encoding.truncate(max_length.saturating_sub(added), 0, TruncationDirection::Right);
+        }
+        match tokenizer.post_process(encoding, None, add_special_tokens) {
+            Ok(output) => processed.push(output),
+            Err(err) => {
+                env.throw(err.to_string()).unwrap();
+                return 0;
+            }
+        }
+    }
+
+    let seq_len = if pad_to_max_length == JNI_TRUE {
+        max_length
+    } else {
+        processed
+            .iter()
+            .map(|e| e.len())
+            .max()
+            .unwrap_or(0)
+            .min(max_length)
+    };
+    let ok = write_rows(&env, ids, &processed, seq_len, pad_id, |e, i| {
+        e.get_ids()[i] as jlong
+    }) && write_rows(&env, type_ids, &processed, seq_len, pad_type_id, |e, i| {
+        e.get_type_ids()[i] as jlong
+    }) && write_rows(&env, attention_mask, &processed, seq_len, 0, |e, i| {
+        e.get_attention_mask()[i] as jlong
+    }) && write_rows(&env, word_ids, &processed, seq_len, -1, |e, i| {
+        e.get_word_ids()[i].map_or(-1, |w| w as jlong)
+    }) && write_rows(&env, special_token_mask, &processed, seq_len, 1, |e, i| {
+        e.get_special_tokens_mask()[i] as jlong
+    });
+    if !ok {
+        env.throw("Invalid direct buffer").unwrap();
+        return 0;
+    }
+    seq_len as jint
+}
+
 #[no_mangle]
 pub extern "system" fn Java_ai_djl_huggingface_tokenizers_jni_TokenizersLibrary_deleteEncoding(
     _env: JNIEnv,
@@ -344,6 +444,42 @@ pub extern "system" fn Java_ai_djl_huggingface_tokenizers_jni_TokenizersLibrary_
     array
 }
 
+fn write_rows<F>(
+    env: &JNIEnv,
+    buffer: JObject,
+    encodings: &[Encoding],
+    seq_len: usize,
+    pad: jlong,
+    value: F,
+) -> bool
+where
+    F: Fn(&Encoding, usize) -> jlong,
+{
+    if buffer.is_null() {
+        return true;
+    }
+    let bytes = match env.get_direct_buffer_address(JByteBuffer::from(buffer)) {
+        Ok(output) => output,
+        Err(_) => return false,
+    };
+    let size = encodings.len() * seq_len;
+    if bytes.len() < size * std::mem::size_of::<jlong>() {
+        return false;
+    }
+    let out = unsafe { std::slice::from_raw_parts_mut(bytes.as_mut_ptr() as *mut jlong, size) };
+    for (row, encoding) in encodings.iter().enumerate() {
+        let dst = &mut out[row * seq_len..(row + 1) * seq_len];
+        let len = encoding.len().min(seq_len);
+        for (i, v) in dst[..len].iter_mut().enumerate() {
+            *v = value(encoding, i);
+        }
+        for v in dst[len..].iter_mut() {
+            *v = pad;
+        }
+    }
+    true
+}
+
 fn to_handle<T: 'static>(val: T) -> jlong {
     let handle = Box::into_raw(Box::new(val)) as jlong;
     handle
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.huggingface.tokenizers;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * A class holds the padded token encoding information of a batch.
+ *
+ * <p>Each field is a {@code [batch, sequenceLength]} matrix of int64 values, stored row major in a
+ * direct {@link ByteBuffer} in native order. The buffers are filled by the native tokenizer in a
+ * single call, and can be passed to {@link NDManager#create(java.nio.Buffer, Shape, DataType)}
+ * without conversion.
+ */
+public class BatchEncoding {
+
+    private int batchSize;
+    private int sequenceLength;
+    private ByteBuffer ids;
+    private ByteBuffer typeIds;
+    private ByteBuffer attentionMask;
+    private ByteBuffer wordIds;
+    private ByteBuffer specialTokenMask;
+
+    BatchEncoding(
+            int batchSize,
+            int sequenceLength,
+            ByteBuffer ids,
+            ByteBuffer typeIds,
+            ByteBuffer attentionMask,
+            ByteBuffer wordIds,
+            ByteBuffer specialTokenMask) {
+        this.batchSize = batchSize;
+        this.sequenceLength = sequenceLength;
+        this.ids = ids;
+        this.typeIds = typeIds;
+        this.attentionMask = attentionMask;
+        this.wordIds = wordIds;
+        this.specialTokenMask = specialTokenMask;
+    }
+
+    /**
+     * Returns the number of sequences in the batch.
+     *
+     * @return the number of sequences in the batch
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Returns the padded length of the sequences.
+     *
+     * @return the padded length of the sequences
+     */
+    public int getSequenceLength() {
+        return sequenceLength;
+    }
+
+    /**
+     * Returns the shape of each field, {@code (batchSize, sequenceLength)}.
+     *
+     * @return the shape of each field
+     */
+    public Shape getShape() {
+        return new Shape(batchSize, sequenceLength);
+    }
+
+    /**
+     * Returns the padded token ids.
+     *
+     * @return the padded token ids
+     */
+    public ByteBuffer getIds() {
+        return ids.duplicate().order(ids.order());
+    }
+
+    /**
+     * Returns the token ids of a sequence, including its padding.
+     *
+     * @param index the index of the sequence in the batch
+     * @return the token ids of the sequence
+     */
+    public long[] getIds(int index) {
+        long[] row = new long[sequenceLength];
+        LongBuffer lb = ids.asLongBuffer();
+        lb.position(index * sequenceLength);
+        lb.get(row);
+        return row;
+    }
+
+    /**
+     * Returns the padded token type ids.
+     *
+     * @return the padded token type ids
+     */
+    public ByteBuffer getTypeIds() {
+        return typeIds.duplicate().order(typeIds.order());
+    }
+
+    /**
+     * Returns the padded attention masks.
+     *
+     * @return the padded attention masks
+     */
+    public ByteBuffer getAttentionMask() {
+        return attentionMask.duplicate().order(attentionMask.order());
+    }
+
+    /**
+     * Returns the padded word ids, -1 for special tokens and padding.
+     *
+     * @return the padded word ids, or {@code null} if they were not requested
+     */
+    public ByteBuffer getWordIds() {
+        return wordIds == null ? null : wordIds.duplicate().order(wordIds.order());
+    }
+
+    /**
+     * Returns the padded special token masks, 1 for special tokens and padding.
+     *
+     * @return the padded special token masks, or {@code null} if they were not requested
+     */
+    public ByteBuffer getSpecialTokenMask() {
+        return specialTokenMask == null
+                ? null
+                : specialTokenMask.duplicate().order(specialTokenMask.order());
+    }
+
+    /**
+     * Returns the token ids, token type ids and attention masks as {@link NDArray}s.
+     *
+     * @param manager the {@link NDManager} to create the {@link NDArray}s
+     * @param withTokenType whether to include the token type ids
+     * @return the {@link NDList} of token ids, attention masks and optionally token type ids
+     */
+    public NDList toNDList(NDManager manager, boolean withTokenType) {
+        Shape shape = getShape();
+        NDList list = new NDList(3);
+        list.add(manager.create(getIds(), shape, DataType.INT64));
+        list.add(manager.create(getAttentionMask(), shape, DataType.INT64));
+        if (withTokenType) {
+            list.add(manager.create(getTypeIds(), shape, DataType.INT64));
+        }
+        return list;
+    }
+}
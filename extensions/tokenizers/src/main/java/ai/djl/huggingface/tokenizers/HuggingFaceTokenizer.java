@@ -21,6 +21,8 @@ import ai.djl.util.Utils;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
@@ -195,6 +197,89 @@ public final class HuggingFaceTokenizer extends NativeResource<Long> implements
         return ret;
     }
 
+    /**
+     * Returns the padded token ids, token type ids and attention masks of the input sentences in
+     * batch.
+     *
+     * <p>Sequences longer than {@code maxLength} are truncated, and all sequences are padded to the
+     * length of the longest one.
+     *
+     * @param inputs the batch of input sentences
+     * @param maxLength the maximum length of a sequence, including special tokens
+     * @return the {@code BatchEncoding} of the input sentences
+     * @see #batchEncodePadded(String[], int, boolean, boolean, boolean)
+     */
+    public BatchEncoding batchEncodePadded(String[] inputs, int maxLength) {
+        return batchEncodePadded(inputs, maxLength, false, false, false);
+    }
+
+    /**
+     * Returns the padded token encoding information of the input sentences in batch.
+     *
+     * <p>The whole batch is encoded, truncated and padded with a single native call that writes the
+     * results into direct buffers, without creating per token objects. Padding uses the padding id
+     * of the tokenizer if it has one, 0 otherwise. The padding and truncation lengths configured in
+     * the tokenizer are ignored in favor of {@code maxLength} and {@code padToMaxLength}. Word ids
+     * and special token masks are only computed if requested.
+     *
+     * @param inputs the batch of input sentences
+     * @param maxLength the maximum length of a sequence, including special tokens
+     * @param padToMaxLength whether to pad all sequences to {@code maxLength} instead of to the
+     *     longest sequence in the batch
+     * @param withWordIds whether to return the word ids
+     * @param withSpecialTokenMask whether to return the special token masks
+     * @return the {@code BatchEncoding} of the input sentences
+     */
+    public BatchEncoding batchEncodePadded(
+            String[] inputs,
+            int maxLength,
+            boolean padToMaxLength,
+            boolean withWordIds,
+            boolean withSpecialTokenMask) {
+        if (maxLength <= 0) {
+            throw new IllegalArgumentException("maxLength must be positive: " + maxLength);
+        }
+        int capacity = Math.multiplyExact(Math.multiplyExact(inputs.length, maxLength), 8);
+        ByteBuffer ids = allocate(capacity);
+        ByteBuffer typeIds = allocate(capacity);
+        ByteBuffer attentionMask = allocate(capacity);
+        ByteBuffer wordIds = withWordIds ? allocate(capacity) : null;
+        ByteBuffer specialTokenMask = withSpecialTokenMask ? allocate(capacity) : null;
+        int sequenceLength =
+                TokenizersLibrary.LIB.batchEncodePadded(
+                        getHandle(),
+                        inputs,
+                        addSpecialTokens,
+                        maxLength,
+                        padToMaxLength,
+                        ids,
+                        typeIds,
+                        attentionMask,
+                        wordIds,
+                        specialTokenMask);
+        int limit = inputs.length * sequenceLength * 8;
+        return new BatchEncoding(
+                inputs.length,
+                sequenceLength,
+                slice(ids, limit),
+                slice(typeIds, limit),
+                slice(attentionMask, limit),
+                slice(wordIds, limit),
+                slice(specialTokenMask, limit));
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+
+    private static ByteBuffer slice(ByteBuffer bb, int limit) {
+        if (bb == null) {
+            return null;
+        }
+        bb.limit(limit);
+        return bb.slice().order(ByteOrder.nativeOrder());
+    }
+
     private Encoding toEncoding(long encoding) {
         long[] ids = TokenizersLibrary.LIB.getTokenIds(encoding);
         long[] typeIds = TokenizersLibrary.LIB.getTypeIds(encoding);
@@ -12,6 +12,8 @@
  */
 package ai.djl.huggingface.tokenizers.jni;
 
+import java.nio.ByteBuffer;
+
 /** A class containing utilities to interact with the Tokenizer JNI layer. */
 @SuppressWarnings("MissingJavadocMethod")
 public final class TokenizersLibrary {
@@ -32,6 +34,18 @@ public final class TokenizersLibrary {
 
     public native long[] batchEncode(long tokenizer, String[] inputs, boolean addSpecialTokens);
 
+    public native int batchEncodePadded(
+            long tokenizer,
+            String[] inputs,
+            boolean addSpecialTokens,
+            int maxLength,
+            boolean padToMaxLength,
+            ByteBuffer ids,
+            ByteBuffer typeIds,
+            ByteBuffer attentionMask,
+            ByteBuffer wordIds,
+            ByteBuffer specialTokenMask);
+
     public native void deleteEncoding(long encoding);
 
     public native long[] getTokenIds(long encoding);
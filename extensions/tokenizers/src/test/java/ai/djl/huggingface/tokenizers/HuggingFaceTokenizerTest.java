@@ -14,11 +14,13 @@
 package ai.djl.huggingface.tokenizers;
 
 import ai.djl.huggingface.tokenizers.jni.CharSpan;
+import ai.djl.ndarray.types.Shape;
 import ai.djl.testing.TestRequirements;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.nio.LongBuffer;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -97,4 +99,33 @@ public class HuggingFaceTokenizerTest {
             Assert.assertEquals(encoding.getTokens(), exp);
         }
     }
+
+    @Test
+    public void testBatchEncodePadded() {
+        TestRequirements.notArm();
+
+        String[] inputs = {"Hello, y'all!", "How are you 😁 ?"};
+        try (HuggingFaceTokenizer tokenizer = HuggingFaceTokenizer.newInstance("bert-base-cased")) {
+            Encoding[] encodings = tokenizer.batchEncode(inputs);
+            BatchEncoding batch = tokenizer.batchEncodePadded(inputs, 512);
+            Assert.assertEquals(batch.getBatchSize(), 2);
+            Assert.assertEquals(batch.getSequenceLength(), 8);
+            Assert.assertNull(batch.getWordIds());
+
+            long[] padded = Arrays.copyOf(encodings[1].getIds(), 8);
+            Assert.assertEquals(batch.getIds(1), padded);
+            LongBuffer mask = batch.getAttentionMask().asLongBuffer();
+            Assert.assertEquals(mask.get(6), 1);
+            Assert.assertEquals(mask.get(8 + 7), 0);
+
+            // truncation keeps the special tokens
+            batch = tokenizer.batchEncodePadded(inputs, 4, true, true, true);
+            Assert.assertEquals(batch.getSequenceLength(), 4);
+            Assert.assertEquals(batch.getIds(0), new long[] {101, 8667, 117, 102});
+            Assert.assertEquals(batch.getWordIds().asLongBuffer().get(3), -1);
+            Assert.assertEquals(batch.getSpecialTokenMask().asLongBuffer().get(3), 1);
+
+            Assert.assertEquals(batch.getShape(), new Shape(2, 4));
+        }
+    }
 }
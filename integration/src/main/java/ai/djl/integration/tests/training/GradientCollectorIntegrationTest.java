@@ -36,6 +36,7 @@ import ai.djl.training.dataset.ArrayDataset;
 import ai.djl.training.dataset.Batch;
 import ai.djl.training.initializer.Initializer;
 import ai.djl.training.listener.EvaluatorTrainingListener;
+import ai.djl.training.listener.GradientStatisticsTrainingListener;
 import ai.djl.training.loss.Loss;
 import ai.djl.training.optimizer.Optimizer;
 import ai.djl.training.tracker.Tracker;
@@ -142,6 +143,69 @@ public class GradientCollectorIntegrationTest {
         }
     }
 
+    @Test
+    public void testGradientStatistics() {
+        try (Model model = Model.newInstance("model")) {
+            model.setBlock(Linear.builder().setUnits(1).build());
+            GradientStatisticsTrainingListener listener =
+                    new GradientStatisticsTrainingListener(1, 1f);
+            TrainingConfig config =
+                    new DefaultTrainingConfig(Loss.l2Loss())
+                            .addTrainingListeners(listener)
+                            .optInitializer(Initializer.ONES, Parameter.Type.WEIGHT);
+
+            try (Trainer trainer = model.newTrainer(config)) {
+                trainer.initialize(new Shape(4, 2));
+                NDManager manager = trainer.getManager();
+                NDArray data = manager.arange(8f).reshape(4, 2);
+                NDArray labels = manager.zeros(new Shape(4, 1));
+                Batch batch =
+                        new Batch(
+                                manager,
+                                new NDList(data),
+                                new NDList(labels),
+                                1,
+                                Batchifier.STACK,
+                                Batchifier.STACK,
+                                0,
+                                1);
+                EasyTrain.trainBatch(trainer, batch);
+
+                // the gradients are clipped to a global norm of 1
+                try (NDList grads = trainer.getGradients(trainer.getDevices()[0])) {
+                    float norm = 0;
+                    for (NDArray grad : grads) {
+                        norm += grad.square().sum().getFloat();
+                    }
+                    Assert.assertEquals(norm, 1f, 1e-3f);
+                }
+            }
+            // statistics are collected before clipping
+            Assert.assertEquals(listener.getNorms().size(), 2);
+            Assert.assertTrue(listener.getGlobalNorm() > 1f);
+            Assert.assertEquals(listener.getNonFiniteCount(), 0);
+
+            // closing the first trainer ended training, the listener is reusable for another fit
+            try (Trainer trainer = model.newTrainer(config)) {
+                trainer.initialize(new Shape(4, 2));
+                NDManager manager = trainer.getManager();
+                Batch batch =
+                        new Batch(
+                                manager,
+                                new NDList(manager.ones(new Shape(4, 2))),
+                                new NDList(manager.zeros(new Shape(4, 1))),
+                                1,
+                                Batchifier.STACK,
+                                Batchifier.STACK,
+                                0,
+                                1);
+                EasyTrain.trainBatch(trainer, batch);
+            }
+            Assert.assertEquals(listener.getNorms().size(), 2);
+            Assert.assertEquals(listener.getNonFiniteCount(), 0);
+        }
+    }
+
     @Test
     public void testTrain() throws IOException, TranslateException {
         TestRequirements.nightly();
@@ -16,17 +16,21 @@ import ai.djl.MalformedModelException;
 import ai.djl.Model;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
+import ai.djl.nn.Parameter;
 import ai.djl.nn.ParameterList;
 import ai.djl.nn.SequentialBlock;
 import ai.djl.nn.convolutional.Conv2d;
 import ai.djl.nn.norm.BatchNorm;
 import ai.djl.testing.Assertions;
+import ai.djl.util.Pair;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
 
 public class ModelTest {
 
@@ -50,6 +54,31 @@ public class ModelTest {
         }
     }
 
+    @Test
+    public void testModelLazyLoad() throws IOException, MalformedModelException {
+        SequentialBlock block = new SequentialBlock();
+        block.add(Conv2d.builder().setKernelShape(new Shape(1, 1)).setFilters(10).build());
+        block.add(BatchNorm.builder().build());
+        try (Model saveModel = Model.newInstance("saveModel");
+                Model loadModel = Model.newInstance("loadModel")) {
+            block.initialize(saveModel.getNDManager(), DataType.FLOAT32, new Shape(1, 3, 32, 32));
+            ParameterList savedParameters = block.getParameters();
+            saveModel.setBlock(block);
+            saveModel.setProperty("MappedParameters", "true");
+            saveModel.save(Paths.get("build/tmp/test/models"), "lazyLoad");
+            block.clear();
+
+            loadModel.setBlock(block);
+            Map<String, String> options = Collections.singletonMap("lazyLoad", "true");
+            loadModel.load(Paths.get("build/tmp/test/models"), "lazyLoad", options);
+            ParameterList loadedParameters = loadModel.getBlock().getParameters();
+            for (Pair<String, Parameter> pair : loadedParameters) {
+                Assert.assertTrue(pair.getValue().isInitialized());
+            }
+            compareParameters(savedParameters, loadedParameters);
+        }
+    }
+
     private void compareParameters(ParameterList savedParameters, ParameterList loadedParameters) {
         Assert.assertEquals(savedParameters.size(), loadedParameters.size());
         for (int i = 0; i < savedParameters.size(); i++) {
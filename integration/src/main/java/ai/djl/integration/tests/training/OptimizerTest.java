@@ -26,6 +26,9 @@ import ai.djl.nn.core.Linear;
 import ai.djl.testing.Assertions;
 import ai.djl.training.DefaultTrainingConfig;
 import ai.djl.training.EasyTrain;
+import ai.djl.training.GradientCollector;
+import ai.djl.training.LocalParameterServer;
+import ai.djl.training.ParameterServer;
 import ai.djl.training.Trainer;
 import ai.djl.training.TrainingConfig;
 import ai.djl.training.dataset.Batch;
@@ -37,6 +40,8 @@ import ai.djl.translate.Batchifier;
 
 import org.testng.annotations.Test;
 
+import java.util.function.Supplier;
+
 public class OptimizerTest {
 
     private static final int BATCH_SIZE = 10;
@@ -70,6 +75,50 @@ public class OptimizerTest {
         }
     }
 
+    @Test
+    public void testBucketedUpdate() {
+        Optimizer sgd = Optimizer.sgd().setLearningRateTracker(Tracker.fixed(0.1f)).build();
+        try (NDManager manager = NDManager.newBaseManager();
+                ParameterServer ps = new LocalParameterServer(sgd)) {
+            // two parameters, each mirrored twice
+            NDArray[][] params = new NDArray[2][2];
+            for (int i = 0; i < params.length; ++i) {
+                for (int j = 0; j < params[i].length; ++j) {
+                    params[i][j] = manager.ones(new Shape(2, i + 1));
+                    params[i][j].setRequiresGradient(true);
+                }
+            }
+            try (GradientCollector gc = Engine.getInstance().newGradientCollector()) {
+                NDList losses = new NDList();
+                for (NDArray[] param : params) {
+                    for (int j = 0; j < param.length; ++j) {
+                        losses.add(param[j].mul(j + 1).sum());
+                    }
+                }
+                gc.backward(NDArrays.add(losses.toArray(new NDArray[0])));
+            }
+            ps.update(new String[] {"a", "b"}, params);
+            // the gradients of the mirrors (1 and 2) are summed
+            for (NDArray[] param : params) {
+                for (NDArray array : param) {
+                    Assertions.assertAlmostEquals(array, array.onesLike().mul(0.7f));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMultiTensorUpdate() {
+        assertMultiTensorUpdate(
+                () -> Optimizer.adam().optLearningRateTracker(Tracker.fixed(0.1f)).build());
+        assertMultiTensorUpdate(
+                () ->
+                        Optimizer.sgd()
+                                .setLearningRateTracker(Tracker.fixed(0.1f))
+                                .optMomentum(0.9f)
+                                .build());
+    }
+
     @Test
     public void testSgdWithMomentum() {
         Optimizer optim =
@@ -298,6 +347,49 @@ public class OptimizerTest {
         }
     }
 
+    private static void assertMultiTensorUpdate(Supplier<Optimizer> factory) {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            Optimizer[] optimizers = {factory.get(), factory.get()};
+            String[] ids = {"a", "b", "c"};
+            NDArray[][] weights = new NDArray[2][];
+            for (int i = 0; i < weights.length; ++i) {
+                weights[i] =
+                        new NDArray[] {
+                            manager.arange(6f).reshape(2, 3),
+                            manager.arange(4f).reshape(4, 1),
+                            manager.arange(3f)
+                        };
+            }
+            // the buckets change between steps, the states and update counts are per parameter
+            int[][][] buckets = {{{0, 1, 2}}, {{0}, {2, 1}}, {{1, 2}}, {{2, 0, 1}}};
+            for (int step = 0; step < buckets.length; ++step) {
+                NDArray[] grads = {
+                    manager.ones(new Shape(2, 3)).mul(step + 1),
+                    manager.ones(new Shape(4, 1)),
+                    manager.ones(new Shape(3)).mul(-step)
+                };
+                for (int[] bucket : buckets[step]) {
+                    String[] bucketIds = new String[bucket.length];
+                    NDArray[] bucketWeights = new NDArray[bucket.length];
+                    NDArray[] bucketGrads = new NDArray[bucket.length];
+                    for (int i = 0; i < bucket.length; ++i) {
+                        bucketIds[i] = ids[bucket[i]];
+                        bucketWeights[i] = weights[0][bucket[i]];
+                        bucketGrads[i] = grads[bucket[i]];
+                    }
+                    // bucketed update, fused if the engine supports it
+                    optimizers[0].update(bucketIds, bucketWeights, bucketGrads);
+                    for (int i : bucket) {
+                        optimizers[1].update(ids[i], weights[1][i], grads[i]);
+                    }
+                }
+            }
+            for (int i = 0; i < ids.length; ++i) {
+                Assertions.assertAlmostEquals(weights[0][i], weights[1][i]);
+            }
+        }
+    }
+
     private NDArray runOptimizer(NDManager manager, Trainer trainer, Block block, int batchSize) {
         NDArray data = manager.ones(new Shape(batchSize, CHANNELS)).mul(2);
         NDArray label = data.mul(2);
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.integration.tests.translate;
+
+import ai.djl.Model;
+import ai.djl.inference.Predictor;
+import ai.djl.metric.Metric;
+import ai.djl.metric.Metrics;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.nn.Blocks;
+import ai.djl.translate.BucketBatchifier;
+import ai.djl.translate.NoopTranslator;
+import ai.djl.translate.TranslateException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class BucketBatchifierTest {
+
+    @Test
+    public void testBatchify() {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            BucketBatchifier batchifier =
+                    BucketBatchifier.builder()
+                            .setPad(0, 0, m -> m.zeros(new Shape(1)))
+                            .optBuckets(4, 8)
+                            .build();
+            NDList[] input = new NDList[4];
+            long[] lengths = {3, 6, 1, 10};
+            for (int i = 0; i < input.length; i++) {
+                input[i] = new NDList(manager.ones(new Shape(lengths[i])));
+            }
+
+            List<int[]> groups = batchifier.group(input);
+            Assert.assertEquals(groups.size(), 3);
+            Assert.assertEquals(groups.get(0), new int[] {0, 2});
+            Assert.assertEquals(groups.get(1), new int[] {1});
+            Assert.assertEquals(groups.get(2), new int[] {3});
+
+            NDList[] bucket = {input[0], input[2]};
+            Assert.assertEquals(batchifier.batchify(bucket).head().getShape(), new Shape(2, 4));
+            bucket = new NDList[] {input[1]};
+            Assert.assertEquals(batchifier.batchify(bucket).head().getShape(), new Shape(1, 8));
+            bucket = new NDList[] {input[3]};
+            Assert.assertEquals(batchifier.batchify(bucket).head().getShape(), new Shape(1, 10));
+            Assert.assertEquals(batchifier.getPaddedLength(5), 8);
+            Assert.assertEquals(batchifier.getPaddedLength(10), 10);
+        }
+    }
+
+    @Test
+    public void testBatchPredict() throws TranslateException {
+        try (Model model = Model.newInstance("identity")) {
+            model.setBlock(Blocks.identityBlock());
+            BucketBatchifier batchifier =
+                    BucketBatchifier.builder()
+                            .setPad(0, 0, m -> m.zeros(new Shape(1)))
+                            .optBuckets(4, 8)
+                            .build();
+            NDManager manager = model.getNDManager();
+            List<NDList> inputs =
+                    Arrays.asList(
+                            new NDList(manager.ones(new Shape(6))),
+                            new NDList(manager.ones(new Shape(2))),
+                            new NDList(manager.ones(new Shape(3))));
+            try (Predictor<NDList, NDList> predictor =
+                    model.newPredictor(new NoopTranslator(batchifier))) {
+                Metrics metrics = new Metrics();
+                predictor.setMetrics(metrics);
+                List<NDList> outputs = predictor.batchPredict(inputs);
+                // outputs are in input order, padded to their bucket
+                Assert.assertEquals(outputs.get(0).head().getShape(), new Shape(8));
+                Assert.assertEquals(outputs.get(1).head().getShape(), new Shape(4));
+                Assert.assertEquals(outputs.get(2).head().getShape(), new Shape(4));
+                Assert.assertEquals(metrics.getMetric("BucketBatchSize").size(), 2);
+
+                // stages are reported once per call, summed over the buckets
+                double stages = 0;
+                for (String name : new String[] {"Preprocess", "Inference", "Postprocess"}) {
+                    List<Metric> stage = metrics.getMetric(name);
+                    Assert.assertEquals(stage.size(), 1, name);
+                    stages += stage.get(0).getValue();
+                }
+                List<Metric> total = metrics.getMetric("Total");
+                Assert.assertEquals(total.size(), 1);
+                Assert.assertTrue(total.get(0).getValue() >= stages);
+            }
+        }
+    }
+}
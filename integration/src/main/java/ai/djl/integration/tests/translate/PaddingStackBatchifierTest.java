@@ -51,6 +51,25 @@ public class PaddingStackBatchifierTest {
         }
     }
 
+    @Test
+    public void testBatchifyWithPaddingValue() {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            NDList[] input = new NDList[3];
+            for (int i = 0; i < 3; i++) {
+                input[i] = new NDList(manager.arange(1f, i + 2f).reshape(1, i + 1));
+            }
+            Batchifier batchifier =
+                    PaddingStackBatchifier.builder()
+                            .addPad(0, 1, (mngr) -> mngr.create(-1f).reshape(1))
+                            .build();
+            NDList actual = batchifier.batchify(input);
+
+            Assert.assertEquals(actual.size(), 1);
+            float[] expected = {1, -1, -1, 1, 2, -1, 1, 2, 3};
+            Assert.assertEquals(actual.head(), manager.create(expected, new Shape(3, 1, 3)));
+        }
+    }
+
     @Test
     public void testBatchifyWithValidLength() {
         try (NDManager manager = NDManager.newBaseManager()) {